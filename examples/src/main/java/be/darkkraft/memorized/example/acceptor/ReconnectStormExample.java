@@ -0,0 +1,105 @@
+package be.darkkraft.memorized.example.acceptor;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Simulates a reconnect storm: many threads open connections at once, first on a server accepting every connection
+ * on a single thread, then on a server whose workers accept their own connections with {@code SO_REUSEPORT}.
+ * Measures the time until every connection has a session, then checks that a client works normally.
+ */
+public class ReconnectStormExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReconnectStormExample.class);
+
+    private static final int CONNECTING_THREADS = 8;
+    private static final int CONNECTIONS = 2_000;
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> results = new ArrayList<>();
+        results.add(run(new InetSocketAddress("127.0.0.1", 12345), false));
+        results.add(run(new InetSocketAddress("127.0.0.1", 12346), true));
+        results.forEach(LOGGER::info);
+    }
+
+    private static String run(final InetSocketAddress address, final boolean reusePort) throws Exception {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(4)
+                .reusePort(reusePort)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("counter", new ServerIntCounter());
+
+        final List<SocketChannel> connections = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch connected = new CountDownLatch(CONNECTING_THREADS);
+        for (int i = 0; i < CONNECTING_THREADS; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < CONNECTIONS / CONNECTING_THREADS; j++) {
+                        connections.add(SocketChannel.open(address));
+                    }
+                } catch (final Exception exception) {
+                    LOGGER.error("Cannot open a connection", exception);
+                }
+                connected.countDown();
+            }).start();
+        }
+
+        final long begin = System.nanoTime();
+        start.countDown();
+        connected.await();
+        while (server.getSessions().size() < CONNECTIONS) {
+            Thread.sleep(1L);
+        }
+        final long elapsed = System.nanoTime() - begin;
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        final int value = new StringIntCounter(client, "counter").blockingIncrementAndGet();
+        client.shutdown();
+
+        for (final SocketChannel connection : connections) {
+            try {
+                connection.close();
+            } catch (final IOException ignored) {
+                // The connection is discarded anyway
+            }
+        }
+        server.shutdown();
+        return String.format("reusePort=%s: %d sessions in %dms, counter=%d",
+                reusePort, CONNECTIONS, elapsed / 1_000_000L, value);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package be.darkkraft.memorized.example.allocation;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.example.distributed.ClientCommonBalance;
+import be.darkkraft.memorized.example.distributed.CommonBalance;
+import be.darkkraft.memorized.example.distributed.ServerCommonBalance;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.Authenticator;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+
+/**
+ * Measures the bytes allocated by the server worker thread for each counter increment
+ * and for each read of a custom container replying through {@link be.darkkraft.memorized.net.session.Session#response(byte)}.
+ */
+public class AllocationExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AllocationExample.class);
+
+    private static final int WARMUP = 200_000;
+    private static final int ACTIONS = 100_000;
+
+    public static void main(final String[] args) {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final Authenticator authenticator = new TokenAuthenticator("my-secure-token");
+        final AuthenticationInput authenticationInput = new TokenAuthenticationInput("my-secure-token");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final DataRepositoryCoordinator dataRepositoryCoordinator = new DataRepositoryCoordinator().register(repository);
+
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(authenticator)
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(dataRepositoryCoordinator)
+                .build();
+        server.start();
+
+        repository.register("my-counter", new ServerIntCounter());
+        repository.register("my-balance", new ServerCommonBalance());
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(authenticationInput)
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+
+        final IntCounter counter = new StringIntCounter(client, "my-counter");
+        final CommonBalance balance = new ClientCommonBalance(client, "my-balance");
+        for (int i = 0; i < WARMUP; i++) {
+            counter.blockingIncrementAndGet();
+            balance.balance();
+        }
+
+        final long workerId = findThread("Channel Worker #0").getId();
+        measure(workerId, "increments", counter::blockingIncrementAndGet);
+        measure(workerId, "balance reads", balance::balance);
+
+        client.shutdown();
+        server.shutdown();
+    }
+
+    private static void measure(final long workerId, final String name, final Runnable action) {
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long before = threadBean.getThreadAllocatedBytes(workerId);
+        for (int i = 0; i < ACTIONS; i++) {
+            action.run();
+        }
+        final long allocated = threadBean.getThreadAllocatedBytes(workerId) - before;
+
+        LOGGER.info("Worker allocated {} bytes for {} {} ({} bytes per action)", allocated, ACTIONS, name, (double) allocated / ACTIONS);
+    }
+
+    private static Thread findThread(final String name) {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                return thread;
+            }
+        }
+        throw new IllegalStateException("Thread not found: " + name);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package be.darkkraft.memorized.example.backpressure;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.config.OverflowPolicy;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.client.net.TransactionQueue;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pipelines more requests than the in-flight bound with the blocking and the fail-fast policies, then writes
+ * fire-and-forget packets while the server is down with the drop-oldest policy, and checks the queue gauges.
+ */
+public class BackpressureExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackpressureExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int REQUESTS = 100_000;
+    private static final int MAX_IN_FLIGHT = 64;
+    private static final int WRITES = 1_000;
+    private static final int MAX_PENDING = 100;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final DataRepositoryCoordinator coordinator = new DataRepositoryCoordinator().register(repository);
+        repository.register("block", new ServerIntCounter());
+        repository.register("fail-fast", new ServerIntCounter());
+        MemorizedServer server = startServer(codecRegistry, coordinator);
+        repository.register("drop-oldest", new ServerMemorizedMap<>(server, String.class, Integer.class));
+
+        final String block = pipeline(codecRegistry, OverflowPolicy.BLOCK, "block");
+        final String failFast = pipeline(codecRegistry, OverflowPolicy.FAIL_FAST, "fail-fast");
+
+        final MemorizedClient client = createClient(codecRegistry, ClientConfiguration.builder()
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+                .maxPendingBuffers(MAX_PENDING)
+                .connectionRetryDelay(500L)
+                // Handles are bound to a session, the pending packets are sent in the next one
+                .keyHandles(false)
+                .build());
+        final StringMemorizedMap<String, Integer> map = new StringMemorizedMap<>(client, Integer.class, "drop-oldest");
+        map.blockingGet("0");
+        server.shutdown();
+        Thread.sleep(200L);
+        for (int i = 0; i < WRITES; i++) {
+            map.put(String.valueOf(i), i);
+        }
+        final TransactionQueue queue = client.getTransactionQueue();
+        final int pending = queue.pendingSize();
+        server = startServer(codecRegistry, coordinator);
+        while (queue.pendingSize() > 0) {
+            Thread.sleep(100L);
+        }
+        final String dropOldest = String.format("DROP_OLDEST: %d writes while the server is down, %d pending (max %d), %d dropped, kept %s..%s (expected %d..%d), dropped one %s",
+                WRITES, pending, MAX_PENDING, queue.droppedCount(), map.blockingGet(String.valueOf(WRITES - MAX_PENDING)), map.blockingGet(String.valueOf(WRITES - 1)),
+                WRITES - MAX_PENDING, WRITES - 1, map.blockingGet(String.valueOf(WRITES - MAX_PENDING - 1)));
+        client.shutdown();
+
+        server.shutdown();
+        LOGGER.info(block);
+        LOGGER.info(failFast);
+        LOGGER.info(dropOldest);
+    }
+
+    private static MemorizedServer startServer(final CodecRegistry codecRegistry, final DataRepositoryCoordinator coordinator) {
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                // Connections of this engine are closed by the shutdown, so that the client sees the server going down
+                .engine(ServerEngine.THREAD_PER_CONNECTION)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(coordinator)
+                .build();
+        server.start();
+        return server;
+    }
+
+    private static MemorizedClient createClient(final CodecRegistry codecRegistry, final ClientConfiguration configuration) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(configuration)
+                .build();
+        client.start();
+        return client;
+    }
+
+    private static String pipeline(final CodecRegistry codecRegistry, final OverflowPolicy policy, final String key) {
+        final MemorizedClient client = createClient(codecRegistry, ClientConfiguration.builder()
+                .overflowPolicy(policy)
+                .maxInFlightRequests(MAX_IN_FLIGHT)
+                .build());
+        final StringIntCounter counter = new StringIntCounter(client, key);
+        final TransactionQueue queue = client.getTransactionQueue();
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(REQUESTS);
+        int maxSize = 0;
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(counter.asyncIncrementAndGet());
+            maxSize = Math.max(maxSize, queue.size());
+        }
+        int failed = 0;
+        for (final CompletableFuture<Integer> future : futures) {
+            if (future.handle((value, throwable) -> throwable != null).join()) {
+                failed++;
+            }
+        }
+        final long elapsed = System.currentTimeMillis() - start;
+        final int value = counter.blockingGet();
+        client.shutdown();
+        return String.format("%s: %d requests in %dms, at most %d in flight (max %d), %d rejected (gauge %d), counter %d (expected %d)",
+                policy, REQUESTS, elapsed, maxSize, MAX_IN_FLIGHT, failed, queue.rejectedCount(), value, REQUESTS - failed);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package be.darkkraft.memorized.example.balance;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connects heavy and idle clients alternately to a server with two workers, so that both heavy clients start on the
+ * same worker. The balancer should migrate one of them to the other worker while it keeps pipelining increments,
+ * and every response must still match its request.
+ */
+public class BalancingExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BalancingExample.class);
+
+    private static final int HEAVY_CLIENTS = 2;
+    private static final int PIPELINE = 64;
+    private static final int SECONDS = 6;
+
+    public static void main(final String[] args) throws Exception {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final AuthenticationInput authenticationInput = new TokenAuthenticationInput("my-secure-token");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(2)
+                .balanceInterval(500L)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+
+        final List<MemorizedClient> clients = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicBoolean matched = new AtomicBoolean(true);
+        final AtomicLong operations = new AtomicLong();
+        for (int i = 0; i < HEAVY_CLIENTS; i++) {
+            repository.register("heavy-" + i, new ServerIntCounter());
+            final MemorizedClient heavy = createClient(address, authenticationInput, codecRegistry);
+            clients.add(heavy);
+            clients.add(createClient(address, authenticationInput, codecRegistry));
+
+            final IntCounter counter = new StringIntCounter(heavy, "heavy-" + i);
+            final Thread thread = new Thread(() -> {
+                final ArrayDeque<CompletableFuture<Integer>> pending = new ArrayDeque<>();
+                int expected = 1;
+                while (running.get() || !pending.isEmpty()) {
+                    if (running.get() && pending.size() < PIPELINE) {
+                        pending.add(counter.asyncIncrementAndGet());
+                        continue;
+                    }
+                    if (pending.poll().join() != expected++) {
+                        matched.set(false);
+                    }
+                    operations.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long previous = 0L;
+        for (int second = 1; second <= SECONDS; second++) {
+            Thread.sleep(1_000L);
+            final long current = operations.get();
+            LOGGER.info("Second {}: {} ops/s", second, current - previous);
+            previous = current;
+        }
+        running.set(false);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        LOGGER.info("Responses matched their requests: {}", matched.get());
+        clients.forEach(MemorizedClient::shutdown);
+        server.shutdown();
+    }
+
+    private static MemorizedClient createClient(final InetSocketAddress address, final AuthenticationInput authenticationInput, final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(authenticationInput)
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+}
\ No newline at end of file
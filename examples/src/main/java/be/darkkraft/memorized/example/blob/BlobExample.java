@@ -0,0 +1,108 @@
+package be.darkkraft.memorized.example.blob;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.blob.StringBlob;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.blob.ServerBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stores a value 80 times bigger than the packet size limit of the server in a blob, reads it back while another
+ * client replaces it, and checks that a value bigger than the maximum size of the blob is rejected.
+ */
+public class BlobExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlobExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int PACKET_SIZE_LIMIT = 256 * 1024;
+    private static final int VALUE_SIZE = 20 * 1024 * 1024;
+    private static final long MAXIMUM_SIZE = 32L * 1024 * 1024;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .packetSizeLimit(PACKET_SIZE_LIMIT)
+                .build();
+        server.start();
+        final ServerBlob serverBlob = new ServerBlob(server, MAXIMUM_SIZE);
+        repository.register("blob", serverBlob);
+
+        final MemorizedClient client = createClient(codecRegistry);
+        final MemorizedClient writer = createClient(codecRegistry);
+        final StringBlob blob = new StringBlob(client, "blob");
+
+        final byte[] value = new byte[VALUE_SIZE];
+        ThreadLocalRandom.current().nextBytes(value);
+        long start = System.nanoTime();
+        final long version = blob.put(value);
+        final long putTime = (System.nanoTime() - start) / 1_000_000L;
+
+        start = System.nanoTime();
+        final byte[] read = blob.get();
+        final long getTime = (System.nanoTime() - start) / 1_000_000L;
+        final String stored = String.format("Stored %d bytes (packet size limit %d) in %dms as version %d, read back in %dms, equal: %b, equal on the server: %b",
+                VALUE_SIZE, PACKET_SIZE_LIMIT, putTime, version, getTime, Arrays.equals(value, read), Arrays.equals(value, serverBlob.getBytes()));
+
+        // Another client replaces the value during the reads, each read returns one of the values entirely
+        final byte[] other = new byte[VALUE_SIZE / 2];
+        Arrays.fill(other, (byte) 7);
+        final StringBlob written = new StringBlob(writer, "blob");
+        final Thread replacer = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                written.put(i % 2 == 0 ? other : value);
+            }
+        });
+        replacer.start();
+        int consistent = 0;
+        int reads = 0;
+        while (replacer.isAlive() || reads == 0) {
+            final byte[] bytes = blob.get();
+            reads++;
+            if (Arrays.equals(bytes, value) || Arrays.equals(bytes, other)) {
+                consistent++;
+            }
+        }
+        replacer.join();
+
+        final long rejected = blob.put(new byte[(int) MAXIMUM_SIZE + 1]);
+
+        LOGGER.info(stored);
+        LOGGER.info("{} of {} reads during replacements returned a whole value", consistent, reads);
+        LOGGER.info("Value over the maximum size stored as version {} (0 if rejected), size is still {}", rejected, blob.asyncSize().join());
+
+        client.shutdown();
+        writer.shutdown();
+        server.shutdown();
+    }
+
+    private static MemorizedClient createClient(final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package be.darkkraft.memorized.example.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.channel.StringMessageChannel;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.channel.ServerMessageChannel;
+import be.darkkraft.memorized.server.push.DropPolicy;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes messages to a channel with a fast subscriber, then with a fast and a slow subscriber, and checks that the
+ * slow subscriber only has its own messages dropped, without slowing down the publisher or the fast subscriber.
+ */
+public class MessageChannelExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageChannelExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int MESSAGES = 20_000;
+    private static final int MESSAGE_SIZE = 4096;
+    private static final int WINDOW = 256;
+    private static final int QUEUE_CAPACITY = 1024;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .messageQueueCapacity(QUEUE_CAPACITY)
+                .messageDropPolicy(DropPolicy.DROP_OLDEST)
+                .build();
+        server.start();
+        repository.register("channel", new ServerMessageChannel());
+
+        final MemorizedClient publisher = createClient(codecRegistry);
+        final MemorizedClient fastClient = createClient(codecRegistry);
+        final MemorizedClient slowClient = createClient(codecRegistry);
+        final StringMessageChannel channel = new StringMessageChannel(publisher, "channel");
+
+        final AtomicInteger fast = new AtomicInteger();
+        final AtomicInteger corrupted = new AtomicInteger();
+        new StringMessageChannel(fastClient, "channel").blockingSubscribe(message -> {
+            if (message.length != MESSAGE_SIZE || message[0] != message[MESSAGE_SIZE - 1]) {
+                corrupted.incrementAndGet();
+            }
+            fast.incrementAndGet();
+        });
+        final String alone = publish("Fast subscriber only", channel, fast, null);
+
+        // The slow subscriber blocks the connection reading its messages, its queue in the server fills up
+        final AtomicInteger slow = new AtomicInteger();
+        new StringMessageChannel(slowClient, "channel").blockingSubscribe(message -> {
+            slow.incrementAndGet();
+            try {
+                Thread.sleep(1L);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        fast.set(0);
+        final String both = publish("Fast and slow subscribers", channel, fast, slow);
+
+        // Wait for the slow subscriber to read what was not dropped
+        int received;
+        do {
+            received = slow.get();
+            Thread.sleep(500L);
+        } while (received != slow.get());
+
+        LOGGER.info(alone);
+        LOGGER.info(both);
+        LOGGER.info("Slow subscriber received {} of {} messages, {} dropped by the server, {} subscribers", received, MESSAGES,
+                droppedCount(server), channel.asyncSubscriberCount().join());
+        LOGGER.info("{} corrupted messages", corrupted.get());
+
+        publisher.shutdown();
+        fastClient.shutdown();
+        slowClient.shutdown();
+        server.shutdown();
+    }
+
+    private static String publish(final String name, final StringMessageChannel channel, final AtomicInteger fast, final AtomicInteger slow) throws InterruptedException {
+        final List<CompletableFuture<Integer>> window = new ArrayList<>(WINDOW);
+        final long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            final byte[] message = new byte[MESSAGE_SIZE];
+            message[0] = message[MESSAGE_SIZE - 1] = (byte) i;
+            window.add(channel.asyncPublish(message));
+            if (window.size() == WINDOW) {
+                window.forEach(CompletableFuture::join);
+                window.clear();
+            }
+        }
+        window.forEach(CompletableFuture::join);
+        final long elapsed = System.nanoTime() - start;
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (fast.get() < MESSAGES && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        return String.format("%s: %d messages/s published, fast subscriber received %d of %d%s", name,
+                MESSAGES * 1_000_000_000L / elapsed, fast.get(), MESSAGES, slow != null ? ", slow subscriber received " + slow.get() + " meanwhile" : "");
+    }
+
+    private static long droppedCount(final MemorizedServer server) {
+        long dropped = 0L;
+        for (final Session session : server.getSessions()) {
+            try {
+                dropped += ((ClientSession) session).getNotifier().droppedCount();
+            } catch (final UnsupportedOperationException ignored) {
+                // The publisher never subscribed
+            }
+        }
+        return dropped;
+    }
+
+    private static MemorizedClient createClient(final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+}
\ No newline at end of file
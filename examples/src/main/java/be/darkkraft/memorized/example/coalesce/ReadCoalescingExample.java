@@ -0,0 +1,144 @@
+package be.darkkraft.memorized.example.coalesce;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a hot key from many threads at once, with and without read coalescing, and counts the reads handled by the
+ * server. A writer thread reads its own writes meanwhile, to check that coalesced reads never miss them.
+ */
+public class ReadCoalescingExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadCoalescingExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int THREADS = 200;
+    private static final int READS = 100;
+    private static final int WRITES = 200;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        final CountingMap map = new CountingMap(server);
+        map.put("hot", "value");
+        repository.register("map", map);
+
+        final String separate = run(codecRegistry, map, false);
+        final String coalesced = run(codecRegistry, map, true);
+
+        server.shutdown();
+        LOGGER.info(separate);
+        LOGGER.info(coalesced);
+    }
+
+    private static String run(final CodecRegistry codecRegistry, final CountingMap serverMap, final boolean coalesceReads) throws InterruptedException {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(ClientConfiguration.builder().coalesceReads(coalesceReads).build())
+                .build();
+        client.start();
+        final StringMemorizedMap<String, String> map = new StringMemorizedMap<>(client, String.class, "map");
+        map.blockingGet("hot");
+        serverMap.shows.set(0);
+
+        final AtomicInteger wrongValues = new AtomicInteger();
+        final AtomicInteger missedWrites = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(new Thread(() -> {
+                awaitStart(start);
+                final List<CompletableFuture<String>> futures = new ArrayList<>();
+                for (int j = 0; j < READS; j++) {
+                    futures.add(map.asyncGet("hot"));
+                }
+                for (final CompletableFuture<String> future : futures) {
+                    if (!"value".equals(future.join())) {
+                        wrongValues.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            awaitStart(start);
+            for (int i = 0; i < WRITES; i++) {
+                map.put("written", String.valueOf(i));
+                if (!String.valueOf(i).equals(map.blockingGet("written"))) {
+                    missedWrites.incrementAndGet();
+                }
+            }
+        }));
+        threads.forEach(Thread::start);
+        final long begin = System.currentTimeMillis();
+        start.countDown();
+        for (int i = 0; i < THREADS; i++) {
+            threads.get(i).join();
+        }
+        final long elapsed = System.currentTimeMillis() - begin;
+        threads.get(THREADS).join();
+
+        final String result = String.format("Coalescing %s: %d reads of a hot key in %dms, %d reads handled by the server, %d coalesced, %d wrong values, %d missed writes",
+                coalesceReads ? "enabled" : "disabled", THREADS * READS, elapsed, serverMap.shows.get(),
+                client.getTransactionQueue().coalescedCount(), wrongValues.get(), missedWrites.get());
+        client.shutdown();
+        return result;
+    }
+
+    private static void awaitStart(final CountDownLatch start) {
+        try {
+            start.await();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CountingMap extends ServerMemorizedMap<String, String> {
+
+        private final AtomicInteger shows = new AtomicInteger();
+
+        private CountingMap(final MemorizedServer server) {
+            super(server, String.class, String.class);
+        }
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            this.shows.incrementAndGet();
+            super.handleShow(session, buffer);
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package be.darkkraft.memorized.example.direct;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+/**
+ * Compares the round-trip latency of blocking increments read by the channel thread with blocking increments read by
+ * the calling thread, then runs concurrent callers sharing the connection in both modes.
+ */
+public class CallerReadsBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CallerReadsBenchmark.class);
+
+    private static final int WARMUP = 2_000;
+    private static final int ACTIONS = 10_000;
+    private static final int THREADS = 8;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("thread", new ServerIntCounter());
+        repository.register("caller", new ServerIntCounter());
+
+        final String thread = run("Channel thread reads", address, codecRegistry, false, "thread");
+        final String caller = run("Caller reads", address, codecRegistry, true, "caller");
+
+        final String threadConcurrent = runConcurrent("Channel thread reads", address, codecRegistry, false, "thread");
+        final String callerConcurrent = runConcurrent("Caller reads", address, codecRegistry, true, "caller");
+
+        server.shutdown();
+        LOGGER.info(thread);
+        LOGGER.info(caller);
+        LOGGER.info(threadConcurrent);
+        LOGGER.info(callerConcurrent);
+    }
+
+    private static MemorizedClient createClient(final InetSocketAddress address, final CodecRegistry codecRegistry, final boolean callerReads) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(ClientConfiguration.builder().callerReads(callerReads).build())
+                .build();
+        client.start();
+        return client;
+    }
+
+    private static String run(final String name, final InetSocketAddress address, final CodecRegistry codecRegistry, final boolean callerReads, final String key) {
+        final MemorizedClient client = createClient(address, codecRegistry, callerReads);
+        final IntCounter counter = new StringIntCounter(client, key);
+        for (int i = 0; i < WARMUP; i++) {
+            counter.blockingIncrementAndGet();
+        }
+        final long[] latencies = new long[ACTIONS];
+        for (int i = 0; i < ACTIONS; i++) {
+            final long start = System.nanoTime();
+            counter.blockingIncrementAndGet();
+            latencies[i] = System.nanoTime() - start;
+        }
+        final int total = counter.blockingGet();
+        client.shutdown();
+
+        Arrays.sort(latencies);
+        return String.format("%s: p50=%dus p99=%dus, counter %d (expected %d)", name,
+                percentile(latencies, 0.5D), percentile(latencies, 0.99D), total, WARMUP + ACTIONS);
+    }
+
+    private static String runConcurrent(final String name, final InetSocketAddress address, final CodecRegistry codecRegistry, final boolean callerReads, final String key) throws InterruptedException {
+        final MemorizedClient client = createClient(address, codecRegistry, callerReads);
+        final IntCounter counter = new StringIntCounter(client, key);
+        final int before = counter.blockingGet();
+        final Thread[] threads = new Thread[THREADS];
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < THREADS; i++) {
+            (threads[i] = new Thread(() -> {
+                for (int j = 0; j < ACTIONS; j++) {
+                    counter.blockingIncrementAndGet();
+                }
+            })).start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final long elapsed = System.currentTimeMillis() - start;
+        final int total = counter.blockingGet() - before;
+        client.shutdown();
+
+        return String.format("%s with %d threads: %d increments in %dms, counter +%d (expected +%d)", name, THREADS,
+                THREADS * ACTIONS, elapsed, total, THREADS * ACTIONS);
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(sorted.length * percentile))] / 1_000L;
+    }
+
+}
\ No newline at end of file
@@ -40,13 +40,13 @@ public class ServerCommonBalance implements DataContainer {
         } while (!BALANCE_HANDLE.compareAndSet(this, current, target));
 
         if (!give) {
-            session.unsafeSend(ByteBuffer.allocate(2).put(ServerPacket.RESULT.getId()).put(result));
+            session.unsafeSend(session.response(ServerPacket.RESULT.getId()).put(result));
         }
     }
 
     @Override
     public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
-        session.unsafeSend(ByteBuffer.allocate(9).put(ServerPacket.RESULT.getId()).putDouble(this.balance));
+        session.unsafeSend(session.response(ServerPacket.RESULT.getId()).putDouble(this.balance));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package be.darkkraft.memorized.example.embedded;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.data.map.MemorizedMap;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import be.darkkraft.memorized.server.embedded.EmbeddedClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Runs the same code on a counter and a map through a network client and through an embedded client,
+ * and checks that both see the same containers.
+ */
+public class EmbeddedExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedExample.class);
+
+    private static final int ACTIONS = 20_000;
+
+    public static void main(final String[] args) {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("counter", new ServerIntCounter());
+        repository.register("map", new ServerMemorizedMap<>(server, String.class, String.class));
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        final EmbeddedClient embedded = new EmbeddedClient(server);
+
+        final long network = run(new StringIntCounter(client, "counter"), new StringMemorizedMap<>(client, String.class, "map"));
+        final long local = run(embedded.intCounter("counter"), embedded.map("map", String.class, String.class));
+
+        LOGGER.info("Network client: {}ms for {} actions", network, ACTIONS);
+        LOGGER.info("Embedded client: {}ms for {} actions", local, ACTIONS);
+        LOGGER.info("Counter seen by the network client: {} (expected {})", new StringIntCounter(client, "counter").blockingGet(), ACTIONS * 2);
+        LOGGER.info("Map value seen by the network client: {}", new StringMemorizedMap<>(client, String.class, "map").blockingGet("key"));
+
+        client.shutdown();
+        server.shutdown();
+    }
+
+    private static long run(final IntCounter counter, final MemorizedMap<String, String> map) {
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < ACTIONS; i++) {
+            counter.blockingIncrementAndGet();
+        }
+        for (int i = 0; i < ACTIONS; i++) {
+            map.put("key", "value-" + i);
+        }
+        // Wait for the puts to be applied
+        map.blockingGet("key");
+        return System.currentTimeMillis() - start;
+    }
+
+}
\ No newline at end of file
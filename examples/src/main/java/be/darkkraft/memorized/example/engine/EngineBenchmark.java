@@ -0,0 +1,113 @@
+package be.darkkraft.memorized.example.engine;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compares the server engines: for each engine, a number of idle connections is opened,
+ * then active clients increment a counter as fast as possible.
+ */
+public class EngineBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EngineBenchmark.class);
+
+    private static final int[] IDLE_CONNECTIONS = {0, 1_000};
+    private static final int[] ACTIVE_CLIENTS = {1, 8, 32};
+    private static final int ACTIONS = 32_000;
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> results = new ArrayList<>();
+        int port = 12345;
+        for (final ServerEngine engine : ServerEngine.values()) {
+            for (final int idle : IDLE_CONNECTIONS) {
+                for (final int active : ACTIVE_CLIENTS) {
+                    results.add(run(new InetSocketAddress("127.0.0.1", port++), engine, idle, active));
+                }
+            }
+        }
+        results.forEach(LOGGER::info);
+    }
+
+    private static String run(final InetSocketAddress address, final ServerEngine engine, final int idle, final int active) throws Exception {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .engine(engine)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("my-counter", new ServerIntCounter());
+
+        final List<SocketChannel> idleChannels = new ArrayList<>(idle);
+        for (int i = 0; i < idle; i++) {
+            idleChannels.add(SocketChannel.open(address));
+        }
+
+        final AuthenticationInput authenticationInput = new TokenAuthenticationInput("my-secure-token");
+        final List<MemorizedClient> clients = new ArrayList<>(active);
+        for (int i = 0; i < active; i++) {
+            final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                    .authenticationInput(authenticationInput)
+                    .codecRegistry(codecRegistry)
+                    .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                    .build();
+            client.start();
+            clients.add(client);
+        }
+
+        final int actionsPerClient = ACTIONS / active;
+        final CountDownLatch latch = new CountDownLatch(active);
+        final long start = System.nanoTime();
+        for (final MemorizedClient client : clients) {
+            final IntCounter counter = new StringIntCounter(client, "my-counter");
+            new Thread(() -> {
+                for (int i = 0; i < actionsPerClient; i++) {
+                    counter.blockingIncrementAndGet();
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        final long elapsed = System.nanoTime() - start;
+
+        clients.forEach(MemorizedClient::shutdown);
+        for (final SocketChannel channel : idleChannels) {
+            try {
+                channel.close();
+            } catch (final IOException ignored) {
+                // Closing the benchmark connections
+            }
+        }
+        server.shutdown();
+
+        final long operations = (long) actionsPerClient * active;
+        return String.format("%-21s idle=%-5d active=%-3d %,10d ops/s %8.1f us/op", engine, idle, active,
+                operations * 1_000_000_000L / elapsed, (double) elapsed * active / operations / 1_000);
+    }
+
+}
\ No newline at end of file
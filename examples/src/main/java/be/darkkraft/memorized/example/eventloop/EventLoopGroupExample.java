@@ -0,0 +1,94 @@
+package be.darkkraft.memorized.example.eventloop;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.channel.ClientEventLoopGroup;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Starts many clients with threads of their own, then the same number of clients sharing a group of two event loops,
+ * and compares the number of threads of the JVM while checking that every client is served.
+ */
+public class EventLoopGroupExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopGroupExample.class);
+
+    private static final int CLIENTS = 50;
+    private static final int ACTIONS = 1_000;
+
+    public static void main(final String[] args) {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("own", new ServerIntCounter());
+        repository.register("shared", new ServerIntCounter());
+
+        final int baseline = Thread.activeCount();
+        final String own = run("Own threads", address, codecRegistry, null, "own", baseline);
+
+        final ClientEventLoopGroup group = new ClientEventLoopGroup(2);
+        final String shared = run("Shared event loop group", address, codecRegistry, group, "shared", baseline);
+        group.shutdown();
+
+        server.shutdown();
+        LOGGER.info(own);
+        LOGGER.info(shared);
+    }
+
+    private static String run(final String name, final InetSocketAddress address, final CodecRegistry codecRegistry,
+                              final ClientEventLoopGroup group, final String key, final int baseline) {
+        final List<MemorizedClient> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                    .eventLoopGroup(group)
+                    .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                    .codecRegistry(codecRegistry)
+                    .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                    .build();
+            client.start();
+            clients.add(client);
+        }
+        final int threads = Thread.activeCount() - baseline;
+
+        final long start = System.currentTimeMillis();
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (final MemorizedClient client : clients) {
+            final StringIntCounter counter = new StringIntCounter(client, key);
+            for (int i = 0; i < ACTIONS; i++) {
+                futures.add(counter.asyncIncrementAndGet());
+            }
+        }
+        futures.forEach(CompletableFuture::join);
+        final long elapsed = System.currentTimeMillis() - start;
+        final int total = new StringIntCounter(clients.get(0), key).blockingGet();
+
+        clients.forEach(MemorizedClient::shutdown);
+        return String.format("%s: %d clients use %d threads, %d increments in %dms, counter %d (expected %d)",
+                name, CLIENTS, threads, CLIENTS * ACTIONS, elapsed, total, CLIENTS * ACTIONS);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package be.darkkraft.memorized.example.factory;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.Authenticator;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+
+public class ContainerFactoryExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerFactoryExample.class);
+
+    private static final int COUNTER_TYPE = 0;
+    private static final int MAP_TYPE = 1;
+
+    public static void main(final String[] args) {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final Authenticator authenticator = new TokenAuthenticator("my-secure-token");
+        final AuthenticationInput authenticationInput = new TokenAuthenticationInput("my-secure-token");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final DataRepositoryCoordinator dataRepositoryCoordinator = new DataRepositoryCoordinator().register(repository);
+
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .authenticator(authenticator)
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(dataRepositoryCoordinator)
+                .build();
+
+        // No container is registered in code, clients create them on demand
+        server.getDataContainerFactoryRegistry()
+                .register(COUNTER_TYPE, capacityHint -> new ServerIntCounter())
+                .register(MAP_TYPE, capacityHint -> new ServerMemorizedMap<>(server, String.class, String.class, capacityHint));
+        server.start();
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(authenticationInput)
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+
+        final StringIntCounter counter = new StringIntCounter(client, "visits");
+        LOGGER.info("Counter created: {}", counter.blockingCreate(COUNTER_TYPE));
+        LOGGER.info("Counter created twice: {}", counter.blockingCreate(COUNTER_TYPE));
+        counter.blockingIncrementAndGet(5);
+        LOGGER.info("Counter value: {}", counter.blockingGet());
+
+        final StringMemorizedMap<String, String> map = new StringMemorizedMap<>(client, String.class, "sessions");
+        LOGGER.info("Map created: {}", map.blockingCreate(MAP_TYPE, 100_000));
+        map.put("alice", "online");
+        LOGGER.info("Map value: {}", map.blockingGet("alice"));
+
+        LOGGER.info("Counter deleted: {}", counter.blockingDelete());
+        LOGGER.info("Counter deleted twice: {}", counter.blockingDelete());
+        LOGGER.info("Map deleted: {}", map.blockingDelete());
+
+        client.shutdown();
+        server.shutdown();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package be.darkkraft.memorized.example.latency;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.SelectStrategy;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the round-trip latency of blocking increments from a single client,
+ * with the blocking and the spin-then-park select strategies on the server worker and the client channel thread.
+ */
+public class LatencyBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyBenchmark.class);
+
+    private static final int WARMUP = 2_000;
+    private static final int ACTIONS = 20_000;
+
+    public static void main(final String[] args) throws Exception {
+        final SelectStrategy spinning = SelectStrategy.spinThenPark(1_000, 100, 50_000L);
+        final List<String> results = new ArrayList<>();
+        results.add(run(new InetSocketAddress("127.0.0.1", 12345), SelectStrategy.blocking()));
+        results.add(run(new InetSocketAddress("127.0.0.1", 12346), spinning));
+        results.forEach(LOGGER::info);
+    }
+
+    private static String run(final InetSocketAddress address, final SelectStrategy strategy) throws Exception {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .selectStrategy(strategy)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("counter", new ServerIntCounter());
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(ClientConfiguration.builder().selectStrategy(strategy).build())
+                .build();
+        client.start();
+
+        final IntCounter counter = new StringIntCounter(client, "counter");
+        for (int i = 0; i < WARMUP; i++) {
+            counter.blockingIncrementAndGet();
+        }
+        final long[] latencies = new long[ACTIONS];
+        for (int i = 0; i < ACTIONS; i++) {
+            final long start = System.nanoTime();
+            counter.blockingIncrementAndGet();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        client.shutdown();
+        server.shutdown();
+
+        Arrays.sort(latencies);
+        return String.format("%s: p50=%dus p99=%dus p99.9=%dus", strategy,
+                percentile(latencies, 0.5D), percentile(latencies, 0.99D), percentile(latencies, 0.999D));
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(sorted.length * percentile))] / 1_000L;
+    }
+
+}
\ No newline at end of file
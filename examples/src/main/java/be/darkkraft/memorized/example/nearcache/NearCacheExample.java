@@ -0,0 +1,136 @@
+package be.darkkraft.memorized.example.nearcache;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.map.NearCache;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.data.map.MemorizedMap;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.container.Notifier;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a set of hot keys through a map with and without a near cache, then changes a key from another client and
+ * measures how long the cached value takes to be invalidated.
+ */
+public class NearCacheExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearCacheExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int KEYS = 100;
+    private static final int READS = 200_000;
+    private static final int MAXIMUM_SIZE = 64;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        final CountingMap serverMap = new CountingMap(server);
+        for (int i = 0; i < KEYS; i++) {
+            serverMap.put("key-" + i, "value-" + i);
+        }
+        repository.register("map", serverMap);
+
+        final MemorizedClient reader = createClient(codecRegistry);
+        final MemorizedClient writer = createClient(codecRegistry);
+        final StringMemorizedMap<String, String> uncached = new StringMemorizedMap<>(reader, String.class, "map");
+        final StringMemorizedMap<String, String> cached = new StringMemorizedMap<>(reader, String.class, "map");
+        cached.enableNearCache(String.class, MAXIMUM_SIZE);
+
+        final String network = run("Without near cache", uncached, serverMap, READS / 20);
+        final String local = run("With near cache", cached, serverMap, READS);
+
+        final NearCache<String, String> cache = cached.getNearCache();
+        final String stats = String.format("Near cache: %d hits, %d misses, %d entries (max %d)",
+                cache.hitCount(), cache.missCount(), cache.size(), cache.getMaximumSize());
+
+        // Change a cached key from another client, the reader sees the new value once the invalidation is pushed
+        final StringMemorizedMap<String, String> writerMap = new StringMemorizedMap<>(writer, String.class, "map");
+        final long start = System.nanoTime();
+        writerMap.put("key-0", "changed");
+        while (!"changed".equals(cached.blockingGet("key-0"))) {
+            Thread.onSpinWait();
+        }
+        final long invalidation = (System.nanoTime() - start) / 1_000L;
+
+        LOGGER.info(network);
+        LOGGER.info(local);
+        LOGGER.info(stats);
+        LOGGER.info("Change of another client seen after {}us, {} invalidation", invalidation, cache.invalidationCount());
+
+        reader.shutdown();
+        writer.shutdown();
+        server.shutdown();
+    }
+
+    private static String run(final String name, final MemorizedMap<String, String> map, final CountingMap serverMap, final int reads) {
+        // Most reads target a few hot keys, the others go over the maximum size of the cache
+        final int before = serverMap.shows.get();
+        final long start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            final int key = i % 10 != 0 ? i % 8 : i / 10 % KEYS;
+            if (!("value-" + key).equals(map.blockingGet("key-" + key))) {
+                throw new IllegalStateException("Wrong value for key-" + key);
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        return String.format("%s: %d reads/s, %d of %d reads handled by the server",
+                name, reads * 1_000_000_000L / elapsed, serverMap.shows.get() - before, reads);
+    }
+
+    private static MemorizedClient createClient(final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+    private static final class CountingMap extends ServerMemorizedMap<String, String> {
+
+        private final AtomicInteger shows = new AtomicInteger();
+
+        private CountingMap(final MemorizedServer server) {
+            super(server, String.class, String.class);
+        }
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            this.shows.incrementAndGet();
+            super.handleShow(session, buffer);
+        }
+
+        @Override
+        public void handleTrackedShow(final @NotNull Session session, final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+            this.shows.incrementAndGet();
+            super.handleTrackedShow(session, notifier, buffer);
+        }
+
+    }
+
+}
\ No newline at end of file
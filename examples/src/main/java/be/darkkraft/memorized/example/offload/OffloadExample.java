@@ -0,0 +1,123 @@
+package be.darkkraft.memorized.example.offload;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.Authenticator;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.container.OffloadedDataContainer;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a slow container on the offload executor of a server with a single worker thread.
+ * A first client interleaves slow updates with counter updates and checks that every response matches its request,
+ * while a second client measures the latency of its counter updates.
+ */
+public class OffloadExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffloadExample.class);
+
+    private static final int SLOW_ACTIONS = 200;
+    private static final int FAST_ACTIONS = 20_000;
+
+    public static void main(final String[] args) throws Exception {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final Authenticator authenticator = new TokenAuthenticator("my-secure-token");
+        final AuthenticationInput authenticationInput = new TokenAuthenticationInput("my-secure-token");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final DataRepositoryCoordinator dataRepositoryCoordinator = new DataRepositoryCoordinator().register(repository);
+
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .offloadThreads(2, true)
+                .authenticator(authenticator)
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(dataRepositoryCoordinator)
+                .build();
+        server.start();
+
+        repository.register("slow-counter", new SlowCounter());
+        repository.register("ordered-counter", new ServerIntCounter());
+        repository.register("fast-counter", new ServerIntCounter());
+
+        final MemorizedClient slowClient = createClient(address, authenticationInput, codecRegistry);
+        final MemorizedClient fastClient = createClient(address, authenticationInput, codecRegistry);
+
+        final IntCounter slowCounter = new StringIntCounter(slowClient, "slow-counter");
+        final IntCounter orderedCounter = new StringIntCounter(slowClient, "ordered-counter");
+        final IntCounter fastCounter = new StringIntCounter(fastClient, "fast-counter");
+
+        final List<CompletableFuture<Integer>> slowResults = new ArrayList<>();
+        final List<CompletableFuture<Integer>> orderedResults = new ArrayList<>();
+        for (int i = 0; i < SLOW_ACTIONS; i++) {
+            slowResults.add(slowCounter.asyncIncrementAndGet());
+            orderedResults.add(orderedCounter.asyncIncrementAndGet());
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < FAST_ACTIONS; i++) {
+            fastCounter.blockingIncrementAndGet();
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        boolean ordered = true;
+        for (int i = 0; i < SLOW_ACTIONS; i++) {
+            ordered &= slowResults.get(i).join() == i + 1 && orderedResults.get(i).join() == i + 1;
+        }
+
+        LOGGER.info("Fast counter: {} updates in {}ms ({}us per update) while slow updates were running",
+                FAST_ACTIONS, elapsed / 1_000_000, elapsed / 1_000 / FAST_ACTIONS);
+        LOGGER.info("Slow client responses matched their requests: {}", ordered);
+
+        slowClient.shutdown();
+        fastClient.shutdown();
+        server.shutdown();
+    }
+
+    private static MemorizedClient createClient(final InetSocketAddress address, final AuthenticationInput authenticationInput, final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(authenticationInput)
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+    /**
+     * Counter taking 5ms per update, as a container scanning a large collection would.
+     */
+    private static final class SlowCounter extends ServerIntCounter implements OffloadedDataContainer {
+
+        @Override
+        public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            LockSupport.parkNanos(5_000_000L);
+            super.handleUpdate(session, buffer);
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package be.darkkraft.memorized.example.pool;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Runs the same threads of blocking increments through a client with a single connection and through a pooled client
+ * with one connection per server worker, and checks that every increment is applied.
+ */
+public class ConnectionPoolExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolExample.class);
+
+    private static final int WORKERS = 4;
+    private static final int THREADS = 8;
+    private static final int ACTIONS = 5_000;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(WORKERS)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("single", new ServerIntCounter());
+        repository.register("pooled", new ServerIntCounter());
+
+        final String single = run(address, codecRegistry, 1, "single");
+        final String pooled = run(address, codecRegistry, WORKERS, "pooled");
+
+        server.shutdown();
+        LOGGER.info(single);
+        LOGGER.info(pooled);
+    }
+
+    private static String run(final InetSocketAddress address, final CodecRegistry codecRegistry, final int connections, final String key) throws InterruptedException {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .connections(connections)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+
+        final Thread[] threads = new Thread[THREADS];
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < THREADS; i++) {
+            (threads[i] = new Thread(() -> {
+                final StringIntCounter counter = new StringIntCounter(client, key);
+                for (int j = 0; j < ACTIONS; j++) {
+                    counter.blockingIncrementAndGet();
+                }
+            })).start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final long elapsed = System.currentTimeMillis() - start;
+        final int total = new StringIntCounter(client, key).blockingGet();
+
+        client.shutdown();
+        return String.format("%d connection(s): %d increments by %d threads in %dms, counter %d (expected %d)",
+                connections, THREADS * ACTIONS, THREADS, elapsed, total, THREADS * ACTIONS);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package be.darkkraft.memorized.example.scan;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.map.ScanChunk;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Scans a large map in chunks while another client changes other keys, and checks that every entry present during the
+ * whole scan is returned exactly once. Then walks a scan chunk by chunk, and gives up a scan to release its cursor.
+ */
+public class ScanExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int ENTRIES = 200_000;
+    private static final int CHUNK_SIZE = 16_384;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        final CountingMap serverMap = new CountingMap(server);
+        for (int i = 0; i < ENTRIES; i++) {
+            serverMap.put("key-" + i, "value-" + i);
+        }
+        repository.register("map", serverMap);
+
+        final MemorizedClient client = createClient(codecRegistry);
+        final MemorizedClient writer = createClient(codecRegistry);
+        final StringMemorizedMap<String, String> map = new StringMemorizedMap<>(client, String.class, "map");
+        final StringMemorizedMap<String, String> writtenMap = new StringMemorizedMap<>(writer, String.class, "map");
+
+        // Another client adds and removes other keys during the scan
+        final Thread changes = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                writtenMap.put("other-" + i, "value");
+                writtenMap.remove("other-" + (i / 2));
+            }
+        });
+        final Set<String> seen = new HashSet<>();
+        final AtomicInteger duplicates = new AtomicInteger();
+        final AtomicInteger wrongValues = new AtomicInteger();
+        changes.start();
+        final long start = System.nanoTime();
+        try (final Stream<Map.Entry<String, String>> stream = map.scan(String.class, CHUNK_SIZE)) {
+            stream.forEach(entry -> {
+                if (!seen.add(entry.getKey())) {
+                    duplicates.incrementAndGet();
+                }
+                if (entry.getKey().startsWith("key-") && !entry.getValue().equals("value-" + entry.getKey().substring(4))) {
+                    wrongValues.incrementAndGet();
+                }
+            });
+        }
+        final long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        changes.join();
+        final long missing = ENTRIES - seen.stream().filter(key -> key.startsWith("key-")).count();
+        final String scanned = String.format("Scanned %d entries in %dms with %d chunks of at most %d bytes: %d missing, %d duplicates, %d wrong values",
+                seen.size(), elapsed, serverMap.scans.get(), CHUNK_SIZE, missing, duplicates.get(), wrongValues.get());
+
+        // The cursor of each chunk resumes the scan
+        int chunks = 0;
+        int entries = 0;
+        ScanChunk<String, String> chunk = map.asyncScan(String.class, 0L, CHUNK_SIZE * 4).join();
+        while (chunk != null) {
+            chunks++;
+            entries += chunk.entries().size();
+            chunk = chunk.isLast() ? null : map.asyncScan(String.class, chunk.cursor(), CHUNK_SIZE * 4).join();
+        }
+        final String resumed = String.format("Walked %d entries with %d chunks of at most %d bytes", entries, chunks, CHUNK_SIZE * 4);
+
+        // A scan given up releases its cursor, which is then unknown to the server
+        serverMap.lastCursor = 0L;
+        final long cursor;
+        try (final Stream<Map.Entry<String, String>> stream = map.scan(String.class, CHUNK_SIZE)) {
+            LOGGER.info("First entry of a given up scan: {}", stream.findFirst().orElse(null));
+            // Let the request of the second chunk, sent ahead, reach the server
+            Thread.sleep(100L);
+            cursor = serverMap.lastCursor;
+        }
+        Thread.sleep(100L);
+        final boolean released = cursor != 0L && map.asyncScan(String.class, cursor, CHUNK_SIZE).join() == null;
+
+        LOGGER.info(scanned);
+        LOGGER.info(resumed);
+        LOGGER.info("Cursor of the given up scan released: {}", released);
+
+        client.shutdown();
+        writer.shutdown();
+        server.shutdown();
+    }
+
+    private static MemorizedClient createClient(final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+    private static final class CountingMap extends ServerMemorizedMap<String, String> {
+
+        private final AtomicInteger scans = new AtomicInteger();
+        private volatile long lastCursor;
+
+        private CountingMap(final MemorizedServer server) {
+            super(server, String.class, String.class);
+        }
+
+        @Override
+        public void handleScan(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            final long cursor = buffer.getLong(buffer.position());
+            if (cursor != 0L) {
+                this.lastCursor = cursor;
+            }
+            this.scans.incrementAndGet();
+            super.handleScan(session, buffer);
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package be.darkkraft.memorized.example.shard;
+
+import be.darkkraft.memorized.data.counter.CounterUpdate;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Counter speaking the protocol of the built-in counter with a plain field,
+ * which is only correct because a single shard executes its operations.
+ */
+public class PlainIntCounter implements DataContainer {
+
+    private int value;
+
+    @Override
+    public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        final CounterUpdate update = CounterUpdate.fromId(buffer.get());
+        final int delta = buffer.getInt();
+        if (update == CounterUpdate.INCREMENT_AND_GET) {
+            session.unsafeSend(ServerPacket.RESULT.getId(), this.value += delta);
+        } else if (update == CounterUpdate.RESET) {
+            this.value = 0;
+        } else {
+            throw new UnsupportedOperationException("Unsupported update " + update);
+        }
+    }
+
+    @Override
+    public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        session.unsafeSend(ServerPacket.RESULT.getId(), this.value);
+    }
+
+}
\ No newline at end of file
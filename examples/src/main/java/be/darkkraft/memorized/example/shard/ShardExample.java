@@ -0,0 +1,111 @@
+package be.darkkraft.memorized.example.shard;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.shard.ShardLoad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs counters with plain fields on a server whose containers are owned by worker shards.
+ * Every client pipelines increments on its own counters, spread over all shards, and on a shared counter.
+ * Each response must match its request and the shared counter must not lose any increment.
+ */
+public class ShardExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardExample.class);
+
+    private static final int CLIENTS = 4;
+    private static final int COUNTERS_PER_CLIENT = 8;
+    private static final int ROUNDS = 500;
+
+    public static void main(final String[] args) throws Exception {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final AuthenticationInput authenticationInput = new TokenAuthenticationInput("my-secure-token");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .engine(ServerEngine.SHARDED)
+                .workerThreads(4)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+
+        repository.register("shared", new PlainIntCounter());
+        for (int client = 0; client < CLIENTS; client++) {
+            for (int counter = 0; counter < COUNTERS_PER_CLIENT; counter++) {
+                repository.register(client + "-" + counter, new PlainIntCounter());
+            }
+        }
+
+        final AtomicBoolean matched = new AtomicBoolean(true);
+        final CountDownLatch latch = new CountDownLatch(CLIENTS);
+        final List<MemorizedClient> clients = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            final MemorizedClient memorizedClient = new MemorizedClientBuilder().serverAddress(address)
+                    .authenticationInput(authenticationInput)
+                    .codecRegistry(codecRegistry)
+                    .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                    .build();
+            memorizedClient.start();
+            clients.add(memorizedClient);
+
+            final IntCounter shared = new StringIntCounter(memorizedClient, "shared");
+            final IntCounter[] counters = new IntCounter[COUNTERS_PER_CLIENT];
+            for (int counter = 0; counter < COUNTERS_PER_CLIENT; counter++) {
+                counters[counter] = new StringIntCounter(memorizedClient, client + "-" + counter);
+            }
+            new Thread(() -> {
+                for (int round = 1; round <= ROUNDS; round++) {
+                    final List<CompletableFuture<Integer>> results = new ArrayList<>(COUNTERS_PER_CLIENT);
+                    for (final IntCounter counter : counters) {
+                        results.add(counter.asyncIncrementAndGet());
+                    }
+                    final CompletableFuture<Integer> sharedResult = shared.asyncIncrementAndGet();
+                    for (final CompletableFuture<Integer> result : results) {
+                        if (result.join() != round) {
+                            matched.set(false);
+                        }
+                    }
+                    sharedResult.join();
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+
+        final int shared = new StringIntCounter(clients.get(0), "shared").blockingGet();
+        LOGGER.info("Responses matched their requests: {}", matched.get());
+        LOGGER.info("Shared counter: {} (expected {})", shared, CLIENTS * ROUNDS);
+        for (final ShardLoad load : server.getShardLoads()) {
+            LOGGER.info("{}", load);
+        }
+
+        clients.forEach(MemorizedClient::shutdown);
+        server.shutdown();
+    }
+
+}
\ No newline at end of file
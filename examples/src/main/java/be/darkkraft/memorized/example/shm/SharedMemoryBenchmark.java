@@ -0,0 +1,105 @@
+package be.darkkraft.memorized.example.shm;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Measures the round-trip latency of blocking increments from another process, through TCP loopback and through
+ * shared memory. Started without arguments, it runs the server and spawns the client process.
+ */
+public class SharedMemoryBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryBenchmark.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+
+    private static final int WARMUP = 5_000;
+    private static final int ACTIONS = 20_000;
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("client")) {
+            runClients(Path.of(args[1]));
+            return;
+        }
+        final Path shm = Path.of("/dev/shm");
+        final Path directory = Files.createTempDirectory(Files.isDirectory(shm) ? shm : Path.of(System.getProperty("java.io.tmpdir")), "memorized");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .sharedMemoryDirectory(directory)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("tcp", new ServerIntCounter());
+        repository.register("shm", new ServerIntCounter());
+
+        final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        final Process client = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                SharedMemoryBenchmark.class.getName(), "client", directory.toString()).inheritIO().start();
+        LOGGER.info("Client process exited with {}", client.waitFor());
+
+        server.shutdown();
+        Files.deleteIfExists(directory);
+    }
+
+    private static void runClients(final Path directory) {
+        final String tcp = run("TCP loopback", null, "tcp");
+        final String shm = run("Shared memory", directory, "shm");
+        LOGGER.info(tcp);
+        LOGGER.info(shm);
+    }
+
+    private static String run(final String name, final Path directory, final String key) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .sharedMemoryDirectory(directory)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+
+        final IntCounter counter = new StringIntCounter(client, key);
+        for (int i = 0; i < WARMUP; i++) {
+            counter.blockingIncrementAndGet();
+        }
+        final long[] latencies = new long[ACTIONS];
+        for (int i = 0; i < ACTIONS; i++) {
+            final long start = System.nanoTime();
+            counter.blockingIncrementAndGet();
+            latencies[i] = System.nanoTime() - start;
+        }
+        final int value = counter.blockingGet();
+        client.shutdown();
+
+        Arrays.sort(latencies);
+        return String.format("%s: p50=%dus p99=%dus p99.9=%dus, counter=%d", name,
+                percentile(latencies, 0.5D), percentile(latencies, 0.99D), percentile(latencies, 0.999D), value);
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(sorted.length * percentile))] / 1_000L;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package be.darkkraft.memorized.example.subscription;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.client.data.subscription.Subscription;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Watches a counter changed by another client, first by polling it, then by subscribing to it, and counts the reads
+ * handled by the server. Then sends a burst of changes to check that notifications are coalesced, and watches a key of
+ * a map and the whole map.
+ */
+public class SubscriptionExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionExample.class);
+
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("127.0.0.1", 12345);
+    private static final int CHANGES = 2_000;
+    private static final int BURST = 20_000;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(ADDRESS)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        final CountingCounter serverCounter = new CountingCounter();
+        repository.register("counter", serverCounter);
+        repository.register("map", new ServerMemorizedMap<>(server, String.class, String.class));
+
+        final MemorizedClient watcher = createClient(codecRegistry);
+        final MemorizedClient writer = createClient(codecRegistry);
+        final StringIntCounter watched = new StringIntCounter(watcher, "counter");
+        final StringIntCounter written = new StringIntCounter(writer, "counter");
+
+        // Polling, the watcher reads the counter until it sees the last change
+        final Thread poller = new Thread(() -> {
+            while (watched.blockingGet() != CHANGES) {
+                Thread.onSpinWait();
+            }
+        });
+        poller.start();
+        for (int i = 0; i < CHANGES; i++) {
+            written.blockingIncrementAndGet();
+        }
+        poller.join();
+        final String polling = String.format("Polling: %d reads handled by the server to see %d changes", serverCounter.shows.get(), CHANGES);
+
+        // Subscription, the watcher is told about the changes
+        serverCounter.shows.set(0);
+        final AtomicInteger last = new AtomicInteger(-1);
+        final Subscription subscription = Objects.requireNonNull(watched.blockingSubscribe(last::set));
+        for (int i = 0; i < CHANGES; i++) {
+            written.blockingIncrementAndGet();
+        }
+        awaitValue(last, 2 * CHANGES);
+        final String subscribed = String.format("Subscription: %d reads handled by the server, %d notifications to see %d changes, last value %d (expected %d)",
+                serverCounter.shows.get(), subscription.notificationCount(), CHANGES, last.get(), 2 * CHANGES);
+
+        // Burst, pipelined changes handled in the same rounds of the server are notified as their latest value only
+        final long before = subscription.notificationCount();
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            futures.add(written.asyncIncrementAndGet());
+        }
+        futures.forEach(CompletableFuture::join);
+        awaitValue(last, 2 * CHANGES + BURST);
+        final String burst = String.format("Burst: %d notifications for %d changes, last value %d (expected %d)",
+                subscription.notificationCount() - before, BURST, last.get(), 2 * CHANGES + BURST);
+
+        subscription.blockingCancel();
+        written.blockingIncrementAndGet();
+        final String cancelled = String.format("After cancellation: last value %d, %d subscriptions left", last.get(), watcher.getSubscriptionRegistry().size());
+
+        // Key and whole map subscriptions
+        final StringMemorizedMap<String, String> watchedMap = new StringMemorizedMap<>(watcher, String.class, "map");
+        final StringMemorizedMap<String, String> writtenMap = new StringMemorizedMap<>(writer, String.class, "map");
+        final AtomicReference<String> status = new AtomicReference<>("unknown");
+        final AtomicLong seenAt = new AtomicLong();
+        final List<String> changes = new ArrayList<>();
+        watchedMap.asyncSubscribe("status", value -> {
+            status.set(String.valueOf(value));
+            seenAt.set(System.nanoTime());
+        }).join();
+        watchedMap.asyncSubscribeAll(String.class, (key, value) -> {
+            synchronized (changes) {
+                changes.add(key + "=" + value);
+            }
+        }).join();
+        final long start = System.nanoTime();
+        writtenMap.put("status", "up");
+        awaitValue(status, "up");
+        final long latency = (seenAt.get() - start) / 1_000L;
+        writtenMap.put("other", "value");
+        writtenMap.remove("status");
+        awaitValue(status, "null");
+        Thread.sleep(50L);
+
+        LOGGER.info(polling);
+        LOGGER.info(subscribed);
+        LOGGER.info(burst);
+        LOGGER.info(cancelled);
+        LOGGER.info("Key subscription notified after {}us, whole map subscription notified of {}", latency, changes);
+
+        watcher.shutdown();
+        writer.shutdown();
+        server.shutdown();
+    }
+
+    private static <T> void awaitValue(final AtomicReference<T> reference, final T expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (!expected.equals(reference.get()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private static void awaitValue(final AtomicInteger value, final int expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (value.get() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private static MemorizedClient createClient(final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(ADDRESS)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+    private static final class CountingCounter extends ServerIntCounter {
+
+        private final AtomicInteger shows = new AtomicInteger();
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            this.shows.incrementAndGet();
+            super.handleShow(session, buffer);
+        }
+
+    }
+
+}
\ No newline at end of file
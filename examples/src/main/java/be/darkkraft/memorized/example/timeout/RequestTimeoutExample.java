@@ -0,0 +1,98 @@
+package be.darkkraft.memorized.example.timeout;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends requests to a container answering slower than the request timeout, each followed by a request to a fast
+ * container, and checks that the slow requests time out while the fast ones still get their own response.
+ */
+public class RequestTimeoutExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestTimeoutExample.class);
+
+    private static final long TIMEOUT = 100L;
+    private static final long SLOW_RESPONSE = 300L;
+    private static final int ROUNDS = 5;
+
+    public static void main(final String[] args) throws InterruptedException {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("slow", new SlowCounter());
+        repository.register("fast", new ServerIntCounter());
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(ClientConfiguration.builder().requestTimeout(TIMEOUT).build())
+                .build();
+        client.start();
+        final IntCounter slow = new StringIntCounter(client, "slow");
+        final IntCounter fast = new StringIntCounter(client, "fast");
+
+        final List<Long> waits = new ArrayList<>();
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            final long start = System.currentTimeMillis();
+            final boolean timedOut = slow.asyncGet().handle((value, throwable) -> throwable instanceof CompletionException && throwable.getCause() instanceof TimeoutException).join();
+            waits.add(timedOut ? System.currentTimeMillis() - start : -1L);
+            // Let the late response arrive before the next request
+            Thread.sleep(SLOW_RESPONSE);
+            values.add(fast.blockingIncrementAndGet());
+        }
+
+        LOGGER.info("Slow requests timed out after {}ms (timeout {}ms, -1 if not timed out)", waits, TIMEOUT);
+        LOGGER.info("Fast requests returned {} (expected 1..{}), {} timeouts counted", values, ROUNDS, client.getTransactionQueue().timedOutCount());
+
+        client.shutdown();
+        server.shutdown();
+    }
+
+    private static final class SlowCounter extends ServerIntCounter {
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            try {
+                Thread.sleep(SLOW_RESPONSE);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            super.handleShow(session, buffer);
+        }
+
+    }
+
+}
\ No newline at end of file
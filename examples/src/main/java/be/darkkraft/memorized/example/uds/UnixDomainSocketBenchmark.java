@@ -0,0 +1,109 @@
+package be.darkkraft.memorized.example.uds;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.MemorizedClientBuilder;
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compares a client connected through TCP with a client connected through the Unix domain socket of the same server,
+ * measuring the round-trip latency of blocking increments and the throughput of pipelined increments.
+ */
+public class UnixDomainSocketBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSocketBenchmark.class);
+
+    private static final int WARMUP = 2_000;
+    private static final int ACTIONS = 10_000;
+    private static final int PIPELINED_ACTIONS = 200_000;
+    private static final int PIPELINE = 64;
+
+    public static void main(final String[] args) throws Exception {
+        final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12345);
+        final Path path = Files.createTempDirectory("memorized").resolve("memorized.sock");
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .unixDomainSocketPath(path)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("tcp", new ServerIntCounter());
+        repository.register("unix", new ServerIntCounter());
+
+        final String tcp = run("TCP", createClient(address, null, codecRegistry), "tcp");
+        final String unix = run("Unix domain socket", createClient(address, path, codecRegistry), "unix");
+
+        server.shutdown();
+        LOGGER.info(tcp);
+        LOGGER.info(unix);
+        LOGGER.info("Socket file deleted on shutdown: {}", !Files.exists(path));
+    }
+
+    private static MemorizedClient createClient(final InetSocketAddress address, final Path path, final CodecRegistry codecRegistry) {
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .unixDomainSocketPath(path)
+                .authenticationInput(new TokenAuthenticationInput("my-secure-token"))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .build();
+        client.start();
+        return client;
+    }
+
+    private static String run(final String name, final MemorizedClient client, final String key) {
+        final IntCounter counter = new StringIntCounter(client, key);
+        for (int i = 0; i < WARMUP; i++) {
+            counter.blockingIncrementAndGet();
+        }
+        final long[] latencies = new long[ACTIONS];
+        for (int i = 0; i < ACTIONS; i++) {
+            final long start = System.nanoTime();
+            counter.blockingIncrementAndGet();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        final ArrayDeque<CompletableFuture<Integer>> pending = new ArrayDeque<>();
+        final long start = System.nanoTime();
+        for (int i = 0; i < PIPELINED_ACTIONS; i++) {
+            if (pending.size() == PIPELINE) {
+                pending.poll().join();
+            }
+            pending.add(counter.asyncIncrementAndGet());
+        }
+        pending.forEach(CompletableFuture::join);
+        final long elapsed = System.nanoTime() - start;
+
+        client.shutdown();
+        Arrays.sort(latencies);
+        return String.format("%s: p50=%dus p99=%dus, %d ops/s pipelined", name,
+                percentile(latencies, 0.5D), percentile(latencies, 0.99D), PIPELINED_ACTIONS * 1_000_000_000L / elapsed);
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(sorted.length * percentile))] / 1_000L;
+    }
+
+}
\ No newline at end of file
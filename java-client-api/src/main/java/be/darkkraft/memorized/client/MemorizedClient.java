@@ -2,6 +2,8 @@ package be.darkkraft.memorized.client;
 
 import be.darkkraft.memorized.client.auth.AuthenticationInput;
 import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.map.NearCacheRegistry;
+import be.darkkraft.memorized.client.data.subscription.SubscriptionRegistry;
 import be.darkkraft.memorized.client.net.TransactionQueue;
 import be.darkkraft.memorized.codec.registry.CodecRegistry;
 import be.darkkraft.memorized.data.key.KeyRegistry;
@@ -9,10 +11,12 @@ import be.darkkraft.memorized.net.session.Session;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
  * Defines the contract for a Memorized client.
@@ -48,6 +52,24 @@ public interface MemorizedClient {
     @Contract(pure = true)
     @NotNull InetSocketAddress getServerAddress();
 
+    /**
+     * Retrieves the path of the server's Unix domain socket.
+     * When present, the client connects through this socket instead of the server address.
+     *
+     * @return The path of the Unix domain socket, or {@code null} if the client connects through TCP.
+     */
+    @Contract(pure = true)
+    @Nullable Path getUnixDomainSocketPath();
+
+    /**
+     * Retrieves the directory in which the server accepts shared memory connections.
+     * When present, the client connects through shared memory instead of a socket.
+     *
+     * @return The shared memory directory, or {@code null} if the client connects through a socket.
+     */
+    @Contract(pure = true)
+    @Nullable Path getSharedMemoryDirectory();
+
     /**
      * Retrieves the client's authentication details.
      *
@@ -79,6 +101,20 @@ public interface MemorizedClient {
      */
     TransactionQueue getTransactionQueue();
 
+    /**
+     * Retrieves the registry of the near caches of the maps of this client.
+     *
+     * @return The {@link NearCacheRegistry} of the client.
+     */
+    @NotNull NearCacheRegistry getNearCacheRegistry();
+
+    /**
+     * Retrieves the registry of the subscriptions made through the connection of the current thread.
+     *
+     * @return The {@link SubscriptionRegistry} of the connection.
+     */
+    @NotNull SubscriptionRegistry getSubscriptionRegistry();
+
     /**
      * Retrieves the session representing the connection to the server.
      *
@@ -86,6 +122,19 @@ public interface MemorizedClient {
      */
     Session getSession();
 
+    /**
+     * Retrieves the handle bound to a container key in the given session.
+     * <p>If the key is not bound yet, a bind is requested asynchronously and {@code 0} is returned,
+     * the full key must then be sent until the handle is available.</p>
+     *
+     * @param session       The {@link Session} in which the handle is used.
+     * @param keyIdentifier The identifier of the key type.
+     * @param key           The key of the container.
+     *
+     * @return The handle to send in place of the key identifier and the key, or {@code 0} if none is available.
+     */
+    int getKeyHandle(final @NotNull Session session, final int keyIdentifier, final @NotNull Object key);
+
     /**
      * Checks if the client is currently running.
      *
@@ -1,6 +1,10 @@
 package be.darkkraft.memorized.client.config;
 
-public record ClientConfiguration(int packetSizeLimit, int unauthenticatedPacketSizeLimit, long connectionRetryDelay) {
+import be.darkkraft.memorized.net.SelectStrategy;
+
+import java.util.Objects;
+
+public record ClientConfiguration(int packetSizeLimit, int unauthenticatedPacketSizeLimit, long connectionRetryDelay, boolean keyHandles, SelectStrategy selectStrategy, boolean callerReads, int maxInFlightRequests, int maxPendingBuffers, OverflowPolicy overflowPolicy, long requestTimeout, boolean coalesceReads, long connectTimeout) {
 
     public static Builder builder() {
         return new Builder();
@@ -10,6 +14,14 @@ public record ClientConfiguration(int packetSizeLimit, int unauthenticatedPacket
 
         private int packetSizeLimit = 1_048_576, unauthenticatedPacketSizeLimit = 320;
         private long connectionRetryDelay = 10_000L;
+        private boolean keyHandles = true;
+        private SelectStrategy selectStrategy = SelectStrategy.blocking();
+        private boolean callerReads;
+        private int maxInFlightRequests = 65_536, maxPendingBuffers = 65_536;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private long requestTimeout;
+        private boolean coalesceReads;
+        private long connectTimeout = 5_000L;
 
         private Builder() {
         }
@@ -41,8 +53,102 @@ public record ClientConfiguration(int packetSizeLimit, int unauthenticatedPacket
             return this;
         }
 
+        public boolean keyHandles() {
+            return this.keyHandles;
+        }
+
+        public Builder keyHandles(final boolean keyHandles) {
+            this.keyHandles = keyHandles;
+            return this;
+        }
+
+        public SelectStrategy selectStrategy() {
+            return this.selectStrategy;
+        }
+
+        public Builder selectStrategy(final SelectStrategy selectStrategy) {
+            this.selectStrategy = Objects.requireNonNull(selectStrategy, "Select strategy cannot be null");
+            return this;
+        }
+
+        public boolean callerReads() {
+            return this.callerReads;
+        }
+
+        public Builder callerReads(final boolean callerReads) {
+            this.callerReads = callerReads;
+            return this;
+        }
+
+        public int maxInFlightRequests() {
+            return this.maxInFlightRequests;
+        }
+
+        public Builder maxInFlightRequests(final int maxInFlightRequests) {
+            if (maxInFlightRequests < 1) {
+                throw new IllegalArgumentException("Max in-flight requests must be positive");
+            }
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        public int maxPendingBuffers() {
+            return this.maxPendingBuffers;
+        }
+
+        public Builder maxPendingBuffers(final int maxPendingBuffers) {
+            if (maxPendingBuffers < 1) {
+                throw new IllegalArgumentException("Max pending buffers must be positive");
+            }
+            this.maxPendingBuffers = maxPendingBuffers;
+            return this;
+        }
+
+        public OverflowPolicy overflowPolicy() {
+            return this.overflowPolicy;
+        }
+
+        public Builder overflowPolicy(final OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "Overflow policy cannot be null");
+            return this;
+        }
+
+        public long requestTimeout() {
+            return this.requestTimeout;
+        }
+
+        public Builder requestTimeout(final long requestTimeout) {
+            if (requestTimeout < 0L) {
+                throw new IllegalArgumentException("Request timeout cannot be negative");
+            }
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        public boolean coalesceReads() {
+            return this.coalesceReads;
+        }
+
+        public Builder coalesceReads(final boolean coalesceReads) {
+            this.coalesceReads = coalesceReads;
+            return this;
+        }
+
+        public long connectTimeout() {
+            return this.connectTimeout;
+        }
+
+        public Builder connectTimeout(final long connectTimeout) {
+            if (connectTimeout <= 0L) {
+                throw new IllegalArgumentException("Connect timeout must be positive");
+            }
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
         public ClientConfiguration build() {
-            return new ClientConfiguration(this.packetSizeLimit, this.unauthenticatedPacketSizeLimit, this.connectionRetryDelay);
+            return new ClientConfiguration(this.packetSizeLimit, this.unauthenticatedPacketSizeLimit, this.connectionRetryDelay, this.keyHandles, this.selectStrategy, this.callerReads,
+                    this.maxInFlightRequests, this.maxPendingBuffers, this.overflowPolicy, this.requestTimeout, this.coalesceReads, this.connectTimeout);
         }
 
     }
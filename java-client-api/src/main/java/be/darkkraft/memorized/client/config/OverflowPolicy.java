@@ -0,0 +1,26 @@
+package be.darkkraft.memorized.client.config;
+
+/**
+ * Defines what a client does with a request when its transaction queue is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The calling thread waits until a response or a reconnection makes room.
+     * Threads reading the responses of connections never wait, since the responses making room could be waiting for
+     * them: their requests are rejected like with {@link #FAIL_FAST}, unless they complete a request of the same client.
+     */
+    BLOCK,
+
+    /**
+     * The request is rejected with a {@link be.darkkraft.memorized.client.exception.TransactionQueueFullException}.
+     */
+    FAIL_FAST,
+
+    /**
+     * The oldest fire-and-forget packet waiting for the connection is dropped to make room for the new one.
+     * Requests expecting a response cannot be dropped once sent, they wait or are rejected like with {@link #BLOCK}.
+     */
+    DROP_OLDEST
+
+}
\ No newline at end of file
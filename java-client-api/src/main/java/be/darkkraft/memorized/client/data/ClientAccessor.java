@@ -2,6 +2,7 @@ package be.darkkraft.memorized.client.data;
 
 import be.darkkraft.memorized.client.MemorizedClient;
 import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.exception.TransactionQueueFullException;
 import be.darkkraft.memorized.client.exception.UnknownMemorizedClient;
 import be.darkkraft.memorized.packet.ByteBuf;
 import org.jetbrains.annotations.Contract;
@@ -63,8 +64,9 @@ public abstract class ClientAccessor {
      *
      * @param buffer The {@link ByteBuf} containing the data to be written.
      *
-     * @throws UnknownMemorizedClient  If the client is not defined.
-     * @throws SessionNotOpenException If the session is not open.
+     * @throws UnknownMemorizedClient        If the client is not defined.
+     * @throws SessionNotOpenException       If the session is not open.
+     * @throws TransactionQueueFullException If too many packets wait for the connection and the overflow policy fails fast.
      */
     public void write(final @NotNull ByteBuf buffer) {
         this.client().getTransactionQueue().directQueue(buffer);
@@ -2,11 +2,16 @@ package be.darkkraft.memorized.client.data;
 
 import be.darkkraft.memorized.client.MemorizedClient;
 import be.darkkraft.memorized.client.exception.UnknownMemorizedClient;
+import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.packet.ByteBuf;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import static be.darkkraft.memorized.packet.ClientPacket.CREATE;
+import static be.darkkraft.memorized.packet.ClientPacket.DELETE;
 
 /**
  * Provides an abstract base class for client accessors that require identifier handling.
@@ -15,6 +20,11 @@ public abstract class IdentifiableClientAccessor extends ClientAccessor {
 
     protected int keyIdentifier = -1;
 
+    /**
+     * Handle of the key in the last session it was resolved for.
+     */
+    private volatile BoundHandle boundHandle;
+
     /**
      * Creates a new IdentifiableClientAccessor with a given client.
      *
@@ -31,8 +41,77 @@ public abstract class IdentifiableClientAccessor extends ClientAccessor {
         // Default constructor
     }
 
+    /**
+     * Creates the container identified by this accessor on the server.
+     *
+     * @param typeIdentifier The identifier of the container type, as registered in the server's factory registry.
+     *
+     * @return {@code true} if the container was created, {@code false} if it already exists or the type is unknown.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    public boolean blockingCreate(final int typeIdentifier) {
+        return this.asyncCreate(typeIdentifier, 0).join();
+    }
+
+    /**
+     * Creates the container identified by this accessor on the server.
+     *
+     * @param typeIdentifier The identifier of the container type, as registered in the server's factory registry.
+     * @param capacityHint   The expected number of elements, used by the server to pre-size the container.
+     *
+     * @return {@code true} if the container was created, {@code false} if it already exists or the type is unknown.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    public boolean blockingCreate(final int typeIdentifier, final int capacityHint) {
+        return this.asyncCreate(typeIdentifier, capacityHint).join();
+    }
+
+    /**
+     * Asynchronously creates the container identified by this accessor on the server.
+     *
+     * @param typeIdentifier The identifier of the container type, as registered in the server's factory registry.
+     * @param capacityHint   The expected number of elements, used by the server to pre-size the container.
+     *
+     * @return A {@link CompletableFuture} completed with {@code true} if the container was created,
+     * {@code false} if it already exists or the type is unknown.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    @NotNull
+    public CompletableFuture<Boolean> asyncCreate(final int typeIdentifier, final int capacityHint) {
+        return this.queue(this.writeKey(new ByteBuf().put(CREATE.getId())).putInt(typeIdentifier).putInt(capacityHint))
+                .thenApply(buffer -> buffer != null && buffer.get() == 1);
+    }
+
+    /**
+     * Deletes the container identified by this accessor on the server.
+     *
+     * @return {@code true} if the container was deleted, {@code false} if it does not exist.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    public boolean blockingDelete() {
+        return this.asyncDelete().join();
+    }
+
+    /**
+     * Asynchronously deletes the container identified by this accessor on the server.
+     *
+     * @return A {@link CompletableFuture} completed with {@code true} if the container was deleted,
+     * {@code false} if it does not exist.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    @NotNull
+    public CompletableFuture<Boolean> asyncDelete() {
+        return this.queue(this.writeKey(new ByteBuf().put(DELETE.getId()))).thenApply(buffer -> buffer != null && buffer.get() == 1);
+    }
+
     /**
      * Writes the identifier to the given {@link ByteBuffer}.
+     * <p>Once the key is bound to a handle of the current session, only the 4 bytes handle is written.</p>
      *
      * @param buffer The buffer into which the identifier should be written.
      *
@@ -42,10 +121,41 @@ public abstract class IdentifiableClientAccessor extends ClientAccessor {
      */
     @NotNull
     protected ByteBuf writeId(final @NotNull ByteBuf buffer) {
+        final MemorizedClient client = this.client();
+        final Session session = client.getSession();
+        final BoundHandle bound = this.boundHandle;
+        if (bound != null && bound.session() == session) {
+            return buffer.putInt(bound.handle());
+        }
+        if (session != null) {
+            final int handle = client.getKeyHandle(session, this.keyIdentifier(), this.getKeyId());
+            if (handle != 0) {
+                this.boundHandle = new BoundHandle(session, handle);
+                return buffer.putInt(handle);
+            }
+        }
+        return this.writeKey(buffer);
+    }
+
+    /**
+     * Writes the key identifier and the full key to the given {@link ByteBuffer}, without using any handle.
+     *
+     * @param buffer The buffer into which the key should be written.
+     *
+     * @return The modified {@link ByteBuffer} containing the key.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    @NotNull
+    protected ByteBuf writeKey(final @NotNull ByteBuf buffer) {
+        return this.client().getCodecRegistry().encode(buffer.putInt(this.keyIdentifier()), this.getKeyId());
+    }
+
+    private int keyIdentifier() {
         if (this.keyIdentifier == -1) {
             this.keyIdentifier = this.getKeyIdentifier(this.getKeyClass());
         }
-        return this.client().getCodecRegistry().encode(buffer.putInt(this.keyIdentifier), this.getKeyId());
+        return this.keyIdentifier;
     }
 
     /**
@@ -64,4 +174,7 @@ public abstract class IdentifiableClientAccessor extends ClientAccessor {
     @Contract(pure = true)
     protected abstract @NotNull Object getKeyId();
 
+    private record BoundHandle(@NotNull Session session, int handle) {
+    }
+
 }
\ No newline at end of file
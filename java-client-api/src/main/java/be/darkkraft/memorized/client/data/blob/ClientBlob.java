@@ -0,0 +1,244 @@
+package be.darkkraft.memorized.client.data.blob;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.data.IdentifiableClientAccessor;
+import be.darkkraft.memorized.client.exception.BlobReplacedException;
+import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.exception.UnknownMemorizedClient;
+import be.darkkraft.memorized.data.blob.BlobUpdate;
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+import static be.darkkraft.memorized.packet.ClientPacket.SHOW;
+import static be.darkkraft.memorized.packet.ClientPacket.UPDATE;
+
+/**
+ * Provides a client-side access to a large binary value of the server, written and read in chunks so that neither
+ * side handles the value in a single packet.
+ * <p>At most a few chunks are in flight at once, so that a transfer only buffers these chunks in the client and does
+ * not fill the queue of requests. The methods wait for the server, they must not be called on the thread reading the
+ * connection.</p>
+ */
+public abstract class ClientBlob extends IdentifiableClientAccessor {
+
+    /**
+     * Default size of a chunk in bytes, bounded by the packet size limit of the client.
+     */
+    private static final int CHUNK_SIZE = 32768;
+
+    /**
+     * Maximum number of chunks in flight during a transfer.
+     */
+    private static final int WINDOW = 4;
+
+    /**
+     * Size of the headers of a chunk: the packet identifier, the identifier or key of the blob, and the step or range.
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * Constructs a new instance of {@link ClientBlob}.
+     *
+     * @param client The {@link MemorizedClient} associated with this blob.
+     */
+    protected ClientBlob(final MemorizedClient client) {
+        super(client);
+    }
+
+    /**
+     * Default constructor for {@link ClientBlob}.
+     */
+    protected ClientBlob() {
+        // Default constructor
+    }
+
+    /**
+     * Replaces the value of this blob.
+     *
+     * @param value The new value.
+     *
+     * @return The version of the new value, {@code 0} if the blob does not exist or the value exceeds its maximum size.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @see #put(InputStream, long)
+     */
+    public long put(final byte @NotNull [] value) {
+        try {
+            return this.put(new ByteArrayInputStream(value), value.length);
+        } catch (final IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Replaces the value of this blob with the bytes of a stream, sent in chunks. The new value is visible once every
+     * chunk was received by the server.
+     *
+     * @param input The stream of the new value.
+     * @param size  The number of bytes of the new value read from the stream.
+     *
+     * @return The version of the new value, {@code 0} if the blob does not exist or the value exceeds its maximum size.
+     *
+     * @throws IOException             If the stream cannot be read or ends before the given size.
+     * @throws IllegalStateException   If the server dropped the upload.
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     */
+    public long put(final @NotNull InputStream input, final long size) throws IOException {
+        final ByteBuf begin = this.writeId(new ByteBuf().put(UPDATE.getId())).put(BlobUpdate.BEGIN.getId()).putLong(size);
+        final Integer upload = this.queue(begin).thenApply(buffer -> buffer == null ? 0 : buffer.getInt()).join();
+        if (upload == 0) {
+            return 0L;
+        }
+        final int chunkSize = this.chunkSize();
+        final Deque<CompletableFuture<Long>> window = new ArrayDeque<>(WINDOW);
+        try {
+            long sent = 0L;
+            while (sent < size) {
+                final byte[] chunk = input.readNBytes((int) Math.min(chunkSize, size - sent));
+                if (chunk.length == 0) {
+                    throw new EOFException("Stream ended after " + sent + " of " + size + " bytes");
+                }
+                if (window.size() == WINDOW) {
+                    checkStaged(window.poll().join());
+                }
+                final ByteBuf append = this.writeId(new ByteBuf(chunk.length + HEADER_SIZE).put(UPDATE.getId()))
+                        .put(BlobUpdate.APPEND.getId()).putInt(upload).put(chunk);
+                window.add(this.queue(append).thenApply(buffer -> buffer == null ? -1L : buffer.getLong()));
+                sent += chunk.length;
+            }
+            while (!window.isEmpty()) {
+                checkStaged(window.poll().join());
+            }
+        } catch (final IOException | RuntimeException exception) {
+            this.queue(this.writeId(new ByteBuf().put(UPDATE.getId())).put(BlobUpdate.ABORT.getId()).putInt(upload));
+            throw exception;
+        }
+        final ByteBuf commit = this.writeId(new ByteBuf().put(UPDATE.getId())).put(BlobUpdate.COMMIT.getId()).putInt(upload);
+        return this.queue(commit).thenApply(buffer -> buffer == null ? 0L : buffer.getLong()).join();
+    }
+
+    /**
+     * Reads the value of this blob.
+     *
+     * @return The value, or {@code null} if the blob does not exist.
+     *
+     * @throws IllegalStateException   If the value is too big for an array.
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @see #read(OutputStream)
+     */
+    public byte @Nullable [] get() {
+        while (true) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try {
+                return this.read(output) != -1L ? output.toByteArray() : null;
+            } catch (final BlobReplacedException ignored) {
+                // Read the new value
+            } catch (final IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    /**
+     * Reads the value of this blob into a stream, received in chunks. The next chunks are requested while the
+     * previous ones are written to the stream.
+     *
+     * @param output The stream to write the value to.
+     *
+     * @return The version of the value read, {@code 0} if it was never set, or {@code -1} if the blob does not exist.
+     *
+     * @throws IOException             If the stream cannot be written.
+     * @throws BlobReplacedException   If the value was replaced during the read, part of the previous value was written.
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     */
+    public long read(final @NotNull OutputStream output) throws IOException {
+        final int chunkSize = this.chunkSize();
+        final Range first = this.range(0L, chunkSize).join();
+        if (first == null) {
+            return -1L;
+        }
+        output.write(first.bytes());
+        // The server may answer smaller ranges than requested, the first one tells their size
+        final int step = first.bytes().length;
+        final Deque<CompletableFuture<Range>> window = new ArrayDeque<>(WINDOW);
+        long requested = step;
+        long received = requested;
+        while (received < first.size()) {
+            while (window.size() < WINDOW && requested < first.size()) {
+                window.add(this.range(requested, step));
+                requested += step;
+            }
+            final Range range = window.poll().join();
+            if (range == null || range.version() != first.version()) {
+                throw new BlobReplacedException();
+            }
+            output.write(range.bytes());
+            received += range.bytes().length;
+        }
+        return first.version();
+    }
+
+    /**
+     * Gets the size of the value of this blob.
+     *
+     * @return A {@link CompletableFuture} completed with the size in bytes, or {@code -1} if the blob does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     */
+    @NotNull
+    public CompletableFuture<Long> asyncSize() {
+        return this.range(0L, 0).thenApply(range -> range == null ? -1L : range.size());
+    }
+
+    @NotNull
+    private CompletableFuture<Range> range(final long offset, final int length) {
+        final ByteBuf buffer = this.writeId(new ByteBuf().put(SHOW.getId())).putLong(offset).putInt(length);
+        return this.queue(buffer).thenApply(b -> {
+            if (b == null) {
+                return null;
+            }
+            final long version = b.getLong();
+            final long size = b.getLong();
+            final byte[] bytes = new byte[b.remaining()];
+            b.get(bytes);
+            return new Range(version, size, bytes);
+        });
+    }
+
+    private int chunkSize() {
+        return Math.min(CHUNK_SIZE, this.client().getPacketSizeLimit(true) - HEADER_SIZE);
+    }
+
+    private static void checkStaged(final long staged) {
+        if (staged < 0L) {
+            throw new IllegalStateException("Upload was dropped by the server");
+        }
+    }
+
+    /**
+     * Range of the value of a blob.
+     *
+     * @param version The version of the value.
+     * @param size    The size of the value.
+     * @param bytes   The bytes of the range.
+     */
+    private record Range(long version, long size, byte @NotNull [] bytes) {
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package be.darkkraft.memorized.client.data.blob;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Provides a client-side implementation of a {@link ClientBlob} using strings as keys.
+ */
+public class StringBlob extends ClientBlob {
+
+    private final String id;
+
+    /**
+     * Constructs a new instance of {@link StringBlob}.
+     *
+     * @param client The {@link MemorizedClient} associated with this blob.
+     * @param id     The identifier for this blob.
+     */
+    public StringBlob(final MemorizedClient client, final String id) {
+        super(client);
+        this.id = id;
+    }
+
+    /**
+     * Default constructor for {@link StringBlob}.
+     *
+     * @param id The identifier for this blob.
+     */
+    public StringBlob(final String id) {
+        this.id = id;
+    }
+
+    @Override
+    protected @NotNull Class<?> getKeyClass() {
+        return String.class;
+    }
+
+    @Override
+    protected @NotNull String getKeyId() {
+        return this.id;
+    }
+
+}
\ No newline at end of file
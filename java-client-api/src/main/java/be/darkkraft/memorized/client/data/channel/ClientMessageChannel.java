@@ -0,0 +1,128 @@
+package be.darkkraft.memorized.client.data.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.data.IdentifiableClientAccessor;
+import be.darkkraft.memorized.client.data.subscription.Subscription;
+import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.exception.UnknownMemorizedClient;
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static be.darkkraft.memorized.packet.ClientPacket.SHOW;
+import static be.darkkraft.memorized.packet.ClientPacket.UPDATE;
+
+/**
+ * Provides a client-side access to a message channel of the server: messages published by a client are delivered to
+ * every subscribed client.
+ * <p>Messages are delivered at most once. A subscriber reading slower than messages are published misses some of them
+ * once its queue in the server is full.</p>
+ */
+public abstract class ClientMessageChannel extends IdentifiableClientAccessor {
+
+    /**
+     * Constructs a new instance of {@link ClientMessageChannel}.
+     *
+     * @param client The {@link MemorizedClient} associated with this channel.
+     */
+    protected ClientMessageChannel(final MemorizedClient client) {
+        super(client);
+    }
+
+    /**
+     * Default constructor for {@link ClientMessageChannel}.
+     */
+    protected ClientMessageChannel() {
+        // Default constructor
+    }
+
+    /**
+     * Publishes a message to the subscribers of this channel.
+     *
+     * @param message The message.
+     *
+     * @return A {@link CompletableFuture} completed with the number of subscribers that accepted the message, {@code 0}
+     * if the channel does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     */
+    @NotNull
+    public CompletableFuture<Integer> asyncPublish(final byte @NotNull [] message) {
+        return this.queue(this.writeId(new ByteBuf(message.length + 16).put(UPDATE.getId())).put(message))
+                .thenApply(buffer -> buffer == null ? 0 : buffer.getInt());
+    }
+
+    /**
+     * Publishes a message to the subscribers of this channel and waits for the server.
+     *
+     * @param message The message.
+     *
+     * @return The number of subscribers that accepted the message, {@code 0} if the channel does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @see #asyncPublish(byte[])
+     */
+    public int blockingPublish(final byte @NotNull [] message) {
+        return this.asyncPublish(message).join();
+    }
+
+    /**
+     * Gets the number of subscribers of this channel.
+     *
+     * @return A {@link CompletableFuture} completed with the number of subscribers, {@code 0} if the channel does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     */
+    @NotNull
+    public CompletableFuture<Integer> asyncSubscriberCount() {
+        return this.queue(this.writeId(new ByteBuf().put(SHOW.getId()))).thenApply(buffer -> buffer == null ? 0 : buffer.getInt());
+    }
+
+    /**
+     * Subscribes to the messages published to this channel from now on.
+     *
+     * @param listener The listener called with each message, on the thread reading the connection.
+     *
+     * @return A {@link CompletableFuture} completed with the subscription, or {@code null} if the channel does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     */
+    @NotNull
+    public CompletableFuture<Subscription> asyncSubscribe(final @NotNull Consumer<byte[]> listener) {
+        return this.client().getSubscriptionRegistry().subscribe((buffer, id) -> this.writeKey(buffer).putInt(id), payload -> listener.accept(read(payload)));
+    }
+
+    /**
+     * Subscribes to the messages published to this channel from now on and waits for the server.
+     *
+     * @param listener The listener called with each message, on the thread reading the connection.
+     *
+     * @return The subscription, or {@code null} if the channel does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     * @see #asyncSubscribe(Consumer)
+     */
+    @Nullable
+    public Subscription blockingSubscribe(final @NotNull Consumer<byte[]> listener) {
+        return this.asyncSubscribe(listener).join();
+    }
+
+    private static byte @NotNull [] read(final @NotNull ByteBuffer payload) {
+        final byte[] message = new byte[payload.remaining()];
+        payload.get(message);
+        return message;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package be.darkkraft.memorized.client.data.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Provides a client-side implementation of a {@link ClientMessageChannel} using strings as keys.
+ */
+public class StringMessageChannel extends ClientMessageChannel {
+
+    private final String id;
+
+    /**
+     * Constructs a new instance of {@link StringMessageChannel}.
+     *
+     * @param client The {@link MemorizedClient} associated with this channel.
+     * @param id     The identifier for this channel.
+     */
+    public StringMessageChannel(final MemorizedClient client, final String id) {
+        super(client);
+        this.id = id;
+    }
+
+    /**
+     * Default constructor for {@link StringMessageChannel}.
+     *
+     * @param id The identifier for this channel.
+     */
+    public StringMessageChannel(final String id) {
+        this.id = id;
+    }
+
+    @Override
+    protected @NotNull Class<?> getKeyClass() {
+        return String.class;
+    }
+
+    @Override
+    protected @NotNull String getKeyId() {
+        return this.id;
+    }
+
+}
\ No newline at end of file
@@ -2,12 +2,17 @@ package be.darkkraft.memorized.client.data.counter;
 
 import be.darkkraft.memorized.client.MemorizedClient;
 import be.darkkraft.memorized.client.data.IdentifiableClientAccessor;
+import be.darkkraft.memorized.client.data.subscription.Subscription;
+import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.exception.UnknownMemorizedClient;
 import be.darkkraft.memorized.data.counter.CounterUpdate;
 import be.darkkraft.memorized.data.counter.IntCounter;
 import be.darkkraft.memorized.packet.ByteBuf;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 
 import static be.darkkraft.memorized.packet.ClientPacket.SHOW;
 import static be.darkkraft.memorized.packet.ClientPacket.UPDATE;
@@ -73,6 +78,40 @@ public abstract class ClientIntCounter extends IdentifiableClientAccessor implem
         return this.operate(CounterUpdate.GET_AND_DECREMENT, value);
     }
 
+    /**
+     * Subscribes to the changes of this counter. The value read after the subscription completes is followed by
+     * every change, though the notifications of a change can arrive before the response of that read.
+     *
+     * @param listener The listener called with the new value of the counter after its changes.
+     *
+     * @return A {@link CompletableFuture} completed with the subscription, or {@code null} if the counter does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     */
+    @NotNull
+    public CompletableFuture<Subscription> asyncSubscribe(final @NotNull IntConsumer listener) {
+        return this.client().getSubscriptionRegistry().subscribe((buffer, id) -> this.writeKey(buffer).putInt(id), payload -> listener.accept(payload.getInt()));
+    }
+
+    /**
+     * Subscribes to the changes of this counter and waits for the server.
+     *
+     * @param listener The listener called with the new value of the counter after its changes.
+     *
+     * @return The subscription, or {@code null} if the counter does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     * @see #asyncSubscribe(IntConsumer)
+     */
+    @Nullable
+    public Subscription blockingSubscribe(final @NotNull IntConsumer listener) {
+        return this.asyncSubscribe(listener).join();
+    }
+
     private CompletableFuture<Integer> operate(final CounterUpdate update, final int value) {
         return this.queue(this.writeId(new ByteBuf().put(UPDATE.getId())).put(update.getId()).putInt(value))
                 .thenApply(buffer -> buffer == null ? 0 : buffer.getInt());
@@ -1,7 +1,10 @@
 package be.darkkraft.memorized.client.data.map;
 
 import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
 import be.darkkraft.memorized.client.data.IdentifiableClientAccessor;
+import be.darkkraft.memorized.client.data.subscription.Subscription;
+import be.darkkraft.memorized.client.exception.OversizedScanEntryException;
 import be.darkkraft.memorized.client.exception.SessionNotOpenException;
 import be.darkkraft.memorized.client.exception.UnknownMemorizedClient;
 import be.darkkraft.memorized.data.map.MapUpdate;
@@ -9,18 +12,41 @@ import be.darkkraft.memorized.data.map.MemorizedMap;
 import be.darkkraft.memorized.packet.ByteBuf;
 import be.darkkraft.memorized.packet.ClientPacket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Provides a client-side implementation of the {@link MemorizedMap} interface for key-value storage.
+ * <p>Reads can be answered by a {@link NearCache near cache} of the client, kept up to date by the server.</p>
+ * <p>Changes of a key or of the whole map can be {@link #asyncSubscribe(Object, Consumer) subscribed to} instead of polled.</p>
+ * <p>The entries of the map can be enumerated in chunks with a {@link #scan(Class) scan}.</p>
  *
  * @param <K> The type of keys maintained by this map.
  * @param <V> The type of values that can be stored in this map.
  */
 public abstract class ClientMemorizedMap<K, V> extends IdentifiableClientAccessor implements MemorizedMap<K, V> {
 
+    /**
+     * Default maximum size of a chunk of a scan in bytes.
+     */
+    private static final int DEFAULT_SCAN_CHUNK_SIZE = 65536;
+
+    /**
+     * Cursor answered by the server once the next entry of a scan exceeds its packet size limit.
+     */
+    private static final long SCAN_FAILED = -1L;
+
     private final Class<V> valueClass;
+    private volatile NearCache<K, V> nearCache;
 
     /**
      * Constructs a new instance of {@link ClientMemorizedMap}.
@@ -42,6 +68,53 @@ public abstract class ClientMemorizedMap<K, V> extends IdentifiableClientAccesso
         this.valueClass = valueClass;
     }
 
+    /**
+     * Enables a near cache in front of this map, answering the reads of the keys already read without any request.
+     * The server pushes an invalidation to the cache when one of its keys changes.
+     * <p>Clients whose {@link ClientConfiguration#callerReads() callers read} the responses cannot have a near cache:
+     * a read answered by the cache reads nothing from the connection, so the invalidations would never be read.</p>
+     *
+     * @param keyClass    The class of the keys, to decode the keys invalidated by the server.
+     * @param maximumSize The maximum number of cached entries, the least recently used ones are evicted.
+     *
+     * @return This map.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     * @throws IllegalStateException  If the callers of the client read the responses.
+     */
+    @NotNull
+    public ClientMemorizedMap<K, V> enableNearCache(final @NotNull Class<K> keyClass, final int maximumSize) {
+        if (this.client().getConfiguration().callerReads()) {
+            throw new IllegalStateException("Near caches are not supported by clients whose callers read the responses");
+        }
+        this.disableNearCache();
+        this.nearCache = this.client().getNearCacheRegistry().create(keyClass, maximumSize);
+        return this;
+    }
+
+    /**
+     * Disables the near cache of this map, if enabled.
+     *
+     * @throws UnknownMemorizedClient If the client is not defined.
+     */
+    public void disableNearCache() {
+        final NearCache<K, V> cache = this.nearCache;
+        if (cache != null) {
+            this.nearCache = null;
+            this.client().getNearCacheRegistry().remove(cache);
+        }
+    }
+
+    /**
+     * Gets the near cache of this map.
+     *
+     * @return The near cache, or {@code null} if it is not enabled.
+     */
+    @Nullable
+    public NearCache<K, V> getNearCache() {
+        return this.nearCache;
+    }
+
     /**
      * Asynchronously retrieves a value associated with a given key.
      *
@@ -55,9 +128,26 @@ public abstract class ClientMemorizedMap<K, V> extends IdentifiableClientAccesso
     @Override
     @NotNull
     public CompletableFuture<V> asyncGet(final @NotNull K key) {
-        final ByteBuf buffer = this.writeId(new ByteBuf().put(ClientPacket.SHOW.getId()));
+        final NearCache<K, V> cache = this.nearCache;
+        if (cache == null) {
+            final ByteBuf buffer = this.writeId(new ByteBuf().put(ClientPacket.SHOW.getId()));
+            this.client().getCodecRegistry().encode(buffer, key);
+            return this.queue(buffer).thenApply(b -> b != null ? this.client().getCodecRegistry().decode(b, this.valueClass) : null);
+        }
+        final V cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        final long version = cache.version();
+        final ByteBuf buffer = this.writeId(new ByteBuf().put(ClientPacket.TRACKED_SHOW.getId())).putInt(cache.getId());
         this.client().getCodecRegistry().encode(buffer, key);
-        return this.queue(buffer).thenApply(b -> b != null ? this.client().getCodecRegistry().decode(b, this.valueClass) : null);
+        return this.queue(buffer).thenApply(b -> {
+            final V value = b != null ? this.client().getCodecRegistry().decode(b, this.valueClass) : null;
+            if (value != null) {
+                cache.put(key, value, version);
+            }
+            return value;
+        });
     }
 
     /**
@@ -71,6 +161,7 @@ public abstract class ClientMemorizedMap<K, V> extends IdentifiableClientAccesso
      */
     @Override
     public void put(final @NotNull K key, final V value) {
+        this.invalidateNearCache(key);
         final ByteBuf buffer = this.writeId(new ByteBuf().put(ClientPacket.UPDATE.getId())).put(MapUpdate.SET.getId());
         this.client().getCodecRegistry().encode(buffer, key);
         this.client().getCodecRegistry().encode(buffer, value);
@@ -87,9 +178,150 @@ public abstract class ClientMemorizedMap<K, V> extends IdentifiableClientAccesso
      */
     @Override
     public void remove(final @NotNull K key) {
+        this.invalidateNearCache(key);
         final ByteBuf buffer = this.writeId(new ByteBuf().put(ClientPacket.UPDATE.getId())).put(MapUpdate.REMOVE.getId());
         this.client().getCodecRegistry().encode(buffer, key);
         this.write(buffer);
     }
 
+    /**
+     * Subscribes to the changes of a key. The value read after the subscription completes is followed by every
+     * change, though the notifications of a change can arrive before the response of that read.
+     *
+     * @param key      The key.
+     * @param listener The listener called with the new value of the key after its changes, or {@code null} once removed.
+     *
+     * @return A {@link CompletableFuture} completed with the subscription, or {@code null} if the map does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     */
+    @NotNull
+    public CompletableFuture<Subscription> asyncSubscribe(final @NotNull K key, final @NotNull Consumer<V> listener) {
+        return this.client().getSubscriptionRegistry().subscribe((buffer, id) -> this.client().getCodecRegistry().encode(this.writeKey(buffer).putInt(id), key),
+                payload -> listener.accept(this.readValue(payload)));
+    }
+
+    /**
+     * Subscribes to the changes of every key of this map.
+     *
+     * @param keyClass The class of the keys, to decode the changed keys.
+     * @param listener The listener called with each changed key and its new value, or {@code null} once removed.
+     *
+     * @return A {@link CompletableFuture} completed with the subscription, or {@code null} if the map does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     * @see #asyncSubscribe(Object, Consumer)
+     */
+    @NotNull
+    public CompletableFuture<Subscription> asyncSubscribeAll(final @NotNull Class<K> keyClass, final @NotNull BiConsumer<K, V> listener) {
+        return this.client().getSubscriptionRegistry().subscribe((buffer, id) -> this.writeKey(buffer).putInt(id),
+                payload -> listener.accept(this.client().getCodecRegistry().decode(payload, keyClass), this.readValue(payload)));
+    }
+
+    /**
+     * Enumerates the entries of this map, fetched in chunks of the default size.
+     *
+     * @param keyClass The class of the keys, to decode the keys of the entries.
+     *
+     * @return A {@link Stream} of the entries, empty if the map does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined, once the stream is consumed.
+     * @throws SessionNotOpenException If the session is not open, once the stream is consumed.
+     * @see #scan(Class, int)
+     */
+    @NotNull
+    public Stream<Map.Entry<K, V>> scan(final @NotNull Class<K> keyClass) {
+        return this.scan(keyClass, DEFAULT_SCAN_CHUNK_SIZE);
+    }
+
+    /**
+     * Enumerates the entries of this map, fetched in chunks. Each chunk is requested as soon as the previous one is
+     * received, so that it is fetched while the previous one is consumed. Entries present during the whole scan are
+     * returned exactly once, entries changed meanwhile may or may not be.
+     * <p>The first chunk is requested by the terminal operation of the stream, which throws the exceptions of the
+     * request. The stream waits for the chunks, it must not be consumed on the thread reading the connection. If it is
+     * not consumed until its end, it should be closed to release the cursor in the server. An entry too big to be sent by
+     * the server fails the stream with a {@link java.util.concurrent.CompletionException} caused by an
+     * {@link OversizedScanEntryException}.</p>
+     *
+     * @param keyClass  The class of the keys, to decode the keys of the entries.
+     * @param chunkSize The maximum size of a chunk in bytes, bounded by the packet size limit of the client. An entry
+     *                  bigger than this size is returned alone.
+     *
+     * @return A {@link Stream} of the entries, empty if the map does not exist.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined, once the stream is consumed.
+     * @throws SessionNotOpenException If the session is not open, once the stream is consumed.
+     */
+    @NotNull
+    public Stream<Map.Entry<K, V>> scan(final @NotNull Class<K> keyClass, final int chunkSize) {
+        final ScanSpliterator<K, V> spliterator = new ScanSpliterator<>(this, keyClass, chunkSize);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Fetches a chunk of entries of this map.
+     *
+     * @param keyClass  The class of the keys, to decode the keys of the entries.
+     * @param cursor    The cursor of the chunk, {@code 0} to start a new scan.
+     * @param chunkSize The maximum size of the chunk in bytes, bounded by the packet size limit of the client.
+     *
+     * @return A {@link CompletableFuture} completed with the chunk, or {@code null} if the map does not exist or the
+     * cursor is unknown to the server. It fails with an {@link OversizedScanEntryException} if the next entry exceeds the
+     * packet size limit of the server, the cursor being released.
+     *
+     * @throws UnknownMemorizedClient  If the client is not defined.
+     * @throws SessionNotOpenException If the session is not open.
+     */
+    @NotNull
+    public CompletableFuture<ScanChunk<K, V>> asyncScan(final @NotNull Class<K> keyClass, final long cursor, final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        // The response also holds its packet identifier, the cursor and the number of entries
+        final int size = Math.min(chunkSize, this.client().getPacketSizeLimit(true) - 13);
+        final ByteBuf buffer = this.writeId(new ByteBuf().put(ClientPacket.SCAN.getId())).putLong(cursor).putInt(size);
+        return this.queue(buffer).thenApply(b -> {
+            if (b == null) {
+                return null;
+            }
+            final long next = b.getLong();
+            if (next == SCAN_FAILED) {
+                throw new OversizedScanEntryException();
+            }
+            final int count = b.getInt();
+            final List<Map.Entry<K, V>> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final K key = this.client().getCodecRegistry().decode(b, keyClass);
+                entries.add(Map.entry(key, this.client().getCodecRegistry().decode(b, this.valueClass)));
+            }
+            return new ScanChunk<>(next, entries);
+        });
+    }
+
+    /**
+     * Releases the cursor of a scan that will not be resumed. The server acknowledges the release like a chunk.
+     *
+     * @param cursor The cursor.
+     */
+    void releaseScan(final long cursor) {
+        this.queue(this.writeId(new ByteBuf().put(ClientPacket.SCAN.getId())).putLong(cursor).putInt(0));
+    }
+
+    @Nullable
+    private V readValue(final @NotNull ByteBuffer payload) {
+        return payload.get() != 0 ? this.client().getCodecRegistry().decode(payload, this.valueClass) : null;
+    }
+
+    private void invalidateNearCache(final @NotNull K key) {
+        final NearCache<K, V> cache = this.nearCache;
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package be.darkkraft.memorized.client.data.map;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the values of a {@link ClientMemorizedMap}, kept by the client in front of the map.
+ * <p>The server tracks the keys read through the cache and pushes an invalidation when they change. The least
+ * recently used entries are evicted once the cache is full.</p>
+ * <p>Every invalidation bumps the version of the cache. A value read from the server is only cached if the version
+ * did not change since the read was sent, so that an invalidation received before its response is never missed.</p>
+ *
+ * @param <K> The type of keys maintained by the map.
+ * @param <V> The type of values maintained by the map.
+ */
+public final class NearCache<K, V> {
+
+    private final int id;
+    private final Class<K> keyClass;
+    private final int maximumSize;
+    private final Map<K, V> entries;
+
+    private long version;
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param id          The identifier of the cache in its client, sent with the tracked reads.
+     * @param keyClass    The class of the keys, to decode the invalidated keys.
+     * @param maximumSize The maximum number of entries.
+     */
+    NearCache(final int id, final @NotNull Class<K> keyClass, final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.id = id;
+        this.keyClass = keyClass;
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return this.size() > NearCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached value of a key.
+     *
+     * @param key The key.
+     *
+     * @return The cached value, or {@code null} if the key is not cached.
+     */
+    @Nullable
+    public synchronized V get(final @NotNull K key) {
+        final V value = this.entries.get(key);
+        if (value != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the current version of the cache, to read before sending a tracked read.
+     *
+     * @return The version.
+     */
+    public synchronized long version() {
+        return this.version;
+    }
+
+    /**
+     * Caches the value of a key read from the server, unless the cache was invalidated since the read was sent.
+     *
+     * @param key     The key.
+     * @param value   The value read.
+     * @param version The version of the cache when the read was sent.
+     */
+    public synchronized void put(final @NotNull K key, final @NotNull V value, final long version) {
+        if (this.version == version) {
+            this.entries.put(key, value);
+        }
+    }
+
+    /**
+     * Removes the cached value of a key, because it changed.
+     *
+     * @param key The changed key.
+     */
+    public synchronized void invalidate(final @NotNull K key) {
+        this.version++;
+        this.invalidations++;
+        this.entries.remove(key);
+    }
+
+    /**
+     * Removes every cached value, such as when the server stopped tracking the cache.
+     */
+    public synchronized void clear() {
+        this.version++;
+        this.entries.clear();
+    }
+
+    /**
+     * Gets the identifier of this cache in its client.
+     *
+     * @return The identifier.
+     */
+    @Contract(pure = true)
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the class of the keys of this cache.
+     *
+     * @return The class of the keys.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Class<K> getKeyClass() {
+        return this.keyClass;
+    }
+
+    /**
+     * Gets the maximum number of entries of this cache.
+     *
+     * @return The maximum number of entries.
+     */
+    @Contract(pure = true)
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets the number of reads answered by this cache.
+     *
+     * @return The number of hits.
+     */
+    public synchronized long hitCount() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the number of reads sent to the server because the key was not cached.
+     *
+     * @return The number of misses.
+     */
+    public synchronized long missCount() {
+        return this.misses;
+    }
+
+    /**
+     * Gets the number of keys invalidated, by the server or by writes of this client.
+     *
+     * @return The number of invalidations.
+     */
+    public synchronized long invalidationCount() {
+        return this.invalidations;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package be.darkkraft.memorized.client.data.map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the {@link NearCache near caches} of a client, by identifier, so that the invalidations pushed by the
+ * server reach their cache.
+ */
+public final class NearCacheRegistry {
+
+    private final Map<Integer, NearCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Creates and registers a new cache.
+     *
+     * @param keyClass    The class of the keys.
+     * @param maximumSize The maximum number of entries.
+     * @param <K>         The type of the keys.
+     * @param <V>         The type of the values.
+     *
+     * @return The new cache.
+     */
+    @NotNull
+    public <K, V> NearCache<K, V> create(final @NotNull Class<K> keyClass, final int maximumSize) {
+        final NearCache<K, V> cache = new NearCache<>(this.nextId.incrementAndGet(), keyClass, maximumSize);
+        this.caches.put(cache.getId(), cache);
+        return cache;
+    }
+
+    /**
+     * Gets a cache by its identifier.
+     *
+     * @param id The identifier of the cache.
+     *
+     * @return The cache, or {@code null} if it is not registered.
+     */
+    @Nullable
+    public NearCache<?, ?> get(final int id) {
+        return this.caches.get(id);
+    }
+
+    /**
+     * Unregisters a cache, which no longer receives invalidations.
+     *
+     * @param cache The cache to unregister.
+     */
+    public void remove(final @NotNull NearCache<?, ?> cache) {
+        this.caches.remove(cache.getId(), cache);
+    }
+
+    /**
+     * Clears every registered cache, such as when a new session starts without any tracked key.
+     */
+    public void clear() {
+        this.caches.values().forEach(NearCache::clear);
+    }
+
+}
\ No newline at end of file
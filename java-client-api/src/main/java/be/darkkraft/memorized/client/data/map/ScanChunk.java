@@ -0,0 +1,29 @@
+package be.darkkraft.memorized.client.data.map;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chunk of entries returned by a scan of a {@link ClientMemorizedMap}.
+ *
+ * @param cursor  The cursor from which the scan resumes, {@code 0} if this is the last chunk.
+ * @param entries The entries of this chunk.
+ * @param <K>     The type of keys maintained by the map.
+ * @param <V>     The type of values maintained by the map.
+ */
+public record ScanChunk<K, V>(long cursor, @NotNull List<Map.Entry<K, V>> entries) {
+
+    /**
+     * Checks if the scan is complete after this chunk.
+     *
+     * @return {@code true} if no chunk follows this one.
+     */
+    @Contract(pure = true)
+    public boolean isLast() {
+        return this.cursor == 0L;
+    }
+
+}
\ No newline at end of file
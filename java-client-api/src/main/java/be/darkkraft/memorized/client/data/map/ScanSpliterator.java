@@ -0,0 +1,87 @@
+package be.darkkraft.memorized.client.data.map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Walks the chunks of a scan of a {@link ClientMemorizedMap}, requesting the next chunk as soon as the previous one is
+ * received, so that it is fetched while the entries of the previous one are consumed.
+ * <p>The first chunk is only requested once the stream is consumed, so that a stream never consumed never opens a
+ * cursor in the server.</p>
+ *
+ * @param <K> The type of keys maintained by the map.
+ * @param <V> The type of values maintained by the map.
+ */
+final class ScanSpliterator<K, V> extends Spliterators.AbstractSpliterator<Map.Entry<K, V>> {
+
+    private final ClientMemorizedMap<K, V> map;
+    private final Class<K> keyClass;
+    private final int chunkSize;
+
+    @Nullable
+    private CompletableFuture<ScanChunk<K, V>> next;
+    @Nullable
+    private Iterator<Map.Entry<K, V>> current;
+    private boolean requested;
+    private boolean started;
+
+    ScanSpliterator(final @NotNull ClientMemorizedMap<K, V> map, final @NotNull Class<K> keyClass, final int chunkSize) {
+        super(Long.MAX_VALUE, Spliterator.NONNULL);
+        this.map = map;
+        this.keyClass = keyClass;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean tryAdvance(final @NotNull Consumer<? super Map.Entry<K, V>> action) {
+        if (!this.requested) {
+            this.requested = true;
+            this.next = this.map.asyncScan(this.keyClass, 0L, this.chunkSize);
+        }
+        while (this.current == null || !this.current.hasNext()) {
+            final CompletableFuture<ScanChunk<K, V>> future = this.next;
+            if (future == null) {
+                return false;
+            }
+            final ScanChunk<K, V> chunk = future.join();
+            if (chunk == null) {
+                this.next = null;
+                if (this.started) {
+                    throw new IllegalStateException("Scan cursor was released by the server");
+                }
+                // The map does not exist
+                return false;
+            }
+            this.started = true;
+            this.next = chunk.isLast() ? null : this.map.asyncScan(this.keyClass, chunk.cursor(), this.chunkSize);
+            this.current = chunk.entries().iterator();
+        }
+        action.accept(this.current.next());
+        return true;
+    }
+
+    /**
+     * Releases the cursor in the server if the scan was not complete.
+     */
+    void close() {
+        // Nothing is requested once closed
+        this.requested = true;
+        final CompletableFuture<ScanChunk<K, V>> future = this.next;
+        this.next = null;
+        if (future != null) {
+            future.thenAccept(chunk -> {
+                if (chunk != null && !chunk.isLast()) {
+                    this.map.releaseScan(chunk.cursor());
+                }
+            });
+        }
+    }
+
+}
\ No newline at end of file
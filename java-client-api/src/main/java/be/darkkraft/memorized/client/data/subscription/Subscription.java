@@ -0,0 +1,115 @@
+package be.darkkraft.memorized.client.data.subscription;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Subscription of a client to the changes of a container, whose notifications are pushed by the server.
+ * <p>The server coalesces the changes made in a short time, so a listener may skip intermediate values but is always
+ * called with the latest one. Listeners are called on the thread reading the responses of the connection and must not
+ * block; when the waiting threads read their own responses, notifications are only read while a request waits.</p>
+ */
+public final class Subscription {
+
+    private final SubscriptionRegistry registry;
+    private final int id;
+    private final byte[] request;
+    private final byte[] cancelRequest;
+    private final Consumer<ByteBuffer> listener;
+
+    private volatile boolean cancelled;
+    private volatile long notifications;
+
+    /**
+     * Constructs a subscription.
+     *
+     * @param registry      The registry of the subscription.
+     * @param id            The identifier of the subscription in its client.
+     * @param request       The subscription packet, with the full key of the container so that it can be sent again on a new session.
+     * @param cancelRequest The cancellation packet.
+     * @param listener      The listener decoding the payloads of the notifications.
+     */
+    Subscription(final @NotNull SubscriptionRegistry registry, final int id, final byte @NotNull [] request, final byte @NotNull [] cancelRequest, final @NotNull Consumer<ByteBuffer> listener) {
+        this.registry = registry;
+        this.id = id;
+        this.request = request;
+        this.cancelRequest = cancelRequest;
+        this.listener = listener;
+    }
+
+    /**
+     * Passes the payload of a notification pushed by the server to the listener, unless the subscription is cancelled.
+     *
+     * @param payload The payload of the notification.
+     */
+    public void notify(final @NotNull ByteBuffer payload) {
+        if (!this.cancelled) {
+            this.notifications++;
+            this.listener.accept(payload);
+        }
+    }
+
+    /**
+     * Cancels this subscription. The listener is no longer called, even by the notifications already on their way.
+     *
+     * @return A {@link CompletableFuture} completed with {@code true} once the server cancelled the subscription,
+     * {@code false} if the container no longer exists.
+     */
+    @NotNull
+    public CompletableFuture<Boolean> asyncCancel() {
+        this.cancelled = true;
+        return this.registry.cancel(this);
+    }
+
+    /**
+     * Cancels this subscription and waits for the server.
+     *
+     * @return {@code true} once the server cancelled the subscription, {@code false} if the container no longer exists.
+     */
+    public boolean blockingCancel() {
+        return this.asyncCancel().join();
+    }
+
+    /**
+     * Gets the identifier of this subscription in its client.
+     *
+     * @return The identifier.
+     */
+    @Contract(pure = true)
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Checks if this subscription is cancelled.
+     *
+     * @return {@code true} if the subscription is cancelled.
+     */
+    @Contract(pure = true)
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Gets the number of notifications passed to the listener.
+     *
+     * @return The number of notifications.
+     */
+    @Contract(pure = true)
+    public long notificationCount() {
+        return this.notifications;
+    }
+
+    byte @NotNull [] getRequest() {
+        return this.request;
+    }
+
+    byte @NotNull [] getCancelRequest() {
+        return this.cancelRequest;
+    }
+
+}
\ No newline at end of file
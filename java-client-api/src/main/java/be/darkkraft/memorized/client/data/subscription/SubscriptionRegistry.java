@@ -0,0 +1,135 @@
+package be.darkkraft.memorized.client.data.subscription;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Registry of the {@link Subscription subscriptions} made through a connection, by identifier, so that the
+ * notifications pushed by the server reach their listener.
+ * <p>Subscriptions belong to the session of the server, so they are sent again when a new session starts.</p>
+ */
+public final class SubscriptionRegistry {
+
+    private final MemorizedClient connection;
+    private final Map<Integer, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Constructs an empty registry.
+     *
+     * @param connection The connection through which the subscriptions are sent.
+     */
+    @Contract(pure = true)
+    public SubscriptionRegistry(final @NotNull MemorizedClient connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Subscribes to the changes of a container. The subscription is registered before it is sent, so that no
+     * notification is missed.
+     * <p>Clients whose {@link ClientConfiguration#callerReads() callers read} the responses cannot subscribe: the
+     * notifications would only be read along with the response of a request.</p>
+     *
+     * @param writer   The writer of the data of the subscription after the packet identifier: the full key of the
+     *                 container, the identifier of the subscription, then the data specific to the container.
+     * @param listener The listener decoding the payloads of the notifications.
+     *
+     * @return A {@link CompletableFuture} completed with the subscription, or {@code null} if the container does not exist.
+     *
+     * @throws SessionNotOpenException If the session is not open.
+     * @throws IllegalStateException   If the callers of the client read the responses.
+     */
+    @NotNull
+    public CompletableFuture<Subscription> subscribe(final @NotNull ObjIntConsumer<ByteBuf> writer, final @NotNull Consumer<ByteBuffer> listener) {
+        if (this.connection.getConfiguration().callerReads()) {
+            throw new IllegalStateException("Subscriptions are not supported by clients whose callers read the responses");
+        }
+        final int id = this.nextId.incrementAndGet();
+        final Subscription subscription = new Subscription(this, id, toBytes(ClientPacket.SUBSCRIBE, writer, id), toBytes(ClientPacket.UNSUBSCRIBE, writer, id), listener);
+        this.subscriptions.put(id, subscription);
+        try {
+            return this.send(subscription.getRequest()).thenApply(buffer -> {
+                if (buffer == null) {
+                    this.subscriptions.remove(id, subscription);
+                    return null;
+                }
+                return subscription;
+            });
+        } catch (final RuntimeException exception) {
+            this.subscriptions.remove(id, subscription);
+            throw exception;
+        }
+    }
+
+    /**
+     * Gets a subscription by its identifier.
+     *
+     * @param id The identifier of the subscription.
+     *
+     * @return The subscription, or {@code null} if it is not registered.
+     */
+    @Nullable
+    public Subscription get(final int id) {
+        return this.subscriptions.get(id);
+    }
+
+    /**
+     * Sends the subscriptions again, such as when a new session starts without any subscription.
+     * Subscriptions to containers that no longer exist are dropped.
+     *
+     * @throws SessionNotOpenException If the session is not open.
+     */
+    public void resubscribe() {
+        for (final Subscription subscription : this.subscriptions.values()) {
+            this.send(subscription.getRequest()).thenAccept(buffer -> {
+                if (buffer == null) {
+                    this.subscriptions.remove(subscription.getId(), subscription);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the number of registered subscriptions.
+     *
+     * @return The number of subscriptions.
+     */
+    public int size() {
+        return this.subscriptions.size();
+    }
+
+    @NotNull
+    CompletableFuture<Boolean> cancel(final @NotNull Subscription subscription) {
+        if (!this.subscriptions.remove(subscription.getId(), subscription)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return this.send(subscription.getCancelRequest()).thenApply(buffer -> buffer != null);
+    }
+
+    @NotNull
+    private CompletableFuture<ByteBuffer> send(final byte @NotNull [] request) {
+        return this.connection.getTransactionQueue().queue(new ByteBuf(request.length).put(request));
+    }
+
+    private static byte @NotNull [] toBytes(final @NotNull ClientPacket packet, final @NotNull ObjIntConsumer<ByteBuf> writer, final int id) {
+        final ByteBuf buffer = new ByteBuf().put(packet.getId());
+        writer.accept(buffer, id);
+        return Arrays.copyOf(buffer.getBuffer().array(), buffer.position());
+    }
+
+}
\ No newline at end of file
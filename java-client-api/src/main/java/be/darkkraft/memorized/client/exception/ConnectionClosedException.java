@@ -0,0 +1,5 @@
+package be.darkkraft.memorized.client.exception;
+
+public final class ConnectionClosedException extends RuntimeException {
+
+}
\ No newline at end of file
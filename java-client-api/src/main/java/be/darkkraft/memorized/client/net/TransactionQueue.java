@@ -1,6 +1,8 @@
 package be.darkkraft.memorized.client.net;
 
+import be.darkkraft.memorized.client.exception.ConnectionClosedException;
 import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.exception.TransactionQueueFullException;
 import be.darkkraft.memorized.packet.ByteBuf;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -20,6 +22,14 @@ public interface TransactionQueue {
     @ApiStatus.Internal
     void onSessionReady();
 
+    /**
+     * Informs that the connection is closed. The transactions sent through it will never get their response, they are
+     * failed with a {@link ConnectionClosedException}, so that the responses of the next connection complete the right
+     * transactions.
+     */
+    @ApiStatus.Internal
+    void onConnectionClosed();
+
     /**
      * Completes a transaction by processing the incoming {@link ByteBuffer}.
      *
@@ -32,7 +42,10 @@ public interface TransactionQueue {
      *
      * @param buffer The buffer containing the outgoing data.
      *
-     * @return A {@link CompletableFuture} representing the result of the transaction.
+     * @return A {@link CompletableFuture} representing the result of the transaction, completed exceptionally with a
+     * {@link TransactionQueueFullException} if the queue is full and the overflow policy fails fast, with a
+     * {@link java.util.concurrent.TimeoutException TimeoutException} if the request timeout of the client is reached,
+     * or with a {@link ConnectionClosedException} if the connection is closed before the response arrives.
      *
      * @throws SessionNotOpenException If the session is not open
      */
@@ -43,7 +56,9 @@ public interface TransactionQueue {
      *
      * @param buffer The buffer containing the outgoing data.
      *
-     * @throws SessionNotOpenException If the session is not open
+     * @throws SessionNotOpenException       If the session is not open
+     * @throws TransactionQueueFullException If the packets waiting for the connection are too many and the overflow
+     *                                       policy fails fast.
      */
     void directQueue(@NotNull ByteBuf buffer);
 
@@ -54,6 +69,41 @@ public interface TransactionQueue {
      */
     int size();
 
+    /**
+     * Retrieves the number of packets waiting for the connection to be sent, including the requests.
+     *
+     * @return The number of pending packets.
+     */
+    int pendingSize();
+
+    /**
+     * Retrieves the number of requests and packets rejected because the queue was full.
+     *
+     * @return The number of rejections since the client started.
+     */
+    long rejectedCount();
+
+    /**
+     * Retrieves the number of fire-and-forget packets dropped because the queue was full.
+     *
+     * @return The number of drops since the client started.
+     */
+    long droppedCount();
+
+    /**
+     * Retrieves the number of requests whose response did not arrive before the request timeout.
+     *
+     * @return The number of timeouts since the client started.
+     */
+    long timedOutCount();
+
+    /**
+     * Retrieves the number of reads that shared the response of an identical read instead of being sent.
+     *
+     * @return The number of coalesced reads since the client started.
+     */
+    long coalescedCount();
+
     /**
      * Checks if the transaction queue is empty.
      *
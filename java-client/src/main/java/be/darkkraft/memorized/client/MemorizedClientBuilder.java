@@ -1,7 +1,9 @@
 package be.darkkraft.memorized.client;
 
 import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.channel.ClientEventLoopGroup;
 import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.map.NearCacheRegistry;
 import be.darkkraft.memorized.codec.registry.CodecRegistry;
 import be.darkkraft.memorized.data.key.KeyRegistry;
 import org.jetbrains.annotations.Contract;
@@ -9,6 +11,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -17,10 +22,14 @@ import java.util.Objects;
 public final class MemorizedClientBuilder {
 
     private InetSocketAddress serverAddress;
+    private Path unixDomainSocketPath;
+    private Path sharedMemoryDirectory;
     private AuthenticationInput authenticationInput;
     private CodecRegistry codecRegistry;
     private KeyRegistry<Class<?>> keyRegistry;
     private ClientConfiguration configuration;
+    private ClientEventLoopGroup eventLoopGroup;
+    private int connections = 1;
 
     /**
      * Retrieves the server address to be used by the client.
@@ -47,6 +56,62 @@ public final class MemorizedClientBuilder {
         return this;
     }
 
+    /**
+     * Retrieves the path of the server's Unix domain socket.
+     *
+     * @return The path of the Unix domain socket, or {@code null} if the client connects through TCP.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Path unixDomainSocketPath() {
+        return this.unixDomainSocketPath;
+    }
+
+    /**
+     * Sets the path of the server's Unix domain socket.
+     * When set, the client connects through this socket instead of the server address, which avoids the TCP stack
+     * for a client running on the same host as the server.
+     *
+     * @param unixDomainSocketPath The path of the Unix domain socket, or {@code null} to connect through TCP.
+     *
+     * @return This {@link MemorizedClientBuilder} instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedClientBuilder unixDomainSocketPath(final @Nullable Path unixDomainSocketPath) {
+        this.unixDomainSocketPath = unixDomainSocketPath;
+        return this;
+    }
+
+    /**
+     * Retrieves the directory in which the server accepts shared memory connections.
+     *
+     * @return The shared memory directory, or {@code null} if the client connects through a socket.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Path sharedMemoryDirectory() {
+        return this.sharedMemoryDirectory;
+    }
+
+    /**
+     * Sets the directory in which the server accepts shared memory connections.
+     * When set, the client connects through a pair of rings in a file of this directory instead of a socket,
+     * which avoids any system call for a client running on the same host as the server. It takes precedence over
+     * the Unix domain socket path.
+     * <p>The channel thread polls the ring instead of selecting, see {@code SharedMemoryChannel}.</p>
+     *
+     * @param sharedMemoryDirectory The shared memory directory of the server, or {@code null} to connect through a socket.
+     *
+     * @return This {@link MemorizedClientBuilder} instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedClientBuilder sharedMemoryDirectory(final @Nullable Path sharedMemoryDirectory) {
+        this.sharedMemoryDirectory = sharedMemoryDirectory;
+        return this;
+    }
+
     /**
      * Retrieves the authentication input.
      *
@@ -147,6 +212,62 @@ public final class MemorizedClientBuilder {
         return this;
     }
 
+    /**
+     * Retrieves the {@link ClientEventLoopGroup} shared by the client.
+     *
+     * @return The {@link ClientEventLoopGroup}, or {@code null} if the client uses threads of its own.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public ClientEventLoopGroup eventLoopGroup() {
+        return this.eventLoopGroup;
+    }
+
+    /**
+     * Sets the {@link ClientEventLoopGroup} shared by the client with other clients of the same JVM.
+     * When set, the connection of the client is read by an event loop of the group and its reconnections are
+     * scheduled by the group, instead of a channel thread and a reconnection thread of its own.
+     *
+     * @param eventLoopGroup The {@link ClientEventLoopGroup} to share, or {@code null} to use threads of its own.
+     *
+     * @return This {@link MemorizedClientBuilder} instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedClientBuilder eventLoopGroup(final @Nullable ClientEventLoopGroup eventLoopGroup) {
+        this.eventLoopGroup = eventLoopGroup;
+        return this;
+    }
+
+    /**
+     * Retrieves the number of connections opened by the client.
+     *
+     * @return The number of connections.
+     */
+    @Contract(pure = true)
+    public int connections() {
+        return this.connections;
+    }
+
+    /**
+     * Sets the number of connections opened by the client to the server.
+     * With more than one connection, a {@link PooledMemorizedClient} is built and each thread sends its requests
+     * through a connection of its own, so that the requests of a single process are spread over the server workers.
+     *
+     * @param connections The number of connections, at least 1.
+     *
+     * @return This {@link MemorizedClientBuilder} instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedClientBuilder connections(final int connections) {
+        if (connections < 1) {
+            throw new IllegalArgumentException("Connection count must be positive");
+        }
+        this.connections = connections;
+        return this;
+    }
+
     /**
      * Builds and returns a new {@link MemorizedClient} instance using the current configurations.
      *
@@ -155,11 +276,29 @@ public final class MemorizedClientBuilder {
     @NotNull
     @Contract(" -> new")
     public MemorizedClient build() {
+        final NearCacheRegistry nearCacheRegistry = new NearCacheRegistry();
+        if (this.connections == 1) {
+            return this.buildConnection(nearCacheRegistry);
+        }
+        // Invalidations of a cache are pushed on the connection it was read through
+        final List<MemorizedClient> connections = new ArrayList<>(this.connections);
+        for (int i = 0; i < this.connections; i++) {
+            connections.add(this.buildConnection(nearCacheRegistry));
+        }
+        return new PooledMemorizedClient(connections);
+    }
+
+    @NotNull
+    private MemorizedClient buildConnection(final @NotNull NearCacheRegistry nearCacheRegistry) {
         return new MemorizedClientImpl(this.serverAddress,
+                this.unixDomainSocketPath,
+                this.sharedMemoryDirectory,
                 this.authenticationInput,
                 this.codecRegistry,
                 this.keyRegistry,
-                Objects.requireNonNullElseGet(this.configuration, () -> ClientConfiguration.builder().build()));
+                Objects.requireNonNullElseGet(this.configuration, () -> ClientConfiguration.builder().build()),
+                this.eventLoopGroup,
+                nearCacheRegistry);
     }
 
 }
\ No newline at end of file
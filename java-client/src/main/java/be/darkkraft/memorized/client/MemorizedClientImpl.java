@@ -1,38 +1,58 @@
 package be.darkkraft.memorized.client;
 
 import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.channel.ClientChannel;
 import be.darkkraft.memorized.client.channel.ClientChannelThread;
+import be.darkkraft.memorized.client.channel.ClientConnection;
+import be.darkkraft.memorized.client.channel.ClientEventLoopGroup;
+import be.darkkraft.memorized.client.channel.DirectConnection;
+import be.darkkraft.memorized.client.packet.command.DirectTransactionQueue;
 import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.map.NearCacheRegistry;
+import be.darkkraft.memorized.client.data.subscription.SubscriptionRegistry;
 import be.darkkraft.memorized.client.packet.command.TransactionQueueImpl;
 import be.darkkraft.memorized.client.packet.handler.registry.SessionPacketHandlerRegistry;
 import be.darkkraft.memorized.client.retry.ConnectionRetryManager;
+import be.darkkraft.memorized.client.timeout.TimerWheel;
 import be.darkkraft.memorized.client.session.ServerSession;
 import be.darkkraft.memorized.codec.registry.CodecRegistry;
 import be.darkkraft.memorized.data.key.KeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.packet.ServerPacket;
 import be.darkkraft.memorized.packet.handler.PacketHandler;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
 
 public final class MemorizedClientImpl implements MemorizedClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MemorizedClientImpl.class);
 
     private final InetSocketAddress serverAddress;
+    private final @Nullable Path unixDomainSocketPath;
+    private final @Nullable Path sharedMemoryDirectory;
     private final AuthenticationInput authenticationInput;
     private final CodecRegistry codecRegistry;
     private final KeyRegistry<Class<?>> keyRegistry;
     private final ClientConfiguration configuration;
+    private final @Nullable ClientEventLoopGroup eventLoopGroup;
+    private final NearCacheRegistry nearCacheRegistry;
+    private final SubscriptionRegistry subscriptionRegistry = new SubscriptionRegistry(this);
     private ConnectionRetryManager connectionRetryManager;
-    private ClientChannelThread channelThread;
+    private @Nullable TimerWheel timerWheel;
+    private volatile ClientChannel channel;
     private ServerSession session;
     private SessionPacketHandlerRegistry packetHandlerRegistry;
     private TransactionQueueImpl transactionQueue;
@@ -42,19 +62,44 @@ public final class MemorizedClientImpl implements MemorizedClient {
     /**
      * Initializes a new instance of the {@link MemorizedClientImpl} class.
      *
-     * @param serverAddress       The server's {@link InetSocketAddress}.
-     * @param authenticationInput The {@link AuthenticationInput} to use.
-     * @param codecRegistry       The {@link CodecRegistry} to use.
-     * @param keyRegistry         The {@link KeyRegistry} to use.
-     * @param configuration       The {@link ClientConfiguration} to use.
+     * @param serverAddress         The server's {@link InetSocketAddress}.
+     * @param unixDomainSocketPath  The path of the server's Unix domain socket, or {@code null} to connect through TCP.
+     * @param sharedMemoryDirectory The server's shared memory directory, or {@code null} to connect through a socket.
+     * @param authenticationInput   The {@link AuthenticationInput} to use.
+     * @param codecRegistry         The {@link CodecRegistry} to use.
+     * @param keyRegistry           The {@link KeyRegistry} to use.
+     * @param configuration         The {@link ClientConfiguration} to use.
+     * @param eventLoopGroup        The {@link ClientEventLoopGroup} shared with other clients, or {@code null} to use a thread of its own.
      */
     @Contract(pure = true)
-    public MemorizedClientImpl(final @NotNull InetSocketAddress serverAddress, final @NotNull AuthenticationInput authenticationInput, final @NotNull CodecRegistry codecRegistry, final KeyRegistry<Class<?>> keyRegistry, ClientConfiguration configuration) {
+    public MemorizedClientImpl(final @NotNull InetSocketAddress serverAddress, final @Nullable Path unixDomainSocketPath, final @Nullable Path sharedMemoryDirectory, final @NotNull AuthenticationInput authenticationInput, final @NotNull CodecRegistry codecRegistry, final KeyRegistry<Class<?>> keyRegistry, ClientConfiguration configuration, final @Nullable ClientEventLoopGroup eventLoopGroup) {
+        this(serverAddress, unixDomainSocketPath, sharedMemoryDirectory, authenticationInput, codecRegistry, keyRegistry, configuration, eventLoopGroup, new NearCacheRegistry());
+    }
+
+    /**
+     * Initializes a new instance of the {@link MemorizedClientImpl} class.
+     *
+     * @param serverAddress         The server's {@link InetSocketAddress}.
+     * @param unixDomainSocketPath  The path of the server's Unix domain socket, or {@code null} to connect through TCP.
+     * @param sharedMemoryDirectory The server's shared memory directory, or {@code null} to connect through a socket.
+     * @param authenticationInput   The {@link AuthenticationInput} to use.
+     * @param codecRegistry         The {@link CodecRegistry} to use.
+     * @param keyRegistry           The {@link KeyRegistry} to use.
+     * @param configuration         The {@link ClientConfiguration} to use.
+     * @param eventLoopGroup        The {@link ClientEventLoopGroup} shared with other clients, or {@code null} to use a thread of its own.
+     * @param nearCacheRegistry     The {@link NearCacheRegistry} of the near caches, shared by the connections of a pool.
+     */
+    @Contract(pure = true)
+    public MemorizedClientImpl(final @NotNull InetSocketAddress serverAddress, final @Nullable Path unixDomainSocketPath, final @Nullable Path sharedMemoryDirectory, final @NotNull AuthenticationInput authenticationInput, final @NotNull CodecRegistry codecRegistry, final KeyRegistry<Class<?>> keyRegistry, ClientConfiguration configuration, final @Nullable ClientEventLoopGroup eventLoopGroup, final @NotNull NearCacheRegistry nearCacheRegistry) {
         this.serverAddress = Objects.requireNonNull(serverAddress, "Server address cannot be null");
+        this.unixDomainSocketPath = unixDomainSocketPath;
+        this.sharedMemoryDirectory = sharedMemoryDirectory;
         this.authenticationInput = Objects.requireNonNull(authenticationInput, "Authentication input cannot be null");
         this.codecRegistry = Objects.requireNonNull(codecRegistry, "Codec registry cannot be null");
         this.keyRegistry = Objects.requireNonNull(keyRegistry, "Key registry cannot be null");
         this.configuration = Objects.requireNonNull(configuration, "Configuration cannot be null");
+        this.eventLoopGroup = eventLoopGroup;
+        this.nearCacheRegistry = Objects.requireNonNull(nearCacheRegistry, "Near cache registry cannot be null");
     }
 
     /**
@@ -68,8 +113,15 @@ public final class MemorizedClientImpl implements MemorizedClient {
         this.running = true;
 
         (this.packetHandlerRegistry = new SessionPacketHandlerRegistry()).initialize(this);
-        this.transactionQueue = new TransactionQueueImpl(this);
-        this.connectionRetryManager = new ConnectionRetryManager(this);
+        final ScheduledExecutorService scheduler = this.eventLoopGroup != null ? this.eventLoopGroup.getRetryScheduler() : null;
+        final long requestTimeout = this.configuration.requestTimeout();
+        if (requestTimeout > 0L) {
+            // Deadlines are reached at most a tenth of the timeout late, and 10ms at worst
+            this.timerWheel = new TimerWheel(Math.max(1L, Math.min(10L, requestTimeout / 10L)), scheduler);
+            this.timerWheel.start();
+        }
+        this.transactionQueue = this.configuration.callerReads() ? new DirectTransactionQueue(this, this.timerWheel) : new TransactionQueueImpl(this, this.timerWheel);
+        this.connectionRetryManager = new ConnectionRetryManager(this, scheduler);
         if (this.connect()) {
             this.tryToReconnect();
             return;
@@ -79,21 +131,102 @@ public final class MemorizedClientImpl implements MemorizedClient {
     }
 
     public boolean connect() {
+        return this.connect(true);
+    }
+
+    /**
+     * Connects to the server.
+     *
+     * @param await {@code false} to return as soon as a connection through the shared group is started, a failure of
+     *              the connection scheduling the next attempt, so that the thread retrying is not held.
+     *
+     * @return {@code true} if the server is not reachable, {@code false} otherwise.
+     */
+    public boolean connect(final boolean await) {
+        if (this.transactionQueue instanceof DirectTransactionQueue directQueue) {
+            return this.connectDirect(directQueue);
+        }
+        if (this.eventLoopGroup != null && this.sharedMemoryDirectory == null) {
+            return this.connectInGroup(this.eventLoopGroup, await);
+        }
         final CountDownLatch countDown = new CountDownLatch(1);
-        (this.channelThread = new ClientChannelThread(this, countDown)).start();
+        final ClientChannelThread channelThread = new ClientChannelThread(this, countDown);
+        this.channel = channelThread;
+        channelThread.start();
 
         try {
-            this.channelThread.awaitConnected();
+            channelThread.awaitConnected();
         } catch (final Exception exception) {
             LOGGER.error("Server are not reachable", exception);
             return true;
         }
 
-        this.session = new ServerSession(this.channelThread.getChannel());
+        this.session = new ServerSession(channelThread.getChannel());
         countDown.countDown();
         return false;
     }
 
+    /**
+     * Connects through an event loop of the shared group instead of a thread of its own.
+     *
+     * @param eventLoopGroup The group serving the connection.
+     * @param await          {@code false} to return once the connection is started.
+     *
+     * @return {@code true} if the server is not reachable, {@code false} otherwise.
+     */
+    private boolean connectInGroup(final @NotNull ClientEventLoopGroup eventLoopGroup, final boolean await) {
+        final CompletableFuture<ClientConnection> future = eventLoopGroup.open(this).whenComplete((connection, throwable) -> {
+            if (throwable != null) {
+                if (!await) {
+                    LOGGER.error("Server are not reachable", throwable);
+                    if (this.running) {
+                        this.tryToReconnect();
+                    }
+                }
+                return;
+            }
+            if (!this.running) {
+                connection.close();
+                return;
+            }
+            this.session = new ServerSession(connection.getChannel());
+            this.channel = connection;
+            connection.start();
+        });
+        if (!await) {
+            return false;
+        }
+        try {
+            future.join();
+        } catch (final CompletionException exception) {
+            LOGGER.error("Server are not reachable", exception.getCause());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Connects without any thread, the responses being read by the threads waiting for them.
+     *
+     * @param directQueue The queue whose callers read the connection.
+     *
+     * @return {@code true} if the server is not reachable, {@code false} otherwise.
+     */
+    private boolean connectDirect(final @NotNull DirectTransactionQueue directQueue) {
+        final DirectConnection connection;
+        try {
+            connection = DirectConnection.open(this);
+        } catch (final Exception exception) {
+            LOGGER.error("Server are not reachable", exception);
+            return true;
+        }
+
+        this.session = new ServerSession(connection.getChannel());
+        this.channel = connection;
+        directQueue.setConnection(connection);
+        return false;
+    }
+
     /**
      * Shuts down the client, closing any established connections.
      */
@@ -108,8 +241,12 @@ public final class MemorizedClientImpl implements MemorizedClient {
 
         this.running = false;
 
-        if (this.channelThread != null) {
-            this.channelThread.close();
+        if (this.channel != null) {
+            this.channel.close();
+        }
+        if (this.timerWheel != null) {
+            this.timerWheel.stop();
+            this.timerWheel = null;
         }
 
         LOGGER.info("MemorizedClient stopped in {}ms!", System.currentTimeMillis() - start);
@@ -136,6 +273,18 @@ public final class MemorizedClientImpl implements MemorizedClient {
         return this.serverAddress;
     }
 
+    @Override
+    @Contract(pure = true)
+    public @Nullable Path getUnixDomainSocketPath() {
+        return this.unixDomainSocketPath;
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @Nullable Path getSharedMemoryDirectory() {
+        return this.sharedMemoryDirectory;
+    }
+
     @Override
     @Contract(pure = true)
     public @NotNull AuthenticationInput getAuthenticationInput() {
@@ -157,11 +306,31 @@ public final class MemorizedClientImpl implements MemorizedClient {
         return this.transactionQueue;
     }
 
+    @Override
+    @Contract(pure = true)
+    public @NotNull NearCacheRegistry getNearCacheRegistry() {
+        return this.nearCacheRegistry;
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @NotNull SubscriptionRegistry getSubscriptionRegistry() {
+        return this.subscriptionRegistry;
+    }
+
     @Override
     public ServerSession getSession() {
         return this.session;
     }
 
+    @Override
+    public int getKeyHandle(final @NotNull Session session, final int keyIdentifier, final @NotNull Object key) {
+        if (this.configuration.keyHandles() && session instanceof ServerSession serverSession) {
+            return serverSession.getKeyHandle(this, keyIdentifier, key);
+        }
+        return 0;
+    }
+
     @Override
     @Contract(pure = true)
     public boolean isRunning() {
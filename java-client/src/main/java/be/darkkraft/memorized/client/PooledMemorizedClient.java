@@ -0,0 +1,240 @@
+package be.darkkraft.memorized.client;
+
+import be.darkkraft.memorized.client.auth.AuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.map.NearCacheRegistry;
+import be.darkkraft.memorized.client.data.subscription.SubscriptionRegistry;
+import be.darkkraft.memorized.client.net.TransactionQueue;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.data.key.KeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client opening several connections to the same server, so that a single process can use every worker of the server.
+ * <p>Each thread is assigned a connection, in a round-robin fashion, on its first request and keeps it as long as it
+ * stays connected. Requests of a thread are therefore answered in the order they are sent, and a key handle is always
+ * sent on the connection it was bound in. Asynchronous callers are spread over the connections as long as they run on
+ * several threads.</p>
+ * <p>When the connection of a thread is lost, the thread is moved to the next connection still connected while the lost
+ * one reconnects on its own. Requests already sent on the lost connection fail, and the order is only kept between
+ * the requests sent on the same connection.</p>
+ */
+public final class PooledMemorizedClient implements MemorizedClient {
+
+    private final MemorizedClient[] connections;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<MemorizedClient> affinity = ThreadLocal.withInitial(this::nextConnection);
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a pool over clients of the same server.
+     *
+     * @param connections The clients owning the connections of the pool, not started yet.
+     */
+    public PooledMemorizedClient(final @NotNull List<? extends MemorizedClient> connections) {
+        if (Objects.requireNonNull(connections, "Connections cannot be null").isEmpty()) {
+            throw new IllegalArgumentException("A pool needs at least one connection");
+        }
+        this.connections = connections.toArray(new MemorizedClient[0]);
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        for (final MemorizedClient connection : this.connections) {
+            connection.start();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        for (final MemorizedClient connection : this.connections) {
+            connection.shutdown();
+        }
+    }
+
+    /**
+     * Handles a packet read on the connection assigned to the current thread, as the callers reading their own
+     * responses do.
+     *
+     * @param buffer The packet data encapsulated in a {@link ByteBuffer}.
+     *
+     * @return True if the packet was successfully handled, false otherwise.
+     *
+     * @throws IOException If an I/O exception occurs while handling the packet.
+     */
+    @Override
+    public boolean handlePacket(final @NotNull ByteBuffer buffer) throws IOException {
+        return this.affinity.get().handlePacket(buffer);
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @NotNull InetSocketAddress getServerAddress() {
+        return this.connections[0].getServerAddress();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @Nullable Path getUnixDomainSocketPath() {
+        return this.connections[0].getUnixDomainSocketPath();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @Nullable Path getSharedMemoryDirectory() {
+        return this.connections[0].getSharedMemoryDirectory();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @NotNull AuthenticationInput getAuthenticationInput() {
+        return this.connections[0].getAuthenticationInput();
+    }
+
+    @Override
+    public @NotNull CodecRegistry getCodecRegistry() {
+        return this.connections[0].getCodecRegistry();
+    }
+
+    @Override
+    public @NotNull KeyRegistry<Class<?>> getKeyRegistry() {
+        return this.connections[0].getKeyRegistry();
+    }
+
+    /**
+     * Retrieves the transaction queue of the connection assigned to the current thread.
+     *
+     * @return The {@link TransactionQueue} of the current thread.
+     */
+    @Override
+    public TransactionQueue getTransactionQueue() {
+        return this.connection().getTransactionQueue();
+    }
+
+    /**
+     * Gets the registry of the near caches, which must be shared by the connections of the pool, as the connections
+     * built by {@link MemorizedClientBuilder} do.
+     *
+     * @return The {@link NearCacheRegistry} of the first connection.
+     */
+    @Override
+    @Contract(pure = true)
+    public @NotNull NearCacheRegistry getNearCacheRegistry() {
+        return this.connections[0].getNearCacheRegistry();
+    }
+
+    /**
+     * Retrieves the subscriptions of the connection assigned to the current thread, through which they are sent and
+     * notified.
+     *
+     * @return The {@link SubscriptionRegistry} of the current thread.
+     */
+    @Override
+    public @NotNull SubscriptionRegistry getSubscriptionRegistry() {
+        return this.connection().getSubscriptionRegistry();
+    }
+
+    /**
+     * Retrieves the session of the connection assigned to the current thread.
+     *
+     * @return The {@link Session} of the current thread.
+     */
+    @Override
+    public Session getSession() {
+        return this.connection().getSession();
+    }
+
+    @Override
+    public int getKeyHandle(final @NotNull Session session, final int keyIdentifier, final @NotNull Object key) {
+        for (final MemorizedClient connection : this.connections) {
+            if (connection.getSession() == session) {
+                return connection.getKeyHandle(session, keyIdentifier, key);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    @Contract(pure = true)
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    @NotNull
+    @Override
+    public ClientConfiguration getConfiguration() {
+        return this.connections[0].getConfiguration();
+    }
+
+    /**
+     * Reconnects every connection of the pool that is not connected, the others are left untouched.
+     */
+    @Override
+    public void tryToReconnect() {
+        for (final MemorizedClient connection : this.connections) {
+            if (!isConnected(connection)) {
+                connection.tryToReconnect();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of connections of the pool.
+     *
+     * @return The number of connections.
+     */
+    @Contract(pure = true)
+    public int getConnectionCount() {
+        return this.connections.length;
+    }
+
+    /**
+     * Gets the connection of the current thread, moving the thread to the next connected one if its connection is
+     * lost. The lost connection is kept when no other one is connected, so that requests wait for it to reconnect.
+     *
+     * @return The connection of the current thread.
+     */
+    @NotNull
+    private MemorizedClient connection() {
+        final MemorizedClient assigned = this.affinity.get();
+        if (isConnected(assigned)) {
+            return assigned;
+        }
+        for (int i = 0; i < this.connections.length; i++) {
+            final MemorizedClient candidate = this.nextConnection();
+            if (isConnected(candidate)) {
+                this.affinity.set(candidate);
+                return candidate;
+            }
+        }
+        return assigned;
+    }
+
+    private static boolean isConnected(final @NotNull MemorizedClient connection) {
+        final Session session = connection.getSession();
+        return session != null && session.getChannel().isOpen();
+    }
+
+    @NotNull
+    private MemorizedClient nextConnection() {
+        return this.connections[Math.floorMod(this.next.getAndIncrement(), this.connections.length)];
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package be.darkkraft.memorized.client.channel;
+
+import org.jetbrains.annotations.Contract;
+
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connection of a client to the server, whatever the thread serving it.
+ *
+ * @see ClientChannelThread
+ * @see ClientConnection
+ */
+public interface ClientChannel {
+
+    /**
+     * Returns the channel connected to the server.
+     *
+     * @return The connected {@link SocketChannel}, or {@code null} once closed.
+     */
+    @Contract(pure = true)
+    SocketChannel getChannel();
+
+    /**
+     * Closes the connection, and tries to reconnect if the client is still running.
+     */
+    void close();
+
+    /**
+     * Checks whether the calling thread reads the responses of connections, in which case it must never wait for
+     * another request to be answered: the response could be waiting for this very thread.
+     *
+     * @return {@code true} if the calling thread is a {@link ClientChannelThread} or a loop of a
+     * {@link ClientEventLoopGroup}.
+     */
+    static boolean isEventLoopThread() {
+        final Thread thread = Thread.currentThread();
+        return thread instanceof ClientChannelThread || thread instanceof ClientEventLoop;
+    }
+
+}
\ No newline at end of file
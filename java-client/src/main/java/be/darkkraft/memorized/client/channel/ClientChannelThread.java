@@ -1,37 +1,43 @@
 package be.darkkraft.memorized.client.channel;
 
 import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.net.AdaptiveSelector;
+import be.darkkraft.memorized.net.shm.SharedMemoryChannel;
 import be.darkkraft.memorized.net.session.Session;
-import be.darkkraft.memorized.packet.ByteBuf;
-import be.darkkraft.memorized.packet.ClientPacket;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
-import java.util.Iterator;
+import java.nio.file.Path;
 import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Represents the thread responsible for managing the client's communication channel.
+ * <p>Socket channels are selected following the configured strategy, shared memory channels cannot be selected
+ * and are read in blocking mode instead.</p>
  */
-public final class ClientChannelThread extends Thread {
+public final class ClientChannelThread extends Thread implements ClientChannel {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientChannelThread.class);
 
     private final MemorizedClient client;
     private final CompletableFuture<Void> connectFuture;
     private final CountDownLatch connectLock;
-    private SocketChannel channel;
+    private volatile SocketChannel channel;
+    private volatile Selector selector;
+    private final Consumer<SelectionKey> keyHandler = this::handle;
 
     /**
      * Constructs a new {@link ClientChannelThread}.
@@ -52,29 +58,36 @@ public final class ClientChannelThread extends Thread {
      */
     @Override
     public void run() {
-        try (final SocketChannel socketChannel = SocketChannel.open(); final Selector selector = Selector.open()) {
+        final Path directory = this.client.getSharedMemoryDirectory();
+        if (directory != null) {
+            this.runSharedMemory(directory);
+            return;
+        }
+        final Path path = this.client.getUnixDomainSocketPath();
+        final SocketAddress address = path != null ? UnixDomainSocketAddress.of(path) : this.client.getServerAddress();
+        try (final SocketChannel socketChannel = path != null ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+             final Selector selector = Selector.open()) {
 
             socketChannel.configureBlocking(false);
-            socketChannel.connect(this.client.getServerAddress());
+            socketChannel.connect(address);
 
             socketChannel.register(selector, SelectionKey.OP_READ);
 
             //noinspection StatementWithEmptyBody
             while (!socketChannel.finishConnect()) ;
 
+            // Published before the channel, so that any close of the channel wakes the selection loop up
+            this.selector = selector;
             this.channel = socketChannel;
 
+            ClientPacketReader.authenticate(this.client, socketChannel);
+
             this.connectFuture.complete(null);
             this.connectLock.await();
 
-            final ByteBuf buffer = new ByteBuf().put(ClientPacket.AUTH.getId());
-            this.client.getAuthenticationInput()
-                    .write(buffer);
-
-            Session.sendAndClear(socketChannel, buffer);
-
-            while (this.client.isRunning()) {
-                this.selectKey(selector);
+            final AdaptiveSelector adaptiveSelector = new AdaptiveSelector(selector, this.client.getConfiguration().selectStrategy());
+            while (this.client.isRunning() && this.channel == socketChannel) {
+                this.selectKey(adaptiveSelector);
             }
 
             this.close();
@@ -88,96 +101,89 @@ public final class ClientChannelThread extends Thread {
     }
 
     /**
-     * Selects the available keys from the {@link Selector} and handles them.
+     * Life cycle of a shared memory connection, read in blocking mode by this thread.
      *
-     * @param selector The {@link Selector} containing the keys to be processed.
+     * @param directory The directory in which the server accepts shared memory connections.
      */
-    private void selectKey(final @NotNull Selector selector) {
-        try {
-            final int select = selector.select();
-            if (select == 0) {
-                return;
-            }
-            final Set<SelectionKey> keys = selector.selectedKeys();
-            if (keys.isEmpty()) {
-                return;
-            }
-            final Iterator<SelectionKey> iterator = keys.iterator();
+    private void runSharedMemory(final @NotNull Path directory) {
+        try (final SharedMemoryChannel sharedMemoryChannel = SharedMemoryChannel.connect(directory)) {
+            this.channel = sharedMemoryChannel;
+            ClientPacketReader.authenticate(this.client, sharedMemoryChannel);
 
-            while (iterator.hasNext()) {
-                this.handle(iterator.next());
-                iterator.remove();
+            this.connectFuture.complete(null);
+            this.connectLock.await();
+
+            while (this.client.isRunning() && this.channel == sharedMemoryChannel) {
+                this.readBlocking(sharedMemoryChannel);
             }
+
+            this.close();
         } catch (final Exception exception) {
-            LOGGER.error("An error occurred while key selecting", exception);
+            if (this.connectFuture.isDone()) {
+                LOGGER.error("An error occurred while connecting to the server", exception);
+                return;
+            }
+            this.connectFuture.completeExceptionally(exception);
         }
     }
 
     /**
-     * Handles an individual {@link SelectionKey}, taking appropriate actions based on its state.
+     * Waits for bytes of a blocking channel and handles them.
      *
-     * @param key The {@link SelectionKey} to be processed.
+     * @param channel The blocking channel.
      */
-    private void handle(final @NotNull SelectionKey key) {
+    private void readBlocking(final @NotNull SocketChannel channel) {
         try {
-            if (key.isReadable()) {
-                final Session session = this.client.getSession();
-                ByteBuffer buffer;
-                int read;
-
-                do {
-                    buffer = session.computeBuffer();
-                    read = this.channel.read(buffer);
-
-                    if (read == -1) {
-                        LOGGER.warn("Server connection closed by the remote side.");
-                        this.close();
-                        return;
-                    } else if (read == 0) {
-                        session.removeBuffer();
-                        return;
-                    }
-
-                    this.read(buffer, session);
-                } while (read > 0);
+            final Session session = this.client.getSession();
+            final ByteBuffer buffer = session.computeBuffer();
+            if (channel.read(buffer) == -1) {
+                LOGGER.warn("Server connection closed by the remote side.");
+                this.close();
+                return;
+            }
+            if (!buffer.hasRemaining() && !ClientPacketReader.read(this.client, buffer, session)) {
+                this.close();
             }
         } catch (final Exception exception) {
+            if (!channel.isOpen()) {
+                // The channel has been closed by the shutdown of the client
+                return;
+            }
             this.close();
             LOGGER.error("An error occurred while reading packet", exception);
         }
     }
 
     /**
-     * Reads packet data from a {@link ByteBuffer} and passes it to the session for processing.
+     * Selects the available keys following the configured strategy and handles them.
      *
-     * @param buffer  The {@link ByteBuffer} containing the packet data.
-     * @param session The {@link Session} responsible for handling the packet.
-     *
-     * @throws IOException If an I/O error occurs while reading the packet.
+     * @param selector The {@link AdaptiveSelector} containing the keys to be processed.
      */
-    private void read(ByteBuffer buffer, final Session session) throws IOException {
-        if (buffer.position() >= 4 && buffer.limit() == 4) {
-            buffer.flip();
-            final int size = buffer.getInt();
-            final int limit = this.client.getPacketSizeLimit(session.isAuthenticated());
-            if (size > limit) {
-                LOGGER.warn("Failed to handle packet from server. Packet is too big {}/{}", size, limit);
-                this.close();
-                return;
-            }
-            session.updateBuffer(buffer = ByteBuffer.allocate(size));
+    private void selectKey(final @NotNull AdaptiveSelector selector) {
+        try {
+            selector.select(this.keyHandler);
+        } catch (final Exception exception) {
+            LOGGER.error("An error occurred while key selecting", exception);
         }
+    }
 
-        if (buffer.position() == buffer.limit()) {
-            buffer.flip();
-
-            if (!this.client.handlePacket(buffer)) {
-                LOGGER.warn("Failed to handle packet from server. Removing session and closing connection.");
+    /**
+     * Handles an individual {@link SelectionKey}, taking appropriate actions based on its state.
+     *
+     * @param key The {@link SelectionKey} to be processed.
+     */
+    private void handle(final @NotNull SelectionKey key) {
+        try {
+            if (key.isReadable() && !ClientPacketReader.readAvailable(this.client, (SocketChannel) key.channel())) {
                 this.close();
+            }
+        } catch (final Exception exception) {
+            if (!key.channel().isOpen()) {
+                // The channel has been closed by the shutdown of the client
                 return;
             }
-
-            session.removeBuffer();
+            this.close();
+            LOGGER.error("An error occurred while reading packet", exception);
         }
     }
 
@@ -196,19 +202,28 @@ public final class ClientChannelThread extends Thread {
      *
      * @return The client's {@link SocketChannel}.
      */
+    @Override
     @Contract(pure = true)
     public SocketChannel getChannel() {
         return this.channel;
     }
 
     /**
-     * Closes the client's channel.
+     * Closes the client's channel and wakes up the selection loop, so that this thread terminates.
+     * <p>Closes racing between the shutdown of the client and a failed read fail the requests and reconnect only
+     * once.</p>
      */
-    public void close() {
+    @Override
+    public synchronized void close() {
         try {
-            if (this.channel != null) {
-                this.channel.close();
+            final SocketChannel channel = this.channel;
+            if (channel != null) {
                 this.channel = null;
+                channel.close();
+                if (this.selector != null) {
+                    this.selector.wakeup();
+                }
+                this.client.getTransactionQueue().onConnectionClosed();
                 if (this.client.isRunning()) {
                     this.client.tryToReconnect();
                 }
@@ -0,0 +1,178 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection of a client served by an event loop of a {@link ClientEventLoopGroup}, along with the connections
+ * of other clients.
+ */
+public final class ClientConnection implements ClientChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientConnection.class);
+
+    private final MemorizedClient client;
+    private final ClientEventLoop eventLoop;
+    private final CompletableFuture<ClientConnection> connected = new CompletableFuture<>();
+    private volatile SocketChannel channel;
+
+    /**
+     * Constructs a new {@link ClientConnection}.
+     *
+     * @param client    The {@link MemorizedClient} owning the connection.
+     * @param eventLoop The event loop serving the connection.
+     * @param channel   The channel in non-blocking mode, connected or with its connection pending.
+     */
+    ClientConnection(final @NotNull MemorizedClient client, final @NotNull ClientEventLoop eventLoop, final @NotNull SocketChannel channel) {
+        this.client = Objects.requireNonNull(client, "Client cannot be null");
+        this.eventLoop = eventLoop;
+        this.channel = channel;
+    }
+
+    /**
+     * Finishes the connection in its event loop, then authenticates it.
+     *
+     * @param timeout The maximum time in milliseconds to connect.
+     *
+     * @return A future completed once the connection is authenticated, or failed if it cannot be established in time.
+     */
+    @NotNull
+    CompletableFuture<ClientConnection> connect(final long timeout) {
+        this.connected.orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((connection, throwable) -> {
+            if (throwable != null) {
+                this.abort();
+            }
+        });
+        this.eventLoop.register(this);
+        return this.connected;
+    }
+
+    /**
+     * Starts reading the connection in its event loop.
+     * Must be called once the session of the client is created, as the first response can be read right away.
+     */
+    public void start() {
+        this.eventLoop.register(this);
+    }
+
+    /**
+     * Handles the readiness of the connection in its event loop.
+     *
+     * @param key The {@link SelectionKey} of the connection.
+     */
+    void handle(final @NotNull SelectionKey key) {
+        if (key.isConnectable()) {
+            this.finishConnect(key);
+            return;
+        }
+        try {
+            if (key.isReadable() && !ClientPacketReader.readAvailable(this.client, (SocketChannel) key.channel())) {
+                this.close();
+            }
+        } catch (final Exception exception) {
+            if (!key.channel().isOpen()) {
+                // The channel has been closed by the shutdown of the client
+                return;
+            }
+            this.close();
+            LOGGER.error("An error occurred while reading packet", exception);
+        }
+    }
+
+    /**
+     * Registers the connection in the selector of its event loop, to finish connecting first, then to be read once
+     * started.
+     *
+     * @param selector The selector of the event loop.
+     */
+    void register(final @NotNull Selector selector) {
+        final SocketChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        try {
+            final SelectionKey key = channel.keyFor(selector);
+            if (key != null) {
+                key.interestOps(SelectionKey.OP_READ);
+            } else if (channel.isConnectionPending()) {
+                channel.register(selector, SelectionKey.OP_CONNECT, this);
+            } else {
+                this.finishConnect(channel.register(selector, 0, this));
+            }
+        } catch (final ClosedChannelException | CancelledKeyException ignored) {
+            // The connection was closed before being registered
+        }
+    }
+
+    private void finishConnect(final @NotNull SelectionKey key) {
+        final SocketChannel channel = (SocketChannel) key.channel();
+        try {
+            if (!channel.finishConnect()) {
+                return;
+            }
+            // Not read until started, as the session of the client is not created yet
+            key.interestOps(0);
+            ClientPacketReader.authenticate(this.client, channel);
+        } catch (final IOException | CancelledKeyException exception) {
+            this.connected.completeExceptionally(exception);
+            return;
+        }
+        this.connected.complete(this);
+    }
+
+    /**
+     * Closes a channel whose connection failed, without reconnecting since the failure is reported to the client.
+     */
+    private void abort() {
+        final SocketChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        this.channel = null;
+        try {
+            channel.close();
+        } catch (final IOException exception) {
+            LOGGER.error("An error occurred while closing a failed connection", exception);
+        }
+    }
+
+    @Override
+    @Contract(pure = true)
+    public SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Closes the channel, which deregisters it from its event loop.
+     */
+    @Override
+    public void close() {
+        try {
+            final SocketChannel channel = this.channel;
+            if (channel != null) {
+                this.channel = null;
+                channel.close();
+                this.client.getTransactionQueue().onConnectionClosed();
+                if (this.client.isRunning()) {
+                    this.client.tryToReconnect();
+                }
+            }
+        } catch (final Exception exception) {
+            LOGGER.error("An error occurred during shutdown", exception);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.net.AdaptiveSelector;
+import be.darkkraft.memorized.net.SelectStrategy;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Thread of a {@link ClientEventLoopGroup} selecting the connections of several clients.
+ */
+final class ClientEventLoop extends Thread {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientEventLoop.class);
+
+    private final Selector selector;
+    private final AdaptiveSelector adaptiveSelector;
+    private final Consumer<SelectionKey> keyHandler = key -> ((ClientConnection) key.attachment()).handle(key);
+
+    /**
+     * Connections handed to this loop, registered by this loop after its next selection to be connected or read.
+     */
+    private final Queue<ClientConnection> registrations = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new event loop.
+     *
+     * @param id             The ID of this loop in its group.
+     * @param selectStrategy The strategy used to wait for ready connections.
+     *
+     * @throws IOException If the selector cannot be opened.
+     */
+    ClientEventLoop(final int id, final @NotNull SelectStrategy selectStrategy) throws IOException {
+        super("MemorizedClient Event Loop #" + id);
+        this.setDaemon(true);
+        this.selector = Selector.open();
+        this.adaptiveSelector = new AdaptiveSelector(this.selector, selectStrategy);
+    }
+
+    @Override
+    public void run() {
+        try (this.selector) {
+            while (this.running) {
+                try {
+                    this.adaptiveSelector.select(this.keyHandler);
+                    this.registerConnections();
+                } catch (final Exception exception) {
+                    LOGGER.error("An error occurred while key selecting", exception);
+                }
+            }
+        } catch (final IOException exception) {
+            LOGGER.error("An error occurred while closing the selector", exception);
+        }
+    }
+
+    private void registerConnections() {
+        ClientConnection connection;
+        while ((connection = this.registrations.poll()) != null) {
+            connection.register(this.selector);
+        }
+    }
+
+    /**
+     * Hands a connection to this loop.
+     *
+     * @param connection The connection to finish or to read.
+     */
+    void register(final @NotNull ClientConnection connection) {
+        this.registrations.add(connection);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Stops this loop and closes its selector. The connections still registered are not closed.
+     */
+    void shutdown() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+}
\ No newline at end of file
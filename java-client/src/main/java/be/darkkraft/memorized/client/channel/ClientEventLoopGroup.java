@@ -0,0 +1,114 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.net.SelectStrategy;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group of event loops shared by many clients of the same JVM.
+ * <p>Without a group, each client owns a channel thread and a reconnection thread. With a group, the connections of
+ * the clients are spread over a fixed number of selector threads, and the reconnections are scheduled on a single
+ * thread, so that the number of threads does not grow with the number of clients.</p>
+ * <p>The loops select following the strategy of the group, the strategy of the client configurations is ignored.
+ * Shared memory connections cannot be selected, clients using them keep their own channel thread.</p>
+ */
+public final class ClientEventLoopGroup {
+
+    private final ClientEventLoop[] eventLoops;
+    private final ScheduledExecutorService retryScheduler;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Constructs a group of event loops blocking on their selector.
+     *
+     * @param threads The number of event loops.
+     */
+    public ClientEventLoopGroup(final int threads) {
+        this(threads, SelectStrategy.blocking());
+    }
+
+    /**
+     * Constructs a group of event loops, and starts them.
+     *
+     * @param threads        The number of event loops.
+     * @param selectStrategy The strategy used by the loops to wait for ready connections.
+     */
+    public ClientEventLoopGroup(final int threads, final @NotNull SelectStrategy selectStrategy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Event loop count must be positive");
+        }
+        Objects.requireNonNull(selectStrategy, "Select strategy cannot be null");
+        this.eventLoops = new ClientEventLoop[threads];
+        try {
+            for (int i = 0; i < threads; i++) {
+                this.eventLoops[i] = new ClientEventLoop(i, selectStrategy);
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Failed to open the selectors of the event loops", exception);
+        }
+        for (final ClientEventLoop eventLoop : this.eventLoops) {
+            eventLoop.start();
+        }
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "MemorizedClient Retry Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Connects and authenticates a client without blocking, and assigns its connection to the next event loop.
+     * <p>The connection is finished by the event loop, so that a slow or unreachable server does not hold the thread
+     * opening it, nor the reconnections of the other clients. The returned future fails if the connection is not
+     * established within the connect timeout of the client. The connection is read once
+     * {@link ClientConnection#start() started}.</p>
+     *
+     * @param client The client connecting.
+     *
+     * @return A future completed with the connection of the client once authenticated.
+     */
+    @NotNull
+    public CompletableFuture<ClientConnection> open(final @NotNull MemorizedClient client) {
+        final SocketChannel channel;
+        try {
+            channel = ClientPacketReader.connect(client);
+        } catch (final IOException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+        final ClientEventLoop eventLoop = this.eventLoops[Math.floorMod(this.next.getAndIncrement(), this.eventLoops.length)];
+        return new ClientConnection(client, eventLoop, channel).connect(client.getConfiguration().connectTimeout());
+    }
+
+    /**
+     * Gets the scheduler running the reconnections of the clients of this group.
+     *
+     * @return The shared scheduler.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public ScheduledExecutorService getRetryScheduler() {
+        return this.retryScheduler;
+    }
+
+    /**
+     * Stops the event loops and the reconnection scheduler.
+     * The clients of this group must be shut down first.
+     */
+    public void shutdown() {
+        this.retryScheduler.shutdownNow();
+        for (final ClientEventLoop eventLoop : this.eventLoops) {
+            eventLoop.shutdown();
+        }
+    }
+
+}
\ No newline at end of file
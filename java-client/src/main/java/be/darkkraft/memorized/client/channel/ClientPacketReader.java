@@ -0,0 +1,161 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Opens the socket of a client and processes the packets read from it, whatever the thread reading them.
+ */
+final class ClientPacketReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientPacketReader.class);
+
+    private ClientPacketReader() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Connects to the Unix domain socket of the server if the client has one, or to its TCP address otherwise.
+     *
+     * @param client   The client connecting.
+     * @param blocking {@code true} to leave the channel in blocking mode.
+     *
+     * @return The connected channel.
+     *
+     * @throws IOException If the server is not reachable.
+     */
+    @NotNull
+    static SocketChannel open(final @NotNull MemorizedClient client, final boolean blocking) throws IOException {
+        final Path path = client.getUnixDomainSocketPath();
+        final SocketChannel channel = path != null ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        try {
+            channel.connect(path != null ? UnixDomainSocketAddress.of(path) : client.getServerAddress());
+            channel.configureBlocking(blocking);
+            return channel;
+        } catch (final IOException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Starts connecting without blocking, to the Unix domain socket of the server if the client has one, or to its TCP
+     * address otherwise.
+     *
+     * @param client The client connecting.
+     *
+     * @return The channel in non-blocking mode, connected or with its connection pending.
+     *
+     * @throws IOException If the connection cannot be started.
+     */
+    @NotNull
+    static SocketChannel connect(final @NotNull MemorizedClient client) throws IOException {
+        final Path path = client.getUnixDomainSocketPath();
+        final SocketChannel channel = path != null ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.connect(path != null ? UnixDomainSocketAddress.of(path) : client.getServerAddress());
+            return channel;
+        } catch (final IOException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Sends the authentication packet, before the client is handed out so that no request can be written before it.
+     *
+     * @param client  The client connecting.
+     * @param channel The connected channel.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    static void authenticate(final @NotNull MemorizedClient client, final @NotNull SocketChannel channel) throws IOException {
+        final ByteBuf buffer = new ByteBuf().put(ClientPacket.AUTH.getId());
+        client.getAuthenticationInput()
+                .write(buffer);
+
+        Session.sendAndClear(channel, buffer);
+    }
+
+    /**
+     * Reads the available bytes of a non-blocking channel, and processes every complete packet.
+     * A partially read packet stays in the session until the next readiness notification.
+     *
+     * @param client  The client owning the channel.
+     * @param channel The readable channel.
+     *
+     * @return {@code false} if the connection must be closed, {@code true} otherwise.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    static boolean readAvailable(final @NotNull MemorizedClient client, final @NotNull SocketChannel channel) throws IOException {
+        final Session session = client.getSession();
+        ByteBuffer buffer;
+        int read;
+
+        do {
+            buffer = session.computeBuffer();
+            read = channel.read(buffer);
+
+            if (read == -1) {
+                LOGGER.warn("Server connection closed by the remote side.");
+                return false;
+            }
+
+            if (!buffer.hasRemaining() && !read(client, buffer, session)) {
+                return false;
+            }
+        } while (read > 0);
+        return true;
+    }
+
+    /**
+     * Processes a fully read size prefix or packet and passes the packet to the client for processing.
+     *
+     * @param client  The client owning the session.
+     * @param buffer  The {@link ByteBuffer} containing the read data.
+     * @param session The {@link Session} responsible for handling the packet.
+     *
+     * @return {@code false} if the connection must be closed, {@code true} otherwise.
+     *
+     * @throws IOException If an I/O error occurs while reading the packet.
+     */
+    static boolean read(final @NotNull MemorizedClient client, ByteBuffer buffer, final @NotNull Session session) throws IOException {
+        if (session.getBuffer() == null) {
+            final int size = buffer.flip().getInt();
+            final int limit = client.getPacketSizeLimit(session.isAuthenticated());
+            if (size < 0 || size > limit) {
+                LOGGER.warn("Failed to handle packet from server. Packet is too big {}/{}", size, limit);
+                return false;
+            }
+            buffer = session.computeBuffer(size);
+            if (size != 0) {
+                return true;
+            }
+        }
+
+        buffer.flip();
+
+        if (!client.handlePacket(buffer)) {
+            LOGGER.warn("Failed to handle packet from server. Removing session and closing connection.");
+            return false;
+        }
+
+        session.removeBuffer();
+        return true;
+    }
+
+}
\ No newline at end of file
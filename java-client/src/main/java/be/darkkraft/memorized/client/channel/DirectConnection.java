@@ -0,0 +1,160 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.net.shm.SharedMemoryChannel;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking connection read by the threads waiting for a response, without any channel thread.
+ * <p>A thread sending a request reads the responses itself until its own one is read, so a single caller never
+ * hands off to another thread. When several threads wait, the one holding the read lock completes the responses
+ * of the others in order while they are parked, and one of them takes over the reading when it leaves.</p>
+ * <p>Packets pushed by the server are only read while a request is waiting. A blocking read cannot be interrupted,
+ * so a reading thread whose request times out returns once the packet it is reading arrives.</p>
+ */
+public final class DirectConnection implements ClientChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectConnection.class);
+
+    private final MemorizedClient client;
+    private final Lock readLock = new ReentrantLock();
+
+    /**
+     * Threads waiting for a response while another thread reads, woken when their response is read or the reader leaves.
+     */
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private volatile SocketChannel channel;
+
+    private DirectConnection(final @NotNull MemorizedClient client, final @NotNull SocketChannel channel) {
+        this.client = client;
+        this.channel = channel;
+    }
+
+    /**
+     * Connects and authenticates a client in blocking mode.
+     *
+     * @param client The client connecting.
+     *
+     * @return The connection of the client.
+     *
+     * @throws IOException If the server is not reachable.
+     */
+    @NotNull
+    public static DirectConnection open(final @NotNull MemorizedClient client) throws IOException {
+        Objects.requireNonNull(client, "Client cannot be null");
+        final Path directory = client.getSharedMemoryDirectory();
+        final SocketChannel channel = directory != null ? SharedMemoryChannel.connect(directory) : ClientPacketReader.open(client, true);
+        try {
+            ClientPacketReader.authenticate(client, channel);
+        } catch (final IOException exception) {
+            channel.close();
+            throw exception;
+        }
+        return new DirectConnection(client, channel);
+    }
+
+    /**
+     * Reads the responses until a transaction is completed.
+     * If the connection fails, the transaction is completed exceptionally and the client tries to reconnect.
+     *
+     * @param future The future of the transaction, already queued.
+     */
+    public void await(final @NotNull CompletableFuture<?> future) {
+        Thread waiter = null;
+        while (!future.isDone()) {
+            if (this.readLock.tryLock()) {
+                try {
+                    while (!future.isDone()) {
+                        this.readPacket();
+                    }
+                } catch (final Exception exception) {
+                    future.completeExceptionally(exception);
+                    this.close();
+                } finally {
+                    this.readLock.unlock();
+                }
+                // Another waiting thread becomes the reader
+                this.waiters.forEach(LockSupport::unpark);
+            } else if (waiter == null) {
+                // Register before parking, the reader may release the lock in the meantime
+                final Thread thread = waiter = Thread.currentThread();
+                this.waiters.add(thread);
+                future.whenComplete((result, throwable) -> LockSupport.unpark(thread));
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        if (waiter != null) {
+            this.waiters.remove(waiter);
+        }
+    }
+
+    private void readPacket() throws IOException {
+        final SocketChannel channel = this.channel;
+        if (channel == null) {
+            throw new ClosedChannelException();
+        }
+        final Session session = this.client.getSession();
+        final ByteBuffer buffer = session.computeBuffer();
+        if (channel.read(buffer) == -1) {
+            LOGGER.warn("Server connection closed by the remote side.");
+            throw new EOFException("Server connection closed");
+        }
+        if (!buffer.hasRemaining() && !ClientPacketReader.read(this.client, buffer, session)) {
+            throw new IOException("Failed to handle packet from server");
+        }
+    }
+
+    /**
+     * Checks whether the connection is still open. A closed connection is replaced by the next one of the client.
+     *
+     * @return {@code true} if the connection is open, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isOpen() {
+        final SocketChannel channel = this.channel;
+        return channel != null && channel.isOpen();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    @Override
+    public void close() {
+        try {
+            final SocketChannel channel = this.channel;
+            if (channel != null) {
+                this.channel = null;
+                channel.close();
+                this.client.getTransactionQueue().onConnectionClosed();
+                if (this.client.isRunning()) {
+                    this.client.tryToReconnect();
+                }
+            }
+        } catch (final Exception exception) {
+            LOGGER.error("An error occurred during shutdown", exception);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package be.darkkraft.memorized.client.packet.command;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.channel.DirectConnection;
+import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.timeout.TimerWheel;
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transaction queue in which the thread queuing a transaction reads its response before returning.
+ * <p>The returned futures are already completed, so blocking calls never wait for another thread. Asynchronous calls
+ * are no longer pipelined, this queue suits request-response workloads.</p>
+ * <p>Every transaction is read by its caller, and a reader reads the responses in order up to its own one, so the
+ * responses of the transactions queued before, including expired ones, are never left unread.</p>
+ *
+ * @see DirectConnection
+ */
+public class DirectTransactionQueue extends TransactionQueueImpl {
+
+    private volatile DirectConnection connection;
+
+    /**
+     * Constructs a new {@link DirectTransactionQueue} instance associated with the given {@link MemorizedClient}.
+     *
+     * @param client The {@link MemorizedClient} with which the transaction queue is associated.
+     */
+    public DirectTransactionQueue(final @NotNull MemorizedClient client) {
+        super(client);
+    }
+
+    /**
+     * Constructs a new {@link DirectTransactionQueue} instance associated with the given {@link MemorizedClient}.
+     *
+     * @param client     The {@link MemorizedClient} with which the transaction queue is associated.
+     * @param timerWheel The wheel expiring the requests after the request timeout of the client, or {@code null} if
+     *                   requests never time out.
+     */
+    public DirectTransactionQueue(final @NotNull MemorizedClient client, final @Nullable TimerWheel timerWheel) {
+        super(client, timerWheel);
+    }
+
+    /**
+     * Queues a transaction and reads the responses until its own one is read.
+     * <p>Without an open connection, no thread would read the response, the transaction fails right away instead of
+     * waiting for the next connection.</p>
+     *
+     * @param buffer The {@link ByteBuf} containing the transaction data.
+     *
+     * @return A completed {@link CompletableFuture}, failed with a {@link SessionNotOpenException} if the client is not
+     * connected.
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<ByteBuffer> queue(final @NotNull ByteBuf buffer) {
+        final DirectConnection connection = this.connection;
+        if (connection == null || !connection.isOpen()) {
+            return CompletableFuture.failedFuture(new SessionNotOpenException());
+        }
+        final CompletableFuture<ByteBuffer> future = super.queue(buffer);
+        connection.await(future);
+        return future;
+    }
+
+    /**
+     * Sets the connection read by the threads queuing transactions.
+     *
+     * @param connection The current connection, or {@code null} if the client is not connected.
+     */
+    public void setConnection(final @Nullable DirectConnection connection) {
+        this.connection = connection;
+    }
+
+}
\ No newline at end of file
@@ -1,10 +1,17 @@
 package be.darkkraft.memorized.client.packet.command;
 
 import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.channel.ClientChannel;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.config.OverflowPolicy;
+import be.darkkraft.memorized.client.exception.ConnectionClosedException;
 import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.client.exception.TransactionQueueFullException;
 import be.darkkraft.memorized.client.net.TransactionQueue;
+import be.darkkraft.memorized.client.timeout.TimerWheel;
 import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -12,12 +19,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 
 /**
  * Implementation of the {@link TransactionQueue} interface.
+ * <p>The requests waiting for a response and the fire-and-forget packets waiting for the connection are bounded by the
+ * {@link ClientConfiguration client configuration}, following its {@link OverflowPolicy}. Requests sent by a thread
+ * completing a transaction, such as a callback of a future, are never blocked, as this thread is the one making room.</p>
+ * <p>Requests expired by the {@link TimerWheel timer wheel} stay in the queue until their late response arrives and is
+ * skipped, so that the following responses still complete the right requests. Their slot is given back as soon as
+ * they are completed, whether by a response, an expiration or a cancellation.</p>
+ * <p>The queue outlives the connections of the client: when a connection is closed, the requests sent through it are
+ * failed and removed, so that the responses of the next connection are matched with the requests sent through it.</p>
+ * <p>When reads are coalesced, a {@link ClientPacket#SHOW} or {@link ClientPacket#TRACKED_SHOW} request identical to one waiting for its response is not
+ * sent, it shares the response of the first one. A read only joins a request sent after the last other packet of the
+ * client, so that it still sees the writes of the client sent before it.</p>
  */
 public class TransactionQueueImpl implements TransactionQueue {
 
@@ -25,10 +57,47 @@ public class TransactionQueueImpl implements TransactionQueue {
 
     @NotNull
     private final Queue<CompletableFuture<ByteBuffer>> futures = new ConcurrentLinkedQueue<>();
-    private final Queue<ByteBuf> pendingBuffers = new ConcurrentLinkedQueue<>();
+    private final Queue<PendingBuffer> pendingBuffers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Guards the writes, so that futures are queued in the order their requests are sent
+     * and frames written by several threads never interleave.
+     */
+    private final Lock writeLock = new ReentrantLock();
+
+    /**
+     * Requests waiting for a response, including the ones waiting for the connection, and fire-and-forget packets
+     * waiting for the connection. Sizes of concurrent queues are not constant-time, they are counted separately.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger pendingFireAndForget = new AtomicInteger();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Reads waiting for their response, by request bytes, and the number of other packets sent before them.
+     * The number only grows under the write lock, after the packet is sent or kept until the session is ready.
+     */
+    private final Map<ByteBuffer, Read> reads = new ConcurrentHashMap<>();
+    private volatile long writes;
+
+    /**
+     * Parks the threads waiting for room, signalled only if some are waiting.
+     */
+    private final Lock capacityLock = new ReentrantLock();
+    private final Condition capacityAvailable = this.capacityLock.newCondition();
+    private volatile int waiting;
+    private volatile Thread completingThread;
+    private final BiConsumer<ByteBuffer, Throwable> release = (response, throwable) -> {
+        this.inFlight.decrementAndGet();
+        this.signalCapacity();
+    };
 
     @NotNull
     private final MemorizedClient client;
+    private final @Nullable TimerWheel timerWheel;
 
     /**
      * Constructs a new {@link TransactionQueueImpl} instance associated with the given {@link MemorizedClient}.
@@ -36,13 +105,62 @@ public class TransactionQueueImpl implements TransactionQueue {
      * @param client The {@link MemorizedClient} with which the transaction queue is associated.
      */
     public TransactionQueueImpl(final @NotNull MemorizedClient client) {
+        this(client, null);
+    }
+
+    /**
+     * Constructs a new {@link TransactionQueueImpl} instance associated with the given {@link MemorizedClient}.
+     *
+     * @param client     The {@link MemorizedClient} with which the transaction queue is associated.
+     * @param timerWheel The wheel expiring the requests after the request timeout of the client, or {@code null} if
+     *                   requests never time out.
+     */
+    public TransactionQueueImpl(final @NotNull MemorizedClient client, final @Nullable TimerWheel timerWheel) {
         this.client = client;
+        this.timerWheel = timerWheel;
     }
 
     @Override
     public void onSessionReady() {
-        while (!this.pendingBuffers.isEmpty()) {
-            this.directQueue(this.pendingBuffers.poll());
+        PendingBuffer pending;
+        while ((pending = this.pendingBuffers.poll()) != null) {
+            this.pendingSize.decrementAndGet();
+            if (!pending.request()) {
+                this.pendingFireAndForget.decrementAndGet();
+            }
+            this.send(pending.buffer(), pending.request());
+        }
+        this.signalCapacity();
+    }
+
+    /**
+     * Fails the requests waiting for a response of the closed connection, including the ones kept until the session is
+     * ready, which are no longer sent. Fire-and-forget packets are still sent once reconnected.
+     */
+    @Override
+    public void onConnectionClosed() {
+        final List<CompletableFuture<ByteBuffer>> failed;
+        this.writeLock.lock();
+        try {
+            failed = new ArrayList<>(this.futures);
+            this.futures.clear();
+            final Iterator<PendingBuffer> iterator = this.pendingBuffers.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().request()) {
+                    iterator.remove();
+                    this.pendingSize.decrementAndGet();
+                }
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        // Completed outside the lock, the callbacks may send the next requests
+        final ConnectionClosedException exception = new ConnectionClosedException();
+        for (final CompletableFuture<ByteBuffer> future : failed) {
+            future.completeExceptionally(exception);
         }
     }
 
@@ -58,7 +176,18 @@ public class TransactionQueueImpl implements TransactionQueue {
             LOGGER.warn("Received a packet without any request!");
             return;
         }
-        future.complete(buffer);
+        if (future.isDone()) {
+            // Expired or cancelled, this is its late response
+            LOGGER.debug("Skipping the late response of a completed request");
+            return;
+        }
+        final Thread previous = this.completingThread;
+        this.completingThread = Thread.currentThread();
+        try {
+            future.complete(buffer);
+        } finally {
+            this.completingThread = previous;
+        }
     }
 
     /**
@@ -73,14 +202,118 @@ public class TransactionQueueImpl implements TransactionQueue {
     @NotNull
     @Override
     public CompletableFuture<ByteBuffer> queue(final @NotNull ByteBuf buffer) {
+        final byte packetId = buffer.getBuffer().get(0);
+        final boolean read = packetId == ClientPacket.SHOW.getId() || packetId == ClientPacket.TRACKED_SHOW.getId();
+        if (read && this.client.getConfiguration().coalesceReads()) {
+            return this.coalesce(buffer);
+        }
+        return this.request(buffer, read);
+    }
+
+    /**
+     * Shares the response of an identical read waiting for it, or sends the read and lets the next identical
+     * ones share its response. Each caller gets its own view of the response, as decoding it moves its position.
+     *
+     * @param buffer The {@link ByteBuf} containing the read request.
+     *
+     * @return A {@link CompletableFuture} representing the future result of the read.
+     */
+    @NotNull
+    private CompletableFuture<ByteBuffer> coalesce(final @NotNull ByteBuf buffer) {
+        final ByteBuffer key = ByteBuffer.wrap(Arrays.copyOf(buffer.getBuffer().array(), buffer.position()));
+        final long writes = this.writes;
+        final Read read = new Read(new CompletableFuture<>(), writes);
+        while (true) {
+            final Read current = this.reads.get(key);
+            if (current != null && current.writes() == writes && !current.future().isDone()) {
+                this.coalesced.incrementAndGet();
+                return current.future().thenApply(TransactionQueueImpl::duplicate);
+            }
+            if (current == null ? this.reads.putIfAbsent(key, read) == null : this.reads.replace(key, current, read)) {
+                break;
+            }
+        }
+        this.request(buffer, true).whenComplete((response, throwable) -> {
+            this.reads.remove(key, read);
+            if (throwable != null) {
+                read.future().completeExceptionally(throwable);
+            } else {
+                read.future().complete(response);
+            }
+        });
+        return read.future().thenApply(TransactionQueueImpl::duplicate);
+    }
+
+    @NotNull
+    private CompletableFuture<ByteBuffer> request(final @NotNull ByteBuf buffer, final boolean read) {
         final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
-        this.futures.add(future);
-        this.directQueue(buffer);
-        return future;
+        final ClientConfiguration configuration = this.client.getConfiguration();
+        // Requests already sent cannot be dropped, only rejected
+        if (!this.reserve(this.inFlight, configuration.maxInFlightRequests(), configuration.overflowPolicy() == OverflowPolicy.FAIL_FAST)) {
+            future.completeExceptionally(new TransactionQueueFullException());
+            return future;
+        }
+        this.writeLock.lock();
+        try {
+            this.futures.add(future);
+            this.send(buffer, true);
+            if (!read) {
+                this.writes++;
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+        if (this.timerWheel != null) {
+            this.timerWheel.schedule(future, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(configuration.requestTimeout()));
+        }
+        // The slot is given back however the request ends, expired requests may never get their late response.
+        // The caller is completed once it is given back, so that its next request finds the room.
+        return future.whenComplete(this.release);
     }
 
     @Override
     public void directQueue(final @NotNull ByteBuf buffer) {
+        final ClientConfiguration configuration = this.client.getConfiguration();
+        final int limit = configuration.maxPendingBuffers();
+        if (this.pendingFireAndForget.get() >= limit) {
+            // Disconnected long enough to fill the pending queue
+            switch (configuration.overflowPolicy()) {
+                case BLOCK -> {
+                    if (ClientChannel.isEventLoopThread()) {
+                        this.rejected.incrementAndGet();
+                        throw new TransactionQueueFullException();
+                    }
+                    this.awaitPendingRoom(limit);
+                }
+                case FAIL_FAST -> {
+                    this.rejected.incrementAndGet();
+                    throw new TransactionQueueFullException();
+                }
+                case DROP_OLDEST -> this.dropOldest();
+            }
+        }
+        this.writeLock.lock();
+        try {
+            this.send(buffer, false);
+            this.writes++;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Nullable
+    private static ByteBuffer duplicate(final @Nullable ByteBuffer response) {
+        return response != null ? response.duplicate() : null;
+    }
+
+    /**
+     * Sends a packet, or keeps it until the session is ready if it cannot be sent.
+     *
+     * @param buffer  The packet.
+     * @param request {@code true} if the packet is a request whose future is queued.
+     */
+    private void send(final @NotNull ByteBuf buffer, final boolean request) {
+        this.writeLock.lock();
         try {
             final Session session = this.client.getSession();
             if (session == null) {
@@ -89,8 +322,103 @@ public class TransactionQueueImpl implements TransactionQueue {
             Session.send(session.getChannel(), buffer);
             buffer.getBuffer().clear();
         } catch (final Exception exception) {
-            LOGGER.error("Failed to queue a buffer", exception);
-            this.pendingBuffers.add(buffer);
+            if (exception instanceof SessionNotOpenException || exception instanceof ClosedChannelException) {
+                // Expected while disconnected, which can last for many packets
+                LOGGER.debug("Session is not open, keeping the buffer until it is ready");
+            } else {
+                LOGGER.error("Failed to queue a buffer", exception);
+            }
+            if (!request) {
+                this.pendingFireAndForget.incrementAndGet();
+            }
+            this.pendingSize.incrementAndGet();
+            this.pendingBuffers.add(new PendingBuffer(buffer, request));
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reserves room in a bounded counter, waiting for it following the overflow policy.
+     * <p>The thread completing a request of this queue is always given room, so that callbacks can send the next
+     * request. Other threads reading responses, such as the loops shared with other clients, give up instead of
+     * waiting, since the responses making room could be waiting for them.</p>
+     *
+     * @param counter  The counter to increment.
+     * @param limit    The bound of the counter.
+     * @param failFast {@code true} to give up instead of waiting.
+     *
+     * @return {@code true} if the room is reserved, {@code false} if it is rejected.
+     */
+    private boolean reserve(final @NotNull AtomicInteger counter, final int limit, final boolean failFast) {
+        if (counter.incrementAndGet() <= limit || Thread.currentThread() == this.completingThread) {
+            return true;
+        }
+        counter.decrementAndGet();
+        if (failFast || ClientChannel.isEventLoopThread()) {
+            this.rejected.incrementAndGet();
+            return false;
+        }
+        this.capacityLock.lock();
+        try {
+            this.waiting++;
+            while (counter.incrementAndGet() > limit) {
+                counter.decrementAndGet();
+                this.capacityAvailable.await();
+            }
+            return true;
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            this.rejected.incrementAndGet();
+            return false;
+        } finally {
+            this.waiting--;
+            this.capacityLock.unlock();
+        }
+    }
+
+    private void awaitPendingRoom(final int limit) {
+        this.capacityLock.lock();
+        try {
+            this.waiting++;
+            while (this.pendingFireAndForget.get() >= limit) {
+                this.capacityAvailable.await();
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.waiting--;
+            this.capacityLock.unlock();
+        }
+    }
+
+    private void dropOldest() {
+        this.writeLock.lock();
+        try {
+            final Iterator<PendingBuffer> iterator = this.pendingBuffers.iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().request()) {
+                    iterator.remove();
+                    this.pendingFireAndForget.decrementAndGet();
+                    this.pendingSize.decrementAndGet();
+                    this.dropped.incrementAndGet();
+                    return;
+                }
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    private void signalCapacity() {
+        if (this.waiting == 0) {
+            return;
+        }
+        this.capacityLock.lock();
+        try {
+            this.capacityAvailable.signalAll();
+        } finally {
+            this.capacityLock.unlock();
         }
     }
 
@@ -102,7 +430,37 @@ public class TransactionQueueImpl implements TransactionQueue {
     @Override
     @Contract(pure = true)
     public int size() {
-        return this.futures.size();
+        return this.inFlight.get();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public int pendingSize() {
+        return this.pendingSize.get();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public long rejectedCount() {
+        return this.rejected.get();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public long droppedCount() {
+        return this.dropped.get();
+    }
+
+    @Override
+    @Contract(pure = true)
+    public long timedOutCount() {
+        return this.timerWheel != null ? this.timerWheel.expiredCount() : 0L;
+    }
+
+    @Override
+    @Contract(pure = true)
+    public long coalescedCount() {
+        return this.coalesced.get();
     }
 
     /**
@@ -116,4 +474,22 @@ public class TransactionQueueImpl implements TransactionQueue {
         return this.futures.isEmpty();
     }
 
+    /**
+     * Packet waiting for the session to be ready.
+     *
+     * @param buffer  The packet.
+     * @param request {@code true} if the packet is a request whose future is queued.
+     */
+    private record PendingBuffer(@NotNull ByteBuf buffer, boolean request) {
+    }
+
+    /**
+     * Read waiting for its response.
+     *
+     * @param future The future shared by the identical reads.
+     * @param writes The number of other packets sent before the read.
+     */
+    private record Read(@NotNull CompletableFuture<ByteBuffer> future, long writes) {
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package be.darkkraft.memorized.client.packet.handler;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.data.map.NearCache;
+import be.darkkraft.memorized.client.session.ServerSession;
+import be.darkkraft.memorized.packet.ServerPacket;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles {@link ServerPacket#INVALIDATE} packets for the {@link MemorizedClient}.
+ */
+public final class InvalidateHandler extends SessionPacketHandler {
+
+    private final MemorizedClient client;
+
+    /**
+     * Initializes a new instance of the {@link InvalidateHandler} with the provided client.
+     *
+     * @param client The {@link MemorizedClient} to which this handler is associated.
+     */
+    @Contract(pure = true)
+    public InvalidateHandler(final @NotNull MemorizedClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Handles the incoming {@link ServerPacket#INVALIDATE} packets by removing the changed key from its near cache.
+     * Invalidations of a disabled cache are ignored.
+     *
+     * @param session The {@link ServerSession} from which the packet is received.
+     * @param buffer  The {@link ByteBuffer} containing the identifier of the cache and the changed key.
+     */
+    @Override
+    public void handle(final @NotNull ServerSession session, final @NotNull ByteBuffer buffer) {
+        final NearCache<?, ?> cache = this.client.getNearCacheRegistry().get(buffer.getInt());
+        if (cache != null) {
+            this.invalidate(cache, buffer);
+        }
+    }
+
+    private <K> void invalidate(final @NotNull NearCache<K, ?> cache, final @NotNull ByteBuffer buffer) {
+        final K key = this.client.getCodecRegistry().decode(buffer, cache.getKeyClass());
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package be.darkkraft.memorized.client.packet.handler;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.data.subscription.Subscription;
+import be.darkkraft.memorized.client.session.ServerSession;
+import be.darkkraft.memorized.packet.ServerPacket;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles {@link ServerPacket#NOTIFY} packets for the {@link MemorizedClient}.
+ */
+public final class NotifyHandler extends SessionPacketHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotifyHandler.class);
+
+    private final MemorizedClient client;
+
+    /**
+     * Initializes a new instance of the {@link NotifyHandler} with the provided client.
+     *
+     * @param client The {@link MemorizedClient} to which this handler is associated.
+     */
+    @Contract(pure = true)
+    public NotifyHandler(final @NotNull MemorizedClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Handles the incoming {@link ServerPacket#NOTIFY} packets by passing each notification to its subscription.
+     * Notifications of cancelled subscriptions are skipped, and a failing listener does not prevent the others from
+     * being called.
+     *
+     * @param session The {@link ServerSession} from which the packet is received.
+     * @param buffer  The {@link ByteBuffer} containing the notifications, each made of the identifier of its
+     *                subscription, the length of its payload, then its payload.
+     */
+    @Override
+    public void handle(final @NotNull ServerSession session, final @NotNull ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            final Subscription subscription = this.client.getSubscriptionRegistry().get(buffer.getInt());
+            final int length = buffer.getInt();
+            final int end = buffer.position() + length;
+            if (subscription != null) {
+                try {
+                    subscription.notify(buffer.slice(buffer.position(), length));
+                } catch (final Exception exception) {
+                    LOGGER.error("An error occurred while notifying subscription {}", subscription.getId(), exception);
+                }
+            }
+            buffer.position(end);
+        }
+    }
+
+}
\ No newline at end of file
@@ -33,7 +33,11 @@ public final class AuthenticationSuccessHandler extends SessionPacketHandler {
     @Override
     public void handle(final @NotNull ServerSession session, final @NotNull ByteBuffer buffer) {
         session.setAuthenticated(true);
+        // A new session has no tracked key, cached values would no longer be invalidated
+        this.client.getNearCacheRegistry().clear();
         this.client.getTransactionQueue().onSessionReady();
+        // Subscriptions belong to the previous session
+        this.client.getSubscriptionRegistry().resubscribe();
         LOGGER.debug("Authentication success.");
     }
 
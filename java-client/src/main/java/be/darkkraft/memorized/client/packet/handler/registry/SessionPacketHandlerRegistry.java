@@ -2,7 +2,9 @@ package be.darkkraft.memorized.client.packet.handler.registry;
 
 import be.darkkraft.memorized.client.MemorizedClient;
 import be.darkkraft.memorized.client.packet.handler.DisconnectHandler;
+import be.darkkraft.memorized.client.packet.handler.InvalidateHandler;
 import be.darkkraft.memorized.client.packet.handler.NotFoundHandler;
+import be.darkkraft.memorized.client.packet.handler.NotifyHandler;
 import be.darkkraft.memorized.client.packet.handler.ResultHandler;
 import be.darkkraft.memorized.client.packet.handler.auth.AuthenticationFailedHandler;
 import be.darkkraft.memorized.client.packet.handler.auth.AuthenticationSuccessHandler;
@@ -39,6 +41,8 @@ public final class SessionPacketHandlerRegistry extends PacketHandlerRegistry<Se
         this.register(ServerPacket.DISCONNECT, new DisconnectHandler());
         this.register(ServerPacket.RESULT, new ResultHandler(client));
         this.register(ServerPacket.NOT_FOUND, new NotFoundHandler(client));
+        this.register(ServerPacket.INVALIDATE, new InvalidateHandler(client));
+        this.register(ServerPacket.NOTIFY, new NotifyHandler(client));
     }
 
 }
\ No newline at end of file
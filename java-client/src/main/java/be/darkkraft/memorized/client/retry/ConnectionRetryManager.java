@@ -2,12 +2,14 @@ package be.darkkraft.memorized.client.retry;
 
 import be.darkkraft.memorized.client.MemorizedClientImpl;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public class ConnectionRetryManager {
@@ -15,32 +17,47 @@ public class ConnectionRetryManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionRetryManager.class);
 
     private final MemorizedClientImpl client;
+    private final @Nullable ScheduledExecutorService sharedExecutor;
     private ScheduledExecutorService executor;
+    private ScheduledFuture<?> task;
 
     public ConnectionRetryManager(final @NotNull MemorizedClientImpl client) {
+        this(client, null);
+    }
+
+    public ConnectionRetryManager(final @NotNull MemorizedClientImpl client, final @Nullable ScheduledExecutorService sharedExecutor) {
         this.client = Objects.requireNonNull(client, "Client cannot be null");
+        this.sharedExecutor = sharedExecutor;
     }
 
-    public void start() {
-        if (this.executor != null) {
+    public synchronized void start() {
+        if (this.task != null) {
             // Already started?
             return;
         }
-        this.executor = Executors.newSingleThreadScheduledExecutor();
+        if (this.sharedExecutor != null) {
+            this.executor = this.sharedExecutor;
+        } else {
+            this.executor = Executors.newSingleThreadScheduledExecutor();
+        }
         final long delay = this.client.getConfiguration().connectionRetryDelay();
-        this.executor.scheduleWithFixedDelay(this::retry, delay, delay, TimeUnit.MILLISECONDS);
+        this.task = this.executor.scheduleWithFixedDelay(this::retry, delay, delay, TimeUnit.MILLISECONDS);
     }
 
-    public void stop() {
-        if (this.executor != null) {
-            this.executor.shutdownNow();
+    public synchronized void stop() {
+        if (this.task != null) {
+            this.task.cancel(false);
+            this.task = null;
+            if (this.executor != this.sharedExecutor) {
+                this.executor.shutdownNow();
+            }
             this.executor = null;
         }
     }
 
     private void retry() {
         LOGGER.info("Attempting to reconnect with the server...");
-        if (!this.client.connect()) {
+        if (!this.client.connect(false)) {
             this.stop();
         }
     }
@@ -1,7 +1,9 @@
 package be.darkkraft.memorized.client.session;
 
+import be.darkkraft.memorized.client.MemorizedClient;
 import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -10,6 +12,8 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a session between the client and the server.
@@ -18,12 +22,23 @@ public class ServerSession implements Session {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerSession.class);
 
+    /**
+     * Maximum number of key handles bound by a single session, matching the limit of the server.
+     */
+    private static final int MAX_HANDLES = 1 << 16;
+
     @NotNull
     private final SocketChannel channel;
 
+    private final ByteBuffer sizeBuffer = ByteBuffer.allocate(Integer.BYTES);
     private boolean authenticated;
     private ByteBuffer currentBuffer;
 
+    /**
+     * Handles bound in this session, a value of {@code 0} means that the bind is in progress.
+     */
+    private final Map<HandleKey, Integer> keyHandles = new ConcurrentHashMap<>();
+
     /**
      * Constructs a new ServerSession instance with the provided {@link SocketChannel}.
      *
@@ -78,18 +93,47 @@ public class ServerSession implements Session {
     }
 
     /**
-     * Computes a {@link ByteBuf} to be used for network operations.
+     * Retrieves the handle bound to a container key in this session, requesting a bind if the key is not bound yet.
+     *
+     * @param client        The {@link MemorizedClient} used to send the bind request.
+     * @param keyIdentifier The identifier of the key type.
+     * @param key           The key of the container.
+     *
+     * @return The handle, or {@code 0} if the key is not bound yet.
+     */
+    public int getKeyHandle(final @NotNull MemorizedClient client, final int keyIdentifier, final @NotNull Object key) {
+        final HandleKey handleKey = new HandleKey(keyIdentifier, key);
+        final Integer handle = this.keyHandles.get(handleKey);
+        if (handle != null) {
+            return handle;
+        }
+        if (this.keyHandles.size() >= MAX_HANDLES || this.keyHandles.putIfAbsent(handleKey, 0) != null) {
+            return 0;
+        }
+        final ByteBuf buffer = client.getCodecRegistry().encode(new ByteBuf().put(ClientPacket.BIND.getId()).putInt(keyIdentifier), key);
+        client.getTransactionQueue().queue(buffer).thenAccept(result -> {
+            final int boundHandle = result != null ? result.getInt() : 0;
+            if (boundHandle < 0) {
+                this.keyHandles.put(handleKey, boundHandle);
+            } else {
+                // The container does not exist yet, allow a later bind
+                this.keyHandles.remove(handleKey);
+            }
+        });
+        return 0;
+    }
+
+    /**
+     * Computes the buffer of the packet being read, or the buffer of the size prefix if no packet is being read.
+     * <p>Packet buffers are not reused, since they are handed to the completed transactions.</p>
      *
-     * @return The computed {@link ByteBuf}.
+     * @return The computed {@link ByteBuffer}.
      */
     @Override
     @NotNull
     @Contract(pure = true)
     public ByteBuffer computeBuffer() {
-        if (this.currentBuffer == null) {
-            this.currentBuffer = ByteBuffer.allocate(Integer.BYTES);
-        }
-        return this.currentBuffer;
+        return this.currentBuffer != null ? this.currentBuffer : this.sizeBuffer;
     }
 
     /**
@@ -108,6 +152,7 @@ public class ServerSession implements Session {
     @Override
     public void removeBuffer() {
         this.currentBuffer = null;
+        this.sizeBuffer.clear();
     }
 
     /**
@@ -122,4 +167,7 @@ public class ServerSession implements Session {
         return this.currentBuffer;
     }
 
+    private record HandleKey(int keyIdentifier, @NotNull Object key) {
+    }
+
 }
\ No newline at end of file
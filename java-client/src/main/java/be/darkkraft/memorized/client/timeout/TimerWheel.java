@@ -0,0 +1,167 @@
+package be.darkkraft.memorized.client.timeout;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timer wheel expiring the futures of the requests whose deadline is reached.
+ * <p>Scheduling a deadline only adds it to a concurrent queue, there is no task per request. A single task ticks the
+ * wheel at a fixed rate: it places the new deadlines in the bucket of their tick, then expires the deadlines of the
+ * buckets it passes. Futures completed before their deadline are removed when their bucket is passed. Deadlines are
+ * therefore reached at most one tick late.</p>
+ */
+public final class TimerWheel {
+
+    private static final int BUCKETS = 512;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Queue<Deadline>[] buckets = new Queue[BUCKETS];
+    private final Queue<Deadline> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong expired = new AtomicLong();
+    private final long tickNanos;
+    private final @Nullable ScheduledExecutorService sharedExecutor;
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> task;
+    private long startNanos;
+    private long tick;
+
+    /**
+     * Constructs a timer wheel ticking on a thread of its own once started.
+     *
+     * @param tickMillis The duration of a tick in milliseconds, the precision of the deadlines.
+     */
+    public TimerWheel(final long tickMillis) {
+        this(tickMillis, null);
+    }
+
+    /**
+     * Constructs a timer wheel.
+     *
+     * @param tickMillis     The duration of a tick in milliseconds, the precision of the deadlines.
+     * @param sharedExecutor The executor ticking the wheel, or {@code null} to tick on a thread of its own.
+     */
+    public TimerWheel(final long tickMillis, final @Nullable ScheduledExecutorService sharedExecutor) {
+        if (tickMillis < 1L) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.sharedExecutor = sharedExecutor;
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Starts ticking the wheel.
+     */
+    public synchronized void start() {
+        if (this.task != null) {
+            // Already started?
+            return;
+        }
+        if (this.sharedExecutor != null) {
+            this.executor = this.sharedExecutor;
+        } else {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "MemorizedClient Timer Thread");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.startNanos = System.nanoTime();
+        this.tick = 0L;
+        this.task = this.executor.scheduleAtFixedRate(this::advance, this.tickNanos, this.tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops ticking the wheel. The futures not expired yet are left as they are.
+     */
+    public synchronized void stop() {
+        if (this.task != null) {
+            this.task.cancel(false);
+            this.task = null;
+            if (this.executor != this.sharedExecutor) {
+                this.executor.shutdownNow();
+            }
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Schedules the expiration of a future, completing it exceptionally with a {@link TimeoutException} if it is not
+     * completed before its deadline.
+     *
+     * @param future        The future to expire.
+     * @param deadlineNanos The deadline, in the time base of {@link System#nanoTime()}.
+     */
+    public void schedule(final @NotNull CompletableFuture<?> future, final long deadlineNanos) {
+        this.scheduled.add(new Deadline(future, deadlineNanos));
+    }
+
+    /**
+     * Gets the number of futures expired by this wheel.
+     *
+     * @return The number of expirations since the wheel was created.
+     */
+    @Contract(pure = true)
+    public long expiredCount() {
+        return this.expired.get();
+    }
+
+    private synchronized void advance() {
+        final long now = System.nanoTime();
+        Deadline deadline;
+        while ((deadline = this.scheduled.poll()) != null) {
+            if (!deadline.future().isDone()) {
+                // First tick at or after the deadline, deadlines already passed are expired by the next tick
+                final long tick = Math.max(this.tick, Math.floorDiv(deadline.nanos() - this.startNanos + this.tickNanos - 1L, this.tickNanos));
+                this.buckets[(int) (tick % BUCKETS)].add(deadline);
+            }
+        }
+        // Catch up the ticks missed by a late executor
+        while (this.startNanos + this.tick * this.tickNanos <= now) {
+            this.expire(this.buckets[(int) (this.tick % BUCKETS)], now);
+            this.tick++;
+        }
+    }
+
+    private void expire(final @NotNull Queue<Deadline> bucket, final long now) {
+        final Iterator<Deadline> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            final Deadline deadline = iterator.next();
+            if (deadline.future().isDone()) {
+                iterator.remove();
+            } else if (deadline.nanos() <= now) {
+                iterator.remove();
+                if (deadline.future().completeExceptionally(new TimeoutException("No response from the server in time"))) {
+                    this.expired.incrementAndGet();
+                }
+            }
+            // Otherwise, the deadline is in a later round of the wheel
+        }
+    }
+
+    /**
+     * Deadline of a future.
+     *
+     * @param future The future to expire.
+     * @param nanos  The deadline, in the time base of {@link System#nanoTime()}.
+     */
+    private record Deadline(@NotNull CompletableFuture<?> future, long nanos) {
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package be.darkkraft.memorized.client;
+
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.net.session.Session;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class PooledMemorizedClientTest {
+
+    private TestServer server;
+    private PooledMemorizedClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = TestServer.start();
+        // Lost connections stay lost for the duration of a test
+        this.client = (PooledMemorizedClient) this.server.client(ClientConfiguration.builder().connectionRetryDelay(60_000L).build())
+                .connections(3)
+                .build();
+        this.client.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.client.shutdown();
+        this.server.close();
+    }
+
+    @Test
+    void assignsTheConnectionsInTurn() throws Exception {
+        final Session first = this.client.getSession();
+        assertSame(first, this.client.getSession());
+        final Session second = this.sessionOfAnotherThread();
+        final Session third = this.sessionOfAnotherThread();
+        assertNotSame(first, second);
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+
+        // Every connection is used, the next thread shares the first one
+        assertSame(first, this.sessionOfAnotherThread());
+        assertSame(first, this.client.getSession());
+    }
+
+    @Test
+    void movesThreadsOffALostConnection() throws Exception {
+        final IntCounter counter = new StringIntCounter(this.client, TestServer.COUNTER);
+        assertEquals(1, counter.blockingIncrementAndGet());
+
+        final Session lost = this.client.getSession();
+        lost.getChannel().close();
+        final Session replacement = this.client.getSession();
+        assertNotSame(lost, replacement);
+        assertTrue(replacement.getChannel().isOpen());
+        assertEquals(2, counter.blockingIncrementAndGet());
+
+        // The thread stays on its new connection
+        assertSame(replacement, this.client.getSession());
+        // Threads assigned to the lost connection later are moved as well
+        this.sessionOfAnotherThread();
+        this.sessionOfAnotherThread();
+        final Session moved = this.sessionOfAnotherThread();
+        assertNotSame(lost, moved);
+        assertTrue(moved.getChannel().isOpen());
+    }
+
+    @NotNull
+    private Session sessionOfAnotherThread() throws Exception {
+        final CompletableFuture<Session> session = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> session.complete(this.client.getSession()));
+        thread.start();
+        thread.join();
+        return session.get();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package be.darkkraft.memorized.client;
+
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.SelectStrategy;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectStrategyLatencyTest {
+
+    private static final String TOKEN = "latency-token";
+
+    private static final int WARMUP = 2_000;
+    private static final int ACTIONS = 10_000;
+
+    @Test
+    @Timeout(60)
+    void blockingStrategyServesEveryRequest() throws Exception {
+        this.measure(SelectStrategy.blocking());
+    }
+
+    @Test
+    @Timeout(60)
+    void spinningStrategyServesEveryRequest() throws Exception {
+        this.measure(SelectStrategy.spinThenPark(1_000, 100, 50_000L));
+    }
+
+    /**
+     * Both the server worker and the client channel thread are idle in parks of about a second when the request is
+     * sent, the request and its response must each end the park of their thread instead of waiting for it.
+     */
+    @Test
+    @Timeout(60)
+    void idleThreadsServeARequestBeforeTheirParkEnds() throws Exception {
+        this.measure(SelectStrategy.spinThenPark(1_000, 100, 10_000_000_000L), counter -> {
+            Thread.sleep(2_000L);
+            final long start = System.nanoTime();
+            counter.blockingIncrementAndGet();
+            assertTrue(System.nanoTime() - start < 500_000_000L, "The request waited for the park to end");
+        });
+    }
+
+    private void measure(final @NotNull SelectStrategy strategy) throws Exception {
+        this.measure(strategy, counter -> {
+            for (int i = 0; i < ACTIONS; i++) {
+                assertEquals(WARMUP + i + 1, counter.blockingIncrementAndGet());
+            }
+        });
+    }
+
+    /**
+     * Runs blocking increments with the strategy on both the server worker and the client channel thread.
+     *
+     * @param strategy The strategy of both threads.
+     * @param action   The action run with the counter once warmed up.
+     */
+    private void measure(final @NotNull SelectStrategy strategy, final @NotNull CounterAction action) throws Exception {
+        final InetSocketAddress address = TestServer.freeAddress();
+        final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+        final StringDataRepository repository = new StringDataRepository(codecRegistry);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .selectStrategy(strategy)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        repository.register("counter", new ServerIntCounter());
+
+        final MemorizedClient client = new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput(TOKEN))
+                .codecRegistry(codecRegistry)
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(ClientConfiguration.builder().selectStrategy(strategy).build())
+                .build();
+        try {
+            client.start();
+            final IntCounter counter = new StringIntCounter(client, "counter");
+            for (int i = 0; i < WARMUP; i++) {
+                counter.blockingIncrementAndGet();
+            }
+            action.run(counter);
+        } finally {
+            client.shutdown();
+            server.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface CounterAction {
+
+        void run(final @NotNull IntCounter counter) throws Exception;
+
+    }
+
+}
\ No newline at end of file
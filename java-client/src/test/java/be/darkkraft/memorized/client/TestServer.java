@@ -0,0 +1,118 @@
+package be.darkkraft.memorized.client;
+
+import be.darkkraft.memorized.client.auth.TokenAuthenticationInput;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.key.ClassKeyRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.StringDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+/**
+ * Server with a single {@code "counter"} container, for the tests of the client.
+ */
+public final class TestServer implements AutoCloseable {
+
+    public static final String TOKEN = "client-token";
+    public static final String COUNTER = "counter";
+
+    private final InetSocketAddress address;
+    private final CodecRegistry codecRegistry = new DefaultCodecRegistry().registerDefaults();
+    private final MemorizedServer server;
+
+    private TestServer(final @NotNull InetSocketAddress address) {
+        this.address = address;
+        final StringDataRepository repository = new StringDataRepository(this.codecRegistry);
+        repository.register(COUNTER, new ServerIntCounter());
+        this.server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(this.codecRegistry)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+    }
+
+    /**
+     * Starts a server on a free local address.
+     *
+     * @return The started server.
+     *
+     * @throws IOException If no port is available.
+     */
+    @NotNull
+    public static TestServer start() throws IOException {
+        final TestServer server = new TestServer(freeAddress());
+        server.server.start();
+        return server;
+    }
+
+    /**
+     * Finds a free local address.
+     *
+     * @return The address.
+     *
+     * @throws IOException If no port is available.
+     */
+    @NotNull
+    public static InetSocketAddress freeAddress() throws IOException {
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            return new InetSocketAddress("127.0.0.1", socket.getLocalPort());
+        }
+    }
+
+    /**
+     * Creates a builder of clients of this server.
+     *
+     * @param configuration The configuration of the clients.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    public MemorizedClientBuilder client(final @NotNull ClientConfiguration configuration) {
+        return client(this.address, configuration);
+    }
+
+    /**
+     * Creates a builder of clients of an address, whether a server is listening on it or not.
+     *
+     * @param address       The address of the server.
+     * @param configuration The configuration of the clients.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    public static MemorizedClientBuilder client(final @NotNull InetSocketAddress address, final @NotNull ClientConfiguration configuration) {
+        return new MemorizedClientBuilder().serverAddress(address)
+                .authenticationInput(new TokenAuthenticationInput(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .keyRegistry(new ClassKeyRegistry().register(String.class, 0))
+                .configuration(configuration);
+    }
+
+    /**
+     * Closes the connections of every client, as a network failure would.
+     *
+     * @throws IOException If a connection cannot be closed.
+     */
+    public void disconnectAll() throws IOException {
+        for (final Session session : this.server.getSessions()) {
+            session.getChannel().close();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.server.shutdown();
+    }
+
+}
\ No newline at end of file
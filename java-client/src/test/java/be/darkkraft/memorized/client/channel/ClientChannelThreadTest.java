@@ -0,0 +1,65 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.TestServer;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.packet.ClientPacket;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class ClientChannelThreadTest {
+
+    @Test
+    void authenticatesBeforeTheClientIsStarted() throws Exception {
+        try (final ServerSocketChannel server = ServerSocketChannel.open().bind(TestServer.freeAddress())) {
+            final MemorizedClient client = TestServer.client((InetSocketAddress) server.getLocalAddress(), ClientConfiguration.builder().build()).build();
+            client.start();
+            try (final SocketChannel accepted = server.accept()) {
+                // Already written when start returned, a request sent now cannot get ahead of it
+                accepted.configureBlocking(false);
+                final ByteBuffer frame = ByteBuffer.allocate(64);
+                assertTrue(accepted.read(frame) > 5);
+                assertEquals(ClientPacket.AUTH.getId(), frame.flip().get(4));
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void terminatesOnceItsChannelIsClosed() throws Exception {
+        try (final TestServer server = TestServer.start()) {
+            final Set<Thread> before = Thread.getAllStackTraces().keySet();
+            final MemorizedClient client = server.client(ClientConfiguration.builder().build()).build();
+            client.start();
+            final Thread channelThread = channelThreadStartedAfter(before);
+
+            client.shutdown();
+            channelThread.join(5_000L);
+            assertFalse(channelThread.isAlive(), "Channel thread still blocked in its selector");
+        }
+    }
+
+    @NotNull
+    private static Thread channelThreadStartedAfter(final @NotNull Set<Thread> before) {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread instanceof ClientChannelThread && !before.contains(thread)) {
+                return thread;
+            }
+        }
+        throw new AssertionError("No channel thread started");
+    }
+
+}
\ No newline at end of file
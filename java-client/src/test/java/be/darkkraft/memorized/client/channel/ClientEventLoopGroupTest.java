@@ -0,0 +1,99 @@
+package be.darkkraft.memorized.client.channel;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.TestServer;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.net.session.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class ClientEventLoopGroupTest {
+
+    private ClientEventLoopGroup group;
+
+    @BeforeEach
+    void setUp() {
+        this.group = new ClientEventLoopGroup(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.group.shutdown();
+    }
+
+    @Test
+    void connectsWithoutBlockingTheCaller() throws Exception {
+        // A listening socket never accepting, whose backlog is filled so that the next connections stay pending
+        final List<SocketChannel> backlog = new ArrayList<>();
+        try (final ServerSocket socket = new ServerSocket(0, 1)) {
+            final InetSocketAddress address = new InetSocketAddress("127.0.0.1", socket.getLocalPort());
+            for (int i = 0; i < 8; i++) {
+                final SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.connect(address);
+                backlog.add(channel);
+            }
+            final MemorizedClient client = TestServer.client(address, ClientConfiguration.builder().connectTimeout(500L).build()).build();
+
+            final long start = System.nanoTime();
+            final CompletableFuture<ClientConnection> connection = this.group.open(client);
+            assertTrue(System.nanoTime() - start < 100_000_000L, "Opening must not wait for the connection");
+
+            final ExecutionException exception = assertThrows(ExecutionException.class, connection::get);
+            assertTrue(exception.getCause() instanceof TimeoutException);
+        } finally {
+            for (final SocketChannel channel : backlog) {
+                channel.close();
+            }
+        }
+    }
+
+    @Test
+    void failsAnUnreachableServer() throws Exception {
+        final MemorizedClient client = TestServer.client(TestServer.freeAddress(), ClientConfiguration.builder().build()).build();
+        assertThrows(ExecutionException.class, () -> this.group.open(client).get());
+    }
+
+    @Test
+    void reconnectsThroughTheGroup() throws Exception {
+        try (final TestServer server = TestServer.start()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().connectionRetryDelay(100L).build())
+                    .eventLoopGroup(this.group)
+                    .build();
+            client.start();
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                assertEquals(1, counter.blockingIncrementAndGet());
+
+                final Session session = client.getSession();
+                server.disconnectAll();
+                while (client.getSession() == session) {
+                    // Not reconnected yet
+                    Thread.sleep(20L);
+                }
+                assertEquals(2, counter.blockingIncrementAndGet());
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+}
\ No newline at end of file
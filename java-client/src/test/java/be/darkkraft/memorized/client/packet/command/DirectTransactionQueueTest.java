@@ -0,0 +1,115 @@
+package be.darkkraft.memorized.client.packet.command;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.TestServer;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.data.channel.StringMessageChannel;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.client.data.map.StringMemorizedMap;
+import be.darkkraft.memorized.client.exception.SessionNotOpenException;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.net.session.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class DirectTransactionQueueTest {
+
+    @Test
+    void failsRightAwayWithoutConnection() throws Exception {
+        final MemorizedClient client = TestServer.client(TestServer.freeAddress(), ClientConfiguration.builder().callerReads(true).build()).build();
+        client.start();
+        try {
+            final CompletableFuture<Integer> future = new StringIntCounter(client, TestServer.COUNTER).asyncIncrementAndGet();
+            assertTrue(future.isDone(), "Nobody would read the response");
+            final ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertTrue(exception.getCause() instanceof SessionNotOpenException);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void failsRightAwayOnceDisconnected() throws Exception {
+        try (final TestServer server = TestServer.start()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().callerReads(true).build()).build();
+            client.start();
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                assertEquals(1, counter.blockingIncrementAndGet());
+
+                server.disconnectAll();
+                // The first request reads the end of the connection, the next ones are not sent
+                assertThrows(CompletionException.class, counter::blockingIncrementAndGet);
+                final CompletableFuture<Integer> future = counter.asyncIncrementAndGet();
+                assertTrue(future.isDone(), "Nobody would read the response");
+                final ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+                assertTrue(exception.getCause() instanceof SessionNotOpenException);
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void servesRequestsAgainOnceReconnected() throws Exception {
+        try (final TestServer server = TestServer.start()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().callerReads(true).connectionRetryDelay(100L).build()).build();
+            client.start();
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                assertEquals(1, counter.blockingIncrementAndGet());
+
+                final Session session = client.getSession();
+                server.disconnectAll();
+                int value;
+                while (true) {
+                    try {
+                        value = counter.blockingIncrementAndGet();
+                        if (client.getSession() != session) {
+                            break;
+                        }
+                    } catch (final CompletionException exception) {
+                        // Disconnected, every request fails until the client is reconnected
+                        Thread.sleep(20L);
+                    }
+                }
+                assertEquals(2, value);
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void rejectsNearCaches() throws Exception {
+        final MemorizedClient client = TestServer.client(TestServer.freeAddress(), ClientConfiguration.builder().callerReads(true).build()).build();
+        final StringMemorizedMap<String, String> map = new StringMemorizedMap<>(client, String.class, "map");
+        // A read answered by the cache would never read the invalidations pushed meanwhile
+        assertThrows(IllegalStateException.class, () -> map.enableNearCache(String.class, 16));
+        assertNull(map.getNearCache());
+    }
+
+    @Test
+    void rejectsSubscriptions() throws Exception {
+        final MemorizedClient client = TestServer.client(TestServer.freeAddress(), ClientConfiguration.builder().callerReads(true).build()).build();
+        // Notifications would only be read along with the response of a request
+        assertThrows(IllegalStateException.class, () -> new StringIntCounter(client, TestServer.COUNTER).asyncSubscribe(value -> {
+        }));
+        assertThrows(IllegalStateException.class, () -> new StringMemorizedMap<String, String>(client, String.class, "map").asyncSubscribeAll(String.class, (key, value) -> {
+        }));
+        assertThrows(IllegalStateException.class, () -> new StringMessageChannel(client, "channel").asyncSubscribe(message -> {
+        }));
+        assertEquals(0, client.getSubscriptionRegistry().size());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,385 @@
+package be.darkkraft.memorized.client.packet.command;
+
+import be.darkkraft.memorized.client.MemorizedClient;
+import be.darkkraft.memorized.client.TestServer;
+import be.darkkraft.memorized.client.channel.ClientChannel;
+import be.darkkraft.memorized.client.channel.ClientEventLoopGroup;
+import be.darkkraft.memorized.client.config.ClientConfiguration;
+import be.darkkraft.memorized.client.config.OverflowPolicy;
+import be.darkkraft.memorized.client.data.counter.StringIntCounter;
+import be.darkkraft.memorized.client.exception.ConnectionClosedException;
+import be.darkkraft.memorized.client.exception.TransactionQueueFullException;
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class TransactionQueueImplTest {
+
+    private static final int IN_FLIGHT = 3;
+
+    @Test
+    void givesBackTheSlotsOfExpiredRequests() throws Exception {
+        try (final ServerSocketChannel server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0))) {
+            final MemorizedClient client = TestServer.client((InetSocketAddress) server.getLocalAddress(), ClientConfiguration.builder()
+                    .maxInFlightRequests(2)
+                    .overflowPolicy(OverflowPolicy.FAIL_FAST)
+                    .requestTimeout(100L)
+                    .keyHandles(false)
+                    .build()).build();
+            final Thread acceptor = new Thread(() -> acceptSilently(server));
+            acceptor.start();
+            client.start();
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                // The server never answers, every request expires and must free its slot
+                for (int i = 0; i < 5; i++) {
+                    final CompletableFuture<Integer> first = counter.asyncIncrementAndGet();
+                    final CompletableFuture<Integer> second = counter.asyncIncrementAndGet();
+                    assertTimesOut(first);
+                    assertTimesOut(second);
+                }
+                assertEquals(0, client.getTransactionQueue().size());
+            } finally {
+                client.shutdown();
+                acceptor.join();
+            }
+        }
+    }
+
+    @Test
+    void failsTheRequestsOfAClosedConnection() throws Exception {
+        try (final ServerSocketChannel server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0))) {
+            final MemorizedClient client = TestServer.client((InetSocketAddress) server.getLocalAddress(), ClientConfiguration.builder()
+                    .connectionRetryDelay(100L)
+                    .keyHandles(false)
+                    .build()).build();
+            final Thread acceptor = new Thread(() -> {
+                // The first connection is closed with requests in flight, the second one answers every request
+                try (final SocketChannel channel = server.accept()) {
+                    channel.write(ByteBuffer.allocate(5).putInt(1).put(ServerPacket.AUTH_SUCCESS.getId()).flip());
+                    readFrames(channel, 1 + IN_FLIGHT);
+                } catch (final IOException exception) {
+                    throw new AssertionError(exception);
+                }
+                try (final SocketChannel channel = server.accept()) {
+                    readFrames(channel, 1);
+                    channel.write(ByteBuffer.allocate(5).putInt(1).put(ServerPacket.AUTH_SUCCESS.getId()).flip());
+                    while (true) {
+                        readFrames(channel, 1);
+                        channel.write(ByteBuffer.allocate(9).putInt(5).put(ServerPacket.RESULT.getId()).putInt(42).flip());
+                    }
+                } catch (final IOException ignored) {
+                    // The client is shut down
+                }
+            });
+            acceptor.start();
+            client.start();
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < IN_FLIGHT; i++) {
+                    futures.add(counter.asyncIncrementAndGet());
+                }
+                for (final CompletableFuture<Integer> future : futures) {
+                    final ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+                    assertTrue(exception.getCause() instanceof ConnectionClosedException, String.valueOf(exception.getCause()));
+                }
+                assertEquals(0, client.getTransactionQueue().size());
+                assertTrue(client.getTransactionQueue().isEmpty());
+
+                // Sent once reconnected, its response must not be taken by a request of the closed connection
+                assertEquals(42, counter.blockingIncrementAndGet());
+            } finally {
+                client.shutdown();
+                acceptor.join();
+            }
+        }
+    }
+
+    @Test
+    void neverBlocksTheLoopsSharedWithOtherClients() throws Exception {
+        final ClientEventLoopGroup group = new ClientEventLoopGroup(1);
+        try (final ServerSocketChannel answering = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+             final ServerSocketChannel silent = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0))) {
+            final MemorizedClient first = TestServer.client((InetSocketAddress) answering.getLocalAddress(), ClientConfiguration.builder()
+                    .keyHandles(false)
+                    .build()).eventLoopGroup(group).build();
+            final MemorizedClient second = TestServer.client((InetSocketAddress) silent.getLocalAddress(), ClientConfiguration.builder()
+                    .maxInFlightRequests(1)
+                    .overflowPolicy(OverflowPolicy.BLOCK)
+                    .keyHandles(false)
+                    .build()).eventLoopGroup(group).build();
+            final CountDownLatch attached = new CountDownLatch(1);
+            final Thread responder = new Thread(() -> {
+                // Answers the request of the first client once its callback is attached, so that the loop runs it
+                try (final SocketChannel channel = answering.accept()) {
+                    channel.write(ByteBuffer.allocate(5).putInt(1).put(ServerPacket.AUTH_SUCCESS.getId()).flip());
+                    readFrames(channel, 2);
+                    attached.await();
+                    channel.write(ByteBuffer.allocate(9).putInt(5).put(ServerPacket.RESULT.getId()).putInt(42).flip());
+                    readFrames(channel, 1);
+                } catch (final IOException | InterruptedException ignored) {
+                    // The client is shut down
+                }
+            });
+            final Thread acceptor = new Thread(() -> acceptSilently(silent));
+            responder.start();
+            acceptor.start();
+            first.start();
+            second.start();
+            try {
+                final IntCounter full = new StringIntCounter(second, TestServer.COUNTER);
+                // Takes the only slot of the second client, which is never given back
+                full.asyncIncrementAndGet();
+
+                final CompletableFuture<CompletableFuture<Integer>> nested = new CompletableFuture<>();
+                new StringIntCounter(first, TestServer.COUNTER).asyncIncrementAndGet().whenComplete((value, throwable) -> {
+                    if (ClientChannel.isEventLoopThread()) {
+                        nested.complete(full.asyncIncrementAndGet());
+                    } else {
+                        nested.completeExceptionally(new AssertionError("The callback was not run by the loop"));
+                    }
+                });
+                attached.countDown();
+
+                final ExecutionException exception = assertThrows(ExecutionException.class, () -> nested.get(5L, TimeUnit.SECONDS).get());
+                assertTrue(exception.getCause() instanceof TransactionQueueFullException, String.valueOf(exception.getCause()));
+            } finally {
+                first.shutdown();
+                second.shutdown();
+                responder.join();
+                acceptor.join();
+            }
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    void sharesOneSendBetweenIdenticalReads() throws Exception {
+        try (final ScriptedServer server = new ScriptedServer()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().coalesceReads(true));
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                final List<CompletableFuture<Integer>> reads = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    reads.add(counter.asyncGet());
+                }
+                assertEquals(ClientPacket.SHOW.getId(), server.nextPacket());
+                server.respond(7);
+                for (final CompletableFuture<Integer> read : reads) {
+                    assertEquals(Integer.valueOf(7), read.get());
+                }
+                assertEquals(2L, client.getTransactionQueue().coalescedCount());
+
+                // The next packet received is the increment, the joined reads were never sent
+                final CompletableFuture<Integer> increment = counter.asyncIncrementAndGet();
+                assertEquals(ClientPacket.UPDATE.getId(), server.nextPacket());
+                server.respond(8);
+                assertEquals(Integer.valueOf(8), increment.get());
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void neverJoinsAReadSentBeforeAWrite() throws Exception {
+        try (final ScriptedServer server = new ScriptedServer()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().coalesceReads(true));
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                final CompletableFuture<Integer> before = counter.asyncGet();
+                final CompletableFuture<Integer> increment = counter.asyncIncrementAndGet();
+                final CompletableFuture<Integer> after = counter.asyncGet();
+                assertEquals(ClientPacket.SHOW.getId(), server.nextPacket());
+                assertEquals(ClientPacket.UPDATE.getId(), server.nextPacket());
+                assertEquals(ClientPacket.SHOW.getId(), server.nextPacket());
+                server.respond(1);
+                server.respond(2);
+                server.respond(2);
+
+                assertEquals(Integer.valueOf(1), before.get());
+                assertEquals(Integer.valueOf(2), increment.get());
+                assertEquals(Integer.valueOf(2), after.get());
+                assertEquals(0L, client.getTransactionQueue().coalescedCount());
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void expiresEveryJoinedRead() throws Exception {
+        try (final ScriptedServer server = new ScriptedServer()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().coalesceReads(true).requestTimeout(200L));
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                final List<CompletableFuture<Integer>> reads = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    reads.add(counter.asyncGet());
+                }
+                assertEquals(ClientPacket.SHOW.getId(), server.nextPacket());
+                // The server never answers
+                for (final CompletableFuture<Integer> read : reads) {
+                    assertTimesOut(read);
+                }
+                assertEquals(2L, client.getTransactionQueue().coalescedCount());
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void failsEveryJoinedReadOfAClosedConnection() throws Exception {
+        try (final ScriptedServer server = new ScriptedServer()) {
+            final MemorizedClient client = server.client(ClientConfiguration.builder().coalesceReads(true).connectionRetryDelay(60_000L));
+            try {
+                final IntCounter counter = new StringIntCounter(client, TestServer.COUNTER);
+                final List<CompletableFuture<Integer>> reads = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    reads.add(counter.asyncGet());
+                }
+                assertEquals(ClientPacket.SHOW.getId(), server.nextPacket());
+                server.disconnect();
+                for (final CompletableFuture<Integer> read : reads) {
+                    final ExecutionException exception = assertThrows(ExecutionException.class, read::get);
+                    assertTrue(exception.getCause() instanceof ConnectionClosedException, String.valueOf(exception.getCause()));
+                }
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    private static void assertTimesOut(final @NotNull CompletableFuture<?> future) {
+        final ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof TimeoutException, String.valueOf(exception.getCause()));
+    }
+
+    /**
+     * Reads size-prefixed frames.
+     */
+    private static void readFrames(final @NotNull SocketChannel channel, final int count) throws IOException {
+        final ByteBuffer size = ByteBuffer.allocate(4);
+        for (int i = 0; i < count; i++) {
+            readFully(channel, size.clear());
+            readFully(channel, ByteBuffer.allocate(size.flip().getInt()));
+        }
+    }
+
+    private static void readFully(final @NotNull SocketChannel channel, final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Accepts and authenticates a single client, then queues the requests it sends, answered on demand.
+     */
+    private static final class ScriptedServer implements AutoCloseable {
+
+        private final ServerSocketChannel server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+        private final CompletableFuture<SocketChannel> channel = new CompletableFuture<>();
+        private final BlockingQueue<ByteBuffer> requests = new LinkedBlockingQueue<>();
+        private final Thread thread = new Thread(this::run);
+
+        private ScriptedServer() throws IOException {
+            this.thread.start();
+        }
+
+        @NotNull
+        private MemorizedClient client(final @NotNull ClientConfiguration.Builder configuration) throws IOException {
+            final MemorizedClient client = TestServer.client((InetSocketAddress) this.server.getLocalAddress(), configuration.keyHandles(false).build()).build();
+            client.start();
+            return client;
+        }
+
+        private byte nextPacket() throws InterruptedException {
+            final ByteBuffer request = this.requests.poll(5L, TimeUnit.SECONDS);
+            assertNotNull(request, "No request was received");
+            return request.get(0);
+        }
+
+        private void respond(final int value) throws Exception {
+            final ByteBuffer response = ByteBuffer.allocate(9).putInt(5).put(ServerPacket.RESULT.getId()).putInt(value).flip();
+            while (response.hasRemaining()) {
+                this.channel.get().write(response);
+            }
+        }
+
+        private void disconnect() throws Exception {
+            this.channel.get().close();
+        }
+
+        private void run() {
+            try (final SocketChannel accepted = this.server.accept()) {
+                accepted.write(ByteBuffer.allocate(5).putInt(1).put(ServerPacket.AUTH_SUCCESS.getId()).flip());
+                this.channel.complete(accepted);
+                final ByteBuffer size = ByteBuffer.allocate(4);
+                // The first frame is the authentication
+                for (boolean authenticated = false; ; authenticated = true) {
+                    readFully(accepted, size.clear());
+                    final ByteBuffer frame = ByteBuffer.allocate(size.flip().getInt());
+                    readFully(accepted, frame);
+                    if (authenticated) {
+                        this.requests.add(frame.flip());
+                    }
+                }
+            } catch (final IOException ignored) {
+                // The client is shut down or disconnected
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            this.server.close();
+            this.thread.join();
+        }
+
+    }
+
+    /**
+     * Authenticates a single client, then reads its requests without ever answering them.
+     */
+    private static void acceptSilently(final @NotNull ServerSocketChannel server) {
+        try (final SocketChannel channel = server.accept()) {
+            channel.write(ByteBuffer.allocate(5).putInt(1).put(ServerPacket.AUTH_SUCCESS.getId()).flip());
+            final ByteBuffer buffer = ByteBuffer.allocate(1024);
+            while (channel.read(buffer.clear()) >= 0) {
+                // Requests are ignored
+            }
+        } catch (final IOException ignored) {
+            // The client is shut down
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package be.darkkraft.memorized.data.blob;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Enum representing the steps of a chunked upload of a blob.
+ * <p>An upload is started with its total size, then its chunks are appended in order, then it is committed, which
+ * replaces the value of the blob at once. An upload can be aborted instead.</p>
+ */
+public enum BlobUpdate {
+
+    BEGIN,
+    APPEND,
+    COMMIT,
+    ABORT;
+
+    private static final BlobUpdate[] VALUES = values();
+    private final byte id = (byte) (-128 + this.ordinal());
+
+    /**
+     * Converts a byte ID to its corresponding {@link BlobUpdate} enum value.
+     *
+     * @param id the byte ID
+     *
+     * @return the corresponding {@link BlobUpdate} value or {@code null} if no match is found
+     */
+    @Contract(pure = true)
+    @Nullable
+    public static BlobUpdate fromId(final byte id) {
+        // Identifiers are allocated from -128 in declaration order
+        final int index = id + 128;
+        return index < VALUES.length ? VALUES[index] : null;
+    }
+
+    /**
+     * Gets the byte ID of the {@link BlobUpdate} enum value.
+     *
+     * @return the byte ID
+     */
+    @Contract(pure = true)
+    public byte getId() {
+        return this.id;
+    }
+
+}
\ No newline at end of file
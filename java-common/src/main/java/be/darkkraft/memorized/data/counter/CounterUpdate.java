@@ -29,12 +29,9 @@ public enum CounterUpdate {
     @Contract(pure = true)
     @Nullable
     public static CounterUpdate fromId(final byte id) {
-        for (final CounterUpdate value : VALUES) {
-            if (value.id == id) {
-                return value;
-            }
-        }
-        return null;
+        // Identifiers are allocated from -128 in declaration order
+        final int index = id + 128;
+        return index < VALUES.length ? VALUES[index] : null;
     }
 
     /**
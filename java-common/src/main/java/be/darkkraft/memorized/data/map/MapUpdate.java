@@ -24,12 +24,9 @@ public enum MapUpdate {
     @Contract(pure = true)
     @Nullable
     public static MapUpdate fromId(final byte id) {
-        for (final MapUpdate value : VALUES) {
-            if (value.id == id) {
-                return value;
-            }
-        }
-        return null;
+        // Identifiers are allocated from -128 in declaration order
+        final int index = id + 128;
+        return index < VALUES.length ? VALUES[index] : null;
     }
 
     /**
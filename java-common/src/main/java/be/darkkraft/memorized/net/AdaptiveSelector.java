@@ -0,0 +1,135 @@
+package be.darkkraft.memorized.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Selects the ready keys of a {@link Selector} following a {@link SelectStrategy}.
+ * <p>Instances keep the idle state of the thread selecting, they must only be used by a single thread.</p>
+ * <p>With a single available processor, a busy spin can only delay the thread it is waiting for,
+ * so the spins of the strategy are replaced by yields.</p>
+ * <p>Parks of a millisecond or more wait in the selector, so that a ready key or a {@link Selector#wakeup() wakeup}
+ * ends them right away. Shorter parks cannot, since the timeout of a selection is in milliseconds.</p>
+ */
+public final class AdaptiveSelector {
+
+    /**
+     * Shortest park done by waiting in the selector.
+     */
+    private static final long MIN_SELECT_PARK_NANOS = 1_000_000L;
+
+    private final Selector selector;
+    private final SelectStrategy strategy;
+    private final boolean blocking;
+    private final int spins;
+    private final int polls;
+
+    /**
+     * Number of consecutive polls that found no ready key.
+     */
+    private int idle;
+    private long parkNanos;
+
+    /**
+     * Creates a new {@link AdaptiveSelector}.
+     *
+     * @param selector The selector to select from.
+     * @param strategy The strategy to follow when nothing is ready.
+     */
+    public AdaptiveSelector(final @NotNull Selector selector, final @NotNull SelectStrategy strategy) {
+        this.selector = Objects.requireNonNull(selector, "Selector cannot be null");
+        this.strategy = Objects.requireNonNull(strategy, "Strategy cannot be null");
+        this.blocking = strategy.isBlocking();
+        this.spins = Runtime.getRuntime().availableProcessors() > 1 ? strategy.spins() : 0;
+        this.polls = strategy.spins() + strategy.yields();
+    }
+
+    /**
+     * Selects the ready keys and performs the action on each of them.
+     * Depending on the idle state, this method polls without blocking, spins, yields, parks, or blocks until a key is
+     * ready or the selector is woken up.
+     *
+     * @param action The action to perform on each ready key.
+     *
+     * @return The number of keys whose ready set was updated.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public int select(final @NotNull Consumer<SelectionKey> action) throws IOException {
+        if (this.blocking) {
+            return this.selector.select(action);
+        }
+        final SelectStrategy strategy = this.strategy;
+        final int polled = this.idle;
+        if (polled >= this.polls && this.parkNanos >= strategy.maxParkNanos()) {
+            // Idle long enough: block until a key is ready, then start spinning again
+            this.reset();
+            return this.selector.select(action);
+        }
+
+        final int selected = this.selector.selectNow(action);
+        if (selected != 0) {
+            this.reset();
+            return selected;
+        }
+
+        this.idle = polled + 1;
+        if (polled < this.spins) {
+            Thread.onSpinWait();
+        } else if (polled < this.polls) {
+            Thread.yield();
+        } else {
+            this.parkNanos = this.parkNanos == 0L ? strategy.minParkNanos() : Math.min(this.parkNanos << 1, strategy.maxParkNanos());
+            if (this.parkNanos < MIN_SELECT_PARK_NANOS) {
+                LockSupport.parkNanos(this.parkNanos);
+            } else {
+                final int woken = this.selector.select(action, TimeUnit.NANOSECONDS.toMillis(this.parkNanos));
+                if (woken != 0) {
+                    this.reset();
+                    return woken;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Polls the ready keys without blocking, and performs the action on each of them.
+     *
+     * @param action The action to perform on each ready key.
+     *
+     * @return The number of keys whose ready set was updated.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public int selectNow(final @NotNull Consumer<SelectionKey> action) throws IOException {
+        final int selected = this.selector.selectNow(action);
+        if (selected != 0) {
+            this.reset();
+        }
+        return selected;
+    }
+
+    /**
+     * Gets the underlying selector.
+     *
+     * @return The selector.
+     */
+    @NotNull
+    public Selector getSelector() {
+        return this.selector;
+    }
+
+    private void reset() {
+        this.idle = 0;
+        this.parkNanos = 0L;
+    }
+
+}
\ No newline at end of file
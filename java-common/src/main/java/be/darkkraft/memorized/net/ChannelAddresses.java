@@ -0,0 +1,50 @@
+package be.darkkraft.memorized.net;
+
+import be.darkkraft.memorized.net.shm.SharedMemoryChannel;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Describes the peers of socket channels, whatever their protocol family.
+ * <p>{@link SocketChannel#socket()} is not supported by Unix domain socket channels, and their peers are unnamed,
+ * so connections through a Unix domain socket are described by the path of the socket.
+ * Shared memory channels have no address at all, they are described by the path of their file.</p>
+ */
+public final class ChannelAddresses {
+
+    private ChannelAddresses() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Describes the remote peer of a channel, for logging purposes.
+     *
+     * @param channel The channel.
+     *
+     * @return The remote address of a TCP channel, the path of the socket prefixed by {@code unix:} for a Unix domain
+     * socket channel, the path of the file prefixed by {@code shm:} for a shared memory channel,
+     * or {@code unknown} if the channel is closed.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static String describe(final @NotNull SocketChannel channel) {
+        if (channel instanceof SharedMemoryChannel) {
+            return "shm:" + ((SharedMemoryChannel) channel).getPath();
+        }
+        try {
+            final SocketAddress remote = channel.getRemoteAddress();
+            if (remote instanceof UnixDomainSocketAddress) {
+                return "unix:" + ((UnixDomainSocketAddress) channel.getLocalAddress()).getPath();
+            }
+            return String.valueOf(remote);
+        } catch (final IOException exception) {
+            return "unknown";
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package be.darkkraft.memorized.net;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Strategy used by a thread to wait for its channels to become ready.
+ * <p>The {@link #blocking()} strategy blocks in the selector as soon as nothing is ready, which costs the wakeup
+ * latency of the kernel on every hop. The {@link #spinThenPark(int, int, long)} strategy keeps polling the selector
+ * without blocking: it first busy-spins, then yields, then parks for an exponentially growing time, and finally blocks
+ * in the selector once it has been idle long enough, so that an idle thread does not burn a core.</p>
+ *
+ * @see AdaptiveSelector
+ */
+public final class SelectStrategy {
+
+    private static final SelectStrategy BLOCKING = new SelectStrategy(0, 0, 0L);
+
+    private static final long MIN_PARK_NANOS = 1_000L;
+
+    private final int spins;
+    private final int yields;
+    private final long maxParkNanos;
+
+    private SelectStrategy(final int spins, final int yields, final long maxParkNanos) {
+        this.spins = spins;
+        this.yields = yields;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    /**
+     * Gets the strategy blocking in the selector as soon as nothing is ready.
+     *
+     * @return The blocking strategy.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static SelectStrategy blocking() {
+        return BLOCKING;
+    }
+
+    /**
+     * Creates a strategy polling the selector without blocking while it recently had ready channels.
+     * <p>Once nothing is ready, the selector is polled {@code spins} times with a busy-spin in between, then
+     * {@code yields} times while yielding the processor, then while parking from 1 microsecond up to
+     * {@code maxParkNanos}, doubling the duration every time. The thread blocks in the selector once the longest park
+     * is reached, and starts spinning again as soon as a channel is ready.</p>
+     * <p>Each spinning thread uses a core while it spins, this strategy should only be used with fewer spinning threads
+     * than available cores.</p>
+     *
+     * @param spins        The number of busy-spin polls.
+     * @param yields       The number of polls yielding the processor.
+     * @param maxParkNanos The longest park between two polls, in nanoseconds.
+     *
+     * @return The new strategy.
+     */
+    @NotNull
+    @Contract("_, _, _ -> new")
+    public static SelectStrategy spinThenPark(final int spins, final int yields, final long maxParkNanos) {
+        if (spins < 0 || yields < 0 || maxParkNanos < 0L) {
+            throw new IllegalArgumentException("Spins, yields and park duration cannot be negative");
+        }
+        return new SelectStrategy(spins, yields, maxParkNanos);
+    }
+
+    /**
+     * Checks if this strategy blocks in the selector as soon as nothing is ready.
+     *
+     * @return {@code true} if this strategy never polls, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isBlocking() {
+        return this.spins == 0 && this.yields == 0 && this.maxParkNanos == 0L;
+    }
+
+    @Contract(pure = true)
+    int spins() {
+        return this.spins;
+    }
+
+    @Contract(pure = true)
+    int yields() {
+        return this.yields;
+    }
+
+    @Contract(pure = true)
+    long minParkNanos() {
+        return Math.min(MIN_PARK_NANOS, this.maxParkNanos);
+    }
+
+    @Contract(pure = true)
+    long maxParkNanos() {
+        return this.maxParkNanos;
+    }
+
+    @Override
+    public String toString() {
+        return this.isBlocking() ? "SelectStrategy[blocking]" :
+                "SelectStrategy[spins=" + this.spins + ", yields=" + this.yields + ", maxParkNanos=" + this.maxParkNanos + ']';
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package be.darkkraft.memorized.net.session;
+
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Writes size-prefixed frames through a direct buffer owned by the calling thread,
+ * so that sending a packet does not allocate.
+ * <p>Each thread also owns a {@link ByteBuf} in which responses are encoded before being framed.</p>
+ */
+final class FrameWriter {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Frames bigger than this size are written through a temporary buffer instead of growing the cached one.
+     */
+    private static final int MAX_CACHED_CAPACITY = 65536;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(INITIAL_CAPACITY));
+
+    private static final ThreadLocal<ByteBuf> RESPONSES = ThreadLocal.withInitial(ByteBuf::new);
+
+    private FrameWriter() {
+    }
+
+    /**
+     * Gets the response buffer of the calling thread, cleared.
+     * <p>A response is started by its identifier and cleared once sent, so that a buffer still holding bytes is a
+     * response being written by an enclosing call. This response is left to its owner and another buffer takes its
+     * place.</p>
+     *
+     * @return the response buffer of the calling thread.
+     */
+    static @NotNull ByteBuf response() {
+        ByteBuf response = RESPONSES.get();
+        if (response.position() != 0 || response.capacity() > MAX_CACHED_CAPACITY) {
+            RESPONSES.set(response = new ByteBuf());
+        }
+        response.getBuffer().clear();
+        return response;
+    }
+
+    static void write(final @NotNull SocketChannel channel, final @NotNull ByteBuffer payload) throws IOException {
+        flush(channel, framed(payload));
+    }
+
+    static void write(final @NotNull SocketChannel channel, final byte packetId) throws IOException {
+        flush(channel, framed(packetId));
+    }
+
+    static void write(final @NotNull SocketChannel channel, final byte packetId, final int value) throws IOException {
+        flush(channel, framed(packetId, value));
+    }
+
+    static @NotNull ByteBuffer framed(final @NotNull ByteBuffer payload) {
+        return frame(4 + payload.remaining()).putInt(payload.remaining()).put(payload).flip();
+    }
+
+    static @NotNull ByteBuffer framed(final byte packetId) {
+        return frame(5).putInt(1).put(packetId).flip();
+    }
+
+    static @NotNull ByteBuffer framed(final byte packetId, final int value) {
+        return frame(9).putInt(5).put(packetId).putInt(value).flip();
+    }
+
+    private static ByteBuffer frame(final int size) {
+        ByteBuffer frame = BUFFERS.get();
+        if (frame.capacity() < size) {
+            if (size > MAX_CACHED_CAPACITY) {
+                return ByteBuffer.allocate(size);
+            }
+            BUFFERS.set(frame = ByteBuffer.allocateDirect(Math.max(size, frame.capacity() << 1)));
+        }
+        return frame.clear();
+    }
+
+    private static void flush(final @NotNull SocketChannel channel, final @NotNull ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+}
\ No newline at end of file
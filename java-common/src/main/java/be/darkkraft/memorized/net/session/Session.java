@@ -42,16 +42,9 @@ public interface Session {
      * @throws IOException if an I/O error occurs.
      */
     static void send(final @NotNull SocketChannel channel, final @NotNull ByteBuf byteBuf) throws IOException {
-        final int size = byteBuf.position();
         final ByteBuffer buffer = byteBuf.getBuffer();
-        buffer.limit(size).position(0);
-
-        // Create a buffer with a size prefix
-        final ByteBuffer newBuffer = ByteBuffer.allocate(4 + size).putInt(size).put(buffer).flip();
-
-        while (newBuffer.hasRemaining()) {
-            channel.write(newBuffer);
-        }
+        buffer.limit(byteBuf.position()).position(0);
+        FrameWriter.write(channel, buffer);
     }
 
     /**
@@ -63,18 +56,104 @@ public interface Session {
      * @throws IOException if an I/O error occurs.
      */
     static void send(final @NotNull SocketChannel channel, final @NotNull ByteBuffer buffer) throws IOException {
-        final int size = buffer.position();
-        buffer.limit(size).position(0);
+        buffer.flip();
+        try {
+            FrameWriter.write(channel, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Sends a packet made of its identifier only through a {@link SocketChannel}, without allocating any buffer.
+     *
+     * @param channel  the {@link SocketChannel} to send data through.
+     * @param packetId the identifier of the packet.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    static void send(final @NotNull SocketChannel channel, final byte packetId) throws IOException {
+        FrameWriter.write(channel, packetId);
+    }
 
-        // Create a buffer with a size prefix
-        final ByteBuffer newBuffer = ByteBuffer.allocate(4 + size).putInt(size).put(buffer).flip();
+    /**
+     * Sends a packet made of its identifier and an int through a {@link SocketChannel}, without allocating any buffer.
+     *
+     * @param channel  the {@link SocketChannel} to send data through.
+     * @param packetId the identifier of the packet.
+     * @param value    the int written after the identifier.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    static void send(final @NotNull SocketChannel channel, final byte packetId, final int value) throws IOException {
+        FrameWriter.write(channel, packetId, value);
+    }
 
-        buffer.clear();
-        while (newBuffer.hasRemaining()) {
-            channel.write(newBuffer);
+    /**
+     * Frames a {@link ByteBuf} without writing it, then clears it.
+     * <p>The frame is held by a buffer owned by the calling thread, it is only valid until this thread frames or sends
+     * another packet. Sessions writing without blocking must copy the bytes the channel does not take.</p>
+     *
+     * @param byteBuf the {@link ByteBuf} containing the payload.
+     *
+     * @return the frame, ready to be written.
+     */
+    @NotNull
+    static ByteBuffer frameAndClear(final @NotNull ByteBuf byteBuf) {
+        final ByteBuffer buffer = byteBuf.getBuffer();
+        buffer.limit(byteBuf.position()).position(0);
+        try {
+            return FrameWriter.framed(buffer);
+        } finally {
+            buffer.clear();
         }
     }
 
+    /**
+     * Frames the written part of a {@link ByteBuffer} without writing it, then clears it.
+     * The frame is only valid until the calling thread frames or sends another packet.
+     *
+     * @param buffer the {@link ByteBuffer} containing the payload, before its position.
+     *
+     * @return the frame, ready to be written.
+     */
+    @NotNull
+    static ByteBuffer frameAndClear(final @NotNull ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            return FrameWriter.framed(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Frames a packet made of its identifier only, without writing it.
+     * The frame is only valid until the calling thread frames or sends another packet.
+     *
+     * @param packetId the identifier of the packet.
+     *
+     * @return the frame, ready to be written.
+     */
+    @NotNull
+    static ByteBuffer frame(final byte packetId) {
+        return FrameWriter.framed(packetId);
+    }
+
+    /**
+     * Frames a packet made of its identifier and an int, without writing it.
+     * The frame is only valid until the calling thread frames or sends another packet.
+     *
+     * @param packetId the identifier of the packet.
+     * @param value    the int written after the identifier.
+     *
+     * @return the frame, ready to be written.
+     */
+    @NotNull
+    static ByteBuffer frame(final byte packetId, final int value) {
+        return FrameWriter.framed(packetId, value);
+    }
+
     /**
      * Retrieves the {@link SocketChannel} associated with this session.
      *
@@ -90,12 +169,28 @@ public interface Session {
     boolean isAuthenticated();
 
     /**
-     * Computes a new {@link ByteBuf} for this session.
+     * Computes the buffer in which incoming bytes are read: the buffer of the packet being read,
+     * or the buffer of the size prefix if no packet is being read.
      *
-     * @return the computed {@link ByteBuf}.
+     * @return the computed {@link ByteBuffer}.
      */
     @NotNull ByteBuffer computeBuffer();
 
+    /**
+     * Computes a buffer able to hold a packet of the given size and makes it the current buffer.
+     * Implementations may reuse the same buffer for every packet, once the previous packet has been handled.
+     *
+     * @param size the size of the packet.
+     *
+     * @return the computed {@link ByteBuffer}, with its limit set to the size of the packet.
+     */
+    @NotNull
+    default ByteBuffer computeBuffer(final int size) {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        this.updateBuffer(buffer);
+        return buffer;
+    }
+
     /**
      * Updates the buffer for this session.
      *
@@ -109,12 +204,30 @@ public interface Session {
     void removeBuffer();
 
     /**
-     * Retrieves the current buffer of this session.
+     * Retrieves the buffer of the packet being read.
      *
-     * @return the current {@link ByteBuf}
+     * @return the current {@link ByteBuffer}, or {@code null} if the size prefix of the next packet is being read.
      */
     @Nullable ByteBuffer getBuffer();
 
+    /**
+     * Starts a response in a {@link ByteBuf} owned by the calling thread, so that replying does not allocate.
+     * <p>The returned buffer is only valid until it is sent with {@link #send(ByteBuf)} or {@link #unsafeSend(ByteBuf)},
+     * which frame and clear it. It must neither be kept nor shared with another thread.</p>
+     * <p>Responses are not reentrant: the thread owns a single buffer, which the next call returns once the response is
+     * sent. A response started while another one is still being written, for instance by a handler called while
+     * encoding, gets a buffer of its own, so that the enclosing response is never overwritten. A response abandoned
+     * before being sent, for instance when its encoding fails, is dropped the same way.</p>
+     *
+     * @param packetId the identifier of the response packet.
+     *
+     * @return the {@link ByteBuf} in which the rest of the response can be written.
+     */
+    @NotNull
+    default ByteBuf response(final byte packetId) {
+        return FrameWriter.response().put(packetId);
+    }
+
     /**
      * Sends a {@link ByteBuf} without safety checks, throwing a {@link PacketWritingException} on failure.
      *
@@ -156,6 +269,48 @@ public interface Session {
         }
     }
 
+    /**
+     * Sends a packet made of its identifier only through this session's {@link SocketChannel}.
+     *
+     * @param packetId the identifier of the packet.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    default void send(final byte packetId) throws IOException {
+        send(this.getChannel(), packetId);
+    }
+
+    /**
+     * Sends a packet made of its identifier only, throwing a {@link PacketWritingException} on failure.
+     *
+     * @param packetId the identifier of the packet.
+     *
+     * @throws PacketWritingException on failure.
+     */
+    default void unsafeSend(final byte packetId) {
+        try {
+            this.send(packetId);
+        } catch (final IOException exception) {
+            throw new PacketWritingException(exception);
+        }
+    }
+
+    /**
+     * Sends a packet made of its identifier and an int, throwing a {@link PacketWritingException} on failure.
+     *
+     * @param packetId the identifier of the packet.
+     * @param value    the int written after the identifier.
+     *
+     * @throws PacketWritingException on failure.
+     */
+    default void unsafeSend(final byte packetId, final int value) {
+        try {
+            send(this.getChannel(), packetId, value);
+        } catch (final IOException exception) {
+            throw new PacketWritingException(exception);
+        }
+    }
+
     /**
      * Sends a {@link ByteBuf} through this session's {@link SocketChannel}.
      *
@@ -167,4 +322,28 @@ public interface Session {
         sendAndClear(this.getChannel(), buffer);
     }
 
+    /**
+     * Sends a {@link ByteBuf} from any thread, outside of the request-response flow of this session, then clears it.
+     * Pushed frames never interleave with the responses of the session.
+     *
+     * @param buffer the {@link ByteBuf} to send.
+     *
+     * @throws IOException                   if an I/O error occurs.
+     * @throws UnsupportedOperationException if the session does not accept pushed packets.
+     */
+    default void push(final @NotNull ByteBuf buffer) throws IOException {
+        throw new UnsupportedOperationException("This session does not accept pushed packets");
+    }
+
+    /**
+     * Gets the session of the connection, to which packets can be pushed. Sessions standing for a single request
+     * return the session that sent it.
+     *
+     * @return the session of the connection.
+     */
+    @NotNull
+    default Session origin() {
+        return this;
+    }
+
 }
\ No newline at end of file
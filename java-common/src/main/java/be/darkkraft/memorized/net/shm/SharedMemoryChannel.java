@@ -0,0 +1,493 @@
+package be.darkkraft.memorized.net.shm;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.invoke.VarHandle;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AlreadyConnectedException;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.SelectorProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Connection between two processes of the same host through a memory-mapped file, usually in {@code /dev/shm}.
+ * <p>The file holds a request ring written by the client and a response ring written by the server, each carrying
+ * the same size-prefixed frames as a socket. This class extends {@link SocketChannel} so that sessions, handlers and
+ * authenticators serve it like any other connection, but it cannot be registered in a {@link java.nio.channels.Selector}:
+ * it must be read by a thread of its own, in blocking mode, which polls the ring instead of waiting for the kernel.</p>
+ * <p>A client connects by creating the file under a temporary name and renaming it to {@code *.ring}, so that the
+ * server never maps a file being initialized. The file is only readable and writable by its owner, the connection
+ * fails on file systems without POSIX permissions. The server maps it, deletes it and marks the connection as accepted:
+ * the mapping survives the deletion, so nothing is left behind once both sides are closed.</p>
+ *
+ * @see SharedMemoryListener
+ */
+public final class SharedMemoryChannel extends SocketChannel {
+
+    static final String EXTENSION = ".ring";
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    @Nullable
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private static final int MAGIC = 0x4D454D4F;
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    /**
+     * The rings carry every frame, including the credentials, so that other users must never be able to map them.
+     */
+    private static final FileAttribute<Set<PosixFilePermission>> OWNER_ONLY = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"));
+    private static final Set<StandardOpenOption> CREATE_OPTIONS = Set.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+    /*
+     * Layout of the file, every field written by one side only is on its own cache line.
+     */
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int CLIENT_PID_OFFSET = 8;
+    private static final int SERVER_PID_OFFSET = 16;
+    private static final int CLIENT_STATE_OFFSET = 64;
+    private static final int SERVER_STATE_OFFSET = 128;
+    private static final int REQUEST_HEAD_OFFSET = 192;
+    private static final int REQUEST_TAIL_OFFSET = 256;
+    private static final int RESPONSE_HEAD_OFFSET = 320;
+    private static final int RESPONSE_TAIL_OFFSET = 384;
+    private static final int HEADER_SIZE = 512;
+
+    private static final int PENDING = 0;
+    private static final int OPEN = 1;
+    private static final int CLOSED = 2;
+
+    /**
+     * Peers are checked to be alive once every this number of longest parks.
+     */
+    private static final int LIVENESS_CHECK_INTERVAL = 1024;
+
+    private final Path path;
+    private final MappedByteBuffer memory;
+    private final SharedMemoryRing input;
+    private final SharedMemoryRing output;
+    private final int stateOffset;
+    private final int peerStateOffset;
+    private final int peerPidOffset;
+    private final ReentrantLock readLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean inputShutdown;
+
+    private SharedMemoryChannel(final @NotNull Path path, final @NotNull MappedByteBuffer memory, final boolean server) {
+        super(SelectorProvider.provider());
+        this.path = path;
+        this.memory = memory;
+        final int capacity = (int) INTS.getAcquire(memory, CAPACITY_OFFSET);
+        final SharedMemoryRing requests = new SharedMemoryRing(memory, REQUEST_HEAD_OFFSET, REQUEST_TAIL_OFFSET, HEADER_SIZE, capacity);
+        final SharedMemoryRing responses = new SharedMemoryRing(memory, RESPONSE_HEAD_OFFSET, RESPONSE_TAIL_OFFSET, HEADER_SIZE + capacity, capacity);
+        this.input = server ? requests : responses;
+        this.output = server ? responses : requests;
+        this.stateOffset = server ? SERVER_STATE_OFFSET : CLIENT_STATE_OFFSET;
+        this.peerStateOffset = server ? CLIENT_STATE_OFFSET : SERVER_STATE_OFFSET;
+        this.peerPidOffset = server ? CLIENT_PID_OFFSET : SERVER_PID_OFFSET;
+    }
+
+    /**
+     * Connects to the server listening on a directory, waiting up to 5 seconds for the server to accept.
+     *
+     * @param directory The directory the server listens on.
+     *
+     * @return The connected channel, in blocking mode.
+     *
+     * @throws IOException If the file cannot be created with owner-only permissions or the server does not accept the
+     *                     connection in time.
+     */
+    @NotNull
+    public static SharedMemoryChannel connect(final @NotNull Path directory) throws IOException {
+        return connect(directory, DEFAULT_CAPACITY, TimeUnit.SECONDS.toMillis(5L));
+    }
+
+    /**
+     * Connects to the server listening on a directory.
+     *
+     * @param directory     The directory the server listens on.
+     * @param capacity      The capacity of each ring, rounded up to a power of two.
+     * @param timeoutMillis The longest time to wait for the server to accept the connection, in milliseconds.
+     *
+     * @return The connected channel, in blocking mode.
+     *
+     * @throws IOException If the file cannot be created or the server does not accept the connection in time.
+     */
+    @NotNull
+    public static SharedMemoryChannel connect(final @NotNull Path directory, final int capacity, final long timeoutMillis) throws IOException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^29");
+        }
+        final int ringCapacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        final String name = UUID.randomUUID().toString();
+        final Path temporary = Objects.requireNonNull(directory, "Directory cannot be null").resolve(name + ".tmp");
+        final Path path = directory.resolve(name + EXTENSION);
+
+        final MappedByteBuffer memory;
+        try (final FileChannel file = FileChannel.open(temporary, CREATE_OPTIONS, OWNER_ONLY)) {
+            memory = file.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER_SIZE + 2L * ringCapacity);
+        } catch (final UnsupportedOperationException exception) {
+            throw new IOException("Shared memory connections require a file system with POSIX permissions", exception);
+        }
+        INTS.set(memory, CAPACITY_OFFSET, ringCapacity);
+        LONGS.set(memory, CLIENT_PID_OFFSET, ProcessHandle.current().pid());
+        INTS.set(memory, CLIENT_STATE_OFFSET, OPEN);
+        INTS.setRelease(memory, MAGIC_OFFSET, MAGIC);
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+
+        final SharedMemoryChannel channel = new SharedMemoryChannel(path, memory, false);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int idle = 0;
+        while ((int) INTS.getAcquire(memory, SERVER_STATE_OFFSET) == PENDING) {
+            if (System.nanoTime() - deadline > 0L) {
+                channel.close();
+                Files.deleteIfExists(path);
+                throw new IOException("Server did not accept the shared memory connection " + path);
+            }
+            idle = SharedMemoryRing.idle(idle);
+        }
+        return channel;
+    }
+
+    /**
+     * Accepts the connection of a client, and deletes its file.
+     *
+     * @param path The file created by the client.
+     *
+     * @return The accepted channel, in blocking mode, or {@code null} if the file is not a valid connection.
+     *
+     * @throws IOException If the file cannot be mapped.
+     */
+    @Nullable
+    static SharedMemoryChannel accept(final @NotNull Path path) throws IOException {
+        final MappedByteBuffer memory;
+        try (final FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (file.size() < HEADER_SIZE || file.size() > HEADER_SIZE + 2L * MAX_CAPACITY) {
+                return null;
+            }
+            memory = file.map(FileChannel.MapMode.READ_WRITE, 0L, file.size());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+        // The rings index their bytes with a mask, their capacity must be a power of two filling the file
+        final int capacity = (int) INTS.get(memory, CAPACITY_OFFSET);
+        if ((int) INTS.getAcquire(memory, MAGIC_OFFSET) != MAGIC
+                || capacity <= 0 || (capacity & (capacity - 1)) != 0
+                || memory.capacity() != HEADER_SIZE + 2L * capacity) {
+            unmap(memory);
+            return null;
+        }
+        LONGS.set(memory, SERVER_PID_OFFSET, ProcessHandle.current().pid());
+        INTS.setRelease(memory, SERVER_STATE_OFFSET, OPEN);
+        return new SharedMemoryChannel(path, memory, true);
+    }
+
+    /**
+     * Gets the path of the file shared by both sides, which no longer exists once the connection is accepted.
+     *
+     * @return The path of the file.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Path getPath() {
+        return this.path;
+    }
+
+    @Override
+    public int read(final @NotNull ByteBuffer destination) throws IOException {
+        this.readLock.lock();
+        try {
+            this.ensureOpen();
+            if (this.inputShutdown) {
+                return -1;
+            }
+            final boolean blocking = this.isBlocking();
+            int idle = 0;
+            while (destination.hasRemaining()) {
+                final int read = this.input.read(destination);
+                if (read != 0 || !blocking) {
+                    return read;
+                }
+                if (!this.isOpen()) {
+                    throw new AsynchronousCloseException();
+                }
+                if (this.isPeerClosed(idle) && this.input.isEmpty()) {
+                    return -1;
+                }
+                idle = SharedMemoryRing.idle(idle);
+            }
+            return 0;
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
+    @Override
+    public long read(final ByteBuffer @NotNull [] destinations, final int offset, final int length) throws IOException {
+        this.readLock.lock();
+        try {
+            long total = 0L;
+            for (int i = offset; i < offset + length; i++) {
+                if (!destinations[i].hasRemaining()) {
+                    continue;
+                }
+                final int read = total == 0L ? this.read(destinations[i]) : this.input.read(destinations[i]);
+                if (read == -1) {
+                    return total == 0L ? -1L : total;
+                }
+                total += read;
+                if (destinations[i].hasRemaining()) {
+                    break;
+                }
+            }
+            return total;
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
+    @Override
+    public int write(final @NotNull ByteBuffer source) throws IOException {
+        this.writeLock.lock();
+        try {
+            final int length = source.remaining();
+            final boolean blocking = this.isBlocking();
+            int idle = 0;
+            while (source.hasRemaining()) {
+                this.ensureOpen();
+                if ((int) INTS.getAcquire(this.memory, this.stateOffset) == CLOSED) {
+                    throw new ClosedChannelException();
+                }
+                if (this.isPeerClosed(idle)) {
+                    throw new IOException("Connection closed by the remote side");
+                }
+                if (this.output.write(source) != 0) {
+                    idle = 0;
+                } else if (blocking) {
+                    idle = SharedMemoryRing.idle(idle);
+                } else {
+                    break;
+                }
+            }
+            return length - source.remaining();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long write(final ByteBuffer @NotNull [] sources, final int offset, final int length) throws IOException {
+        long total = 0L;
+        for (int i = offset; i < offset + length; i++) {
+            total += this.write(sources[i]);
+            if (sources[i].hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Checks if the other side has closed the connection or died.
+     *
+     * @param idle The number of consecutive waits for the other side.
+     *
+     * @return {@code true} if the other side will never read nor write again.
+     */
+    private boolean isPeerClosed(final int idle) {
+        if ((int) INTS.getAcquire(this.memory, this.peerStateOffset) == CLOSED) {
+            return true;
+        }
+        if (!SharedMemoryRing.isParking(idle) || idle % LIVENESS_CHECK_INTERVAL != 0) {
+            return false;
+        }
+        final long pid = (long) LONGS.getAcquire(this.memory, this.peerPidOffset);
+        return pid != 0L && !ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!this.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public SocketChannel bind(final @Nullable SocketAddress local) {
+        throw new UnsupportedOperationException("Shared memory channels cannot be bound");
+    }
+
+    @Override
+    public <T> SocketChannel setOption(final @NotNull SocketOption<T> name, final T value) {
+        throw new UnsupportedOperationException("'" + name + "' not supported");
+    }
+
+    @Override
+    public <T> T getOption(final @NotNull SocketOption<T> name) {
+        throw new UnsupportedOperationException("'" + name + "' not supported");
+    }
+
+    @Override
+    public Set<SocketOption<?>> supportedOptions() {
+        return Set.of();
+    }
+
+    @Override
+    public SocketChannel shutdownInput() throws IOException {
+        this.ensureOpen();
+        this.inputShutdown = true;
+        return this;
+    }
+
+    @Override
+    public SocketChannel shutdownOutput() throws IOException {
+        this.writeLock.lock();
+        try {
+            this.ensureOpen();
+            INTS.setRelease(this.memory, this.stateOffset, CLOSED);
+        } finally {
+            this.writeLock.unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public Socket socket() {
+        throw new UnsupportedOperationException("Not supported");
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.isOpen();
+    }
+
+    @Override
+    public boolean isConnectionPending() {
+        return false;
+    }
+
+    @Override
+    public boolean connect(final @NotNull SocketAddress remote) {
+        throw new AlreadyConnectedException();
+    }
+
+    @Override
+    public boolean finishConnect() {
+        return true;
+    }
+
+    /**
+     * Shared memory channels have no socket address.
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public SocketAddress getRemoteAddress() {
+        return null;
+    }
+
+    /**
+     * Shared memory channels have no socket address.
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public SocketAddress getLocalAddress() {
+        return null;
+    }
+
+    /**
+     * Marks this side as closed, then unmaps the shared memory once no thread reads nor writes it.
+     * Threads waiting on the rings check that the channel is open between two polls, so they give the locks back
+     * within a park.
+     */
+    @Override
+    protected void implCloseSelectableChannel() {
+        INTS.setRelease(this.memory, this.stateOffset, CLOSED);
+        if (this.readLock.isHeldByCurrentThread() || this.writeLock.isHeldByCurrentThread()) {
+            // Closed while reading or writing, the memory is still accessed by the caller and is left to the GC
+            return;
+        }
+        this.readLock.lock();
+        this.writeLock.lock();
+        try {
+            unmap(this.memory);
+        } finally {
+            this.writeLock.unlock();
+            this.readLock.unlock();
+        }
+    }
+
+    @Override
+    protected void implConfigureBlocking(final boolean block) {
+        // The rings are polled in both modes, blocking only decides whether to wait when nothing is ready
+    }
+
+    @Override
+    public String toString() {
+        return "SharedMemoryChannel[" + this.path + ']';
+    }
+
+    /**
+     * Releases a mapping right away instead of when it is garbage collected, which could take long enough to keep
+     * many closed connections mapped. The buffer must not be accessed afterward. Without access to the
+     * {@code jdk.unsupported} module, the mapping is left to the garbage collector.
+     *
+     * @param memory The mapping to release.
+     */
+    private static void unmap(final @NotNull MappedByteBuffer memory) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(memory);
+        } catch (final Throwable ignored) {
+            // The mapping is released by the garbage collector instead
+        }
+    }
+
+    @Nullable
+    private static MethodHandle findCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (final ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+}
\ No newline at end of file
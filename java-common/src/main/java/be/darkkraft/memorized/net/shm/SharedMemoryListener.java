@@ -0,0 +1,132 @@
+package be.darkkraft.memorized.net.shm;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+
+/**
+ * Accepts the {@link SharedMemoryChannel shared memory connections} of the clients creating their file in a directory.
+ * <p>Connection files found when the listener opens belong to a previous server, they are deleted.</p>
+ */
+public final class SharedMemoryListener implements Closeable {
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Queue<Path> pending = new ArrayDeque<>();
+
+    private SharedMemoryListener(final @NotNull Path directory, final @NotNull WatchService watchService) {
+        this.directory = directory;
+        this.watchService = watchService;
+    }
+
+    /**
+     * Opens a listener on a directory, creating the directory if needed.
+     *
+     * @param directory The directory in which the clients create their file, such as a directory of {@code /dev/shm}.
+     *
+     * @return The listener.
+     *
+     * @throws IOException If the directory cannot be created or watched.
+     */
+    @NotNull
+    public static SharedMemoryListener open(final @NotNull Path directory) throws IOException {
+        Files.createDirectories(Objects.requireNonNull(directory, "Directory cannot be null"));
+        final WatchService watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+        try (final DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*" + SharedMemoryChannel.EXTENSION)) {
+            for (final Path path : stale) {
+                Files.deleteIfExists(path);
+            }
+        }
+        return new SharedMemoryListener(directory, watchService);
+    }
+
+    /**
+     * Waits for a client to connect and accepts its connection.
+     * Must only be called by a single thread.
+     *
+     * @return The accepted channel, in blocking mode.
+     *
+     * @throws AsynchronousCloseException If the listener is closed while waiting.
+     * @throws IOException                If an I/O error occurs.
+     */
+    @NotNull
+    public SharedMemoryChannel accept() throws IOException {
+        while (true) {
+            final Path path = this.pending.poll();
+            if (path == null) {
+                this.awaitFiles();
+                continue;
+            }
+            try {
+                final SharedMemoryChannel channel = SharedMemoryChannel.accept(path);
+                if (channel != null) {
+                    return channel;
+                }
+            } catch (final NoSuchFileException ignored) {
+                // The client gave up before being accepted
+            }
+        }
+    }
+
+    private void awaitFiles() throws IOException {
+        final WatchKey key;
+        try {
+            key = this.watchService.take();
+        } catch (final ClosedWatchServiceException exception) {
+            throw new AsynchronousCloseException();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new AsynchronousCloseException();
+        }
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events have been lost, the directory must be scanned
+                try (final DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + SharedMemoryChannel.EXTENSION)) {
+                    files.forEach(this.pending::add);
+                }
+            } else if (event.context() instanceof Path name && name.toString().endsWith(SharedMemoryChannel.EXTENSION)) {
+                this.pending.add(this.directory.resolve(name));
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Gets the directory this listener accepts connections from.
+     *
+     * @return The directory.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Closes the listener, making a pending {@link #accept()} throw an {@link AsynchronousCloseException}.
+     * Connections already accepted stay open.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+
+}
\ No newline at end of file
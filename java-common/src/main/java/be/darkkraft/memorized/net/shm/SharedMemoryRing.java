@@ -0,0 +1,170 @@
+package be.darkkraft.memorized.net.shm;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-producer single-consumer byte ring stored in a shared memory region.
+ * <p>The ring carries a stream of bytes, like a socket, so that the size-prefixed frames written by the sessions
+ * are parsed the same way whatever the transport. The head and the tail are ever-increasing positions stored
+ * on their own cache lines; the producer publishes the tail and the consumer publishes the head with release
+ * semantics, and each side reads the position of the other with acquire semantics.</p>
+ * <p>The positions are written by another process, so their distance is checked before every access: a corrupted ring
+ * fails the connection instead of reading or writing outside of it.</p>
+ */
+final class SharedMemoryRing {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1_000 : 0;
+    private static final int YIELDS = 100;
+    private static final long MIN_PARK_NANOS = 1_000L;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    private final ByteBuffer memory;
+    private final int headOffset;
+    private final int tailOffset;
+    private final int dataOffset;
+    private final int capacity;
+    private final int mask;
+
+    /**
+     * Creates a view over a ring of the shared memory.
+     *
+     * @param memory     The shared memory, only accessed with absolute methods.
+     * @param headOffset The offset of the position of the consumer.
+     * @param tailOffset The offset of the position of the producer.
+     * @param dataOffset The offset of the bytes of the ring.
+     * @param capacity   The capacity of the ring, a power of two.
+     */
+    SharedMemoryRing(final @NotNull ByteBuffer memory, final int headOffset, final int tailOffset, final int dataOffset, final int capacity) {
+        this.memory = memory;
+        this.headOffset = headOffset;
+        this.tailOffset = tailOffset;
+        this.dataOffset = dataOffset;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Writes as many bytes as the ring can hold, without waiting. Must only be called by the producer.
+     *
+     * @param source The bytes to write, whose position is advanced.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IOException If the positions of the ring are corrupted.
+     */
+    int write(final @NotNull ByteBuffer source) throws IOException {
+        final long tail = (long) LONGS.getOpaque(this.memory, this.tailOffset);
+        final long head = (long) LONGS.getAcquire(this.memory, this.headOffset);
+        final int length = Math.min(this.capacity - this.used(head, tail), source.remaining());
+        if (length == 0) {
+            return 0;
+        }
+        final int index = (int) (tail & this.mask);
+        final int first = Math.min(length, this.capacity - index);
+        final int position = source.position();
+        this.memory.put(this.dataOffset + index, source, position, first);
+        if (first < length) {
+            this.memory.put(this.dataOffset, source, position + first, length - first);
+        }
+        source.position(position + length);
+        LONGS.setRelease(this.memory, this.tailOffset, tail + length);
+        return length;
+    }
+
+    /**
+     * Reads as many bytes as available, without waiting. Must only be called by the consumer.
+     *
+     * @param destination The buffer to read into, whose position is advanced.
+     *
+     * @return The number of bytes read.
+     *
+     * @throws IOException If the positions of the ring are corrupted.
+     */
+    int read(final @NotNull ByteBuffer destination) throws IOException {
+        final long head = (long) LONGS.getOpaque(this.memory, this.headOffset);
+        final long tail = (long) LONGS.getAcquire(this.memory, this.tailOffset);
+        final int length = Math.min(this.used(head, tail), destination.remaining());
+        if (length == 0) {
+            return 0;
+        }
+        final int index = (int) (head & this.mask);
+        final int first = Math.min(length, this.capacity - index);
+        final int position = destination.position();
+        destination.put(position, this.memory, this.dataOffset + index, first);
+        if (first < length) {
+            destination.put(position + first, this.memory, this.dataOffset, length - first);
+        }
+        destination.position(position + length);
+        LONGS.setRelease(this.memory, this.headOffset, head + length);
+        return length;
+    }
+
+    /**
+     * Computes the number of bytes written and not read yet.
+     *
+     * @param head The position of the consumer.
+     * @param tail The position of the producer.
+     *
+     * @return The number of bytes in the ring.
+     *
+     * @throws IOException If the distance between the positions is negative or exceeds the capacity.
+     */
+    private int used(final long head, final long tail) throws IOException {
+        final long used = tail - head;
+        if (used < 0L || used > this.capacity) {
+            throw new IOException("Corrupted shared memory ring: head " + head + ", tail " + tail);
+        }
+        return (int) used;
+    }
+
+    /**
+     * Checks if the ring has bytes to read.
+     *
+     * @return {@code true} if the consumer is behind the producer.
+     */
+    boolean isEmpty() {
+        return (long) LONGS.getAcquire(this.memory, this.tailOffset) == (long) LONGS.getAcquire(this.memory, this.headOffset);
+    }
+
+    /**
+     * Waits a little while a ring stays empty or full: busy-spins first, then yields, then parks for an
+     * exponentially growing time up to 1 millisecond. There is no doorbell between processes, so an idle ring is
+     * noticed at most 1 millisecond late.
+     *
+     * @param idle The number of consecutive waits.
+     *
+     * @return The number of consecutive waits, including this one.
+     */
+    static int idle(final int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            final int parks = Math.min(idle - SPINS - YIELDS, 10);
+            LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << parks, MAX_PARK_NANOS));
+        }
+        return idle + 1;
+    }
+
+    /**
+     * Checks if a number of consecutive waits is long enough to be parking at the longest duration.
+     *
+     * @param idle The number of consecutive waits.
+     *
+     * @return {@code true} if the waits are parking at the longest duration.
+     */
+    static boolean isParking(final int idle) {
+        return idle > SPINS + YIELDS + 10;
+    }
+
+}
\ No newline at end of file
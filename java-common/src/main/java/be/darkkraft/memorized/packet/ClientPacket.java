@@ -13,7 +13,12 @@ public enum ClientPacket {
     SHOW,
     UPDATE,
     DELETE,
-    DISCONNECT;
+    DISCONNECT,
+    BIND,
+    TRACKED_SHOW,
+    SUBSCRIBE,
+    UNSUBSCRIBE,
+    SCAN;
 
     private static final ClientPacket[] VALUES = values();
     private final byte id = (byte) (-128 + this.ordinal());
@@ -28,12 +33,9 @@ public enum ClientPacket {
     @Contract(pure = true)
     @Nullable
     public static ClientPacket fromId(final byte id) {
-        for (final ClientPacket value : VALUES) {
-            if (value.id == id) {
-                return value;
-            }
-        }
-        return null;
+        // Identifiers are allocated from -128 in declaration order
+        final int index = id + 128;
+        return index < VALUES.length ? VALUES[index] : null;
     }
 
     /**
@@ -13,7 +13,9 @@ public enum ServerPacket {
     AUTH_SUCCESS,
     DISCONNECT,
     RESULT,
-    NOT_FOUND;
+    NOT_FOUND,
+    INVALIDATE,
+    NOTIFY;
 
     private static final ServerPacket[] VALUES = values();
     private final byte id = (byte) (-128 + this.ordinal());
@@ -28,12 +30,9 @@ public enum ServerPacket {
     @Contract(pure = true)
     @Nullable
     public static ServerPacket fromId(final byte id) {
-        for (final ServerPacket value : VALUES) {
-            if (value.id == id) {
-                return value;
-            }
-        }
-        return null;
+        // Identifiers are allocated from -128 in declaration order
+        final int index = id + 128;
+        return index < VALUES.length ? VALUES[index] : null;
     }
 
     /**
@@ -23,13 +23,20 @@ public abstract class PacketHandlerRegistry<E extends Enum<E>, I, T extends Sess
 
     private final Map<E, PacketHandler<T>> handlers;
 
+    /**
+     * Handlers indexed by the ordinal of their command, used for lookups.
+     */
+    private final PacketHandler<T>[] handlerTable;
+
     /**
      * Initializes the packet handler registry.
      *
      * @param enumClass The class of the enum that defines commands.
      */
+    @SuppressWarnings("unchecked")
     protected PacketHandlerRegistry(final @NotNull Class<E> enumClass) {
         this.handlers = new EnumMap<>(enumClass);
+        this.handlerTable = (PacketHandler<T>[]) new PacketHandler<?>[enumClass.getEnumConstants().length];
     }
 
     /**
@@ -49,7 +56,7 @@ public abstract class PacketHandlerRegistry<E extends Enum<E>, I, T extends Sess
     @Contract(pure = true)
     @Nullable
     public PacketHandler<T> getHandler(final @NotNull E command) {
-        return this.handlers.get(command);
+        return this.handlerTable[command.ordinal()];
     }
 
     /**
@@ -60,6 +67,7 @@ public abstract class PacketHandlerRegistry<E extends Enum<E>, I, T extends Sess
      */
     protected void register(final @NotNull E command, final @NotNull PacketHandler<T> handler) {
         this.handlers.put(command, handler);
+        this.handlerTable[command.ordinal()] = handler;
     }
 
     /**
@@ -0,0 +1,118 @@
+package be.darkkraft.memorized.net;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(10)
+class AdaptiveSelectorTest {
+
+    private Selector selector;
+    private Pipe pipe;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.selector = Selector.open();
+        this.pipe = Pipe.open();
+        this.pipe.source().configureBlocking(false);
+        this.pipe.source().register(this.selector, SelectionKey.OP_READ);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.pipe.sink().close();
+        this.pipe.source().close();
+        this.selector.close();
+    }
+
+    @Test
+    void pollsWithoutBlockingWhileSpinning() throws IOException {
+        final AdaptiveSelector adaptive = new AdaptiveSelector(this.selector, SelectStrategy.spinThenPark(100, 10, 50_000L));
+        final long start = System.nanoTime();
+        for (int i = 0; i < 110; i++) {
+            assertEquals(0, adaptive.select(key -> {
+                throw new AssertionError("No key is ready");
+            }));
+        }
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "Spins and yields must not block");
+    }
+
+    @Test
+    void selectsAReadyKeyAtAnyIdleStage() throws Exception {
+        final AdaptiveSelector adaptive = new AdaptiveSelector(this.selector, SelectStrategy.spinThenPark(10, 10, 10_000L));
+        final AtomicInteger selected = new AtomicInteger();
+        // 20 polls then parks of 1, 2, 4, 8 and 10 microseconds, the stage 25 selects in the blocking select
+        for (int stage = 0; stage <= 25; stage += 5) {
+            for (int i = 0; i < stage; i++) {
+                adaptive.select(key -> selected.incrementAndGet());
+            }
+            this.pipe.sink().write(ByteBuffer.wrap(new byte[1]));
+            while (adaptive.select(key -> selected.incrementAndGet()) == 0) {
+                Thread.onSpinWait();
+            }
+            this.pipe.source().read(ByteBuffer.allocate(1));
+        }
+        assertEquals(6, selected.get());
+    }
+
+    @Test
+    void wakesUpFromTheBlockingSelect() throws Exception {
+        final AdaptiveSelector adaptive = new AdaptiveSelector(this.selector, SelectStrategy.spinThenPark(1, 1, 2_000L));
+        // 2 polls then parks of 1 and 2 microseconds
+        for (int i = 0; i < 4; i++) {
+            adaptive.select(key -> {
+            });
+        }
+        // Idle long enough, the next select blocks until the selector is woken up
+        final Thread waker = new Thread(() -> {
+            try {
+                Thread.sleep(100L);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            this.selector.wakeup();
+        });
+        waker.start();
+        final long start = System.nanoTime();
+        assertEquals(0, adaptive.select(key -> {
+        }));
+        assertTrue(System.nanoTime() - start >= 50_000_000L, "The idle select must block");
+        waker.join();
+    }
+
+    @Test
+    void wakesUpFromALongPark() throws Exception {
+        final AdaptiveSelector adaptive = new AdaptiveSelector(this.selector, SelectStrategy.spinThenPark(0, 0, 60_000_000_000L));
+        // Parks of 1 microsecond doubling up to half a second, the next one lasts a second
+        for (int i = 0; i < 20; i++) {
+            adaptive.select(key -> {
+            });
+        }
+        final Thread waker = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            this.selector.wakeup();
+        });
+        waker.start();
+        final long start = System.nanoTime();
+        assertEquals(0, adaptive.select(key -> {
+        }));
+        assertTrue(System.nanoTime() - start < 500_000_000L, "The park must end with the wakeup");
+        waker.join();
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package be.darkkraft.memorized.net.session;
+
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FrameWriterTest {
+
+    @Test
+    void reusesTheBufferOfSentResponses() {
+        final ByteBuf response = FrameWriter.response().put((byte) 1).putInt(42);
+        Session.frameAndClear(response);
+        assertSame(response, FrameWriter.response());
+    }
+
+    @Test
+    void keepsTheResponseOfAnEnclosingCall() {
+        final ByteBuf outer = FrameWriter.response().put((byte) 1).putInt(42);
+        final ByteBuf nested = FrameWriter.response().put((byte) 2);
+        assertNotSame(outer, nested);
+        Session.frameAndClear(nested);
+
+        final ByteBuffer frame = Session.frameAndClear(outer);
+        assertEquals(5, frame.getInt());
+        assertEquals(1, frame.get());
+        assertEquals(42, frame.getInt());
+        assertSame(nested, FrameWriter.response());
+    }
+
+    @Test
+    void dropsAbandonedResponses() {
+        final ByteBuf abandoned = FrameWriter.response().put((byte) 1);
+        final ByteBuf next = FrameWriter.response();
+        assertNotSame(abandoned, next);
+        assertEquals(0, next.position());
+    }
+
+}
\ No newline at end of file
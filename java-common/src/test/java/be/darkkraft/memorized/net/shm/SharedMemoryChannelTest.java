@@ -0,0 +1,131 @@
+package be.darkkraft.memorized.net.shm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Timeout(10)
+class SharedMemoryChannelTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("memorized-shm");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(this.directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void exchangesBytesBothWays() throws Exception {
+        try (final SharedMemoryListener listener = SharedMemoryListener.open(this.directory)) {
+            final Thread connector = new Thread(() -> {
+                try (final SharedMemoryChannel client = SharedMemoryChannel.connect(this.directory, 64, 5_000L)) {
+                    final byte[] request = new byte[1000];
+                    request[999] = 42;
+                    client.write(ByteBuffer.wrap(request));
+                    final ByteBuffer response = ByteBuffer.allocate(4);
+                    while (response.hasRemaining()) {
+                        client.read(response);
+                    }
+                    assertEquals(1000, response.flip().getInt());
+                } catch (final IOException exception) {
+                    throw new AssertionError(exception);
+                }
+            });
+            connector.start();
+
+            try (final SharedMemoryChannel server = listener.accept()) {
+                final ByteBuffer request = ByteBuffer.allocate(1000);
+                while (request.hasRemaining()) {
+                    server.read(request);
+                }
+                assertEquals(42, request.get(999));
+                server.write(ByteBuffer.allocate(4).putInt(request.capacity()).flip());
+                connector.join();
+            }
+        }
+    }
+
+    @Test
+    void createsRingsOnlyTheOwnerCanMap() throws Exception {
+        final Thread connector = new Thread(() -> {
+            try {
+                SharedMemoryChannel.connect(this.directory, 64, 5_000L).close();
+            } catch (final IOException exception) {
+                throw new AssertionError(exception);
+            }
+        });
+        connector.start();
+        Path ring;
+        while ((ring = this.findRing()) == null) {
+            Thread.sleep(1L);
+        }
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(ring));
+        SharedMemoryChannel.accept(ring).close();
+        connector.join();
+    }
+
+    @Test
+    void rejectsACapacityThatIsNotAPowerOfTwo() throws IOException {
+        final Path file = this.writeConnectionFile(1000);
+        assertNull(SharedMemoryChannel.accept(file));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void acceptsAPowerOfTwoCapacity() throws IOException {
+        try (final SharedMemoryChannel channel = SharedMemoryChannel.accept(this.writeConnectionFile(1024))) {
+            assertEquals(0, channel.read(ByteBuffer.allocate(1).limit(0)));
+        }
+    }
+
+    @Test
+    void failsAccessesOnceClosed() throws IOException {
+        final SharedMemoryChannel channel = SharedMemoryChannel.accept(this.writeConnectionFile(1024));
+        channel.close();
+        // The mapping has been released, the accesses must be rejected before touching it
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(4)));
+        assertThrows(ClosedChannelException.class, () -> channel.write(ByteBuffer.allocate(4)));
+        assertThrows(ClosedChannelException.class, channel::shutdownOutput);
+    }
+
+    private Path findRing() throws IOException {
+        try (final Stream<Path> files = Files.list(this.directory)) {
+            return files.filter(file -> file.toString().endsWith(SharedMemoryChannel.EXTENSION)).findFirst().orElse(null);
+        }
+    }
+
+    private Path writeConnectionFile(final int capacity) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(512 + 2 * capacity).order(ByteOrder.nativeOrder());
+        header.putInt(0, 0x4D454D4F).putInt(4, capacity);
+        final Path file = this.directory.resolve("test" + SharedMemoryChannel.EXTENSION);
+        Files.write(file, header.array());
+        return file;
+    }
+
+}
\ No newline at end of file
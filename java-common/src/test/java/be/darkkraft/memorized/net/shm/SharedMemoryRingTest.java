@@ -0,0 +1,65 @@
+package be.darkkraft.memorized.net.shm;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedMemoryRingTest {
+
+    private static final int HEAD = 0;
+    private static final int TAIL = 64;
+    private static final int DATA = 128;
+    private static final int CAPACITY = 16;
+
+    private final ByteBuffer memory = ByteBuffer.allocateDirect(DATA + CAPACITY).order(ByteOrder.nativeOrder());
+    private final SharedMemoryRing ring = new SharedMemoryRing(this.memory, HEAD, TAIL, DATA, CAPACITY);
+
+    @Test
+    void carriesBytesAcrossTheEndOfTheRing() throws IOException {
+        final byte[] bytes = new byte[CAPACITY * 5 + 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        final ByteBuffer source = ByteBuffer.wrap(bytes);
+        final ByteBuffer destination = ByteBuffer.allocate(bytes.length);
+        while (destination.hasRemaining()) {
+            this.ring.write(source);
+            // Reads fewer bytes than the capacity, so that the positions wrap at various offsets
+            final int limit = destination.limit();
+            destination.limit(Math.min(limit, destination.position() + 7));
+            this.ring.read(destination);
+            destination.limit(limit);
+        }
+        assertArrayEquals(bytes, destination.array());
+        assertTrue(this.ring.isEmpty());
+    }
+
+    @Test
+    void writesNoMoreThanTheCapacity() throws IOException {
+        assertEquals(CAPACITY, this.ring.write(ByteBuffer.allocate(CAPACITY * 2)));
+        assertEquals(0, this.ring.write(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void rejectsATailBeyondTheCapacity() {
+        this.memory.putLong(TAIL, CAPACITY + 1L);
+        assertThrows(IOException.class, () -> this.ring.read(ByteBuffer.allocate(4)));
+        assertThrows(IOException.class, () -> this.ring.write(ByteBuffer.allocate(4)));
+    }
+
+    @Test
+    void rejectsAHeadAheadOfTheTail() {
+        this.memory.putLong(HEAD, 8L);
+        this.memory.putLong(TAIL, 4L);
+        assertThrows(IOException.class, () -> this.ring.read(ByteBuffer.allocate(4)));
+        assertThrows(IOException.class, () -> this.ring.write(ByteBuffer.allocate(4)));
+    }
+
+}
\ No newline at end of file
@@ -4,6 +4,9 @@ import be.darkkraft.memorized.codec.registry.CodecRegistry;
 import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.server.auth.Authenticator;
 import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.factory.DataContainerFactoryRegistry;
+import be.darkkraft.memorized.server.shard.ShardLoad;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -12,7 +15,9 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface defining the operations of a Memorized Server.
@@ -33,8 +38,10 @@ public interface MemorizedServer {
      * Handles a new session initiated by a client.
      *
      * @param client The client's {@link SocketChannel}.
+     *
+     * @return The created {@link Session}, or {@code null} if the server is not running.
      */
-    void handleNewSession(final @NotNull SocketChannel client);
+    @Nullable Session handleNewSession(final @NotNull SocketChannel client);
 
     /**
      * Handles the removal of a session.
@@ -55,6 +62,18 @@ public interface MemorizedServer {
      */
     boolean handlePacket(final @NotNull SocketChannel client, final @NotNull ByteBuffer buffer) throws IOException;
 
+    /**
+     * Handles a packet received from a client, without looking up its session.
+     *
+     * @param session The {@link Session} of the client.
+     * @param buffer  The {@link ByteBuffer} containing the packet data.
+     *
+     * @return {@code true} if the packet was handled successfully, {@code false} otherwise.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    boolean handlePacket(final @NotNull Session session, final @NotNull ByteBuffer buffer) throws IOException;
+
     /**
      * Retrieves the {@link Session} associated with a socket channel.
      *
@@ -81,6 +100,22 @@ public interface MemorizedServer {
     @Contract(pure = true)
     @NotNull InetSocketAddress getAddress();
 
+    /**
+     * Gets the path of the Unix domain socket the server listens on, in addition to its TCP address.
+     *
+     * @return The path of the socket, or {@code null} if the server only listens on TCP.
+     */
+    @Contract(pure = true)
+    @Nullable Path getUnixDomainSocketPath();
+
+    /**
+     * Gets the directory in which the server accepts shared memory connections, in addition to its TCP address.
+     *
+     * @return The directory, or {@code null} if the server does not accept shared memory connections.
+     */
+    @Contract(pure = true)
+    @Nullable Path getSharedMemoryDirectory();
+
     /**
      * Gets the {@link Authenticator} used by the server.
      *
@@ -105,6 +140,14 @@ public interface MemorizedServer {
     @Contract(pure = true)
     @NotNull DataRepositoryCoordinator getDataRepositoryCoordinator();
 
+    /**
+     * Gets the {@link DataContainerFactoryRegistry} used by the server to create containers requested by clients.
+     *
+     * @return The data container factory registry.
+     */
+    @Contract(pure = true)
+    @NotNull DataContainerFactoryRegistry getDataContainerFactoryRegistry();
+
     /**
      * Gets the number of worker threads used by the server.
      *
@@ -113,6 +156,23 @@ public interface MemorizedServer {
     @Contract(pure = true)
     int getWorkerThreads();
 
+    /**
+     * Checks if the interactions with a container are handled on the offload executor instead of the worker thread.
+     *
+     * @param container The container to check.
+     *
+     * @return {@code true} if the container is offloaded, {@code false} otherwise or if the server has no offload executor.
+     */
+    @Contract(pure = true)
+    boolean isOffloaded(final @NotNull DataContainer container);
+
+    /**
+     * Gets a snapshot of the load of every worker shard, to detect skew between them.
+     *
+     * @return The loads, indexed by shard, or an empty list if containers are not owned by worker shards.
+     */
+    @NotNull List<ShardLoad> getShardLoads();
+
     /**
      * Checks if the server is running.
      *
@@ -26,6 +26,33 @@ public interface DataRepository<K> {
      */
     DataContainer getContainer(final @NotNull K key);
 
+    /**
+     * Registers a {@link DataContainer} with the specified key, unless a container is already associated with it.
+     *
+     * @param key       The key to associate with the container.
+     * @param container The {@link DataContainer} to register.
+     *
+     * @return {@code true} if the container was registered, {@code false} if the key was already in use.
+     *
+     * @throws UnsupportedOperationException If containers cannot be registered at runtime, which is the default.
+     */
+    default boolean registerIfAbsent(final @NotNull K key, final @NotNull DataContainer container) {
+        throw new UnsupportedOperationException("This repository does not support runtime registrations");
+    }
+
+    /**
+     * Removes the {@link DataContainer} associated with the specified key.
+     *
+     * @param key The key of the container to remove.
+     *
+     * @return The removed {@link DataContainer}, or {@code null} if no container was associated with the key.
+     *
+     * @throws UnsupportedOperationException If containers cannot be removed at runtime, which is the default.
+     */
+    default @Nullable DataContainer unregister(final @NotNull K key) {
+        throw new UnsupportedOperationException("This repository does not support runtime removals");
+    }
+
     /**
      * Reads a key from a {@link ByteBuffer}.
      *
@@ -35,6 +62,28 @@ public interface DataRepository<K> {
      */
     @Nullable K readKey(final @NotNull ByteBuffer buffer);
 
+    /**
+     * Reads a key from a {@link ByteBuffer} and retrieves the {@link DataContainer} associated with it.
+     * <p>Repositories using primitive keys should override this method to resolve the container
+     * without boxing the key.</p>
+     *
+     * @param buffer The {@link ByteBuffer} to read from.
+     *
+     * @return The {@link DataContainer} associated with the key, or {@code null} if not found.
+     */
+    default @Nullable DataContainer readContainer(final @NotNull ByteBuffer buffer) {
+        final K key = this.readKey(buffer);
+        return key != null ? this.getContainer(key) : null;
+    }
+
+    /**
+     * Retrieves the generation of this repository, changed each time a container is registered or removed.
+     * <p>Resolved containers can be cached as long as the generation is the same.</p>
+     *
+     * @return The generation of this repository.
+     */
+    long getGeneration();
+
     /**
      * Retrieves the identifier of the key.
      *
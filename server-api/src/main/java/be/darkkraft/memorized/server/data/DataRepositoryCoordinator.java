@@ -1,14 +1,13 @@
 package be.darkkraft.memorized.server.data;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Coordinator class for managing multiple {@link DataRepository DataRepositories}.
@@ -18,22 +17,44 @@ import java.util.Objects;
 public final class DataRepositoryCoordinator {
 
     /**
-     * Deliberately non-thread-safe for better performance, assuming that writes are done before the server starts.
+     * Repositories with an identifier below this limit are looked up by array index.
      */
-    private final Int2ObjectMap<DataRepository<?>> idToRepository = new Int2ObjectOpenHashMap<>();
-    private final Map<Class<?>, DataRepository<?>> classToRepository = new HashMap<>();
+    private static final int TABLE_LIMIT = 256;
+
+    /**
+     * Repositories can be registered while the server is running, lookups never take a lock.
+     */
+    private final Map<Integer, DataRepository<?>> idToRepository = new ConcurrentHashMap<>();
+    private final Map<Class<?>, DataRepository<?>> classToRepository = new ConcurrentHashMap<>();
+
+    /**
+     * Copied on each registration of a repository with a small identifier, which is rare, and published whole.
+     */
+    private volatile DataRepository<?>[] repositoryTable = new DataRepository<?>[0];
 
     /**
      * Registers a {@link DataRepository} with the coordinator.
+     * Key identifiers must not be negative, negative identifiers are reserved for session key handles.
      *
      * @param repository The {@link DataRepository} to register.
      *
      * @return This {@link DataRepositoryCoordinator} instance.
+     *
+     * @throws IllegalArgumentException If the key identifier of the repository is negative.
      */
     @Contract("_ -> this")
     @NotNull
-    public DataRepositoryCoordinator register(final @NotNull DataRepository<?> repository) {
-        this.idToRepository.put(Objects.requireNonNull(repository, "Repository cannot be null").getKeyIdentifier(), repository);
+    public synchronized DataRepositoryCoordinator register(final @NotNull DataRepository<?> repository) {
+        final int keyIdentifier = Objects.requireNonNull(repository, "Repository cannot be null").getKeyIdentifier();
+        if (keyIdentifier < 0) {
+            throw new IllegalArgumentException("Key identifier cannot be negative");
+        }
+        this.idToRepository.put(keyIdentifier, repository);
+        if (keyIdentifier < TABLE_LIMIT) {
+            final DataRepository<?>[] table = Arrays.copyOf(this.repositoryTable, Math.max(this.repositoryTable.length, keyIdentifier + 1));
+            table[keyIdentifier] = repository;
+            this.repositoryTable = table;
+        }
         this.classToRepository.put(repository.getKeyClass(), repository);
         return this;
     }
@@ -48,6 +69,10 @@ public final class DataRepositoryCoordinator {
     @Nullable
     @Contract(pure = true)
     public DataRepository<?> getRepository(final int repositoryIdentifier) {
+        if (repositoryIdentifier >= 0 && repositoryIdentifier < TABLE_LIMIT) {
+            final DataRepository<?>[] table = this.repositoryTable;
+            return repositoryIdentifier < table.length ? table[repositoryIdentifier] : null;
+        }
         return this.idToRepository.get(repositoryIdentifier);
     }
 
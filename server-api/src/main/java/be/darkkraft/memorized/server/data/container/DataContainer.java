@@ -29,4 +29,60 @@ public interface DataContainer {
      */
     void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer);
 
+    /**
+     * Handles data display for a session caching the result, which must be told when the data changes through the
+     * {@link Notifier#invalidate invalidations} of its connection.
+     * The buffer starts with the identifier of the cache of the client, followed by the same data as for a display.
+     *
+     * @param session  The {@link Session} requesting the data.
+     * @param notifier The {@link Notifier} of the connection of the client.
+     * @param buffer   The {@link ByteBuffer} containing the identifier of the cache and the data for the display.
+     *
+     * @throws UnsupportedOperationException If the container cannot tell the clients about changes, which is the default.
+     */
+    default void handleTrackedShow(final @NotNull Session session, final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        throw new UnsupportedOperationException("This container does not support tracked displays");
+    }
+
+    /**
+     * Subscribes a client to the changes of this container, which are pushed through the {@link Notifier} of its
+     * connection. The buffer starts with the identifier of the subscription in the client, followed by data
+     * specific to the container, such as a key of a map.
+     *
+     * @param notifier The {@link Notifier} of the connection of the client.
+     * @param buffer   The {@link ByteBuffer} containing the identifier of the subscription and its data.
+     *
+     * @throws UnsupportedOperationException If the container cannot notify changes, which is the default.
+     */
+    default void handleSubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        throw new UnsupportedOperationException("This container does not support subscriptions");
+    }
+
+    /**
+     * Cancels a subscription made with {@link #handleSubscribe}. The buffer contains the same data.
+     *
+     * @param notifier The {@link Notifier} of the connection of the client.
+     * @param buffer   The {@link ByteBuffer} containing the identifier of the subscription and its data.
+     *
+     * @throws UnsupportedOperationException If the container cannot notify changes, which is the default.
+     */
+    default void handleUnsubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        throw new UnsupportedOperationException("This container does not support subscriptions");
+    }
+
+    /**
+     * Handles a chunk of an enumeration of the contents of this container. The buffer contains the cursor of the
+     * enumeration, {@code 0} to start a new one, followed by the maximum size of the response in bytes, {@code 0} to
+     * release the cursor. The response starts with the cursor of the next chunk, {@code 0} once the enumeration is
+     * complete.
+     *
+     * @param session The {@link Session} enumerating the container.
+     * @param buffer  The {@link ByteBuffer} containing the cursor and the maximum size of the response.
+     *
+     * @throws UnsupportedOperationException If the container cannot be enumerated, which is the default.
+     */
+    default void handleScan(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        throw new UnsupportedOperationException("This container does not support scans");
+    }
+
 }
\ No newline at end of file
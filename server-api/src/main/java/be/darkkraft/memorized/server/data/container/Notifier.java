@@ -0,0 +1,70 @@
+package be.darkkraft.memorized.server.data.container;
+
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Pushes change notifications and messages to the connection of a client that subscribed to containers.
+ * <p>Notifications are not written right away: the notifications of a connection are gathered and written together,
+ * and a notification replaces the pending one of the same subscription and slot. Payloads are therefore written when
+ * the notifications are flushed, and must read the latest state of the container rather than capture it.</p>
+ * <p>Messages are never replaced, they are queued in order up to a capacity, after which the notifier drops some of
+ * them.</p>
+ * <p>Invalidations of near caches are gathered like notifications, but are never dropped: a cache that missed one would
+ * keep serving a stale value.</p>
+ */
+public interface Notifier {
+
+    /**
+     * Notifies a subscription of a change.
+     *
+     * @param subscriptionId The identifier of the subscription in the client.
+     * @param slot           The changed part of the container, such as a key of a map, so that pending notifications
+     *                       of other parts are kept, or {@code null} if the subscription only has one part.
+     * @param payload        The writer of the payload of the notification, called when it is flushed.
+     */
+    void notify(final int subscriptionId, final @Nullable Object slot, final @NotNull Consumer<ByteBuf> payload);
+
+    /**
+     * Delivers a message to a subscription. The same message may be delivered to many subscriptions, it is written
+     * from a duplicate and must not be modified afterward.
+     *
+     * @param subscriptionId The identifier of the subscription in the client.
+     * @param message        The message, from its position to its limit.
+     *
+     * @return {@code true} if the message was queued, {@code false} if it was dropped because the queue is full.
+     */
+    boolean deliver(final int subscriptionId, final @NotNull ByteBuffer message);
+
+    /**
+     * Tells a near cache of the client that the value of a key changed. A pending invalidation of the same cache and
+     * key is kept instead.
+     *
+     * @param cacheId The identifier of the cache in the client.
+     * @param key     The changed key, compared with the keys of the pending invalidations.
+     * @param payload The writer of the encoded key, called when the invalidation is flushed.
+     */
+    void invalidate(final int cacheId, final @NotNull Object key, final @NotNull Consumer<ByteBuf> payload);
+
+    /**
+     * Runs an action once the connection of the client is removed from the server, so that containers can forget the
+     * client. The action runs right away if the connection was already removed.
+     *
+     * @param action The action to run, on the thread removing the connection.
+     */
+    void onRemoval(final @NotNull Runnable action);
+
+    /**
+     * Checks if notifications can still reach the client. Subscriptions of closed connections should be dropped.
+     *
+     * @return {@code true} if the connection of the client is open.
+     */
+    @Contract(pure = true)
+    boolean isOpen();
+
+}
\ No newline at end of file
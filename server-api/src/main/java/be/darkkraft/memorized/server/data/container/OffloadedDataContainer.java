@@ -0,0 +1,11 @@
+package be.darkkraft.memorized.server.data.container;
+
+/**
+ * Marker interface for {@link DataContainer DataContainers} whose handlers are too expensive to run on the worker thread,
+ * such as containers scanning collections.
+ * <p>When the server has an offload executor, interactions with these containers are handled on it.
+ * Otherwise, they are handled on the worker thread like any other container.</p>
+ */
+public interface OffloadedDataContainer extends DataContainer {
+
+}
\ No newline at end of file
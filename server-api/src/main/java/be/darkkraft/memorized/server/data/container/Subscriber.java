@@ -0,0 +1,43 @@
+package be.darkkraft.memorized.server.data.container;
+
+import be.darkkraft.memorized.packet.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Subscription of a client to a container.
+ *
+ * @param notifier       The {@link Notifier} of the connection of the client.
+ * @param subscriptionId The identifier of the subscription in the client.
+ */
+public record Subscriber(@NotNull Notifier notifier, int subscriptionId) {
+
+    /**
+     * Notifies this subscription of a change.
+     *
+     * @param slot    The changed part of the container, or {@code null} if the subscription only has one part.
+     * @param payload The writer of the payload of the notification, called when it is flushed.
+     *
+     * @see Notifier#notify(int, Object, Consumer)
+     */
+    public void notify(final @Nullable Object slot, final @NotNull Consumer<ByteBuf> payload) {
+        this.notifier.notify(this.subscriptionId, slot, payload);
+    }
+
+    /**
+     * Delivers a message to this subscription.
+     *
+     * @param message The message, shared with the other subscriptions and never modified.
+     *
+     * @return {@code true} if the message was queued, {@code false} if it was dropped.
+     *
+     * @see Notifier#deliver(int, ByteBuffer)
+     */
+    public boolean deliver(final @NotNull ByteBuffer message) {
+        return this.notifier.deliver(this.subscriptionId, message);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package be.darkkraft.memorized.server.data.container.factory;
+
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Functional interface for creating {@link DataContainer DataContainers} on demand.
+ *
+ * @see DataContainerFactoryRegistry
+ */
+@FunctionalInterface
+public interface DataContainerFactory {
+
+    /**
+     * Creates a new {@link DataContainer}.
+     *
+     * @param capacityHint The expected number of elements, or {@code 0} if unknown.
+     *                     Containers that do not hold elements can ignore it.
+     *
+     * @return The created {@link DataContainer}.
+     */
+    @NotNull DataContainer create(final int capacityHint);
+
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package be.darkkraft.memorized.server.data.container.factory;
+
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry mapping container type identifiers to {@link DataContainerFactory DataContainerFactories}.
+ * Used to create {@link DataContainer DataContainers} requested by clients.
+ *
+ * @see DataContainerFactory
+ */
+public final class DataContainerFactoryRegistry {
+
+    /**
+     * Factories can be registered while the server is running, concurrently with the creations requested by clients.
+     */
+    private final Map<Integer, DataContainerFactory> factories = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a {@link DataContainerFactory} for a container type.
+     *
+     * @param typeIdentifier The identifier of the container type.
+     * @param factory        The {@link DataContainerFactory} creating containers of this type.
+     *
+     * @return This {@link DataContainerFactoryRegistry} instance.
+     */
+    @Contract("_, _ -> this")
+    @NotNull
+    public DataContainerFactoryRegistry register(final int typeIdentifier, final @NotNull DataContainerFactory factory) {
+        this.factories.put(typeIdentifier, Objects.requireNonNull(factory, "Factory cannot be null"));
+        return this;
+    }
+
+    /**
+     * Retrieves the {@link DataContainerFactory} of a container type.
+     *
+     * @param typeIdentifier The identifier of the container type.
+     *
+     * @return The {@link DataContainerFactory}, or {@code null} if the type is unknown.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public DataContainerFactory getFactory(final int typeIdentifier) {
+        return this.factories.get(typeIdentifier);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package be.darkkraft.memorized.server.shard;
+
+/**
+ * Snapshot of the load of a worker shard, used to detect skew between shards.
+ *
+ * @param shard      The identifier of the shard.
+ * @param operations The number of container operations executed by the shard.
+ * @param handedIn   The number of operations received from other shards.
+ * @param handedOut  The number of operations sent to the shards owning their container.
+ * @param backlog    The number of operations waiting in the inbound rings of the shard.
+ */
+public record ShardLoad(int shard, long operations, long handedIn, long handedOut, int backlog) {
+
+}
\ No newline at end of file
@@ -1,14 +1,30 @@
 package be.darkkraft.memorized.server;
 
 import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.net.SelectStrategy;
+import be.darkkraft.memorized.packet.ClientPacket;
 import be.darkkraft.memorized.server.auth.Authenticator;
 import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.OffloadedDataContainer;
+import be.darkkraft.memorized.server.data.container.factory.DataContainerFactoryRegistry;
+import be.darkkraft.memorized.server.offload.OffloadPolicy;
+import be.darkkraft.memorized.server.push.DropPolicy;
+import be.darkkraft.memorized.server.push.PushPolicy;
+import be.darkkraft.memorized.server.thread.ThreadFactories;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Builder for creating instances of {@link MemorizedServer}.
@@ -16,10 +32,28 @@ import java.util.Objects;
 public final class MemorizedServerBuilder {
 
     private InetSocketAddress address;
+    private Path unixDomainSocketPath;
+    private Path sharedMemoryDirectory;
     private Authenticator authenticator;
     private CodecRegistry codecRegistry;
     private DataRepositoryCoordinator dataRepositoryCoordinator;
+    private DataContainerFactoryRegistry dataContainerFactoryRegistry;
     private int workerThreads = 3;
+    private ServerEngine engine = ServerEngine.SELECTOR;
+    private boolean reusePort;
+    private long balanceInterval = 1_000L;
+    private SelectStrategy selectStrategy = SelectStrategy.blocking();
+    private ExecutorService offloadExecutor;
+    private int offloadThreads;
+    private boolean virtualOffloadThreads;
+    private final Set<ClientPacket> offloadedPackets = EnumSet.noneOf(ClientPacket.class);
+    private final List<Class<? extends DataContainer>> offloadedContainers = new ArrayList<>();
+    private ExecutorService pushExecutor;
+    private int pushThreads = 2;
+    private int messageQueueCapacity = 1024;
+    private DropPolicy messageDropPolicy = DropPolicy.DROP_OLDEST;
+    private int packetSizeLimit = 1_048_576;
+    private int unauthenticatedPacketSizeLimit = 320;
 
     /**
      * Gets the address for the server.
@@ -46,6 +80,63 @@ public final class MemorizedServerBuilder {
         return this;
     }
 
+    /**
+     * Gets the path of the Unix domain socket the server listens on, in addition to its TCP address.
+     *
+     * @return the path of the socket, or null if the server only listens on TCP.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Path unixDomainSocketPath() {
+        return this.unixDomainSocketPath;
+    }
+
+    /**
+     * Sets the path of a Unix domain socket the server listens on, in addition to its TCP address.
+     * Clients running on the same host can connect to it to skip the loopback TCP stack, with the same protocol.
+     * <p>A file already existing at this path, such as the socket of a previous run, is replaced.
+     * The socket file is deleted when the server shuts down.</p>
+     *
+     * @param unixDomainSocketPath the path of the socket. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder unixDomainSocketPath(final @NotNull Path unixDomainSocketPath) {
+        this.unixDomainSocketPath = Objects.requireNonNull(unixDomainSocketPath, "Unix domain socket path cannot be null");
+        return this;
+    }
+
+    /**
+     * Gets the directory in which the server accepts shared memory connections, in addition to its TCP address.
+     *
+     * @return the directory, or null if the server does not accept shared memory connections.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Path sharedMemoryDirectory() {
+        return this.sharedMemoryDirectory;
+    }
+
+    /**
+     * Sets the directory in which the server accepts shared memory connections, in addition to its TCP address.
+     * Clients running on the same host map a file of this directory holding a ring per direction, and exchange
+     * the same frames as through a socket without any system call.
+     * <p>The directory should be on a memory file system such as {@code /dev/shm}. Each shared memory connection is
+     * served by a platform thread of its own polling the ring, whatever the engine of the server.</p>
+     *
+     * @param sharedMemoryDirectory the directory, created if needed. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder sharedMemoryDirectory(final @NotNull Path sharedMemoryDirectory) {
+        this.sharedMemoryDirectory = Objects.requireNonNull(sharedMemoryDirectory, "Shared memory directory cannot be null");
+        return this;
+    }
+
     /**
      * Gets the {@link Authenticator} for the server.
      *
@@ -118,6 +209,31 @@ public final class MemorizedServerBuilder {
         return this;
     }
 
+    /**
+     * Gets the {@link DataContainerFactoryRegistry} for the server.
+     *
+     * @return the DataContainerFactoryRegistry for the server.
+     */
+    @Contract(pure = true)
+    public DataContainerFactoryRegistry dataContainerFactoryRegistry() {
+        return this.dataContainerFactoryRegistry;
+    }
+
+    /**
+     * Sets the {@link DataContainerFactoryRegistry} for the server.
+     * If not set, clients cannot create containers.
+     *
+     * @param dataContainerFactoryRegistry the DataContainerFactoryRegistry for the server. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder dataContainerFactoryRegistry(final @NotNull DataContainerFactoryRegistry dataContainerFactoryRegistry) {
+        this.dataContainerFactoryRegistry = Objects.requireNonNull(dataContainerFactoryRegistry, "DataContainer factory registry cannot be null");
+        return this;
+    }
+
     /**
      * Gets the number of worker threads for the server.
      *
@@ -142,6 +258,379 @@ public final class MemorizedServerBuilder {
         return this;
     }
 
+    /**
+     * Gets the {@link ServerEngine} serving the connections.
+     *
+     * @return the engine of the server.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public ServerEngine engine() {
+        return this.engine;
+    }
+
+    /**
+     * Sets the {@link ServerEngine} serving the connections. Defaults to {@link ServerEngine#SELECTOR}.
+     * The number of worker threads is ignored by {@link ServerEngine#THREAD_PER_CONNECTION}.
+     *
+     * @param engine the engine of the server. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder engine(final @NotNull ServerEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "Engine cannot be null");
+        return this;
+    }
+
+    /**
+     * Checks if each worker accepts its own connections.
+     *
+     * @return true if each worker owns a listening socket bound with {@code SO_REUSEPORT}.
+     */
+    @Contract(pure = true)
+    public boolean reusePort() {
+        return this.reusePort;
+    }
+
+    /**
+     * Sets whether each worker accepts its own connections, instead of a single thread accepting every connection.
+     * Each worker owns a listening socket bound with {@code SO_REUSEPORT} and accepts in its selector, so that the kernel
+     * spreads connection setup over every worker during reconnect storms. If the option is not supported by the platform,
+     * the workers share a single listening socket. Defaults to false, not supported by {@link ServerEngine#THREAD_PER_CONNECTION}.
+     *
+     * @param reusePort true to accept connections in the workers.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder reusePort(final boolean reusePort) {
+        this.reusePort = reusePort;
+        return this;
+    }
+
+    /**
+     * Gets the interval between two samples of the load of the workers.
+     *
+     * @return the balancing interval in milliseconds, 0 if balancing is disabled.
+     */
+    @Contract(pure = true)
+    public long balanceInterval() {
+        return this.balanceInterval;
+    }
+
+    /**
+     * Sets the interval between two samples of the load of the workers. Defaults to 1 second.
+     * <p>The busy time and the bytes read by every worker are sampled at this interval. New connections are placed on
+     * the least loaded worker, and when the busiest worker is much busier than the least loaded one, its hottest
+     * session that does not overload the other worker is migrated to it. Sessions are not migrated by
+     * {@link ServerEngine#SHARDED}, and connections accepted with {@link #reusePort(boolean)} are placed by the kernel.</p>
+     *
+     * @param balanceInterval the balancing interval in milliseconds, or 0 to place connections round-robin and never migrate sessions.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder balanceInterval(final long balanceInterval) {
+        this.balanceInterval = balanceInterval;
+        return this;
+    }
+
+    /**
+     * Gets the {@link SelectStrategy} used by the worker threads to wait for ready connections.
+     *
+     * @return the select strategy of the workers.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public SelectStrategy selectStrategy() {
+        return this.selectStrategy;
+    }
+
+    /**
+     * Sets the {@link SelectStrategy} used by the worker threads to wait for ready connections.
+     * Defaults to {@link SelectStrategy#blocking()}. A spinning strategy lowers the latency of each request at the cost
+     * of a busy core per spinning worker, ignored by {@link ServerEngine#THREAD_PER_CONNECTION}.
+     *
+     * @param selectStrategy the select strategy of the workers. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder selectStrategy(final @NotNull SelectStrategy selectStrategy) {
+        this.selectStrategy = Objects.requireNonNull(selectStrategy, "Select strategy cannot be null");
+        return this;
+    }
+
+    /**
+     * Gets the {@link ExecutorService} running offloaded packets.
+     *
+     * @return the offload executor, or null if it is created from the number of offload threads.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public ExecutorService offloadExecutor() {
+        return this.offloadExecutor;
+    }
+
+    /**
+     * Sets the {@link ExecutorService} running offloaded packets. It is shut down with the server.
+     * <p>The executor should be bounded: offloaded packets of a session run one after the other,
+     * so the executor never runs more tasks at once than there are sessions. A session stops being read while too
+     * many of its packets are waiting, so that a slow container pushes back on its clients.</p>
+     *
+     * @param offloadExecutor the offload executor. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder offloadExecutor(final @NotNull ExecutorService offloadExecutor) {
+        this.offloadExecutor = Objects.requireNonNull(offloadExecutor, "Offload executor cannot be null");
+        return this;
+    }
+
+    /**
+     * Gets the number of threads of the offload executor.
+     *
+     * @return the number of offload threads, {@code 0} if packets are never offloaded.
+     */
+    @Contract(pure = true)
+    public int offloadThreads() {
+        return this.offloadThreads;
+    }
+
+    /**
+     * Sets the number of platform threads of the offload executor, used if no offload executor is set.
+     *
+     * @param offloadThreads the number of offload threads, {@code 0} to never offload packets.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder offloadThreads(final int offloadThreads) {
+        return this.offloadThreads(offloadThreads, false);
+    }
+
+    /**
+     * Sets the number of threads of the offload executor, used if no offload executor is set.
+     * Virtual threads fall back to platform threads if the runtime does not support them.
+     *
+     * @param offloadThreads the number of offload threads, {@code 0} to never offload packets.
+     * @param virtual        true to use virtual threads.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_, _ -> this")
+    public MemorizedServerBuilder offloadThreads(final int offloadThreads, final boolean virtual) {
+        this.offloadThreads = offloadThreads;
+        this.virtualOffloadThreads = virtual;
+        return this;
+    }
+
+    /**
+     * Marks commands as offloaded: they are always handled on the offload executor.
+     *
+     * @param packets the offloaded commands.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder offloadedPackets(final @NotNull ClientPacket... packets) {
+        for (final ClientPacket packet : packets) {
+            this.offloadedPackets.add(Objects.requireNonNull(packet, "Packet cannot be null"));
+        }
+        return this;
+    }
+
+    /**
+     * Marks types of containers as offloaded: interactions with their instances are handled on the offload executor.
+     * Containers implementing {@link OffloadedDataContainer} are always offloaded.
+     *
+     * @param containerTypes the offloaded container types.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    @SafeVarargs
+    public final MemorizedServerBuilder offloadedContainers(final @NotNull Class<? extends DataContainer>... containerTypes) {
+        for (final Class<? extends DataContainer> type : containerTypes) {
+            this.offloadedContainers.add(Objects.requireNonNull(type, "Container type cannot be null"));
+        }
+        return this;
+    }
+
+    /**
+     * Gets the {@link ExecutorService} writing the packets pushed to the sessions.
+     *
+     * @return the push executor, or null if it is created from the number of push threads.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public ExecutorService pushExecutor() {
+        return this.pushExecutor;
+    }
+
+    /**
+     * Sets the {@link ExecutorService} writing the packets pushed to the sessions, such as notifications and
+     * published messages. It is shut down with the server.
+     * <p>A session is written by one task at a time, which never waits for a client reading slowly: the frames its
+     * connection cannot take wait in its backlog, and the next pushes stay in its queue until the backlog is written.
+     * A few threads are therefore enough for many sessions.</p>
+     *
+     * @param pushExecutor the push executor. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder pushExecutor(final @NotNull ExecutorService pushExecutor) {
+        this.pushExecutor = Objects.requireNonNull(pushExecutor, "Push executor cannot be null");
+        return this;
+    }
+
+    /**
+     * Gets the number of threads of the push executor.
+     *
+     * @return the number of push threads.
+     */
+    @Contract(pure = true)
+    public int pushThreads() {
+        return this.pushThreads;
+    }
+
+    /**
+     * Sets the number of platform threads of the push executor, used if no push executor is set.
+     *
+     * @param pushThreads the number of push threads, must be positive.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder pushThreads(final int pushThreads) {
+        if (pushThreads < 1) {
+            throw new IllegalArgumentException("Push threads must be positive");
+        }
+        this.pushThreads = pushThreads;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of messages queued for a session.
+     *
+     * @return the message queue capacity.
+     */
+    @Contract(pure = true)
+    public int messageQueueCapacity() {
+        return this.messageQueueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of published messages queued for a session before messages are dropped.
+     *
+     * @param messageQueueCapacity the message queue capacity, must be positive.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder messageQueueCapacity(final int messageQueueCapacity) {
+        if (messageQueueCapacity < 1) {
+            throw new IllegalArgumentException("Message queue capacity must be positive");
+        }
+        this.messageQueueCapacity = messageQueueCapacity;
+        return this;
+    }
+
+    /**
+     * Gets the {@link DropPolicy} applied once the message queue of a session is full.
+     *
+     * @return the message drop policy.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public DropPolicy messageDropPolicy() {
+        return this.messageDropPolicy;
+    }
+
+    /**
+     * Sets the {@link DropPolicy} applied once the message queue of a session is full.
+     *
+     * @param messageDropPolicy the message drop policy. Cannot be null.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder messageDropPolicy(final @NotNull DropPolicy messageDropPolicy) {
+        this.messageDropPolicy = Objects.requireNonNull(messageDropPolicy, "Message drop policy cannot be null");
+        return this;
+    }
+
+    /**
+     * Gets the size limit of a packet received from an authenticated session.
+     *
+     * @return the packet size limit in bytes.
+     */
+    @Contract(pure = true)
+    public int packetSizeLimit() {
+        return this.packetSizeLimit;
+    }
+
+    /**
+     * Sets the size limit of a packet received from an authenticated session. A packet is read in a buffer of its
+     * size, values bigger than a few packets should rather be stored in chunked containers.
+     *
+     * @param packetSizeLimit the packet size limit in bytes, must be positive.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder packetSizeLimit(final int packetSizeLimit) {
+        if (packetSizeLimit < 1) {
+            throw new IllegalArgumentException("Packet size limit must be positive");
+        }
+        this.packetSizeLimit = packetSizeLimit;
+        return this;
+    }
+
+    /**
+     * Gets the size limit of a packet received from a session that is not authenticated.
+     *
+     * @return the unauthenticated packet size limit in bytes.
+     */
+    @Contract(pure = true)
+    public int unauthenticatedPacketSizeLimit() {
+        return this.unauthenticatedPacketSizeLimit;
+    }
+
+    /**
+     * Sets the size limit of a packet received from a session that is not authenticated.
+     *
+     * @param unauthenticatedPacketSizeLimit the unauthenticated packet size limit in bytes, must be positive.
+     *
+     * @return this builder instance.
+     */
+    @NotNull
+    @Contract("_ -> this")
+    public MemorizedServerBuilder unauthenticatedPacketSizeLimit(final int unauthenticatedPacketSizeLimit) {
+        if (unauthenticatedPacketSizeLimit < 1) {
+            throw new IllegalArgumentException("Unauthenticated packet size limit must be positive");
+        }
+        this.unauthenticatedPacketSizeLimit = unauthenticatedPacketSizeLimit;
+        return this;
+    }
+
     /**
      * Builds and returns a new instance of {@link MemorizedServer}.
      *
@@ -150,11 +639,34 @@ public final class MemorizedServerBuilder {
     @NotNull
     @Contract(" -> new")
     public MemorizedServer build() {
-        return new MemorizedServerImpl(this.address,
-                this.authenticator,
-                this.codecRegistry,
-                this.dataRepositoryCoordinator,
-                this.workerThreads);
+        if (this.reusePort && this.engine == ServerEngine.THREAD_PER_CONNECTION) {
+            throw new IllegalStateException("Worker acceptors are not supported by the THREAD_PER_CONNECTION engine");
+        }
+        return new MemorizedServerImpl(this);
+    }
+
+    @Nullable
+    OffloadPolicy buildOffloadPolicy() {
+        ExecutorService executor = this.offloadExecutor;
+        if (this.engine == ServerEngine.SHARDED && (executor != null || this.offloadThreads > 0)) {
+            throw new IllegalStateException("Offloading is not supported by the SHARDED engine");
+        }
+        if (executor == null) {
+            if (this.offloadThreads <= 0) {
+                return null;
+            }
+            executor = Executors.newFixedThreadPool(this.offloadThreads, this.virtualOffloadThreads ?
+                    ThreadFactories.virtual("Offload Worker #") :
+                    ThreadFactories.platform("Offload Worker #"));
+        }
+        return new OffloadPolicy(executor, this.offloadedPackets, this.offloadedContainers);
+    }
+
+    @NotNull
+    PushPolicy buildPushPolicy() {
+        final ExecutorService executor = this.pushExecutor != null ? this.pushExecutor :
+                Executors.newFixedThreadPool(this.pushThreads, ThreadFactories.platform("Push Worker #"));
+        return new PushPolicy(executor, this.messageQueueCapacity, this.messageDropPolicy);
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package be.darkkraft.memorized.server;
 
 import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.net.SelectStrategy;
 import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.packet.ClientPacket;
 import be.darkkraft.memorized.packet.ServerPacket;
@@ -8,8 +9,14 @@ import be.darkkraft.memorized.packet.handler.PacketHandler;
 import be.darkkraft.memorized.server.auth.Authenticator;
 import be.darkkraft.memorized.server.channel.ServerChannelThread;
 import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.factory.DataContainerFactoryRegistry;
+import be.darkkraft.memorized.server.offload.OffloadPolicy;
+import be.darkkraft.memorized.server.push.PushPolicy;
 import be.darkkraft.memorized.server.packet.handler.registry.SessionPacketHandlerRegistry;
 import be.darkkraft.memorized.server.session.ClientSession;
+import be.darkkraft.memorized.server.shard.Shard;
+import be.darkkraft.memorized.server.shard.ShardLoad;
 import be.darkkraft.memorized.server.session.SessionManager;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -18,10 +25,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -32,10 +42,25 @@ public final class MemorizedServerImpl implements MemorizedServer {
     private static final Logger LOGGER = LoggerFactory.getLogger(MemorizedServerImpl.class);
 
     private final InetSocketAddress address;
+    @Nullable
+    private final Path unixDomainSocketPath;
+    @Nullable
+    private final Path sharedMemoryDirectory;
     private final Authenticator authenticator;
     private final CodecRegistry codecRegistry;
     private final DataRepositoryCoordinator dataRepositoryCoordinator;
+    private final DataContainerFactoryRegistry dataContainerFactoryRegistry;
     private final int workerThreads;
+    private final ServerEngine engine;
+    private final boolean reusePort;
+    private final long balanceInterval;
+    private final SelectStrategy selectStrategy;
+    @Nullable
+    private final OffloadPolicy offloadPolicy;
+    @Nullable
+    private final PushPolicy pushPolicy;
+    private final int packetSizeLimit;
+    private final int unauthenticatedPacketSizeLimit;
 
     private SessionManager sessionManager;
     private ServerChannelThread channelThread;
@@ -44,19 +69,29 @@ public final class MemorizedServerImpl implements MemorizedServer {
     private volatile boolean running;
 
     /**
-     * Creates a new instance of MemorizedServerImpl.
+     * Creates a new instance of MemorizedServerImpl with the settings of a builder.
+     * The executors of the policies are created last, so that invalid settings never leave threads behind.
      *
-     * @param address       The {@link InetSocketAddress} to bind to.
-     * @param authenticator The {@link Authenticator} to use.
-     * @param codecRegistry The {@link CodecRegistry} to use.
-     * @param workerThreads The worker threads amount
+     * @param builder The {@link MemorizedServerBuilder} holding the settings of the server.
      */
-    public MemorizedServerImpl(final @NotNull InetSocketAddress address, final @NotNull Authenticator authenticator, final @NotNull CodecRegistry codecRegistry, final @NotNull DataRepositoryCoordinator dataRepositoryCoordinator, final int workerThreads) {
-        this.address = Objects.requireNonNull(address, "Address cannot be null");
-        this.authenticator = Objects.requireNonNull(authenticator, "Authenticator cannot be null");
-        this.codecRegistry = Objects.requireNonNull(codecRegistry, "Codec registry cannot be null");
-        this.dataRepositoryCoordinator = Objects.requireNonNull(dataRepositoryCoordinator, "DataRepository coordinator cannot be null");
-        this.workerThreads = Math.max(workerThreads, 1);
+    MemorizedServerImpl(final @NotNull MemorizedServerBuilder builder) {
+        this.address = Objects.requireNonNull(builder.address(), "Address cannot be null");
+        this.unixDomainSocketPath = builder.unixDomainSocketPath();
+        this.sharedMemoryDirectory = builder.sharedMemoryDirectory();
+        this.authenticator = Objects.requireNonNull(builder.authenticator(), "Authenticator cannot be null");
+        this.codecRegistry = Objects.requireNonNull(builder.codecRegistry(), "Codec registry cannot be null");
+        this.dataRepositoryCoordinator = Objects.requireNonNull(builder.dataRepositoryCoordinator(), "DataRepository coordinator cannot be null");
+        final DataContainerFactoryRegistry factoryRegistry = builder.dataContainerFactoryRegistry();
+        this.dataContainerFactoryRegistry = factoryRegistry != null ? factoryRegistry : new DataContainerFactoryRegistry();
+        this.workerThreads = Math.max(builder.workerThreads(), 1);
+        this.engine = Objects.requireNonNull(builder.engine(), "Engine cannot be null");
+        this.reusePort = builder.reusePort();
+        this.balanceInterval = builder.balanceInterval();
+        this.selectStrategy = Objects.requireNonNull(builder.selectStrategy(), "Select strategy cannot be null");
+        this.packetSizeLimit = builder.packetSizeLimit();
+        this.unauthenticatedPacketSizeLimit = builder.unauthenticatedPacketSizeLimit();
+        this.offloadPolicy = builder.buildOffloadPolicy();
+        this.pushPolicy = builder.buildPushPolicy();
     }
 
     /**
@@ -69,9 +104,9 @@ public final class MemorizedServerImpl implements MemorizedServer {
 
         this.running = true;
 
-        this.sessionManager = new SessionManager();
+        this.sessionManager = new SessionManager(this.offloadPolicy != null ? this.offloadPolicy.getExecutor() : null, this.pushPolicy);
         (this.packetHandlerRegistry = new SessionPacketHandlerRegistry()).initialize(this);
-        (this.channelThread = new ServerChannelThread(this)).start();
+        (this.channelThread = new ServerChannelThread(this, this.engine, this.reusePort, this.balanceInterval, this.selectStrategy)).start();
 
         try {
             this.channelThread.awaitBind();
@@ -106,6 +141,14 @@ public final class MemorizedServerImpl implements MemorizedServer {
             this.channelThread.close();
         }
 
+        if (this.offloadPolicy != null) {
+            this.offloadPolicy.getExecutor().shutdown();
+        }
+
+        if (this.pushPolicy != null) {
+            this.pushPolicy.getExecutor().shutdown();
+        }
+
         LOGGER.info("MemorizedServer stopped in {}ms!", System.currentTimeMillis() - start);
     }
 
@@ -113,12 +156,12 @@ public final class MemorizedServerImpl implements MemorizedServer {
      * Handles a new session.
      *
      * @param client The client's socket channel.
+     *
+     * @return The created session, or null if the server is not running.
      */
     @Override
-    public void handleNewSession(final @NotNull SocketChannel client) {
-        if (this.isRunning()) {
-            this.sessionManager.addSession(client);
-        }
+    public @Nullable Session handleNewSession(final @NotNull SocketChannel client) {
+        return this.isRunning() ? this.sessionManager.addSession(client) : null;
     }
 
     /**
@@ -135,7 +178,7 @@ public final class MemorizedServerImpl implements MemorizedServer {
 
     /**
      * Handles a packet received from a client.
-     * <p>Reads the packet buffer and delegates the handling to a registered {@link PacketHandler}.</p>
+     * <p>Looks up the session of the channel and delegates to {@link #handlePacket(Session, ByteBuffer)}.</p>
      *
      * @param client The client's socket channel.
      * @param buffer The packet buffer.
@@ -150,26 +193,103 @@ public final class MemorizedServerImpl implements MemorizedServer {
             return false;
         }
         final ClientSession session = this.sessionManager.getSession(client);
-        if (session != null) {
-            final byte id = buffer.get();
-            final ClientPacket command = ClientPacket.fromId(id);
-            if (command == null) {
-                return false;
-            }
-            if (!session.isAuthenticated() && command != ClientPacket.AUTH) {
-                session.send(ByteBuffer.allocate(1).put(ServerPacket.NOT_AUTHENTICATED.getId()));
-                return false;
-            }
-            final PacketHandler<ClientSession> handler = this.packetHandlerRegistry.getHandler(command);
-            if (handler != null) {
-                handler.handle(session, buffer);
-                return true;
+        return session == null || this.handlePacket(session, buffer);
+    }
+
+    /**
+     * Handles a packet received from a client.
+     * <p>Reads the packet identifier and delegates the handling to the registered {@link PacketHandler}.
+     * The packet is handled on the offload executor if its command is offloaded, or if previous packets
+     * of the session are still being handled on it.</p>
+     *
+     * @param session The client's session.
+     * @param buffer  The packet buffer.
+     *
+     * @return True if the packet was handled successfully, false otherwise.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public boolean handlePacket(final @NotNull Session session, final @NotNull ByteBuffer buffer) throws IOException {
+        if (!this.isRunning() || !(session instanceof ClientSession clientSession)) {
+            return false;
+        }
+        final ClientPacket command = ClientPacket.fromId(buffer.get());
+        if (command == null) {
+            return false;
+        }
+        if (clientSession.hasOffloadedTasks() || (this.offloadPolicy != null && this.offloadPolicy.isOffloaded(command))) {
+            clientSession.offload(buffer, copy -> this.handleOffloadedPacket(clientSession, command, copy));
+            return true;
+        }
+        return this.handlePacket(clientSession, command, buffer);
+    }
+
+    /**
+     * Handles a packet whose identifier has already been read, on the calling thread.
+     *
+     * @param session The client's session.
+     * @param command The command of the packet.
+     * @param buffer  The packet buffer, positioned after the identifier.
+     *
+     * @return True if the packet was handled successfully, false otherwise.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private boolean handlePacket(final @NotNull ClientSession session, final @NotNull ClientPacket command, final @NotNull ByteBuffer buffer) throws IOException {
+        if (command != ClientPacket.SHOW && command != ClientPacket.UPDATE && session.hasPendingReplies()) {
+            // Responses of operations handed off to other shards must be written before the response of this packet
+            final Shard shard = Shard.current();
+            if (shard != null) {
+                shard.awaitReplies(session);
             }
-            LOGGER.error("Handler not found for {}", command);
         }
+        if (!session.isAuthenticated() && command != ClientPacket.AUTH) {
+            session.send(ServerPacket.NOT_AUTHENTICATED.getId());
+            return false;
+        }
+        final PacketHandler<ClientSession> handler = this.packetHandlerRegistry.getHandler(command);
+        if (handler != null) {
+            handler.handle(session, buffer);
+            return true;
+        }
+        LOGGER.error("Handler not found for {}", command);
         return true;
     }
 
+    /**
+     * Handles a packet on the offload executor, closing the connection if it cannot be handled.
+     *
+     * @param session The client's session.
+     * @param command The command of the packet.
+     * @param buffer  A copy of the packet buffer, positioned after the identifier.
+     */
+    private void handleOffloadedPacket(final @NotNull ClientSession session, final @NotNull ClientPacket command, final @NotNull ByteBuffer buffer) {
+        try {
+            if (this.isRunning() && this.handlePacket(session, command, buffer)) {
+                return;
+            }
+            LOGGER.warn("Failed to handle offloaded packet from client. Removing session and closing connection.");
+            this.handleRemoveSession(session.getChannel());
+            session.getChannel().close();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Checks if the interactions with a container are handled on the offload executor instead of the worker thread.
+     *
+     * @param container The container to check.
+     *
+     * @return True if the container is offloaded, false otherwise or if the server has no offload executor.
+     */
+    @Override
+    @Contract(pure = true)
+    public boolean isOffloaded(final @NotNull DataContainer container) {
+        return this.offloadPolicy != null && this.offloadPolicy.isOffloaded(container);
+    }
+
     /**
      * Gets a session based on its {@link SocketChannel}.
      *
@@ -204,6 +324,26 @@ public final class MemorizedServerImpl implements MemorizedServer {
         return this.address;
     }
 
+    /**
+     * Gets the path of the Unix domain socket the server listens on, in addition to its TCP address.
+     *
+     * @return The path of the socket, or {@code null} if the server only listens on TCP.
+     */
+    @Override
+    public @Nullable Path getUnixDomainSocketPath() {
+        return this.unixDomainSocketPath;
+    }
+
+    /**
+     * Gets the directory in which the server accepts shared memory connections, in addition to its TCP address.
+     *
+     * @return The directory, or {@code null} if the server does not accept shared memory connections.
+     */
+    @Override
+    public @Nullable Path getSharedMemoryDirectory() {
+        return this.sharedMemoryDirectory;
+    }
+
     /**
      * Gets the authenticator used by the server.
      *
@@ -235,6 +375,17 @@ public final class MemorizedServerImpl implements MemorizedServer {
         return this.dataRepositoryCoordinator;
     }
 
+    /**
+     * Gets the data container factory registry used by the server.
+     *
+     * @return The {@link DataContainerFactoryRegistry} used by the server.
+     */
+    @NotNull
+    @Override
+    public DataContainerFactoryRegistry getDataContainerFactoryRegistry() {
+        return this.dataContainerFactoryRegistry;
+    }
+
     /**
      * Gets the number of worker threads configured for the server.
      *
@@ -246,6 +397,17 @@ public final class MemorizedServerImpl implements MemorizedServer {
         return this.workerThreads;
     }
 
+    /**
+     * Gets a snapshot of the load of every worker shard.
+     *
+     * @return The loads, indexed by shard, or an empty list if the engine is not {@link ServerEngine#SHARDED}.
+     */
+    @NotNull
+    @Override
+    public List<ShardLoad> getShardLoads() {
+        return this.channelThread != null ? this.channelThread.getShardLoads() : List.of();
+    }
+
     /**
      * Checks if the server is running.
      *
@@ -265,7 +427,7 @@ public final class MemorizedServerImpl implements MemorizedServer {
     @Contract(pure = true)
     @Override
     public int getPacketSizeLimit() {
-        return 1048576;
+        return this.packetSizeLimit;
     }
 
     /**
@@ -276,7 +438,7 @@ public final class MemorizedServerImpl implements MemorizedServer {
     @Contract(pure = true)
     @Override
     public int getUnauthenticatedPacketSizeLimit() {
-        return 320;
+        return this.unauthenticatedPacketSizeLimit;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package be.darkkraft.memorized.server;
+
+/**
+ * I/O models available to serve the connections of a {@link MemorizedServer}.
+ */
+public enum ServerEngine {
+
+    /**
+     * Connections are spread over a fixed pool of worker threads, each one multiplexing its connections with a selector.
+     * Suited to a moderate number of busy connections.
+     */
+    SELECTOR,
+
+    /**
+     * Each connection is served by its own thread with blocking reads and writes.
+     * Virtual threads are used when the runtime supports them, daemon platform threads otherwise, with a warning as
+     * each connection then holds an OS thread.
+     * Suited to many mostly idle connections.
+     */
+    THREAD_PER_CONNECTION,
+
+    /**
+     * Like {@link #SELECTOR}, but each container is owned by a single worker shard, the only thread executing its operations.
+     * Operations on containers owned by another worker are handed off through lock-free rings,
+     * so containers can use plain fields and hot containers do not suffer cross-core contention.
+     * Not compatible with offloading.
+     */
+    SHARDED
+
+}
\ No newline at end of file
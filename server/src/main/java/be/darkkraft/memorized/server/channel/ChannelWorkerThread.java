@@ -1,29 +1,70 @@
 package be.darkkraft.memorized.server.channel;
 
+import be.darkkraft.memorized.net.AdaptiveSelector;
+import be.darkkraft.memorized.net.ChannelAddresses;
+import be.darkkraft.memorized.net.SelectStrategy;
 import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.session.ClientSession;
+import be.darkkraft.memorized.server.shard.Shard;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * A worker thread responsible for handling multiple client connections for
  * a single selector. Manages reading from channels and passing messages to sessions.
+ * <p>The worker may also own a listening socket, in which case it accepts its own connections.</p>
+ * <p>The worker tracks the time it spends handling its connections and the bytes it reads,
+ * so that new sessions can be placed on the least loaded worker and hot sessions can be migrated to another worker.</p>
  */
 public final class ChannelWorkerThread extends Thread {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ChannelWorkerThread.class);
+
+    /**
+     * Maximum number of connections accepted per readiness notification,
+     * so that a burst of connections does not starve the reads of the connected clients.
+     */
+    private static final int ACCEPT_BATCH = 64;
+
     private final MemorizedServer server;
     private final Selector selector;
+    private final AdaptiveSelector adaptiveSelector;
     private final CyclicBarrier barrier;
+    private final Consumer<SelectionKey> keyHandler = this::handle;
+    @Nullable
+    private Shard shard;
+
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private volatile int load;
+
+    /**
+     * Sessions migrated to this worker, registered by this worker after its next selection.
+     */
+    private final Queue<ClientSession> adoptions = new ConcurrentLinkedQueue<>();
+    @Nullable
+    private volatile ChannelWorkerThread migrationTarget;
+    private volatile long migrationBudget;
+    private volatile boolean sampleRequested;
 
     /**
      * Constructs a new worker thread.
@@ -35,9 +76,24 @@ public final class ChannelWorkerThread extends Thread {
      * @throws IOException if an I/O error occurs.
      */
     public ChannelWorkerThread(final MemorizedServer server, final CyclicBarrier barrier, final int id) throws IOException {
+        this(server, barrier, id, SelectStrategy.blocking());
+    }
+
+    /**
+     * Constructs a new worker thread.
+     *
+     * @param server         The server this worker is part of.
+     * @param barrier        A barrier for synchronization.
+     * @param id             The unique ID of this worker thread.
+     * @param selectStrategy The strategy used to wait for ready connections.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public ChannelWorkerThread(final MemorizedServer server, final CyclicBarrier barrier, final int id, final @NotNull SelectStrategy selectStrategy) throws IOException {
         super("Channel Worker #" + id);
         this.server = server;
         this.selector = Selector.open();
+        this.adaptiveSelector = new AdaptiveSelector(this.selector, selectStrategy);
         this.barrier = barrier;
     }
 
@@ -48,6 +104,9 @@ public final class ChannelWorkerThread extends Thread {
     public void run() {
         try {
             this.barrier.await();
+            if (this.shard != null) {
+                this.shard.bind();
+            }
             while (this.server.isRunning()) {
                 this.selectKey();
             }
@@ -59,44 +118,148 @@ public final class ChannelWorkerThread extends Thread {
     }
 
     /**
-     * Selects keys from the selector and processes them.
+     * Selects keys from the selector and processes them, then processes the tasks handed off by other shards,
+     * and the sessions migrated from or to this worker.
      */
     private void selectKey() {
         try {
-            final int select = this.selector.select();
-            if (select == 0) {
-                return;
+            final Shard shard = this.shard;
+            if (shard == null) {
+                this.adaptiveSelector.select(this.keyHandler);
+            } else {
+                if (shard.hasOverflow()) {
+                    this.adaptiveSelector.selectNow(this.keyHandler);
+                } else {
+                    this.adaptiveSelector.select(this.keyHandler);
+                }
+                shard.drain();
             }
-            final Set<SelectionKey> keys = this.selector.selectedKeys();
-            if (keys.isEmpty()) {
-                return;
+            if (!this.adoptions.isEmpty()) {
+                this.registerAdoptions();
+            }
+            if (this.sampleRequested) {
+                this.sampleRequested = false;
+                this.sample();
             }
-            final Iterator<SelectionKey> iterator = keys.iterator();
-            while (iterator.hasNext()) {
-                this.handle(iterator.next());
-                iterator.remove();
+            final ChannelWorkerThread target = this.migrationTarget;
+            if (target != null) {
+                this.migrationTarget = null;
+                this.migrate(target, this.migrationBudget);
             }
+            this.sessionCount.set(this.selector.keys().size());
         } catch (final Exception e) {
             LOGGER.error("An error occurred while selecting keys", e);
         }
     }
 
     /**
-     * Handles a single key by reading from the channel and passing the message to the session.
+     * Samples the bytes read by each session of this worker since the previous sample, so that every sample of a
+     * session covers a single balancing interval.
+     */
+    private void sample() {
+        for (final SelectionKey key : this.selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof final ClientSession session) {
+                session.sampleReadBytes();
+            }
+        }
+    }
+
+    /**
+     * Moves the hottest session of the last sample that fits in the budget to another worker.
+     * The key of the session is cancelled before the session is handed to the target, so the session is never read by
+     * both workers. A partially read frame stays in the session and unread bytes stay in the socket.
+     *
+     * @param target The worker receiving the session.
+     * @param budget The maximum number of bytes read by the session during the last sample.
+     */
+    private void migrate(final @NotNull ChannelWorkerThread target, final long budget) {
+        SelectionKey hottest = null;
+        long hottestBytes = 0L;
+        for (final SelectionKey key : this.selector.keys()) {
+            if (key.isValid() && key.attachment() instanceof final ClientSession session) {
+                final long bytes = session.getRecentReadBytes();
+                if (bytes > hottestBytes && bytes <= budget) {
+                    hottest = key;
+                    hottestBytes = bytes;
+                }
+            }
+        }
+        if (hottest == null) {
+            return;
+        }
+        final ClientSession session = (ClientSession) hottest.attachment();
+        hottest.cancel();
+        LOGGER.info("Migrating session {} from {} to {}", ChannelAddresses.describe(session.getChannel()), this.getName(), target.getName());
+        target.adopt(session);
+    }
+
+    /**
+     * Registers the sessions migrated to this worker. Called after a selection, so that the keys cancelled by this
+     * worker for a session migrated back and forth are deregistered.
+     */
+    private void registerAdoptions() {
+        ClientSession session;
+        while ((session = this.adoptions.poll()) != null) {
+            try {
+                session.register(this.selector);
+            } catch (final ClosedChannelException | CancelledKeyException ignored) {
+                // The connection was closed while being migrated
+            }
+        }
+    }
+
+    /**
+     * Handles a single key by writing the backlog of its session, then reading from the channel and passing the message
+     * to the session. The session is attached to the key when the connection is accepted.
      *
      * @param key The selection key to handle.
+     */
+    private void handle(final SelectionKey key) {
+        final long start = System.nanoTime();
+        if (key.isAcceptable()) {
+            this.accept((ServerSocketChannel) key.channel());
+        } else {
+            if (key.isWritable()) {
+                this.write(key);
+            }
+            if (key.isValid() && key.isReadable()) {
+                this.read(key);
+            }
+        }
+        this.busyNanos.lazySet(this.busyNanos.get() + System.nanoTime() - start);
+    }
+
+    /**
+     * Writes the frames the channel of a key could not take earlier, now that it is writable.
      *
-     * @throws IOException if an I/O error occurs.
+     * @param key The writable selection key.
      */
-    private void handle(final SelectionKey key) throws IOException {
-        if (!key.isReadable()) {
-            return;
+    private void write(final SelectionKey key) {
+        final SocketChannel client = (SocketChannel) key.channel();
+        try {
+            ((ClientSession) key.attachment()).writeBacklog();
+        } catch (final IOException exception) {
+            this.server.handleRemoveSession(client);
+            try {
+                client.close();
+            } catch (final IOException ignored) {
+                // The channel is discarded anyway
+            }
+            LOGGER.debug("Failed to write the backlog of a session, it is likely closed", exception);
         }
+    }
+
+    /**
+     * Reads from the channel of a key and passes the packets to its session.
+     *
+     * @param key The readable selection key.
+     */
+    private void read(final SelectionKey key) {
+        final SocketChannel client = (SocketChannel) key.channel();
         try {
-            final SocketChannel client = (SocketChannel) key.channel();
-            final Session session = this.server.getSession(client);
+            final Session session = (Session) key.attachment();
             if (session == null) {
-                LOGGER.warn("No session found for client {}. Closing connection.", client.socket().getRemoteSocketAddress());
+                LOGGER.warn("No session found for client {}. Closing connection.", ChannelAddresses.describe(client));
                 client.close();
                 return;
             }
@@ -109,57 +272,181 @@ public final class ChannelWorkerThread extends Thread {
                 read = client.read(buffer);
 
                 if (read == -1) {
-                    LOGGER.warn("Client connection {} closed by the remote side.", client.socket().getRemoteSocketAddress());
+                    LOGGER.warn("Client connection {} closed by the remote side.", ChannelAddresses.describe(client));
                     this.server.handleRemoveSession(client);
                     client.close();
                     return;
-                } else if (read == 0) {
-                    session.removeBuffer();
-                    return;
+                }
+                if (read > 0) {
+                    this.readBytes.lazySet(this.readBytes.get() + read);
+                    if (session instanceof final ClientSession clientSession) {
+                        clientSession.recordRead(read);
+                    }
                 }
 
-                this.read(client, buffer, session);
+                // A partially read packet stays in the session until the next readiness notification
+                if (!buffer.hasRemaining() && !PacketReader.read(this.server, client, buffer, session)) {
+                    return;
+                }
+                // The next packets stay in the socket until the offloaded packets or the backlog of the session are drained
+                if (session instanceof final ClientSession clientSession && clientSession.isReadSuspended()) {
+                    return;
+                }
             } while (read > 0);
         } catch (final Exception exception) {
-            key.channel().close();
+            this.server.handleRemoveSession(client);
+            try {
+                client.close();
+            } catch (final IOException ignored) {
+                // The channel is discarded anyway
+            }
             LOGGER.error("An error occurred while reading packet", exception);
         }
     }
 
     /**
-     * Processes read data from the client.
+     * Accepts the pending connections of a listening socket and registers them in the selector of this worker.
      *
-     * @param client  The client SocketChannel.
-     * @param buffer  The ByteBuffer containing the read data.
-     * @param session The session associated with the client.
-     *
-     * @throws IOException if an I/O error occurs.
+     * @param listener The listening socket.
      */
-    private void read(final SocketChannel client, ByteBuffer buffer, final Session session) throws IOException {
-        if (buffer.position() >= 4 && buffer.limit() == 4) {
-            buffer.flip();
-            final int size = buffer.getInt();
-            final int limit = this.server.getPacketSizeLimit(session.isAuthenticated());
-            if (size > limit) {
-                LOGGER.warn("Failed to handle packet from server. Packet is too big {}/{}", size, limit);
-                client.close();
-                return;
+    private void accept(final ServerSocketChannel listener) {
+        try {
+            SocketChannel client;
+            for (int i = 0; i < ACCEPT_BATCH && (client = listener.accept()) != null; i++) {
+                client.configureBlocking(false);
+                final Session session = this.server.handleNewSession(client);
+                if (session == null) {
+                    client.close();
+                    continue;
+                }
+                register(this.selector, client, session);
+                this.sessionCount.incrementAndGet();
+            }
+        } catch (final IOException exception) {
+            if (listener.isOpen()) {
+                LOGGER.error("An error occurred while accepting a connection", exception);
             }
-            session.updateBuffer(buffer = ByteBuffer.allocate(size));
         }
+    }
 
-        if (buffer.position() == buffer.limit()) {
-            buffer.flip();
+    /**
+     * Registers the channel of a session in a selector, through the session when it can suspend its reads.
+     *
+     * @param selector The selector of the worker reading the channel.
+     * @param channel  The channel of the session.
+     * @param session  The session, attached to the key.
+     *
+     * @throws ClosedChannelException If the channel is closed.
+     */
+    static void register(final @NotNull Selector selector, final @NotNull SocketChannel channel, final @NotNull Session session) throws ClosedChannelException {
+        if (session instanceof final ClientSession clientSession) {
+            clientSession.register(selector);
+        } else {
+            channel.register(selector, SelectionKey.OP_READ, session);
+        }
+    }
 
-            if (!this.server.handlePacket(client, buffer)) {
-                LOGGER.warn("Failed to handle packet from client. Removing session and closing connection.");
-                this.server.handleRemoveSession(client);
-                client.close();
-                return;
-            }
+    /**
+     * Makes this worker accept the connections of a listening socket, must be called before the worker is started.
+     *
+     * @param listener The non-blocking listening socket.
+     *
+     * @throws IOException If the listening socket cannot be registered.
+     */
+    public void listen(final @NotNull ServerSocketChannel listener) throws IOException {
+        listener.register(this.selector, SelectionKey.OP_ACCEPT);
+    }
 
-            session.removeBuffer();
-        }
+    /**
+     * Makes this worker the thread of a shard, must be called before the worker is started.
+     *
+     * @param shard The shard of this worker.
+     */
+    public void setShard(final @NotNull Shard shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * Hands a session migrated from another worker to this worker.
+     *
+     * @param session The session, whose key in the selector of the other worker is cancelled.
+     */
+    void adopt(final @NotNull ClientSession session) {
+        this.sessionCount.incrementAndGet();
+        this.adoptions.add(session);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Asks this worker to sample the bytes read by each of its sessions after its next selection.
+     * The worker is not woken up: a blocked worker samples once it wakes up, before migrating any session.
+     */
+    void requestSample() {
+        this.sampleRequested = true;
+    }
+
+    /**
+     * Asks this worker to migrate its hottest session to another worker after its next selection.
+     *
+     * @param target The worker receiving the session.
+     * @param budget The maximum number of bytes read by the migrated session during the last sample.
+     */
+    void requestMigration(final @NotNull ChannelWorkerThread target, final long budget) {
+        this.migrationBudget = budget;
+        this.migrationTarget = target;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Gets the total time spent by this worker handling its connections.
+     *
+     * @return The busy time in nanoseconds.
+     */
+    long getBusyNanos() {
+        return this.busyNanos.get();
+    }
+
+    /**
+     * Gets the total number of bytes read by this worker.
+     *
+     * @return The number of bytes read.
+     */
+    long getReadBytes() {
+        return this.readBytes.get();
+    }
+
+    /**
+     * Gets the approximate number of connections of this worker.
+     *
+     * @return The number of connections.
+     */
+    int getSessionCount() {
+        return this.sessionCount.get();
+    }
+
+    /**
+     * Records that a connection was placed on this worker, before its registration.
+     */
+    void incrementSessionCount() {
+        this.sessionCount.incrementAndGet();
+    }
+
+    /**
+     * Gets the load of this worker over the last balancing interval.
+     *
+     * @return The busy time per mille.
+     */
+    int getLoad() {
+        return this.load;
+    }
+
+    /**
+     * Sets the load of this worker over the last balancing interval.
+     *
+     * @param load The busy time per mille.
+     */
+    void setLoad(final int load) {
+        this.load = load;
     }
 
     /**
@@ -0,0 +1,76 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.net.ChannelAddresses;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+
+/**
+ * Serves a single connection with blocking reads, on its own thread.
+ * Packets go through the same pipeline as the packets read by a {@link ChannelWorkerThread}.
+ */
+public final class ConnectionHandler implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionHandler.class);
+
+    private final MemorizedServer server;
+    private final SocketChannel client;
+    private final Session session;
+    private final Set<SocketChannel> connections;
+
+    /**
+     * Constructs a new connection handler.
+     *
+     * @param server      The server this connection is part of.
+     * @param client      The blocking client SocketChannel.
+     * @param session     The session associated with the client.
+     * @param connections The open connections of the server, from which the client is removed once closed.
+     */
+    public ConnectionHandler(final @NotNull MemorizedServer server, final @NotNull SocketChannel client, final @NotNull Session session, final @NotNull Set<SocketChannel> connections) {
+        this.server = server;
+        this.client = client;
+        this.session = session;
+        this.connections = connections;
+    }
+
+    /**
+     * Reads packets until the connection is closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (this.server.isRunning()) {
+                final ByteBuffer buffer = this.session.computeBuffer();
+                if (this.client.read(buffer) == -1) {
+                    LOGGER.warn("Client connection {} closed by the remote side.", ChannelAddresses.describe(this.client));
+                    break;
+                }
+                if (!buffer.hasRemaining() && !PacketReader.read(this.server, this.client, buffer, this.session)) {
+                    break;
+                }
+            }
+        } catch (final AsynchronousCloseException ignored) {
+            // The connection has been closed by another thread, such as the server shutdown
+        } catch (final Exception exception) {
+            LOGGER.error("An error occurred while reading packet", exception);
+        } finally {
+            // The session is removed whatever the reason the connection ends for
+            this.server.handleRemoveSession(this.client);
+            this.connections.remove(this.client);
+            try {
+                this.client.close();
+            } catch (final IOException ignored) {
+                // The channel is discarded anyway
+            }
+        }
+    }
+
+}
\ No newline at end of file
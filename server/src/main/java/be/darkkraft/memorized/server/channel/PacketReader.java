@@ -0,0 +1,64 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.MemorizedServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Processes the fully read size prefixes and packets of a session, whatever the I/O model reading them.
+ */
+final class PacketReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PacketReader.class);
+
+    private PacketReader() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Processes a fully read size prefix or packet from the client.
+     *
+     * @param server  The server handling the packet.
+     * @param client  The client SocketChannel.
+     * @param buffer  The ByteBuffer containing the read data.
+     * @param session The session associated with the client.
+     *
+     * @return {@code false} if the connection has been closed, {@code true} otherwise.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    static boolean read(final MemorizedServer server, final SocketChannel client, ByteBuffer buffer, final Session session) throws IOException {
+        if (session.getBuffer() == null) {
+            final int size = buffer.flip().getInt();
+            final int limit = server.getPacketSizeLimit(session.isAuthenticated());
+            if (size < 0 || size > limit) {
+                LOGGER.warn("Failed to handle packet from client. Packet is too big {}/{}", size, limit);
+                server.handleRemoveSession(client);
+                client.close();
+                return false;
+            }
+            buffer = session.computeBuffer(size);
+            if (size != 0) {
+                return true;
+            }
+        }
+
+        buffer.flip();
+
+        if (!server.handlePacket(session, buffer)) {
+            LOGGER.warn("Failed to handle packet from client. Removing session and closing connection.");
+            server.handleRemoveSession(client);
+            client.close();
+            return false;
+        }
+
+        session.removeBuffer();
+        return true;
+    }
+
+}
\ No newline at end of file
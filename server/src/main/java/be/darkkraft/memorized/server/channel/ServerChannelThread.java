@@ -1,25 +1,61 @@
 package be.darkkraft.memorized.server.channel;
 
+import be.darkkraft.memorized.net.SelectStrategy;
+import be.darkkraft.memorized.net.shm.SharedMemoryChannel;
+import be.darkkraft.memorized.net.shm.SharedMemoryListener;
+import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.shard.ShardGroup;
+import be.darkkraft.memorized.server.shard.ShardLoad;
+import be.darkkraft.memorized.server.thread.ThreadFactories;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
 import java.nio.channels.ClosedChannelException;
-import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Thread responsible for managing the server's communication channel.
- * It handles incoming connections, and dispatches them to worker threads.
+ * It handles incoming connections, and dispatches them to worker threads,
+ * or to a thread per connection when using {@link ServerEngine#THREAD_PER_CONNECTION}.
+ * <p>When workers accept their own connections, this thread only binds the listening sockets:
+ * each worker owns a listening socket bound with {@code SO_REUSEPORT} and accepts in its selector,
+ * so that the kernel spreads connection setup over every worker.</p>
+ * <p>When balancing is enabled, new connections are placed on the least loaded worker instead of round-robin,
+ * and hot sessions are periodically migrated from the busiest worker to the least loaded one.</p>
+ * <p>If the server has a Unix domain socket path, its listening socket is registered in every worker selector,
+ * or served by a dedicated accepting thread when using {@link ServerEngine#THREAD_PER_CONNECTION}.</p>
+ * <p>Shared memory connections cannot be selected, whatever the engine each of them is served by a platform thread
+ * of its own polling its ring, which handles their operations inline.</p>
  */
 public final class ServerChannelThread extends Thread {
 
@@ -29,41 +65,126 @@ public final class ServerChannelThread extends Thread {
     private final CompletableFuture<Void> bindFuture;
     private final ChannelWorkerThread[] workerThreads;
     private final CyclicBarrier barrier;
+    private final ThreadFactory connectionThreadFactory;
+    private final boolean sharded;
+    private final boolean reusePort;
+    private final List<ServerSocketChannel> listeners = new ArrayList<>();
+    @Nullable
+    private Path unixDomainSocketPath;
+    @Nullable
+    private SharedMemoryListener sharedMemoryListener;
+    private final long balanceInterval;
+    private final SelectStrategy selectStrategy;
+    @Nullable
+    private WorkerBalancer balancer;
+    @Nullable
+    private ScheduledExecutorService balancerScheduler;
+    @Nullable
+    private volatile ShardGroup shardGroup;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
 
     private int nextWorker;
 
     private ServerSocketChannel channel;
 
     /**
-     * Creates a new instance of {@link ServerChannelThread}.
+     * Creates a new instance of {@link ServerChannelThread} using the {@link ServerEngine#SELECTOR} engine.
      *
      * @param server The {@link MemorizedServer} associated with the thread.
      */
     @Contract(pure = true)
     public ServerChannelThread(final @NotNull MemorizedServer server) {
+        this(server, ServerEngine.SELECTOR);
+    }
+
+    /**
+     * Creates a new instance of {@link ServerChannelThread}.
+     *
+     * @param server The {@link MemorizedServer} associated with the thread.
+     * @param engine The {@link ServerEngine} serving the accepted connections.
+     */
+    public ServerChannelThread(final @NotNull MemorizedServer server, final @NotNull ServerEngine engine) {
+        this(server, engine, false, 0L, SelectStrategy.blocking());
+    }
+
+    /**
+     * Creates a new instance of {@link ServerChannelThread}.
+     *
+     * @param server    The {@link MemorizedServer} associated with the thread.
+     * @param engine    The {@link ServerEngine} serving the accepted connections.
+     * @param reusePort Whether each worker accepts its own connections on a listening socket bound with {@code SO_REUSEPORT}.
+     *                  Not supported by {@link ServerEngine#THREAD_PER_CONNECTION}.
+     * @param balanceInterval The interval in milliseconds between two samples of the load of the workers,
+     *                        or 0 to place connections round-robin and never migrate sessions.
+     *                        Sessions are not migrated by {@link ServerEngine#SHARDED}.
+     * @param selectStrategy  The strategy used by the workers to wait for ready connections.
+     */
+    public ServerChannelThread(final @NotNull MemorizedServer server, final @NotNull ServerEngine engine, final boolean reusePort, final long balanceInterval, final @NotNull SelectStrategy selectStrategy) {
         super("MemorizedServer Channel Thread");
         this.server = Objects.requireNonNull(server, "Server cannot be null");
         this.bindFuture = new CompletableFuture<>();
 
-        final int threads = server.getWorkerThreads();
+        final boolean threadPerConnection = Objects.requireNonNull(engine, "Engine cannot be null") == ServerEngine.THREAD_PER_CONNECTION;
+        this.connectionThreadFactory = threadPerConnection ? ThreadFactories.virtual("Connection #") : null;
+        this.sharded = engine == ServerEngine.SHARDED;
+        if (threadPerConnection && reusePort) {
+            throw new IllegalArgumentException("Worker acceptors are not supported by the THREAD_PER_CONNECTION engine");
+        }
+        this.reusePort = reusePort;
+        this.balanceInterval = balanceInterval;
+        this.selectStrategy = Objects.requireNonNull(selectStrategy, "Select strategy cannot be null");
+
+        final int threads = threadPerConnection ? 0 : server.getWorkerThreads();
         this.workerThreads = new ChannelWorkerThread[threads];
         this.barrier = new CyclicBarrier(threads + 1);
     }
 
     /**
      * The main loop for accepting incoming connections and assigning them to worker threads.
+     * Returns once the listening sockets are bound if the workers accept their own connections.
      */
     @Override
     public void run() {
-        try (final ServerSocketChannel serverSocket = ServerSocketChannel.open()) {
+        try {
+            // Closed by close(), listening sockets must outlive this thread when workers accept their own connections
+            final ServerSocketChannel serverSocket = this.channel = ServerSocketChannel.open();
             final InetSocketAddress address = this.server.getAddress();
-            serverSocket.bind(address);
-            serverSocket.configureBlocking(true);
-
-            this.channel = serverSocket;
+            if (!this.reusePort) {
+                serverSocket.bind(address);
+                serverSocket.configureBlocking(true);
+            }
 
+            final Runnable[] wakeups = new Runnable[this.workerThreads.length];
             for (int i = 0; i < this.workerThreads.length; i++) {
-                (this.workerThreads[i] = new ChannelWorkerThread(this.server, this.barrier, i)).start();
+                wakeups[i] = (this.workerThreads[i] = new ChannelWorkerThread(this.server, this.barrier, i, this.selectStrategy))::wakeup;
+            }
+            if (this.sharded) {
+                final ShardGroup group = new ShardGroup(wakeups);
+                for (int i = 0; i < this.workerThreads.length; i++) {
+                    this.workerThreads[i].setShard(group.getShard(i));
+                }
+                this.shardGroup = group;
+            }
+
+            if (this.reusePort) {
+                this.bindAcceptors(serverSocket, address);
+            }
+            final Path path = this.server.getUnixDomainSocketPath();
+            if (path != null) {
+                this.bindUnixDomainSocket(path);
+            }
+            final Path directory = this.server.getSharedMemoryDirectory();
+            if (directory != null) {
+                this.listenSharedMemory(directory);
+            }
+            for (final ChannelWorkerThread thread : this.workerThreads) {
+                thread.start();
+            }
+            if (this.balanceInterval > 0L && this.workerThreads.length > 1) {
+                // Sessions of a shard have responses pending on it, they cannot move to another worker
+                final WorkerBalancer workerBalancer = this.balancer = new WorkerBalancer(this.workerThreads, !this.sharded);
+                this.balancerScheduler = Executors.newSingleThreadScheduledExecutor(ThreadFactories.platform("Worker Balancer #"));
+                this.balancerScheduler.scheduleAtFixedRate(workerBalancer, this.balanceInterval, this.balanceInterval, TimeUnit.MILLISECONDS);
             }
 
             this.barrier.await();
@@ -72,6 +193,9 @@ public final class ServerChannelThread extends Thread {
 
             LOGGER.info("MemorizedServer bind server on port {}", address.getPort());
 
+            if (this.reusePort) {
+                return;
+            }
             while (this.server.isRunning()) {
                 final SocketChannel client = serverSocket.accept();
                 if (client != null) {
@@ -86,11 +210,177 @@ public final class ServerChannelThread extends Thread {
             if (this.bindFuture.isDone()) {
                 LOGGER.error("An error occurred while connecting to the server", exception);
             } else {
+                this.closeListeners();
                 this.bindFuture.completeExceptionally(exception);
             }
         }
     }
 
+    /**
+     * Binds the listening sockets of the workers and registers them in their selectors.
+     * If {@code SO_REUSEPORT} is not supported, the single listening socket is registered in every selector instead.
+     *
+     * @param serverSocket The listening socket of the first worker.
+     * @param address      The address to bind to.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private void bindAcceptors(final @NotNull ServerSocketChannel serverSocket, final @NotNull InetSocketAddress address) throws IOException {
+        final boolean supported = serverSocket.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        if (!supported) {
+            LOGGER.warn("SO_REUSEPORT is not supported, workers will share a single listening socket");
+        } else {
+            serverSocket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+        serverSocket.bind(address);
+        serverSocket.configureBlocking(false);
+        this.workerThreads[0].listen(serverSocket);
+
+        // An ephemeral port is resolved by the first bind, the other sockets must join it
+        final InetSocketAddress bound = (InetSocketAddress) serverSocket.getLocalAddress();
+        for (int i = 1; i < this.workerThreads.length; i++) {
+            if (!supported) {
+                this.workerThreads[i].listen(serverSocket);
+                continue;
+            }
+            final ServerSocketChannel listener = ServerSocketChannel.open();
+            this.listeners.add(listener);
+            listener.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            listener.bind(bound);
+            listener.configureBlocking(false);
+            this.workerThreads[i].listen(listener);
+        }
+    }
+
+    /**
+     * Binds the Unix domain socket of the server, replacing the stale socket a previous server may have left at its path.
+     *
+     * @param path The path of the socket.
+     *
+     * @throws IOException If an I/O error occurs, or if the path is used by something else than a stale socket.
+     */
+    private void bindUnixDomainSocket(final @NotNull Path path) throws IOException {
+        deleteStaleSocket(path);
+        final ServerSocketChannel listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        this.listeners.add(listener);
+        listener.bind(UnixDomainSocketAddress.of(path));
+        this.unixDomainSocketPath = path;
+
+        if (this.workerThreads.length == 0) {
+            final Thread acceptor = new Thread(() -> this.acceptUnixDomainSocket(listener), "MemorizedServer Unix Domain Socket Thread");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        } else {
+            listener.configureBlocking(false);
+            for (final ChannelWorkerThread thread : this.workerThreads) {
+                thread.listen(listener);
+            }
+        }
+        LOGGER.info("MemorizedServer bind server on Unix domain socket {}", path);
+    }
+
+    /**
+     * Deletes the socket left at a path by a server that did not shut down, so that the path can be bound again.
+     * Nothing is deleted unless the path is a socket nobody listens on: a regular file, a directory or a link is left
+     * as is, and so is the socket of a running server.
+     *
+     * @param path The path of the socket.
+     *
+     * @throws IOException If the path cannot be bound without deleting something else than a stale socket.
+     */
+    private static void deleteStaleSocket(final @NotNull Path path) throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (final NoSuchFileException ignored) {
+            return;
+        }
+        if (!attributes.isOther()) {
+            throw new FileAlreadyExistsException(path.toString(), null, "Not a Unix domain socket");
+        }
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(path)).close();
+        } catch (final ConnectException stale) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        throw new FileAlreadyExistsException(path.toString(), null, "Another server listens on this socket");
+    }
+
+    /**
+     * Accepts the connections of the Unix domain socket when there is no worker selector to register it in.
+     * A connection that fails to be accepted is skipped, the next ones are still accepted.
+     *
+     * @param listener The blocking listening socket.
+     */
+    private void acceptUnixDomainSocket(final @NotNull ServerSocketChannel listener) {
+        while (this.server.isRunning()) {
+            final SocketChannel client;
+            try {
+                client = listener.accept();
+            } catch (final ClosedChannelException ignored) {
+                // The listening socket has been closed by the shutdown of the server
+                return;
+            } catch (final IOException exception) {
+                LOGGER.error("An error occurred while accepting a Unix domain socket connection", exception);
+                continue;
+            }
+            try {
+                this.handleClient(client);
+            } catch (final IOException exception) {
+                LOGGER.error("An error occurred while handling a Unix domain socket connection", exception);
+                try {
+                    client.close();
+                } catch (final IOException ignored) {
+                    // The channel is discarded anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * Listens for shared memory connections in a directory, on a dedicated accepting thread.
+     *
+     * @param directory The directory in which the clients create their file.
+     *
+     * @throws IOException If the directory cannot be watched.
+     */
+    private void listenSharedMemory(final @NotNull Path directory) throws IOException {
+        final SharedMemoryListener listener = this.sharedMemoryListener = SharedMemoryListener.open(directory);
+        final ThreadFactory connectionFactory = ThreadFactories.platform("Shared Memory Connection #");
+        final Thread acceptor = new Thread(() -> this.acceptSharedMemory(listener, connectionFactory), "MemorizedServer Shared Memory Thread");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("MemorizedServer accepts shared memory connections in {}", directory);
+    }
+
+    /**
+     * Accepts the shared memory connections, and starts a thread reading each of them.
+     * A connection that fails to be accepted is skipped, the next ones are still accepted.
+     *
+     * @param listener          The listener of the shared memory directory.
+     * @param connectionFactory The factory of the threads reading the connections.
+     */
+    private void acceptSharedMemory(final @NotNull SharedMemoryListener listener, final @NotNull ThreadFactory connectionFactory) {
+        while (this.server.isRunning()) {
+            try {
+                final SharedMemoryChannel client = listener.accept();
+                final Session session = this.server.handleNewSession(client);
+                if (session == null) {
+                    client.close();
+                    continue;
+                }
+                this.connections.add(client);
+                connectionFactory.newThread(new ConnectionHandler(this.server, client, session, this.connections)).start();
+            } catch (final ClosedChannelException ignored) {
+                // The listener has been closed by the shutdown of the server
+                return;
+            } catch (final IOException exception) {
+                LOGGER.error("An error occurred while accepting a shared memory connection", exception);
+            }
+        }
+    }
+
     /**
      * Waits for the server to be bound to an address/port.
      *
@@ -101,32 +391,80 @@ public final class ServerChannelThread extends Thread {
         this.bindFuture.get();
     }
 
+    /**
+     * Gets a snapshot of the load of every worker shard.
+     *
+     * @return The loads, indexed by shard, or an empty list if the engine is not {@link ServerEngine#SHARDED}.
+     */
+    @NotNull
+    public List<ShardLoad> getShardLoads() {
+        final ShardGroup group = this.shardGroup;
+        return group != null ? group.getLoads() : List.of();
+    }
+
     /**
      * Closes the server channel.
      */
     public void close() {
         try {
+            if (this.balancerScheduler != null) {
+                this.balancerScheduler.shutdownNow();
+            }
             for (final ChannelWorkerThread thread : this.workerThreads) {
                 thread.wakeup();
             }
             this.barrier.await();
-            if (this.channel != null) {
-                this.channel.close();
+            this.closeListeners();
+            for (final SocketChannel connection : this.connections) {
+                connection.close();
             }
         } catch (final Exception exception) {
             LOGGER.error("An error occurred during shutdown", exception);
         }
     }
 
+    private void closeListeners() {
+        try {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+            for (final ServerSocketChannel listener : this.listeners) {
+                listener.close();
+            }
+            if (this.unixDomainSocketPath != null) {
+                Files.deleteIfExists(this.unixDomainSocketPath);
+            }
+            if (this.sharedMemoryListener != null) {
+                this.sharedMemoryListener.close();
+            }
+        } catch (final IOException exception) {
+            LOGGER.error("An error occurred while closing the listening sockets", exception);
+        }
+    }
+
     private void handleClient(final @NotNull SocketChannel client) throws IOException {
-        client.configureBlocking(false);
-        this.server.handleNewSession(client);
+        client.configureBlocking(this.connectionThreadFactory != null);
+        final Session session = this.server.handleNewSession(client);
+        if (session == null) {
+            client.close();
+            return;
+        }
 
-        final ChannelWorkerThread thread = this.workerThreads[this.nextWorker];
-        client.register(thread.getSelector(), SelectionKey.OP_READ);
-        thread.wakeup();
+        if (this.connectionThreadFactory != null) {
+            this.connections.add(client);
+            this.connectionThreadFactory.newThread(new ConnectionHandler(this.server, client, session, this.connections)).start();
+            return;
+        }
 
-        this.nextWorker = (this.nextWorker + 1) % this.workerThreads.length;
+        final ChannelWorkerThread thread;
+        if (this.balancer != null) {
+            thread = this.balancer.place();
+        } else {
+            thread = this.workerThreads[this.nextWorker];
+            this.nextWorker = (this.nextWorker + 1) % this.workerThreads.length;
+        }
+        ChannelWorkerThread.register(thread.getSelector(), client, session);
+        thread.wakeup();
     }
 
 }
\ No newline at end of file
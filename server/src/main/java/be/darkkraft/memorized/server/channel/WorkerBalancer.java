@@ -0,0 +1,106 @@
+package be.darkkraft.memorized.server.channel;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Samples the load of the workers at a fixed interval, places new sessions on the least loaded worker,
+ * and asks the busiest worker to migrate a hot session to the least loaded one when their loads diverge.
+ * <p>{@link #run()} is called by a single scheduler thread, {@link #place()} by the thread accepting connections.</p>
+ */
+final class WorkerBalancer implements Runnable {
+
+    /**
+     * Loads are compared by steps of 5%, so that the number of connections decides between workers with a similar load.
+     */
+    private static final int LOAD_STEP = 50;
+
+    /**
+     * Minimum difference of busy time per mille between the busiest and the least loaded workers to migrate a session.
+     */
+    private static final int MIGRATION_THRESHOLD = 200;
+
+    private final ChannelWorkerThread[] workers;
+    private final boolean migrate;
+    private final long[] busyNanos;
+    private final long[] readBytes;
+    private long lastSample = System.nanoTime();
+
+    /**
+     * Creates a new balancer.
+     *
+     * @param workers The workers to balance.
+     * @param migrate Whether hot sessions are migrated between workers.
+     */
+    WorkerBalancer(final @NotNull ChannelWorkerThread[] workers, final boolean migrate) {
+        this.workers = workers;
+        this.migrate = migrate;
+        this.busyNanos = new long[workers.length];
+        this.readBytes = new long[workers.length];
+    }
+
+    /**
+     * Samples the load of every worker and the bytes read by their sessions since the previous sample, and requests a
+     * migration if needed.
+     */
+    @Override
+    public void run() {
+        final long now = System.nanoTime();
+        final long elapsed = Math.max(now - this.lastSample, 1L);
+        this.lastSample = now;
+
+        int busiest = 0;
+        int idlest = 0;
+        final long[] bytes = new long[this.workers.length];
+        for (int i = 0; i < this.workers.length; i++) {
+            final ChannelWorkerThread worker = this.workers[i];
+            worker.requestSample();
+            final long busy = worker.getBusyNanos();
+            final long read = worker.getReadBytes();
+            worker.setLoad((int) Math.min(1000L, (busy - this.busyNanos[i]) * 1000L / elapsed));
+            bytes[i] = read - this.readBytes[i];
+            this.busyNanos[i] = busy;
+            this.readBytes[i] = read;
+
+            if (worker.getLoad() > this.workers[busiest].getLoad()) {
+                busiest = i;
+            }
+            if (worker.getLoad() < this.workers[idlest].getLoad()) {
+                idlest = i;
+            }
+        }
+
+        if (!this.migrate || busiest == idlest) {
+            return;
+        }
+        final ChannelWorkerThread source = this.workers[busiest];
+        if (source.getLoad() - this.workers[idlest].getLoad() < MIGRATION_THRESHOLD || source.getSessionCount() < 2) {
+            return;
+        }
+        // Moving more than half of the difference would only swap the roles of both workers
+        final long budget = (bytes[busiest] - bytes[idlest]) / 2L;
+        if (budget > 0L) {
+            source.requestMigration(this.workers[idlest], budget);
+        }
+    }
+
+    /**
+     * Chooses the worker of a new session: the least loaded one, or the one with the fewest connections among similar loads.
+     *
+     * @return The chosen worker.
+     */
+    @NotNull
+    ChannelWorkerThread place() {
+        ChannelWorkerThread chosen = this.workers[0];
+        for (int i = 1; i < this.workers.length; i++) {
+            final ChannelWorkerThread worker = this.workers[i];
+            final int step = worker.getLoad() / LOAD_STEP;
+            final int chosenStep = chosen.getLoad() / LOAD_STEP;
+            if (step < chosenStep || (step == chosenStep && worker.getSessionCount() < chosen.getSessionCount())) {
+                chosen = worker;
+            }
+        }
+        chosen.incrementSessionCount();
+        return chosen;
+    }
+
+}
\ No newline at end of file
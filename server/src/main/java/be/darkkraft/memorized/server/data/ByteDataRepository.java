@@ -1,19 +1,27 @@
 package be.darkkraft.memorized.server.data;
 
 import be.darkkraft.memorized.server.data.container.DataContainer;
-import it.unimi.dsi.fastutil.bytes.Byte2ObjectMap;
-import it.unimi.dsi.fastutil.bytes.Byte2ObjectOpenHashMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Implementation of {@link DataRepository} that uses Byte as the key type.
  * Manages data containers and provides methods for key serialization and deserialization.
+ * <p>Containers can be registered while the server is running, lookups never take a lock.</p>
  */
 public final class ByteDataRepository implements DataRepository<Byte> {
 
-    private final Byte2ObjectMap<DataContainer> containers = new Byte2ObjectOpenHashMap<>();
+    /**
+     * One slot per possible key, indexed by the unsigned value of the key.
+     */
+    private final AtomicReferenceArray<DataContainer> containers = new AtomicReferenceArray<>(256);
+
+    private final AtomicLong generation = new AtomicLong();
 
     /**
      * Registers a data container with the given key.
@@ -22,7 +30,52 @@ public final class ByteDataRepository implements DataRepository<Byte> {
      * @param container The data container to register.
      */
     public void register(final byte key, final @NotNull DataContainer container) {
-        this.containers.put(key, container);
+        this.containers.set(key & 0xFF, Objects.requireNonNull(container, "Container cannot be null"));
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Registers a data container with the given key, unless a container is already associated with it.
+     *
+     * @param key       The key to associate with the data container.
+     * @param container The data container to register.
+     *
+     * @return {@code true} if the container was registered, {@code false} if the key was already in use.
+     */
+    @Override
+    public boolean registerIfAbsent(final @NotNull Byte key, final @NotNull DataContainer container) {
+        if (!this.containers.compareAndSet(key & 0xFF, null, Objects.requireNonNull(container, "Container cannot be null"))) {
+            return false;
+        }
+        this.generation.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes the data container associated with the given key.
+     *
+     * @param key The key of the data container to remove.
+     *
+     * @return The removed data container, or {@code null} if no container was associated with the key.
+     */
+    @Override
+    public @Nullable DataContainer unregister(final @NotNull Byte key) {
+        final DataContainer removed = this.containers.getAndSet(key & 0xFF, null);
+        if (removed != null) {
+            this.generation.incrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the data container associated with the given key.
+     *
+     * @param key The key whose associated data container is to be returned.
+     *
+     * @return The data container associated with the specified key, or {@code null} if no container is found.
+     */
+    public @Nullable DataContainer getContainer(final byte key) {
+        return this.containers.get(key & 0xFF);
     }
 
     /**
@@ -34,7 +87,19 @@ public final class ByteDataRepository implements DataRepository<Byte> {
      */
     @Override
     public DataContainer getContainer(final @NotNull Byte key) {
-        return this.containers.get(key.byteValue());
+        return this.getContainer(key.byteValue());
+    }
+
+    /**
+     * Reads the key from the given buffer and retrieves the associated data container without boxing the key.
+     *
+     * @param buffer The buffer from which to read the key.
+     *
+     * @return The data container associated with the key, or {@code null} if no container is found.
+     */
+    @Override
+    public @Nullable DataContainer readContainer(final @NotNull ByteBuffer buffer) {
+        return this.getContainer(buffer.get());
     }
 
     /**
@@ -49,6 +114,16 @@ public final class ByteDataRepository implements DataRepository<Byte> {
         return buffer.get();
     }
 
+    /**
+     * Gets the generation of this repository, incremented after each registration or removal.
+     *
+     * @return The generation of this repository.
+     */
+    @Override
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
     /**
      * Gets the class type of the key used in this repository.
      *
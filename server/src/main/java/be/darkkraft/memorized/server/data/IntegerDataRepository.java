@@ -1,19 +1,44 @@
 package be.darkkraft.memorized.server.data;
 
 import be.darkkraft.memorized.server.data.container.DataContainer;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implementation of {@link DataRepository} that uses Integer as the key type.
  * Manages data containers and provides methods for key serialization and deserialization.
+ * <p>Containers can be registered while the server is running, lookups never take a lock.</p>
  */
 public final class IntegerDataRepository implements DataRepository<Integer> {
 
-    private final Int2ObjectMap<DataContainer> containers = new Int2ObjectOpenHashMap<>();
+    /**
+     * Initial number of buckets, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Lock writeLock = new ReentrantLock();
+
+    /**
+     * Buckets of immutable chains. Lookups only perform a volatile read of the table and of their bucket.
+     * Writers are serialised by the write lock and replace the chain of a single bucket, the table is only copied
+     * when it doubles, so that registering thousands of containers at runtime never blocks readers and costs a
+     * constant amortised time.
+     */
+    private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    /**
+     * Number of registered containers, guarded by the write lock.
+     */
+    private int size;
+
+    private final AtomicLong generation = new AtomicLong();
 
     /**
      * Registers a data container with the given key.
@@ -22,7 +47,78 @@ public final class IntegerDataRepository implements DataRepository<Integer> {
      * @param container The data container to register.
      */
     public void register(final int key, final @NotNull DataContainer container) {
-        this.containers.put(key, container);
+        Objects.requireNonNull(container, "Container cannot be null");
+        this.writeLock.lock();
+        try {
+            this.put(key, container, false);
+        } finally {
+            this.writeLock.unlock();
+        }
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Registers a data container with the given key, unless a container is already associated with it.
+     *
+     * @param key       The key to associate with the data container.
+     * @param container The data container to register.
+     *
+     * @return {@code true} if the container was registered, {@code false} if the key was already in use.
+     */
+    @Override
+    public boolean registerIfAbsent(final @NotNull Integer key, final @NotNull DataContainer container) {
+        Objects.requireNonNull(container, "Container cannot be null");
+        this.writeLock.lock();
+        try {
+            if (this.put(key, container, true) != null) {
+                return false;
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+        this.generation.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes the data container associated with the given key.
+     *
+     * @param key The key of the data container to remove.
+     *
+     * @return The removed data container, or {@code null} if no container was associated with the key.
+     */
+    @Override
+    public @Nullable DataContainer unregister(final @NotNull Integer key) {
+        final int intKey = key;
+        final DataContainer removed;
+        this.writeLock.lock();
+        try {
+            final AtomicReferenceArray<Node> table = this.table;
+            final int index = index(intKey, table.length());
+            final Node head = table.get(index);
+            removed = find(head, intKey);
+            if (removed == null) {
+                return null;
+            }
+            table.set(index, without(head, intKey));
+            this.size--;
+        } finally {
+            this.writeLock.unlock();
+        }
+        this.generation.incrementAndGet();
+        return removed;
+    }
+
+    /**
+     * Retrieves the data container associated with the given key.
+     *
+     * @param key The key whose associated data container is to be returned.
+     *
+     * @return The data container associated with the specified key, or {@code null} if no container is found.
+     */
+    public @Nullable DataContainer getContainer(final int key) {
+        final AtomicReferenceArray<Node> table = this.table;
+        return find(table.get(index(key, table.length())), key);
     }
 
     /**
@@ -34,7 +130,19 @@ public final class IntegerDataRepository implements DataRepository<Integer> {
      */
     @Override
     public DataContainer getContainer(final @NotNull Integer key) {
-        return this.containers.get(key.intValue());
+        return this.getContainer(key.intValue());
+    }
+
+    /**
+     * Reads the key from the given buffer and retrieves the associated data container without boxing the key.
+     *
+     * @param buffer The buffer from which to read the key.
+     *
+     * @return The data container associated with the key, or {@code null} if no container is found.
+     */
+    @Override
+    public @Nullable DataContainer readContainer(final @NotNull ByteBuffer buffer) {
+        return this.getContainer(buffer.getInt());
     }
 
     /**
@@ -49,6 +157,16 @@ public final class IntegerDataRepository implements DataRepository<Integer> {
         return buffer.getInt();
     }
 
+    /**
+     * Gets the generation of this repository, incremented after each registration or removal.
+     *
+     * @return The generation of this repository.
+     */
+    @Override
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
     /**
      * Gets the class type of the key used in this repository.
      *
@@ -69,4 +187,71 @@ public final class IntegerDataRepository implements DataRepository<Integer> {
         return 2;
     }
 
+    /**
+     * Associates a container with a key, the write lock must be held.
+     *
+     * @param key          The key to associate with the data container.
+     * @param container    The data container to register.
+     * @param onlyIfAbsent Whether a container already associated with the key is kept.
+     *
+     * @return The container previously associated with the key, or {@code null} if there was none.
+     */
+    private @Nullable DataContainer put(final int key, final @NotNull DataContainer container, final boolean onlyIfAbsent) {
+        final AtomicReferenceArray<Node> table = this.table;
+        final int index = index(key, table.length());
+        final Node head = table.get(index);
+        final DataContainer previous = find(head, key);
+        if (previous != null) {
+            if (!onlyIfAbsent) {
+                table.set(index, new Node(key, container, without(head, key)));
+            }
+            return previous;
+        }
+        table.set(index, new Node(key, container, head));
+        if (++this.size > table.length() - (table.length() >>> 2)) {
+            this.table = grow(table);
+        }
+        return null;
+    }
+
+    /**
+     * Copies the chains of a table into a table twice as large, which is only published once complete.
+     */
+    private static @NotNull AtomicReferenceArray<Node> grow(final @NotNull AtomicReferenceArray<Node> table) {
+        final AtomicReferenceArray<Node> grown = new AtomicReferenceArray<>(table.length() << 1);
+        for (int i = 0; i < table.length(); i++) {
+            for (Node node = table.get(i); node != null; node = node.next) {
+                final int index = index(node.key, grown.length());
+                grown.lazySet(index, new Node(node.key, node.container, grown.get(index)));
+            }
+        }
+        return grown;
+    }
+
+    private static @Nullable DataContainer find(@Nullable Node node, final int key) {
+        for (; node != null; node = node.next) {
+            if (node.key == key) {
+                return node.container;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the nodes of a chain preceding the key, so that the chain seen by concurrent lookups is never modified.
+     */
+    private static @Nullable Node without(final @Nullable Node node, final int key) {
+        if (node == null) {
+            return null;
+        }
+        return node.key == key ? node.next : new Node(node.key, node.container, without(node.next, key));
+    }
+
+    private static int index(final int key, final int length) {
+        return (key ^ (key >>> 16)) & (length - 1);
+    }
+
+    private record Node(int key, @NotNull DataContainer container, @Nullable Node next) {
+    }
+
 }
\ No newline at end of file
@@ -7,19 +7,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementation of {@link DataRepository} that uses String as the key type.
  * Manages data containers and provides methods for key serialization and deserialization.
+ * <p>Containers can be registered while the server is running, lookups never take a lock.</p>
  */
 public final class StringDataRepository implements DataRepository<String> {
 
     private final CodecRegistry codecRegistry;
 
-    private final Map<String, DataContainer> containers = new HashMap<>();
+    private final Map<String, DataContainer> containers = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
 
     /**
      * Constructs a new {@link StringDataRepository} with the given {@link CodecRegistry}.
@@ -38,7 +42,41 @@ public final class StringDataRepository implements DataRepository<String> {
      * @param container The data container to register.
      */
     public void register(final @NotNull String key, final @NotNull DataContainer container) {
-        this.containers.put(key, container);
+        this.containers.put(Objects.requireNonNull(key, "Key cannot be null"), Objects.requireNonNull(container, "Container cannot be null"));
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Registers a data container with the given key, unless a container is already associated with it.
+     *
+     * @param key       The key to associate with the data container.
+     * @param container The data container to register.
+     *
+     * @return {@code true} if the container was registered, {@code false} if the key was already in use.
+     */
+    @Override
+    public boolean registerIfAbsent(final @NotNull String key, final @NotNull DataContainer container) {
+        if (this.containers.putIfAbsent(Objects.requireNonNull(key, "Key cannot be null"), Objects.requireNonNull(container, "Container cannot be null")) != null) {
+            return false;
+        }
+        this.generation.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes the data container associated with the given key.
+     *
+     * @param key The key of the data container to remove.
+     *
+     * @return The removed data container, or {@code null} if no container was associated with the key.
+     */
+    @Override
+    public @Nullable DataContainer unregister(final @NotNull String key) {
+        final DataContainer removed = this.containers.remove(key);
+        if (removed != null) {
+            this.generation.incrementAndGet();
+        }
+        return removed;
     }
 
     /**
@@ -65,6 +103,16 @@ public final class StringDataRepository implements DataRepository<String> {
         return this.codecRegistry.decode(buffer, String.class);
     }
 
+    /**
+     * Gets the generation of this repository, incremented after each registration or removal.
+     *
+     * @return The generation of this repository.
+     */
+    @Override
+    public long getGeneration() {
+        return this.generation.get();
+    }
+
     /**
      * Gets the class type of the key used in this repository.
      *
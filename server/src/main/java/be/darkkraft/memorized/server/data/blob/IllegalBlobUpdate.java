@@ -0,0 +1,24 @@
+package be.darkkraft.memorized.server.data.blob;
+
+/**
+ * Exception thrown when an illegal or invalid blob update is encountered.
+ */
+public final class IllegalBlobUpdate extends RuntimeException {
+
+    /**
+     * Constructs a new {@link IllegalBlobUpdate} with no detail message.
+     */
+    public IllegalBlobUpdate() {
+        super("Illegal or invalid blob update encountered.");
+    }
+
+    /**
+     * Constructs a new {@link IllegalBlobUpdate} with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public IllegalBlobUpdate(final String message) {
+        super(message);
+    }
+
+}
\ No newline at end of file
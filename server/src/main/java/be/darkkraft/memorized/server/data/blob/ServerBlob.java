@@ -0,0 +1,320 @@
+package be.darkkraft.memorized.server.data.blob;
+
+import be.darkkraft.memorized.data.blob.BlobUpdate;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side container of a large binary value, written and read in chunks so that the value is never held by a
+ * single packet.
+ * <p>A value is uploaded with {@link BlobUpdate} steps: the chunks are staged per session, then the commit replaces
+ * the value at once, so that readers never see a partial upload. Each session stages at most one upload of a blob,
+ * bounded by the maximum size of the blob.</p>
+ * <p>The value is kept as the chunks it was uploaded with, and read by ranges. Each value has a version, so that a
+ * client reading it in several requests notices a replacement.</p>
+ */
+public class ServerBlob implements DataContainer {
+
+    /**
+     * Uploads not appended to for this duration are dropped when another upload starts.
+     */
+    private static final long UPLOAD_TIMEOUT = 60_000L;
+
+    /**
+     * Size of the response header of a read: the packet identifier, the version and the size of the value.
+     */
+    private static final int READ_HEADER_SIZE = 17;
+
+    private static final Value EMPTY = new Value(0L, new byte[0][], new long[]{0L});
+
+    @NotNull
+    private final MemorizedServer server;
+    private final long maximumSize;
+
+    private volatile Value value = EMPTY;
+    @NotNull
+    private final AtomicLong nextVersion = new AtomicLong();
+
+    @NotNull
+    private final Map<Integer, Upload> uploads = new ConcurrentHashMap<>();
+    @NotNull
+    private final AtomicInteger nextUpload = new AtomicInteger();
+
+    /**
+     * Constructs a new {@link ServerBlob}.
+     *
+     * @param server      The server instance that provides the packet size limit.
+     * @param maximumSize The maximum size of the value in bytes.
+     */
+    @Contract(pure = true)
+    public ServerBlob(final @NotNull MemorizedServer server, final long maximumSize) {
+        if (maximumSize < 0L) {
+            throw new IllegalArgumentException("Maximum size cannot be negative");
+        }
+        this.server = server;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Handles the steps of an upload based on the provided {@link BlobUpdate} and buffer.
+     * <ul>
+     *     <li>{@link BlobUpdate#BEGIN} is followed by the total size, and answered with the identifier of the upload,
+     *     {@code 0} if the size exceeds the maximum size. A previous upload of the session is dropped.</li>
+     *     <li>{@link BlobUpdate#APPEND} is followed by the identifier of the upload then the bytes of a chunk, and
+     *     answered with the number of bytes staged, {@code -1} if the upload is unknown or exceeds its size.</li>
+     *     <li>{@link BlobUpdate#COMMIT} is followed by the identifier of the upload, and answered with the version of
+     *     the new value, {@code 0} if the upload is unknown or incomplete.</li>
+     *     <li>{@link BlobUpdate#ABORT} is followed by the identifier of the upload, and answered with an empty result.</li>
+     * </ul>
+     *
+     * @param session The session associated with the client.
+     * @param buffer  The buffer containing the update details.
+     */
+    @Override
+    public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        final BlobUpdate update = BlobUpdate.fromId(buffer.get());
+        if (update == null) {
+            throw new IllegalBlobUpdate();
+        }
+        final Session origin = session.origin();
+        switch (update) {
+            case BEGIN -> session.unsafeSend(ServerPacket.RESULT.getId(), this.begin(origin, buffer.getLong()));
+            case APPEND -> {
+                final Upload upload = this.find(origin, buffer.getInt());
+                final long staged = upload != null ? upload.append(buffer) : -1L;
+                if (staged < 0L && upload != null) {
+                    this.uploads.remove(upload.id);
+                }
+                session.unsafeSend(session.response(ServerPacket.RESULT.getId()).putLong(staged));
+            }
+            case COMMIT -> {
+                final Upload upload = this.find(origin, buffer.getInt());
+                long version = 0L;
+                if (upload != null) {
+                    this.uploads.remove(upload.id);
+                    if (upload.isComplete()) {
+                        version = this.replace(upload.chunks.toArray(new byte[0][]));
+                    }
+                }
+                session.unsafeSend(session.response(ServerPacket.RESULT.getId()).putLong(version));
+            }
+            case ABORT -> {
+                final Upload upload = this.find(origin, buffer.getInt());
+                if (upload != null) {
+                    this.uploads.remove(upload.id);
+                }
+                session.unsafeSend(ServerPacket.RESULT.getId());
+            }
+            default -> throw new IllegalBlobUpdate();
+        }
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SHOW} interaction by sending a range of the value. The buffer contains the offset
+     * of the range and its maximum length, bounded by the packet size limit of the server. The response contains the
+     * version and the size of the value, then the bytes of the range.
+     *
+     * @param session The session associated with the client.
+     * @param buffer  The buffer containing the offset and the length of the range.
+     */
+    @Override
+    public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        final long offset = buffer.getLong();
+        final int length = buffer.getInt();
+        final Value current = this.value;
+        final ByteBuf result = session.response(ServerPacket.RESULT.getId()).putLong(current.version).putLong(current.size());
+        if (offset >= 0L && offset < current.size() && length > 0) {
+            current.read(result, offset, (int) Math.min(Math.min(length, this.server.getPacketSizeLimit() - READ_HEADER_SIZE), current.size() - offset));
+        }
+        session.unsafeSend(result);
+    }
+
+    /**
+     * Gets a copy of the value. Large values should rather be read by ranges by the clients.
+     *
+     * @return The value.
+     *
+     * @throws IllegalStateException If the value is too big for an array.
+     */
+    public byte @NotNull [] getBytes() {
+        final Value current = this.value;
+        if (current.size() > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Value is too big for an array");
+        }
+        final byte[] bytes = new byte[(int) current.size()];
+        for (int i = 0; i < current.chunks.length; i++) {
+            System.arraycopy(current.chunks[i], 0, bytes, (int) current.starts[i], current.chunks[i].length);
+        }
+        return bytes;
+    }
+
+    /**
+     * Replaces the value.
+     *
+     * @param value The new value.
+     *
+     * @throws IllegalArgumentException If the value exceeds the maximum size.
+     */
+    public void set(final byte @NotNull [] value) {
+        if (value.length > this.maximumSize) {
+            throw new IllegalArgumentException("Value exceeds the maximum size of the blob");
+        }
+        this.replace(new byte[][]{value.clone()});
+    }
+
+    /**
+     * Gets the size of the value.
+     *
+     * @return The size in bytes.
+     */
+    @Contract(pure = true)
+    public long size() {
+        return this.value.size();
+    }
+
+    /**
+     * Gets the version of the value, {@code 0} if it was never set.
+     *
+     * @return The version.
+     */
+    @Contract(pure = true)
+    public long getVersion() {
+        return this.value.version;
+    }
+
+    /**
+     * Gets the maximum size of the value.
+     *
+     * @return The maximum size in bytes.
+     */
+    @Contract(pure = true)
+    public long getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    private int begin(final @NotNull Session session, final long size) {
+        // Uploads of closed sessions, given up ones and the previous upload of the session are dropped
+        final long expiry = System.currentTimeMillis() - UPLOAD_TIMEOUT;
+        this.uploads.values().removeIf(upload -> upload.session == session || upload.lastAccess < expiry || !upload.session.getChannel().isOpen());
+        if (size < 0L || size > this.maximumSize) {
+            return 0;
+        }
+        int id;
+        do {
+            id = this.nextUpload.incrementAndGet();
+        } while (id == 0);
+        this.uploads.put(id, new Upload(id, session, size));
+        return id;
+    }
+
+    @Nullable
+    private Upload find(final @NotNull Session session, final int id) {
+        final Upload upload = this.uploads.get(id);
+        return upload != null && upload.session == session ? upload : null;
+    }
+
+    private long replace(final byte @NotNull [] @NotNull [] chunks) {
+        final long[] starts = new long[chunks.length + 1];
+        for (int i = 0; i < chunks.length; i++) {
+            starts[i + 1] = starts[i] + chunks[i].length;
+        }
+        final long version = this.nextVersion.incrementAndGet();
+        this.value = new Value(version, chunks, starts);
+        return version;
+    }
+
+    /**
+     * Committed value, never modified.
+     *
+     * @param version The version of the value.
+     * @param chunks  The chunks of the value.
+     * @param starts  The offset of each chunk, followed by the size of the value.
+     */
+    private record Value(long version, byte @NotNull [] @NotNull [] chunks, long @NotNull [] starts) {
+
+        private long size() {
+            return this.starts[this.chunks.length];
+        }
+
+        private void read(final @NotNull ByteBuf buffer, final long offset, final int length) {
+            int index = Arrays.binarySearch(this.starts, 0, this.chunks.length, offset);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            int remaining = length;
+            int from = (int) (offset - this.starts[index]);
+            while (remaining > 0) {
+                final byte[] chunk = this.chunks[index++];
+                final int count = Math.min(remaining, chunk.length - from);
+                buffer.put(ByteBuffer.wrap(chunk, from, count));
+                remaining -= count;
+                from = 0;
+            }
+        }
+
+    }
+
+    /**
+     * Chunks of a value staged by a session until committed.
+     * Accessed by one request of its session at a time.
+     */
+    private static final class Upload {
+
+        private final int id;
+        @NotNull
+        private final Session session;
+        private final long size;
+        @NotNull
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long staged;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Upload(final int id, final @NotNull Session session, final long size) {
+            this.id = id;
+            this.session = session;
+            this.size = size;
+        }
+
+        /**
+         * Stages the remaining bytes of a buffer, copied since the buffer of the session is reused.
+         *
+         * @return The number of bytes staged, or {@code -1} if the upload would exceed its size.
+         */
+        private long append(final @NotNull ByteBuffer buffer) {
+            final int length = buffer.remaining();
+            if (this.staged + length > this.size) {
+                return -1L;
+            }
+            if (length > 0) {
+                final byte[] chunk = new byte[length];
+                buffer.get(chunk);
+                this.chunks.add(chunk);
+                this.staged += length;
+            }
+            this.lastAccess = System.currentTimeMillis();
+            return this.staged;
+        }
+
+        private boolean isComplete() {
+            return this.staged == this.size;
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package be.darkkraft.memorized.server.data.channel;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.Notifier;
+import be.darkkraft.memorized.server.data.container.Subscriber;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side message channel: messages published by a client or directly from the server's JVM are delivered to
+ * every subscribed client.
+ * <p>A message is copied once, then the same buffer is queued for each subscriber. Subscribers reading slower than
+ * messages are published have their messages dropped once their queue is full, according to the drop policy of the
+ * server, without slowing down the publisher or the other subscribers.</p>
+ */
+public class ServerMessageChannel implements DataContainer {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Notifiers of the connections subscribed to this container, each one purged from the subscribers once its connection is removed.
+     */
+    private final Set<Notifier> subscribedNotifiers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Handles the {@link ClientPacket#UPDATE} interaction by publishing the remaining bytes of the buffer, then sends
+     * the number of subscribers that accepted the message back to the client.
+     *
+     * @param session The session associated with the client.
+     * @param buffer  The buffer containing the message.
+     */
+    @Override
+    public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        session.unsafeSend(ServerPacket.RESULT.getId(), this.publish(buffer));
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SHOW} interaction by sending the number of subscribers to the client.
+     *
+     * @param session The session associated with the client.
+     * @param buffer  The buffer containing the show request.
+     */
+    @Override
+    public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        session.unsafeSend(ServerPacket.RESULT.getId(), this.subscribers.size());
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SUBSCRIBE} interaction, delivering the next messages to the client.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the subscription.
+     */
+    @Override
+    public void handleSubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        this.subscribers.add(new Subscriber(notifier, buffer.getInt()));
+        // Registered after subscribing, so that a connection removed meanwhile is purged right away
+        if (this.subscribedNotifiers.add(notifier)) {
+            notifier.onRemoval(() -> this.forget(notifier));
+        }
+    }
+
+    /**
+     * Handles the {@link ClientPacket#UNSUBSCRIBE} interaction.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the subscription.
+     */
+    @Override
+    public void handleUnsubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        this.subscribers.remove(new Subscriber(notifier, buffer.getInt()));
+    }
+
+    /**
+     * Publishes a message to the subscribers of this channel. The remaining bytes of the buffer are copied, so the
+     * buffer can be reused once this method returns.
+     *
+     * @param message The message, from its position to its limit.
+     *
+     * @return The number of subscribers that accepted the message, the others dropped it.
+     */
+    public int publish(final @NotNull ByteBuffer message) {
+        if (this.subscribers.isEmpty()) {
+            message.position(message.limit());
+            return 0;
+        }
+        final ByteBuffer shared = ByteBuffer.allocate(message.remaining()).put(message).flip().asReadOnlyBuffer();
+        int accepted = 0;
+        for (final Subscriber subscriber : this.subscribers) {
+            if (!subscriber.notifier().isOpen()) {
+                this.subscribers.remove(subscriber);
+            } else if (subscriber.deliver(shared)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Drops the subscriptions of a removed connection.
+     *
+     * @param notifier The notifier of the connection.
+     */
+    private void forget(final @NotNull Notifier notifier) {
+        this.subscribedNotifiers.remove(notifier);
+        this.subscribers.removeIf(subscriber -> subscriber.notifier() == notifier);
+    }
+
+    /**
+     * Gets the number of subscribers of this channel.
+     *
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return this.subscribers.size();
+    }
+
+}
\ No newline at end of file
@@ -3,21 +3,35 @@ package be.darkkraft.memorized.server.data.counter;
 import be.darkkraft.memorized.data.counter.CounterUpdate;
 import be.darkkraft.memorized.data.counter.IntCounter;
 import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
 import be.darkkraft.memorized.packet.ClientPacket;
 import be.darkkraft.memorized.packet.ServerPacket;
 import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.Notifier;
+import be.darkkraft.memorized.server.data.container.Subscriber;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Server-side implementation of an {@link IntCounter}.
- * Provides methods for updating and showing the counter's value.
+ * Provides methods for updating and showing the counter's value, through packets or directly from the server's JVM.
+ * <p>Subscribed clients are notified of the new value after each change.</p>
  */
 public class ServerIntCounter implements DataContainer {
 
     private final AtomicInteger value = new AtomicInteger();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Notifiers of the connections subscribed to this container, each one purged from the subscribers once its connection is removed.
+     */
+    private final Set<Notifier> subscribedNotifiers = ConcurrentHashMap.newKeySet();
+    private final Consumer<ByteBuf> payload = buffer -> buffer.putInt(this.get());
 
     /**
      * Handles updates to the counter based on the provided {@link CounterUpdate} and buffer.
@@ -35,18 +49,18 @@ public class ServerIntCounter implements DataContainer {
         final int delta = buffer.getInt();
         final int result;
         switch (update) {
-            case INCREMENT_AND_GET -> result = this.value.addAndGet(delta);
-            case DECREMENT_AND_GET -> result = this.value.addAndGet(-delta);
-            case GET_AND_SET -> result = this.value.getAndSet(delta);
-            case GET_AND_INCREMENT -> result = this.value.getAndAdd(delta);
-            case GET_AND_DECREMENT -> result = this.value.getAndAdd(-delta);
+            case INCREMENT_AND_GET -> result = this.addAndGet(delta);
+            case DECREMENT_AND_GET -> result = this.addAndGet(-delta);
+            case GET_AND_SET -> result = this.getAndSet(delta);
+            case GET_AND_INCREMENT -> result = this.getAndAdd(delta);
+            case GET_AND_DECREMENT -> result = this.getAndAdd(-delta);
             case RESET -> {
-                this.value.set(0);
+                this.set(0);
                 return;
             }
             default -> throw new IllegalCounterUpdate();
         }
-        session.unsafeSend(ByteBuffer.allocate(5).put(ServerPacket.RESULT.getId()).putInt(result));
+        session.unsafeSend(ServerPacket.RESULT.getId(), result);
     }
 
     /**
@@ -58,7 +72,115 @@ public class ServerIntCounter implements DataContainer {
      */
     @Override
     public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
-        session.unsafeSend(ByteBuffer.allocate(5).put(ServerPacket.RESULT.getId()).putInt(this.value.get()));
+        session.unsafeSend(ServerPacket.RESULT.getId(), this.get());
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SUBSCRIBE} interaction, notifying the client of the value of the counter after
+     * each change.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the subscription.
+     */
+    @Override
+    public void handleSubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        this.subscribers.add(new Subscriber(notifier, buffer.getInt()));
+        // Registered after subscribing, so that a connection removed meanwhile is purged right away
+        if (this.subscribedNotifiers.add(notifier)) {
+            notifier.onRemoval(() -> this.forget(notifier));
+        }
+    }
+
+    /**
+     * Handles the {@link ClientPacket#UNSUBSCRIBE} interaction.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the subscription.
+     */
+    @Override
+    public void handleUnsubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        this.subscribers.remove(new Subscriber(notifier, buffer.getInt()));
+    }
+
+    /**
+     * Gets the current value of the counter.
+     *
+     * @return The current value.
+     */
+    public int get() {
+        return this.value.get();
+    }
+
+    /**
+     * Sets the value of the counter.
+     *
+     * @param value The new value.
+     */
+    public void set(final int value) {
+        this.value.set(value);
+        this.notifySubscribers();
+    }
+
+    /**
+     * Sets the value of the counter and returns the previous one.
+     *
+     * @param value The new value.
+     *
+     * @return The previous value.
+     */
+    public int getAndSet(final int value) {
+        final int previous = this.value.getAndSet(value);
+        this.notifySubscribers();
+        return previous;
+    }
+
+    /**
+     * Adds a delta to the counter and returns the updated value.
+     *
+     * @param delta The delta to add, negative to decrement the counter.
+     *
+     * @return The updated value.
+     */
+    public int addAndGet(final int delta) {
+        final int result = this.value.addAndGet(delta);
+        this.notifySubscribers();
+        return result;
+    }
+
+    /**
+     * Adds a delta to the counter and returns the previous value.
+     *
+     * @param delta The delta to add, negative to decrement the counter.
+     *
+     * @return The previous value.
+     */
+    public int getAndAdd(final int delta) {
+        final int previous = this.value.getAndAdd(delta);
+        this.notifySubscribers();
+        return previous;
+    }
+
+    /**
+     * Drops the subscriptions of a removed connection.
+     *
+     * @param notifier The notifier of the connection.
+     */
+    private void forget(final @NotNull Notifier notifier) {
+        this.subscribedNotifiers.remove(notifier);
+        this.subscribers.removeIf(subscriber -> subscriber.notifier() == notifier);
+    }
+
+    private void notifySubscribers() {
+        if (this.subscribers.isEmpty()) {
+            return;
+        }
+        for (final Subscriber subscriber : this.subscribers) {
+            if (subscriber.notifier().isOpen()) {
+                subscriber.notify(null, this.payload);
+            } else {
+                this.subscribers.remove(subscriber);
+            }
+        }
     }
 
 }
\ No newline at end of file
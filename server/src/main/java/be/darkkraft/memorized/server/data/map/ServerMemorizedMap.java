@@ -9,27 +9,60 @@ import be.darkkraft.memorized.packet.ClientPacket;
 import be.darkkraft.memorized.packet.ServerPacket;
 import be.darkkraft.memorized.server.MemorizedServer;
 import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.Notifier;
+import be.darkkraft.memorized.server.data.container.Subscriber;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Server-side implementation of {@link MemorizedMap}.
- * Provides methods for updating and showing the values based on keys.
+ * Provides methods for updating and showing the values based on keys, through packets or directly from the server's JVM.
+ * <p>Clients caching a value are tracked until the value changes, then told with a {@link ServerPacket#INVALIDATE}
+ * packet, queued by the {@link Notifier} of their connection. Tracking ends with the push, a cache is tracked again when
+ * it reads the key again, and the caches of a client are forgotten once its connection is removed.</p>
+ * <p>Clients subscribed to a key or to the whole map are notified of the new value of each changed key.</p>
+ * <p>Clients can enumerate the map in chunks with a {@link ClientPacket#SCAN} cursor. Entries present during the whole
+ * enumeration are returned exactly once, entries changed meanwhile may or may not be.</p>
  *
  * @param <K> the type of keys maintained by this map.
  * @param <V> the type of values maintained by this map.
  */
 public class ServerMemorizedMap<K, V> implements DataContainer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerMemorizedMap.class);
+
+    /**
+     * Scan cursors not used for this duration are released when a new scan starts.
+     */
+    private static final long SCAN_CURSOR_TIMEOUT = 60_000L;
+
+    /**
+     * Cursor answered instead of a chunk once the next entry of a scan exceeds the packet size limit.
+     */
+    private static final long SCAN_FAILED = -1L;
+
+    /**
+     * Buffer of each thread in which the entries of a scan are encoded before being copied to the response.
+     */
+    private static final ThreadLocal<ByteBuf> SCAN_SCRATCH = ThreadLocal.withInitial(ByteBuf::new);
+
     @NotNull
     private final MemorizedServer server;
 
     @NotNull
-    private final Map<K, V> map = new ConcurrentHashMap<>();
+    private final Map<K, V> map;
 
     @NotNull
     private final Class<K> keyClass;
@@ -37,6 +70,30 @@ public class ServerMemorizedMap<K, V> implements DataContainer {
     @NotNull
     private final Class<V> valueClass;
 
+    /**
+     * Caches of the clients holding each key. Sets are only accessed inside the atomic operations of the map.
+     */
+    @NotNull
+    private final Map<K, Set<Tracker>> trackers = new ConcurrentHashMap<>();
+
+    /**
+     * Notifiers of the connections tracking or subscribed to this map, each one purged from the trackers and the
+     * subscribers once its connection is removed.
+     */
+    @NotNull
+    private final Set<Notifier> knownNotifiers = ConcurrentHashMap.newKeySet();
+
+    @NotNull
+    private final Map<K, Set<Subscriber>> keySubscribers = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @NotNull
+    private final Map<Long, ScanCursor<K, V>> cursors = new ConcurrentHashMap<>();
+    @NotNull
+    private final AtomicLong nextCursor = new AtomicLong();
+
     /**
      * Constructs a new {@link ServerMemorizedMap} with the given server instance and key-value classes.
      *
@@ -46,6 +103,21 @@ public class ServerMemorizedMap<K, V> implements DataContainer {
      */
     @Contract(pure = true)
     public ServerMemorizedMap(final @NotNull MemorizedServer server, final @NotNull Class<K> keyClass, final @NotNull Class<V> valueClass) {
+        this(server, keyClass, valueClass, 0);
+    }
+
+    /**
+     * Constructs a new {@link ServerMemorizedMap} pre-sized for the expected number of entries,
+     * avoiding rehashing while the map is being filled.
+     *
+     * @param server          The server instance that provides the codec registry.
+     * @param keyClass        The class type of the keys.
+     * @param valueClass      The class type of the values.
+     * @param initialCapacity The expected number of entries, or {@code 0} to use the default capacity.
+     */
+    @Contract(pure = true)
+    public ServerMemorizedMap(final @NotNull MemorizedServer server, final @NotNull Class<K> keyClass, final @NotNull Class<V> valueClass, final int initialCapacity) {
+        this.map = initialCapacity > 0 ? new ConcurrentHashMap<>(initialCapacity) : new ConcurrentHashMap<>();
         this.server = server;
         this.keyClass = keyClass;
         this.valueClass = valueClass;
@@ -69,9 +141,9 @@ public class ServerMemorizedMap<K, V> implements DataContainer {
 
         if (update == MapUpdate.SET) {
             final V value = registry.decode(buffer, this.valueClass);
-            this.map.put(key, value);
+            this.put(key, value);
         } else if (update == MapUpdate.REMOVE) {
-            this.map.remove(key);
+            this.remove(key);
         }
     }
 
@@ -84,18 +156,407 @@ public class ServerMemorizedMap<K, V> implements DataContainer {
      */
     @Override
     public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        final CodecRegistry registry = this.server.getCodecRegistry();
+        this.show(session, registry, registry.decode(buffer, this.keyClass));
+    }
+
+    /**
+     * Handles the {@link ClientPacket#TRACKED_SHOW} interaction like {@link #handleShow}, and tracks the cache of the
+     * client until the value of the key changes.
+     *
+     * @param session  The session associated with the client.
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the cache and the show request.
+     */
+    @Override
+    public void handleTrackedShow(final @NotNull Session session, final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        final int cacheId = buffer.getInt();
         final CodecRegistry registry = this.server.getCodecRegistry();
         final K key = registry.decode(buffer, this.keyClass);
-        final V value = this.map.get(key);
+        if (key != null) {
+            // Tracked before reading, so that a concurrent change is either read or pushed
+            final Tracker tracker = new Tracker(notifier, cacheId);
+            this.trackers.compute(key, (ignored, trackers) -> {
+                final Set<Tracker> set = trackers != null ? trackers : new HashSet<>();
+                set.add(tracker);
+                return set;
+            });
+            // Registered after tracking, so that a connection removed meanwhile is purged right away
+            this.watch(notifier);
+        }
+        this.show(session, registry, key);
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SUBSCRIBE} interaction. The identifier of the subscription is followed by a key
+     * to be notified of the changes of this key only, or by nothing to be notified of the changes of every key.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the subscription and the optional key.
+     */
+    @Override
+    public void handleSubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        final Subscriber subscriber = new Subscriber(notifier, buffer.getInt());
+        if (!buffer.hasRemaining()) {
+            this.subscribers.add(subscriber);
+        } else {
+            final K key = this.server.getCodecRegistry().decode(buffer, this.keyClass);
+            if (key == null) {
+                return;
+            }
+            // Added within the computation, so that the set cannot be dropped as empty in the meantime
+            this.keySubscribers.compute(key, (ignored, subscribers) -> {
+                final Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+        // Registered after subscribing, so that a connection removed meanwhile is purged right away
+        this.watch(notifier);
+    }
+
+    /**
+     * Handles the {@link ClientPacket#UNSUBSCRIBE} interaction, with the same data as the subscription.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param buffer   The buffer containing the identifier of the subscription and the optional key.
+     */
+    @Override
+    public void handleUnsubscribe(final @NotNull Notifier notifier, final @NotNull ByteBuffer buffer) {
+        final Subscriber subscriber = new Subscriber(notifier, buffer.getInt());
+        if (!buffer.hasRemaining()) {
+            this.subscribers.remove(subscriber);
+            return;
+        }
+        final K key = this.server.getCodecRegistry().decode(buffer, this.keyClass);
+        if (key != null) {
+            this.keySubscribers.computeIfPresent(key, (ignored, set) -> set.remove(subscriber) && set.isEmpty() ? null : set);
+        }
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SCAN} interaction by sending the next entries of a cursor, without exceeding the
+     * requested size nor the packet size limit of the server. The response contains the cursor of the next chunk,
+     * {@code 0} once every entry was sent, then the number of entries, then each key and value.
+     * <p>A cursor of {@code 0} starts a new scan. A size of {@code 0} releases the cursor. A cursor unknown or owned by
+     * another session is answered with {@link ServerPacket#NOT_FOUND}. An entry exceeding the packet size limit on its
+     * own cannot be sent: the cursor is released and answered with a cursor of {@code -1} and no entries, so that the
+     * client fails the scan instead of missing the entry.</p>
+     *
+     * @param session The session associated with the client.
+     * @param buffer  The buffer containing the cursor and the maximum size of the response.
+     */
+    @Override
+    public void handleScan(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        final long id = buffer.getLong();
+        final int size = buffer.getInt();
+        final ScanCursor<K, V> cursor;
+        if (id == 0L) {
+            if (size <= 0) {
+                session.unsafeSend(session.response(ServerPacket.RESULT.getId()).putLong(0L).putInt(0));
+                return;
+            }
+            this.releaseIdleCursors();
+            cursor = new ScanCursor<>(this.nextCursor.incrementAndGet(), session.origin(), this.map.entrySet().iterator());
+            this.cursors.put(cursor.id, cursor);
+        } else {
+            cursor = this.cursors.get(id);
+            if (cursor == null || cursor.session != session.origin()) {
+                session.unsafeSend(ServerPacket.NOT_FOUND.getId());
+                return;
+            }
+            if (size <= 0) {
+                this.cursors.remove(id);
+                session.unsafeSend(session.response(ServerPacket.RESULT.getId()).putLong(0L).putInt(0));
+                return;
+            }
+        }
+        synchronized (cursor) {
+            cursor.lastAccess = System.currentTimeMillis();
+            this.writeChunk(session, cursor, Math.min(size, this.server.getPacketSizeLimit()));
+        }
+    }
+
+    /**
+     * Writes the next entries of a cursor. Each entry is encoded in a scratch buffer first and only copied to the
+     * response once known to fit, so that an entry left for the next chunk or too big to be sent never grows the
+     * response.
+     */
+    private void writeChunk(final @NotNull Session session, final @NotNull ScanCursor<K, V> cursor, final int size) {
+        final CodecRegistry registry = this.server.getCodecRegistry();
+        final int limit = this.server.getPacketSizeLimit();
+        final ByteBuf scratch = SCAN_SCRATCH.get();
+        final ByteBuf result = session.response(ServerPacket.RESULT.getId()).putLong(cursor.id);
+        final int header = result.position();
+        result.putInt(0);
+        int count = 0;
+        try {
+            while (cursor.pending != null || cursor.iterator.hasNext()) {
+                final Map.Entry<K, V> entry = cursor.pending != null ? cursor.pending : cursor.iterator.next();
+                cursor.pending = null;
+                scratch.getBuffer().clear();
+                registry.encode(scratch, entry.getKey());
+                registry.encode(scratch, entry.getValue());
+                final int end = result.position() + scratch.position();
+                if (end <= size) {
+                    result.put(scratch.getBuffer().flip());
+                    count++;
+                    continue;
+                }
+                if (count > 0) {
+                    // Sent with the next chunk
+                    cursor.pending = entry;
+                    break;
+                }
+                if (end > limit) {
+                    LOGGER.warn("Scan of a session failed, the entry of key {} exceeds the packet size limit", entry.getKey());
+                    this.cursors.remove(cursor.id);
+                    result.getBuffer().putLong(header - 8, SCAN_FAILED);
+                    session.unsafeSend(result);
+                    return;
+                }
+                // Bigger than the requested size on its own, sent alone so that the scan progresses
+                result.put(scratch.getBuffer().flip());
+                count++;
+                break;
+            }
+        } finally {
+            if (scratch.capacity() > limit) {
+                // Grown by an oversized entry
+                SCAN_SCRATCH.remove();
+            }
+        }
+        if (cursor.pending == null && !cursor.iterator.hasNext()) {
+            this.cursors.remove(cursor.id);
+            result.getBuffer().putLong(header - 8, 0L);
+        }
+        result.getBuffer().putInt(header, count);
+        session.unsafeSend(result);
+    }
+
+    private void releaseIdleCursors() {
+        this.releaseIdleCursors(System.currentTimeMillis());
+    }
+
+    /**
+     * Releases the cursors of closed sessions and the cursors not used for a while, which clients gave up.
+     *
+     * @param now The current time in milliseconds.
+     */
+    void releaseIdleCursors(final long now) {
+        if (this.cursors.isEmpty()) {
+            return;
+        }
+        final long expiry = now - SCAN_CURSOR_TIMEOUT;
+        this.cursors.values().removeIf(cursor -> cursor.lastAccess < expiry || !cursor.session.getChannel().isOpen());
+    }
+
+    private void show(final @NotNull Session session, final @NotNull CodecRegistry registry, final @Nullable K key) {
+        final V value = key != null ? this.get(key) : null;
 
         if (key == null || value == null) {
-            session.unsafeSend(ByteBuffer.allocate(1).put(ServerPacket.NOT_FOUND.getId()));
+            session.unsafeSend(ServerPacket.NOT_FOUND.getId());
             return;
         }
 
-        final ByteBuf result = new ByteBuf().put(ServerPacket.RESULT.getId());
+        final ByteBuf result = session.response(ServerPacket.RESULT.getId());
         registry.encode(result, value);
         session.unsafeSend(result);
     }
 
+    /**
+     * Gets the value associated with a key.
+     *
+     * @param key The key.
+     *
+     * @return The value, or {@code null} if the key has no value.
+     */
+    @Nullable
+    public V get(final @NotNull K key) {
+        return this.map.get(key);
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   The key.
+     * @param value The value, or {@code null} to remove the key.
+     */
+    public void put(final @NotNull K key, final @Nullable V value) {
+        if (value == null) {
+            this.map.remove(key);
+        } else {
+            this.map.put(key, value);
+        }
+        this.invalidate(key);
+        this.notifySubscribers(key);
+    }
+
+    /**
+     * Removes the value associated with a key.
+     *
+     * @param key The key.
+     */
+    public void remove(final @NotNull K key) {
+        this.map.remove(key);
+        this.invalidate(key);
+        this.notifySubscribers(key);
+    }
+
+    /**
+     * Tells the caches holding a key that its value changed, and stops tracking them.
+     * Caches of closed sessions are dropped.
+     *
+     * @param key The changed key.
+     */
+    private void invalidate(final @NotNull K key) {
+        final Set<Tracker> trackers = this.trackers.remove(key);
+        if (trackers == null) {
+            return;
+        }
+        final Consumer<ByteBuf> payload = buffer -> this.server.getCodecRegistry().encode(buffer, key);
+        for (final Tracker tracker : trackers) {
+            if (tracker.notifier().isOpen()) {
+                tracker.notifier().invalidate(tracker.cacheId(), key, payload);
+            }
+        }
+    }
+
+    /**
+     * Forgets a connection once it is removed, the first time it tracks or subscribes to this map.
+     *
+     * @param notifier The notifier of the connection.
+     */
+    private void watch(final @NotNull Notifier notifier) {
+        if (this.knownNotifiers.add(notifier)) {
+            notifier.onRemoval(() -> this.forget(notifier));
+        }
+    }
+
+    /**
+     * Stops tracking the caches of a removed connection and drops its subscriptions.
+     *
+     * @param notifier The notifier of the connection.
+     */
+    private void forget(final @NotNull Notifier notifier) {
+        this.knownNotifiers.remove(notifier);
+        for (final K key : this.trackers.keySet()) {
+            this.trackers.computeIfPresent(key, (ignored, set) -> {
+                set.removeIf(tracker -> tracker.notifier() == notifier);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        this.subscribers.removeIf(subscriber -> subscriber.notifier() == notifier);
+        for (final K key : this.keySubscribers.keySet()) {
+            this.keySubscribers.computeIfPresent(key, (ignored, set) -> {
+                set.removeIf(subscriber -> subscriber.notifier() == notifier);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    /**
+     * Notifies the subscribers of a key and of the whole map of the value of a changed key.
+     * The payload is the key for the subscribers of the whole map, then whether the key has a value, then the value.
+     * Subscribers of closed sessions are dropped.
+     *
+     * @param key The changed key.
+     */
+    private void notifySubscribers(final @NotNull K key) {
+        final Set<Subscriber> keySubscribers = this.keySubscribers.get(key);
+        if (keySubscribers != null) {
+            final Consumer<ByteBuf> payload = buffer -> this.writeValue(buffer, key);
+            boolean dropped = false;
+            for (final Subscriber subscriber : keySubscribers) {
+                if (subscriber.notifier().isOpen()) {
+                    subscriber.notify(null, payload);
+                } else {
+                    dropped |= keySubscribers.remove(subscriber);
+                }
+            }
+            if (dropped) {
+                this.keySubscribers.computeIfPresent(key, (ignored, set) -> set.isEmpty() ? null : set);
+            }
+        }
+        if (!this.subscribers.isEmpty()) {
+            final Consumer<ByteBuf> payload = buffer -> this.writeValue(this.server.getCodecRegistry().encode(buffer, key), key);
+            for (final Subscriber subscriber : this.subscribers) {
+                if (subscriber.notifier().isOpen()) {
+                    subscriber.notify(key, payload);
+                } else {
+                    this.subscribers.remove(subscriber);
+                }
+            }
+        }
+    }
+
+    private void writeValue(final @NotNull ByteBuf buffer, final @NotNull K key) {
+        // Read when the notification is flushed, so that only the latest value is written
+        final V value = this.get(key);
+        buffer.putBoolean(value != null);
+        if (value != null) {
+            this.server.getCodecRegistry().encode(buffer, value);
+        }
+    }
+
+    /**
+     * Gets the class of the keys of this map.
+     *
+     * @return The class of the keys.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Class<K> getKeyClass() {
+        return this.keyClass;
+    }
+
+    /**
+     * Gets the class of the values of this map.
+     *
+     * @return The class of the values.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Class<V> getValueClass() {
+        return this.valueClass;
+    }
+
+    /**
+     * Cache of a client holding keys of this map.
+     *
+     * @param notifier The notifier of the connection of the client.
+     * @param cacheId  The identifier of the cache in the client.
+     */
+    private record Tracker(@NotNull Notifier notifier, int cacheId) {
+    }
+
+    /**
+     * Position of a scan of a client in this map.
+     * Accessed by one request of its session at a time, under its monitor.
+     *
+     * @param <K> the type of keys maintained by this map.
+     * @param <V> the type of values maintained by this map.
+     */
+    private static final class ScanCursor<K, V> {
+
+        private final long id;
+        @NotNull
+        private final Session session;
+        @NotNull
+        private final Iterator<Map.Entry<K, V>> iterator;
+        /**
+         * Entry read from the iterator that did not fit in the previous chunk.
+         */
+        @Nullable
+        private Map.Entry<K, V> pending;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private ScanCursor(final long id, final @NotNull Session session, final @NotNull Iterator<Map.Entry<K, V>> iterator) {
+            this.id = id;
+            this.session = session;
+            this.iterator = iterator;
+        }
+
+    }
+
 }
\ No newline at end of file
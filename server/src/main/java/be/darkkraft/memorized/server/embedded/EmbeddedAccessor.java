@@ -0,0 +1,44 @@
+package be.darkkraft.memorized.server.embedded;
+
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Base class for accessors calling directly into a container of a server running in the same JVM.
+ * <p>The container is looked up on every call, so that containers created or deleted later are taken into account.</p>
+ *
+ * @param <C> The type of the container.
+ */
+abstract class EmbeddedAccessor<C extends DataContainer> {
+
+    private final DataRepository<Object> repository;
+    private final Object key;
+    private final Class<C> containerClass;
+
+    EmbeddedAccessor(final @NotNull DataRepository<Object> repository, final @NotNull Object key, final @NotNull Class<C> containerClass) {
+        this.repository = repository;
+        this.key = Objects.requireNonNull(key, "Key cannot be null");
+        this.containerClass = containerClass;
+    }
+
+    /**
+     * Gets the container identified by this accessor.
+     *
+     * @return The container, or {@code null} if it does not exist.
+     *
+     * @throws IllegalStateException If the container is not of the type of this accessor.
+     */
+    @Nullable
+    protected C container() {
+        final DataContainer container = this.repository.getContainer(this.key);
+        if (container == null || this.containerClass.isInstance(container)) {
+            return this.containerClass.cast(container);
+        }
+        throw new IllegalStateException("Container " + this.key + " is not a " + this.containerClass.getSimpleName());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package be.darkkraft.memorized.server.embedded;
+
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.data.map.MemorizedMap;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Client for a {@link MemorizedServer} running in the same JVM.
+ * <p>Unlike a network client, the accessors it creates call directly into the containers of the server:
+ * there is no socket, no framing, no transaction to match, and no key or value to encode.
+ * The accessors implement the same interfaces as the network ones, so code using them does not depend on the
+ * transport. The server does not need to be started, and no session is opened.</p>
+ */
+public final class EmbeddedClient {
+
+    private final DataRepositoryCoordinator coordinator;
+
+    /**
+     * Creates a new {@link EmbeddedClient}.
+     *
+     * @param server The server to access.
+     */
+    @Contract(pure = true)
+    public EmbeddedClient(final @NotNull MemorizedServer server) {
+        this.coordinator = Objects.requireNonNull(server, "Server cannot be null").getDataRepositoryCoordinator();
+    }
+
+    /**
+     * Creates an accessor to a counter of the server.
+     *
+     * @param key The key of the counter.
+     *
+     * @return The counter.
+     *
+     * @throws IllegalArgumentException If no repository is registered for the class of the key.
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public IntCounter intCounter(final @NotNull Object key) {
+        return new EmbeddedIntCounter(this.repository(key), key);
+    }
+
+    /**
+     * Creates an accessor to a map of the server.
+     *
+     * @param key        The key of the map.
+     * @param keyClass   The class of the keys of the map.
+     * @param valueClass The class of the values of the map.
+     * @param <K>        The type of the keys of the map.
+     * @param <V>        The type of the values of the map.
+     *
+     * @return The map.
+     *
+     * @throws IllegalArgumentException If no repository is registered for the class of the key.
+     */
+    @NotNull
+    @Contract("_, _, _ -> new")
+    public <K, V> MemorizedMap<K, V> map(final @NotNull Object key, final @NotNull Class<K> keyClass, final @NotNull Class<V> valueClass) {
+        return new EmbeddedMemorizedMap<>(this.repository(key), key,
+                Objects.requireNonNull(keyClass, "Key class cannot be null"), Objects.requireNonNull(valueClass, "Value class cannot be null"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private DataRepository<Object> repository(final @NotNull Object key) {
+        final DataRepository<?> repository = this.coordinator.getRepository(Objects.requireNonNull(key, "Key cannot be null").getClass());
+        if (repository == null) {
+            throw new IllegalArgumentException("No repository registered for " + key.getClass().getName());
+        }
+        return (DataRepository<Object>) repository;
+    }
+
+}
\ No newline at end of file
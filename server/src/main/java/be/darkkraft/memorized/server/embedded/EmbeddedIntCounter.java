@@ -0,0 +1,98 @@
+package be.darkkraft.memorized.server.embedded;
+
+import be.darkkraft.memorized.data.counter.IntCounter;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link IntCounter} calling directly into a {@link ServerIntCounter} of a server running in the same JVM.
+ * <p>Operations are executed by the calling thread, and the returned futures are already completed.
+ * Like through the network, reading a counter that does not exist returns 0 and updating it does nothing.</p>
+ */
+public final class EmbeddedIntCounter extends EmbeddedAccessor<ServerIntCounter> implements IntCounter {
+
+    EmbeddedIntCounter(final @NotNull DataRepository<Object> repository, final @NotNull Object key) {
+        super(repository, key, ServerIntCounter.class);
+    }
+
+    @Override
+    public int blockingGet() {
+        final ServerIntCounter counter = this.container();
+        return counter != null ? counter.get() : 0;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Integer> asyncGet() {
+        return CompletableFuture.completedFuture(this.blockingGet());
+    }
+
+    @Override
+    public void set(final int value) {
+        final ServerIntCounter counter = this.container();
+        if (counter != null) {
+            counter.set(value);
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.set(0);
+    }
+
+    @Override
+    public int blockingGetAndSet(final int value) {
+        final ServerIntCounter counter = this.container();
+        return counter != null ? counter.getAndSet(value) : 0;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Integer> asyncGetAndSet(final int value) {
+        return CompletableFuture.completedFuture(this.blockingGetAndSet(value));
+    }
+
+    @Override
+    public int blockingIncrementAndGet(final int value) {
+        final ServerIntCounter counter = this.container();
+        return counter != null ? counter.addAndGet(value) : 0;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Integer> asyncIncrementAndGet(final int value) {
+        return CompletableFuture.completedFuture(this.blockingIncrementAndGet(value));
+    }
+
+    @Override
+    public int blockingGetAndIncrement(final int value) {
+        final ServerIntCounter counter = this.container();
+        return counter != null ? counter.getAndAdd(value) : 0;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Integer> asyncGetAndIncrement(final int value) {
+        return CompletableFuture.completedFuture(this.blockingGetAndIncrement(value));
+    }
+
+    @Override
+    public int blockingDecrementAndGet(final int value) {
+        return this.blockingIncrementAndGet(-value);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Integer> asyncDecrementAndGet(final int value) {
+        return CompletableFuture.completedFuture(this.blockingDecrementAndGet(value));
+    }
+
+    @Override
+    public int blockingGetAndDecrement(final int value) {
+        return this.blockingGetAndIncrement(-value);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Integer> asyncGetAndDecrement(final int value) {
+        return CompletableFuture.completedFuture(this.blockingGetAndDecrement(value));
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package be.darkkraft.memorized.server.embedded;
+
+import be.darkkraft.memorized.data.map.MemorizedMap;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.map.ServerMemorizedMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link MemorizedMap} calling directly into a {@link ServerMemorizedMap} of a server running in the same JVM.
+ * <p>Keys and values are not encoded: the map stores the instances given to {@link #put(Object, Object)},
+ * so values should be immutable. Operations are executed by the calling thread, and the returned futures are
+ * already completed. Like through the network, reading a map that does not exist returns {@code null} and updating
+ * it does nothing.</p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+@SuppressWarnings("rawtypes")
+public final class EmbeddedMemorizedMap<K, V> extends EmbeddedAccessor<ServerMemorizedMap> implements MemorizedMap<K, V> {
+
+    private final Class<K> keyClass;
+    private final Class<V> valueClass;
+
+    EmbeddedMemorizedMap(final @NotNull DataRepository<Object> repository, final @NotNull Object key, final @NotNull Class<K> keyClass, final @NotNull Class<V> valueClass) {
+        super(repository, key, ServerMemorizedMap.class);
+        this.keyClass = keyClass;
+        this.valueClass = valueClass;
+    }
+
+    @Override
+    public V blockingGet(final @NotNull K key) {
+        final ServerMemorizedMap<K, V> map = this.map();
+        return map != null ? map.get(key) : null;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<V> asyncGet(final @NotNull K key) {
+        return CompletableFuture.completedFuture(this.blockingGet(key));
+    }
+
+    @Override
+    public void put(final @NotNull K key, final @Nullable V value) {
+        final ServerMemorizedMap<K, V> map = this.map();
+        if (map != null) {
+            map.put(key, value);
+        }
+    }
+
+    @Override
+    public void remove(final @NotNull K key) {
+        final ServerMemorizedMap<K, V> map = this.map();
+        if (map != null) {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * Gets the map identified by this accessor, checking its key and value types.
+     *
+     * @return The map, or {@code null} if it does not exist.
+     *
+     * @throws IllegalStateException If the map does not have the key and value types of this accessor.
+     */
+    @SuppressWarnings("unchecked")
+    private @Nullable ServerMemorizedMap<K, V> map() {
+        final ServerMemorizedMap<?, ?> map = this.container();
+        if (map == null) {
+            return null;
+        }
+        if (map.getKeyClass() != this.keyClass || map.getValueClass() != this.valueClass) {
+            throw new IllegalStateException("Map is a " + map.getKeyClass().getSimpleName() + " to " + map.getValueClass().getSimpleName() + " map");
+        }
+        return (ServerMemorizedMap<K, V>) map;
+    }
+
+}
\ No newline at end of file
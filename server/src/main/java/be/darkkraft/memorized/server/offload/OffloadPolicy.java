@@ -0,0 +1,83 @@
+package be.darkkraft.memorized.server.offload;
+
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.OffloadedDataContainer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Decides which packets are handled on the offload executor instead of the worker thread.
+ * <p>A packet is offloaded if its command is offloaded, or if it interacts with an offloaded container:
+ * an {@link OffloadedDataContainer}, or an instance of one of the offloaded container types.</p>
+ */
+public final class OffloadPolicy {
+
+    @NotNull
+    private final ExecutorService executor;
+    private final boolean[] packets = new boolean[ClientPacket.values().length];
+    private final Class<?>[] containerTypes;
+
+    /**
+     * Creates a new {@link OffloadPolicy}.
+     *
+     * @param executor       The {@link ExecutorService} running offloaded packets, shut down with the server.
+     * @param packets        The commands always handled on the executor.
+     * @param containerTypes The types of containers whose interactions are handled on the executor.
+     */
+    public OffloadPolicy(final @NotNull ExecutorService executor, final @NotNull Collection<ClientPacket> packets, final @NotNull Collection<Class<? extends DataContainer>> containerTypes) {
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+        for (final ClientPacket packet : packets) {
+            this.packets[packet.ordinal()] = true;
+        }
+        this.containerTypes = containerTypes.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * Checks if a command is always handled on the executor.
+     *
+     * @param packet The command to check.
+     *
+     * @return {@code true} if the command is offloaded, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isOffloaded(final @NotNull ClientPacket packet) {
+        return this.packets[packet.ordinal()];
+    }
+
+    /**
+     * Checks if the interactions with a container are handled on the executor.
+     *
+     * @param container The container to check.
+     *
+     * @return {@code true} if the container is offloaded, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isOffloaded(final @NotNull DataContainer container) {
+        if (container instanceof OffloadedDataContainer) {
+            return true;
+        }
+        for (final Class<?> type : this.containerTypes) {
+            if (type.isInstance(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the {@link ExecutorService} running offloaded packets.
+     *
+     * @return The executor.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+}
\ No newline at end of file
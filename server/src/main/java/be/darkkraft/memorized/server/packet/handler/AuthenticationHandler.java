@@ -41,9 +41,9 @@ public final class AuthenticationHandler extends SessionPacketHandler {
     public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) throws IOException {
         if (this.authenticator.auth(session.getChannel(), buffer)) {
             session.setAuthenticated(true);
-            session.send(ByteBuffer.allocate(1).put(ServerPacket.AUTH_SUCCESS.getId()));
+            session.send(ServerPacket.AUTH_SUCCESS.getId());
         } else {
-            session.send(ByteBuffer.allocate(1).put(ServerPacket.AUTH_FAILED.getId()));
+            session.send(ServerPacket.AUTH_FAILED.getId());
         }
     }
 
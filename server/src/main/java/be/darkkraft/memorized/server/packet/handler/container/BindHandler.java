@@ -0,0 +1,60 @@
+package be.darkkraft.memorized.server.packet.handler.container;
+
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.packet.handler.SessionPacketHandler;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles the {@link ClientPacket#BIND} packet by binding a container key to a handle of the session.
+ * The handle can then replace the repository identifier and the key in the following requests of the session.
+ * <p>Replies a {@link ServerPacket#RESULT} holding the handle, or {@link ServerPacket#NOT_FOUND} if the repository,
+ * key or container is unknown, or if the session cannot bind more handles.</p>
+ */
+public final class BindHandler extends SessionPacketHandler {
+
+    @NotNull
+    private final MemorizedServer server;
+
+    /**
+     * Constructs a new {@link BindHandler} with the given server instance.
+     *
+     * @param server The server instance that provides data repository coordination.
+     */
+    @Contract(pure = true)
+    public BindHandler(final @NotNull MemorizedServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Handles the {@link ClientPacket#BIND} packet.
+     *
+     * @param session The client session that sent the packet.
+     * @param buffer  The packet buffer containing the repository identifier and the key.
+     */
+    @Override
+    public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) {
+        final DataRepository<?> repository = this.server.getDataRepositoryCoordinator().getRepository(buffer.getInt());
+        final int handle = repository != null ? bind(session, repository, buffer) : 0;
+        if (handle == 0) {
+            session.unsafeSend(ServerPacket.NOT_FOUND.getId());
+            return;
+        }
+        session.unsafeSend(ServerPacket.RESULT.getId(), handle);
+    }
+
+    private static <K> int bind(final @NotNull ClientSession session, final @NotNull DataRepository<K> repository, final @NotNull ByteBuffer buffer) {
+        final K key = repository.readKey(buffer);
+        if (key == null || repository.getContainer(key) == null) {
+            return 0;
+        }
+        return session.bind(repository, key);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package be.darkkraft.memorized.server.packet.handler.container;
+
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.factory.DataContainerFactory;
+import be.darkkraft.memorized.server.packet.handler.SessionPacketHandler;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles the {@link ClientPacket#CREATE} packet by creating a {@link DataContainer} with a registered
+ * {@link DataContainerFactory}.
+ * <p>Replies a {@link ServerPacket#RESULT} holding {@code 1} if the container was created or {@code 0} if the key
+ * is already in use, or {@link ServerPacket#NOT_FOUND} if the repository, key or container type is unknown, or if
+ * the repository does not support runtime registrations.</p>
+ */
+public final class CreateHandler extends SessionPacketHandler {
+
+    /**
+     * Upper bound of the capacity hint forwarded to factories, so that a client cannot make the server
+     * allocate an arbitrarily large table.
+     */
+    private static final int MAX_CAPACITY_HINT = 1 << 20;
+
+    @NotNull
+    private final MemorizedServer server;
+
+    /**
+     * Constructs a new {@link CreateHandler} with the given server instance.
+     *
+     * @param server The server instance that provides data repository coordination and container factories.
+     */
+    @Contract(pure = true)
+    public CreateHandler(final @NotNull MemorizedServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Handles the {@link ClientPacket#CREATE} packet.
+     *
+     * @param session The client session that sent the packet.
+     * @param buffer  The packet buffer containing the repository identifier, the key, the container type identifier
+     *                and the capacity hint.
+     */
+    @Override
+    public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) {
+        final DataRepository<?> repository = this.server.getDataRepositoryCoordinator().getRepository(buffer.getInt());
+        final byte result = repository != null ? this.create(repository, buffer) : -1;
+        if (result < 0) {
+            session.unsafeSend(ServerPacket.NOT_FOUND.getId());
+            return;
+        }
+        session.unsafeSend(session.response(ServerPacket.RESULT.getId()).put(result));
+    }
+
+    private <K> byte create(final @NotNull DataRepository<K> repository, final @NotNull ByteBuffer buffer) {
+        final K key = repository.readKey(buffer);
+        final DataContainerFactory factory = this.server.getDataContainerFactoryRegistry().getFactory(buffer.getInt());
+        if (key == null || factory == null) {
+            return -1;
+        }
+        if (repository.getContainer(key) != null) {
+            return 0;
+        }
+        final int capacityHint = Math.min(Math.max(buffer.getInt(), 0), MAX_CAPACITY_HINT);
+        try {
+            return (byte) (repository.registerIfAbsent(key, factory.create(capacityHint)) ? 1 : 0);
+        } catch (final UnsupportedOperationException exception) {
+            return -1;
+        }
+    }
+
+}
\ No newline at end of file
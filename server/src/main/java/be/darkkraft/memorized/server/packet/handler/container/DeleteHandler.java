@@ -0,0 +1,66 @@
+package be.darkkraft.memorized.server.packet.handler.container;
+
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.packet.handler.SessionPacketHandler;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles the {@link ClientPacket#DELETE} packet by removing a container from its repository.
+ * <p>Replies a {@link ServerPacket#RESULT} holding {@code 1} if a container was removed or {@code 0} otherwise,
+ * or {@link ServerPacket#NOT_FOUND} if the repository or key is unknown, or if the repository does not support runtime
+ * removals.</p>
+ * <p>Key handles bound to the removed container are resolved again on their next use, since the removal changes the
+ * generation of the repository.</p>
+ */
+public final class DeleteHandler extends SessionPacketHandler {
+
+    @NotNull
+    private final MemorizedServer server;
+
+    /**
+     * Constructs a new {@link DeleteHandler} with the given server instance.
+     *
+     * @param server The server instance that provides data repository coordination.
+     */
+    @Contract(pure = true)
+    public DeleteHandler(final @NotNull MemorizedServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Handles the {@link ClientPacket#DELETE} packet.
+     *
+     * @param session The client session that sent the packet.
+     * @param buffer  The packet buffer containing the repository identifier and the key.
+     */
+    @Override
+    public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) {
+        final DataRepository<?> repository = this.server.getDataRepositoryCoordinator().getRepository(buffer.getInt());
+        final byte result = repository != null ? delete(repository, buffer) : -1;
+        if (result < 0) {
+            session.unsafeSend(ServerPacket.NOT_FOUND.getId());
+            return;
+        }
+        session.unsafeSend(session.response(ServerPacket.RESULT.getId()).put(result));
+    }
+
+    private static <K> byte delete(final @NotNull DataRepository<K> repository, final @NotNull ByteBuffer buffer) {
+        final K key = repository.readKey(buffer);
+        if (key == null) {
+            return -1;
+        }
+        try {
+            return repository.unregister(key) != null ? (byte) 1 : 0;
+        } catch (final UnsupportedOperationException exception) {
+            return -1;
+        }
+    }
+
+}
\ No newline at end of file
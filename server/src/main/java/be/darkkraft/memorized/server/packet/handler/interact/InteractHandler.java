@@ -1,11 +1,14 @@
 package be.darkkraft.memorized.server.packet.handler.interact;
 
 import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.server.MemorizedServer;
 import be.darkkraft.memorized.server.data.DataRepository;
 import be.darkkraft.memorized.server.data.container.DataContainer;
 import be.darkkraft.memorized.server.packet.handler.SessionPacketHandler;
 import be.darkkraft.memorized.server.session.ClientSession;
+import be.darkkraft.memorized.server.shard.ContainerOperation;
+import be.darkkraft.memorized.server.shard.Shard;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
@@ -13,12 +16,15 @@ import java.nio.ByteBuffer;
 
 /**
  * Sealed abstract class for handlers that interact with data repositories.
- * Permitted subclasses are {@link ShowHandler} and {@link UpdateHandler}.
+ * Permitted subclasses are {@link ShowHandler}, {@link TrackedShowHandler}, {@link UpdateHandler}, {@link SubscribeHandler},
+ * {@link UnsubscribeHandler} and {@link ScanHandler}.
  */
-public abstract sealed class InteractHandler extends SessionPacketHandler permits ShowHandler, UpdateHandler {
+public abstract sealed class InteractHandler extends SessionPacketHandler permits ShowHandler, TrackedShowHandler, UpdateHandler, SubscribeHandler, UnsubscribeHandler, ScanHandler {
 
     @NotNull
     private final MemorizedServer server;
+    @NotNull
+    private final ContainerOperation operation = this::handle;
 
     /**
      * Constructs a new {@link InteractHandler} with the given server instance.
@@ -33,18 +39,38 @@ public abstract sealed class InteractHandler extends SessionPacketHandler permit
     /**
      * Handles interaction with data repositories.
      * Sends a {@link ServerPacket#NOT_FOUND} command if the repository, key, or container are not found.
+     * <p>A negative repository identifier is a key handle of the session, resolved without decoding any key.</p>
+     * <p>Interactions with offloaded containers are handled on the offload executor.
+     * If this packet is already handled on it, the session has offloaded tasks and the interaction is handled inline.</p>
+     * <p>When containers are owned by worker shards, the interaction is dispatched to the shard owning the container.</p>
      *
      * @param session The client session that sent the packet.
      * @param buffer  The packet buffer containing data.
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
     @Override
     public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) {
-        final DataRepository repository = this.server.getDataRepositoryCoordinator().getRepository(buffer.getInt());
-        final Object key;
+        final int identifier = buffer.getInt();
         final DataContainer container;
-        if (repository == null || (key = repository.readKey(buffer)) == null || (container = repository.getContainer(key)) == null) {
-            session.unsafeSend(ByteBuffer.allocate(1).put(ServerPacket.NOT_FOUND.getId()));
+        if (identifier < 0) {
+            container = session.resolve(identifier);
+        } else {
+            final DataRepository<?> repository = this.server.getDataRepositoryCoordinator().getRepository(identifier);
+            container = repository != null ? repository.readContainer(buffer) : null;
+        }
+        final Shard shard = Shard.current();
+        if (container == null) {
+            if (shard != null) {
+                shard.awaitReplies(session);
+            }
+            session.unsafeSend(ServerPacket.NOT_FOUND.getId());
+            return;
+        }
+        if (shard != null) {
+            shard.dispatch(session, buffer, container, this.operation);
+            return;
+        }
+        if (!session.hasOffloadedTasks() && this.server.isOffloaded(container)) {
+            session.offload(buffer, copy -> this.handle(session, copy, container));
             return;
         }
         this.handle(session, buffer, container);
@@ -53,10 +79,10 @@ public abstract sealed class InteractHandler extends SessionPacketHandler permit
     /**
      * Abstract method for handling interactions with found data containers.
      *
-     * @param session   The client session associated with this request.
+     * @param session   The session to reply to.
      * @param buffer    The packet buffer containing data.
      * @param container The found data container.
      */
-    protected abstract void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container);
+    protected abstract void handle(final @NotNull Session session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container);
 
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package be.darkkraft.memorized.server.packet.handler.interact;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles the {@link ClientPacket#SCAN} interaction with data containers.
+ */
+public final class ScanHandler extends InteractHandler {
+
+    /**
+     * Constructs a new {@link ScanHandler} with the given server instance.
+     *
+     * @param server The server instance that provides data repository coordination.
+     */
+    @Contract(pure = true)
+    public ScanHandler(final @NotNull MemorizedServer server) {
+        super(server);
+    }
+
+    /**
+     * Handles the {@link ClientPacket#SCAN} interaction by delegating to the {@link DataContainer#handleScan} method.
+     *
+     * @param session   The session to reply to.
+     * @param buffer    The packet buffer containing data.
+     * @param container The found data container.
+     */
+    @Override
+    protected void handle(final @NotNull Session session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container) {
+        container.handleScan(session, buffer);
+    }
+
+}
\ No newline at end of file
@@ -1,9 +1,9 @@
 package be.darkkraft.memorized.server.packet.handler.interact;
 
+import be.darkkraft.memorized.net.session.Session;
 import be.darkkraft.memorized.packet.ClientPacket;
 import be.darkkraft.memorized.server.MemorizedServer;
 import be.darkkraft.memorized.server.data.container.DataContainer;
-import be.darkkraft.memorized.server.session.ClientSession;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
@@ -27,12 +27,12 @@ public final class ShowHandler extends InteractHandler {
     /**
      * Handles the {@link ClientPacket#SHOW} interaction by delegating to the {@link DataContainer#handleShow} method.
      *
-     * @param session   The client session associated with this request.
+     * @param session   The session to reply to.
      * @param buffer    The packet buffer containing data.
      * @param container The found data container.
      */
     @Override
-    protected void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container) {
+    protected void handle(final @NotNull Session session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container) {
         container.handleShow(session, buffer);
     }
 
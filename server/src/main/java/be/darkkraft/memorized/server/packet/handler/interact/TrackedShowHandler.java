@@ -0,0 +1,53 @@
+package be.darkkraft.memorized.server.packet.handler.interact;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles the {@link ClientPacket#TRACKED_SHOW} interaction with data containers.
+ */
+public final class TrackedShowHandler extends InteractHandler {
+
+    /**
+     * Constructs a new {@link TrackedShowHandler} with the given server instance.
+     *
+     * @param server The server instance that provides data repository coordination.
+     */
+    @Contract(pure = true)
+    public TrackedShowHandler(final @NotNull MemorizedServer server) {
+        super(server);
+    }
+
+    /**
+     * Enables the pushes of the session before the container can track it, then handles the interaction.
+     *
+     * @param session The client session that sent the packet.
+     * @param buffer  The packet buffer containing data.
+     */
+    @Override
+    public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) {
+        session.enablePushes();
+        super.handle(session, buffer);
+    }
+
+    /**
+     * Handles the {@link ClientPacket#TRACKED_SHOW} interaction by delegating to the {@link DataContainer#handleTrackedShow} method
+     * with the notifier of the session, which pushes the invalidations.
+     *
+     * @param session   The session to reply to.
+     * @param buffer    The packet buffer containing data.
+     * @param container The found data container.
+     */
+    @Override
+    protected void handle(final @NotNull Session session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container) {
+        container.handleTrackedShow(session, ((ClientSession) session.origin()).getNotifier(), buffer);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package be.darkkraft.memorized.server.packet.handler.interact;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handles the {@link ClientPacket#UNSUBSCRIBE} interaction with data containers.
+ */
+public final class UnsubscribeHandler extends InteractHandler {
+
+    /**
+     * Constructs a new {@link UnsubscribeHandler} with the given server instance.
+     *
+     * @param server The server instance that provides data repository coordination.
+     */
+    @Contract(pure = true)
+    public UnsubscribeHandler(final @NotNull MemorizedServer server) {
+        super(server);
+    }
+
+    /**
+     * Enables the pushes of the session before the container can notify it, then handles the interaction.
+     *
+     * @param session The client session that sent the packet.
+     * @param buffer  The packet buffer containing data.
+     */
+    @Override
+    public void handle(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer) {
+        session.enablePushes();
+        super.handle(session, buffer);
+    }
+
+    /**
+     * Cancels a subscription of the connection of the session, then acknowledges with an empty {@link ServerPacket#RESULT}.
+     *
+     * @param session   The session to reply to.
+     * @param buffer    The packet buffer containing data.
+     * @param container The found data container.
+     */
+    @Override
+    protected void handle(final @NotNull Session session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container) {
+        container.handleUnsubscribe(((ClientSession) session.origin()).getNotifier(), buffer);
+        session.unsafeSend(ServerPacket.RESULT.getId());
+    }
+
+}
\ No newline at end of file
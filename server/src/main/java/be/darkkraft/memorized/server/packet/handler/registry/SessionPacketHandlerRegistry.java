@@ -5,7 +5,14 @@ import be.darkkraft.memorized.packet.handler.registry.PacketHandlerRegistry;
 import be.darkkraft.memorized.server.MemorizedServer;
 import be.darkkraft.memorized.server.packet.handler.AuthenticationHandler;
 import be.darkkraft.memorized.server.packet.handler.DisconnectHandler;
+import be.darkkraft.memorized.server.packet.handler.container.BindHandler;
+import be.darkkraft.memorized.server.packet.handler.container.CreateHandler;
+import be.darkkraft.memorized.server.packet.handler.container.DeleteHandler;
+import be.darkkraft.memorized.server.packet.handler.interact.ScanHandler;
 import be.darkkraft.memorized.server.packet.handler.interact.ShowHandler;
+import be.darkkraft.memorized.server.packet.handler.interact.SubscribeHandler;
+import be.darkkraft.memorized.server.packet.handler.interact.TrackedShowHandler;
+import be.darkkraft.memorized.server.packet.handler.interact.UnsubscribeHandler;
 import be.darkkraft.memorized.server.packet.handler.interact.UpdateHandler;
 import be.darkkraft.memorized.server.session.ClientSession;
 import org.jetbrains.annotations.Contract;
@@ -33,9 +40,16 @@ public final class SessionPacketHandlerRegistry extends PacketHandlerRegistry<Cl
     @Override
     public void initialize(final @NotNull MemorizedServer server) {
         this.register(ClientPacket.AUTH, new AuthenticationHandler(server.getAuthenticator()));
+        this.register(ClientPacket.CREATE, new CreateHandler(server));
         this.register(ClientPacket.SHOW, new ShowHandler(server));
         this.register(ClientPacket.UPDATE, new UpdateHandler(server));
+        this.register(ClientPacket.DELETE, new DeleteHandler(server));
         this.register(ClientPacket.DISCONNECT, new DisconnectHandler(server));
+        this.register(ClientPacket.BIND, new BindHandler(server));
+        this.register(ClientPacket.TRACKED_SHOW, new TrackedShowHandler(server));
+        this.register(ClientPacket.SUBSCRIBE, new SubscribeHandler(server));
+        this.register(ClientPacket.UNSUBSCRIBE, new UnsubscribeHandler(server));
+        this.register(ClientPacket.SCAN, new ScanHandler(server));
     }
 
 }
\ No newline at end of file
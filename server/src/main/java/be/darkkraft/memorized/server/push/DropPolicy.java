@@ -0,0 +1,19 @@
+package be.darkkraft.memorized.server.push;
+
+/**
+ * Decides which message is dropped when the message queue of a session is full, because its client reads slower than
+ * messages are published.
+ */
+public enum DropPolicy {
+
+    /**
+     * The oldest queued message is dropped to make room for the new one, so the client catches up with the latest messages.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new message is dropped, so the client receives the messages it already had in order, with a gap after them.
+     */
+    DROP_NEWEST
+
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package be.darkkraft.memorized.server.push;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Decides how packets pushed to the sessions, such as notifications and published messages, are written.
+ * <p>Pushed packets are queued per session and written by the executor instead of the thread publishing. A client
+ * reading slowly holds neither: the executor leaves the packets of its session queued until its connection can take
+ * them. Messages queued for a session are bounded, the
+ * {@link DropPolicy} decides which one is dropped once the queue is full. Notifications are never dropped, they are
+ * coalesced instead.</p>
+ */
+public final class PushPolicy {
+
+    @NotNull
+    private final ExecutorService executor;
+    private final int queueCapacity;
+    @NotNull
+    private final DropPolicy dropPolicy;
+
+    /**
+     * Creates a new {@link PushPolicy}.
+     *
+     * @param executor      The {@link ExecutorService} writing the pushed packets, shut down with the server.
+     * @param queueCapacity The maximum number of messages queued for a session.
+     * @param dropPolicy    The {@link DropPolicy} applied once the queue of a session is full.
+     */
+    public PushPolicy(final @NotNull ExecutorService executor, final int queueCapacity, final @NotNull DropPolicy dropPolicy) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+        this.queueCapacity = queueCapacity;
+        this.dropPolicy = Objects.requireNonNull(dropPolicy, "Drop policy cannot be null");
+    }
+
+    /**
+     * Gets the {@link ExecutorService} writing the pushed packets.
+     *
+     * @return The executor.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Gets the maximum number of messages queued for a session.
+     *
+     * @return The capacity of the queue of each session.
+     */
+    @Contract(pure = true)
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    /**
+     * Gets the {@link DropPolicy} applied once the queue of a session is full.
+     *
+     * @return The drop policy.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public DropPolicy getDropPolicy() {
+        return this.dropPolicy;
+    }
+
+}
\ No newline at end of file
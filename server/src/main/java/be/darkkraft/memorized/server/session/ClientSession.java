@@ -1,12 +1,30 @@
 package be.darkkraft.memorized.server.session;
 
+import be.darkkraft.memorized.exception.PacketWritingException;
 import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.push.PushPolicy;
+import be.darkkraft.memorized.server.shard.ShardTask;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Represents a client session.
@@ -14,11 +32,89 @@ import java.nio.channels.SocketChannel;
  */
 public class ClientSession implements Session {
 
+    /**
+     * Maximum number of key handles bound by a single session.
+     */
+    private static final int MAX_HANDLES = 1 << 16;
+
+    /**
+     * Packet buffers bigger than this size are not kept for the next packets.
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 65536;
+
+    /**
+     * Tags of the next sessions, so that consecutive sessions never share a tag.
+     */
+    private static final AtomicInteger NEXT_HANDLE_TAG = new AtomicInteger();
+
     @NotNull
     private final SocketChannel channel;
     private boolean authenticated;
+    @NotNull
+    private final ByteBuffer sizeBuffer = ByteBuffer.allocate(4);
     @Nullable
     private ByteBuffer currentBuffer;
+    @Nullable
+    private ByteBuffer reusableBuffer;
+
+    /**
+     * Tag stored in the upper bits of every handle, so that a handle sent to another session is rejected instead of
+     * silently resolving to another container. Tags are 15 bits wide: sessions created a multiple of 32768 sessions
+     * apart share a tag, so only between them is a misrouted handle not rejected.
+     */
+    private final int handleTag = NEXT_HANDLE_TAG.getAndIncrement() & 0x7FFF;
+    private volatile KeyHandle<?>[] handles = new KeyHandle<?>[0];
+    private int handleCount;
+
+    @Nullable
+    private final SessionTaskQueue taskQueue;
+
+    /**
+     * Key of the channel in the selector of its worker, {@code null} if the channel is read by a thread of its own.
+     * The interest of the key is changed under the read lock, since the offload executor resumes the reads and the
+     * pushing threads wait for the channel to be writable.
+     */
+    @Nullable
+    private volatile SelectionKey selectionKey;
+    @NotNull
+    private final Object readLock = new Object();
+    private volatile boolean readSuspended;
+    private volatile boolean writeInterested;
+
+    /**
+     * Frames the channel could not take without blocking, in order, written by the worker of this session once the
+     * channel is writable. Guarded by the write lock, or only used by the worker until pushes are enabled.
+     */
+    @NotNull
+    private final ArrayDeque<ByteBuffer> backlog = new ArrayDeque<>();
+    @Nullable
+    private final PushPolicy pushPolicy;
+    @Nullable
+    private volatile SessionManager manager;
+
+    /**
+     * Operations waiting for their responses to be written, in request order.
+     * Only used by the worker thread of this session, when containers are owned by worker shards.
+     */
+    @Nullable
+    private ArrayDeque<ShardTask> pendingReplies;
+
+    /**
+     * Bytes read from the channel of this session, their value at the last sample, and the bytes read between the
+     * last two samples. Only accessed by the worker thread of this session.
+     */
+    private long readBytes;
+    private long sampledReadBytes;
+    private long recentReadBytes;
+
+    /**
+     * Serializes the writes of this session with the packets pushed by other threads, {@code null} until pushes are
+     * enabled so that sessions never pushed to do not pay for it.
+     */
+    @Nullable
+    private volatile Lock writeLock;
+    @Nullable
+    private volatile SessionNotifier notifier;
 
     /**
      * Initializes a new client session using the provided {@link SocketChannel}.
@@ -27,7 +123,65 @@ public class ClientSession implements Session {
      */
     @Contract(pure = true)
     public ClientSession(final @NotNull SocketChannel channel) {
+        this(channel, null);
+    }
+
+    /**
+     * Initializes a new client session using the provided {@link SocketChannel} and offload executor.
+     *
+     * @param channel         The {@link SocketChannel} to associate with this client session.
+     * @param offloadExecutor The {@link Executor} running the offloaded packets of this session, or null if packets are never offloaded.
+     */
+    public ClientSession(final @NotNull SocketChannel channel, final @Nullable Executor offloadExecutor) {
+        this(channel, offloadExecutor, null);
+    }
+
+    /**
+     * Initializes a new client session using the provided {@link SocketChannel}, offload executor and push policy.
+     *
+     * @param channel         The {@link SocketChannel} to associate with this client session.
+     * @param offloadExecutor The {@link Executor} running the offloaded packets of this session, or null if packets are never offloaded.
+     * @param pushPolicy      The {@link PushPolicy} of the packets pushed to this session, or null to write them on the pushing thread.
+     */
+    public ClientSession(final @NotNull SocketChannel channel, final @Nullable Executor offloadExecutor, final @Nullable PushPolicy pushPolicy) {
         this.channel = channel;
+        this.taskQueue = offloadExecutor != null ? new SessionTaskQueue(this, offloadExecutor) : null;
+        this.pushPolicy = pushPolicy;
+    }
+
+    /**
+     * Sets the {@link SessionManager} from which this session is removed once closed.
+     *
+     * @param manager The manager of this session.
+     */
+    void setManager(final @NotNull SessionManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Removes this session from its {@link SessionManager}, then closes its channel.
+     * <p>Used by the threads that do not read the session, such as the offload executor, to drop it after a failure.</p>
+     */
+    public void close() {
+        final SessionManager manager = this.manager;
+        if (manager != null) {
+            manager.removeSession(this.channel);
+        }
+        try {
+            this.channel.close();
+        } catch (final IOException ignored) {
+            // The channel is discarded anyway
+        }
+    }
+
+    /**
+     * Tells the containers that track this session through its notifier that it was removed, once pushes are enabled.
+     */
+    void onRemoved() {
+        final SessionNotifier notifier = this.notifier;
+        if (notifier != null) {
+            notifier.remove();
+        }
     }
 
     /**
@@ -63,17 +217,554 @@ public class ClientSession implements Session {
     }
 
     /**
-     * Computes and returns the current buffer. If no buffer exists, a new one is allocated.
+     * Checks if offloaded packets of this session are queued or being handled.
+     * While this is the case, the next packets of this session must be offloaded too, so that responses keep their order.
+     *
+     * @return true if offloaded packets are pending, false otherwise.
+     */
+    public boolean hasOffloadedTasks() {
+        return this.taskQueue != null && !this.taskQueue.isEmpty();
+    }
+
+    /**
+     * Handles a packet of this session on the offload executor, after the previously offloaded packets.
+     * The buffer is copied, since the packet buffer of the session is reused for the next packets.
+     * <p>Must only be called by the worker thread of this session. If no offload executor is configured,
+     * the packet is handled on the calling thread.</p>
+     *
+     * @param buffer  The remaining bytes of the packet.
+     * @param handler The handler of the packet.
+     */
+    public void offload(final @NotNull ByteBuffer buffer, final @NotNull Consumer<ByteBuffer> handler) {
+        if (this.taskQueue == null) {
+            handler.accept(buffer);
+            return;
+        }
+        final ByteBuffer copy = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+        this.taskQueue.submit(() -> handler.accept(copy));
+        if (this.taskQueue.isFull()) {
+            this.suspendReads();
+        }
+    }
+
+    /**
+     * Gets the number of offloaded packets of this session queued or being handled.
+     *
+     * @return The number of offloaded packets.
+     */
+    public int getOffloadedCount() {
+        return this.taskQueue != null ? this.taskQueue.size() : 0;
+    }
+
+    /**
+     * Registers the channel of this session in the selector of a worker, interested in reads unless they are
+     * suspended, or in writes instead while frames wait in the backlog.
+     * <p>Must be called instead of registering the channel directly, so that the reads can be suspended.</p>
+     *
+     * @param selector The selector of the worker.
+     *
+     * @return The registered key, to which this session is attached.
+     *
+     * @throws ClosedChannelException If the channel is closed.
+     */
+    @NotNull
+    public SelectionKey register(final @NotNull Selector selector) throws ClosedChannelException {
+        synchronized (this.readLock) {
+            final SelectionKey key = this.channel.register(selector, this.interestOps(), this);
+            this.selectionKey = key;
+            return key;
+        }
+    }
+
+    /**
+     * Computes the interest of the channel of this session: reads, unless they are suspended or frames wait in the
+     * backlog, and writes while frames wait in the backlog.
+     * <p>Must be called under the read lock.</p>
+     *
+     * @return The interest set of the channel.
+     */
+    private int interestOps() {
+        return this.writeInterested ? SelectionKey.OP_WRITE : this.readSuspended ? 0 : SelectionKey.OP_READ;
+    }
+
+    /**
+     * Checks if the reads of this session are suspended until its offloaded packets are drained, or until its backlog
+     * is written. The thread reading the session must stop reading packets while this is the case, so that a client
+     * not reading its responses cannot make the backlog grow without bound.
+     *
+     * @return {@code true} if the reads are suspended, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isReadSuspended() {
+        return this.readSuspended || this.writeInterested;
+    }
+
+    /**
+     * Suspends the reads of this session while its offload queue is full. A channel registered in a selector loses its
+     * read interest, while a channel read by a thread of its own blocks that thread until the reads are resumed.
+     */
+    private void suspendReads() {
+        synchronized (this.readLock) {
+            // The queue may have been drained since the packet was submitted
+            if (!this.taskQueue.isFull()) {
+                return;
+            }
+            this.readSuspended = true;
+            final SelectionKey key = this.selectionKey;
+            if (key != null) {
+                if (key.isValid()) {
+                    key.interestOps(this.interestOps());
+                }
+                return;
+            }
+            try {
+                while (this.readSuspended && this.channel.isOpen()) {
+                    this.readLock.wait(100L);
+                }
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Resumes the reads of this session once enough of its offloaded packets have been handled.
+     */
+    void resumeReads() {
+        synchronized (this.readLock) {
+            if (!this.readSuspended) {
+                return;
+            }
+            this.readSuspended = false;
+            final SelectionKey key = this.selectionKey;
+            if (key == null) {
+                this.readLock.notifyAll();
+            } else if (key.isValid()) {
+                key.interestOps(this.interestOps());
+                key.selector().wakeup();
+            }
+        }
+    }
+
+    /**
+     * Checks if frames of this session wait for the channel to be writable. Pushes should wait until the backlog is
+     * written instead of making it grow.
+     *
+     * @return {@code true} if the backlog is not written yet, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isWriteBacklogged() {
+        return this.writeInterested;
+    }
+
+    /**
+     * Writes the backlog of this session once its channel is writable. Once the backlog is written, the channel is no
+     * longer watched for writes and the notifier of this session resumes its pushes.
+     * <p>Must only be called by the worker thread of this session.</p>
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeBacklog() throws IOException {
+        final Lock lock = this.writeLock;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            ByteBuffer frame;
+            while ((frame = this.backlog.peek()) != null) {
+                this.channel.write(frame);
+                if (frame.hasRemaining()) {
+                    return;
+                }
+                this.backlog.poll();
+            }
+            this.setWriteInterest(false);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+        final SessionNotifier notifier = this.notifier;
+        if (notifier != null) {
+            notifier.resume();
+        }
+    }
+
+    /**
+     * Writes a single frame without blocking, like {@link #write(ByteBuffer[])} but without allocating when the channel
+     * takes the whole frame. The frame may be held by a buffer of the calling thread, since the bytes the channel does
+     * not take are copied.
+     *
+     * @param frame The frame to write.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private void write(final @NotNull ByteBuffer frame) throws IOException {
+        final boolean backlogged = !this.backlog.isEmpty();
+        if (!backlogged) {
+            if (this.selectionKey == null) {
+                while (frame.hasRemaining()) {
+                    this.channel.write(frame);
+                }
+                return;
+            }
+            this.channel.write(frame);
+            if (!frame.hasRemaining()) {
+                return;
+            }
+        }
+        this.backlog.add(ByteBuffer.allocate(frame.remaining()).put(frame).flip());
+        if (!backlogged) {
+            this.setWriteInterest(true);
+        }
+    }
+
+    /**
+     * Writes frames without blocking, after the frames already waiting in the backlog. The bytes the channel cannot
+     * take right away are copied to the backlog, then written by the worker of this session once the channel is
+     * writable. A channel read by a thread of its own is blocking, so it is always written entirely.
+     * <p>Must be called under the write lock, if any.</p>
+     *
+     * @param frames The frames to write, written in order.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private void write(final @NotNull ByteBuffer @NotNull [] frames) throws IOException {
+        final boolean backlogged = !this.backlog.isEmpty();
+        if (!backlogged) {
+            if (this.selectionKey == null) {
+                final ByteBuffer last = frames[frames.length - 1];
+                while (last.hasRemaining()) {
+                    this.channel.write(frames);
+                }
+                return;
+            }
+            this.channel.write(frames);
+        }
+        for (final ByteBuffer frame : frames) {
+            if (frame.hasRemaining()) {
+                this.backlog.add(ByteBuffer.allocate(frame.remaining()).put(frame).flip());
+            }
+        }
+        if (!backlogged && !this.backlog.isEmpty()) {
+            this.setWriteInterest(true);
+        }
+    }
+
+    /**
+     * Watches the channel of this session for writes instead of reads, or watches it for reads again.
+     *
+     * @param interested {@code true} to be told once the channel is writable.
+     */
+    private void setWriteInterest(final boolean interested) {
+        synchronized (this.readLock) {
+            this.writeInterested = interested;
+            final SelectionKey key = this.selectionKey;
+            // A cancelled key of a migrating session is registered again with the interest
+            if (key != null && key.isValid()) {
+                key.interestOps(this.interestOps());
+                if (interested) {
+                    key.selector().wakeup();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if operations of this session handed off to other shards are waiting for their responses to be written.
+     * While this is the case, responses of this session cannot be written directly.
+     *
+     * @return true if responses are pending, false otherwise.
+     */
+    public boolean hasPendingReplies() {
+        return this.pendingReplies != null && !this.pendingReplies.isEmpty();
+    }
+
+    /**
+     * Gets the operations of this session waiting for their responses to be written, in request order.
+     * <p>Must only be called by the worker thread of this session.</p>
+     *
+     * @return The pending operations.
+     */
+    @NotNull
+    public ArrayDeque<ShardTask> getPendingReplies() {
+        if (this.pendingReplies == null) {
+            this.pendingReplies = new ArrayDeque<>();
+        }
+        return this.pendingReplies;
+    }
+
+    /**
+     * Records bytes read from the channel of this session.
+     * <p>Must only be called by the worker thread of this session.</p>
+     *
+     * @param bytes The number of bytes read.
+     */
+    public void recordRead(final int bytes) {
+        this.readBytes += bytes;
+    }
+
+    /**
+     * Records the number of bytes read since the previous sample as the {@link #getRecentReadBytes() recent bytes},
+     * and starts a new sample.
+     * <p>Must only be called by the worker thread of this session.</p>
+     */
+    public void sampleReadBytes() {
+        this.recentReadBytes = this.readBytes - this.sampledReadBytes;
+        this.sampledReadBytes = this.readBytes;
+    }
+
+    /**
+     * Gets the number of bytes read between the last two samples.
+     * <p>Must only be called by the worker thread of this session.</p>
+     *
+     * @return The number of bytes read during the last sample.
+     */
+    public long getRecentReadBytes() {
+        return this.recentReadBytes;
+    }
+
+    /**
+     * Binds a container key to a new handle of this session.
+     * <p>Must only be called by the thread handling the packets of this session.</p>
+     *
+     * @param repository The {@link DataRepository} of the key.
+     * @param key        The key of the container.
+     * @param <K>        The type of the key.
+     *
+     * @return The handle as written on the wire, always negative, or {@code 0} if this session has too many handles.
+     */
+    public <K> int bind(final @NotNull DataRepository<K> repository, final @NotNull K key) {
+        if (this.handleCount == MAX_HANDLES) {
+            return 0;
+        }
+        final int index = this.handleCount++;
+        final KeyHandle<K> handle = new KeyHandle<>(repository, key);
+        KeyHandle<?>[] array = this.handles;
+        if (index == array.length) {
+            array = Arrays.copyOf(array, Math.max(16, index << 1));
+        }
+        array[index] = handle;
+        this.handles = array;
+        return ~(this.handleTag << 16 | index);
+    }
+
+    /**
+     * Resolves the {@link DataContainer} bound to a handle of this session.
+     *
+     * @param handle The handle as written on the wire.
+     *
+     * @return The bound {@link DataContainer}, or {@code null} if the handle is unknown or its container does not exist.
+     */
+    @Nullable
+    public DataContainer resolve(final int handle) {
+        final int value = ~handle;
+        if (value >>> 16 != this.handleTag) {
+            return null;
+        }
+        final KeyHandle<?>[] array = this.handles;
+        final int index = value & (MAX_HANDLES - 1);
+        final KeyHandle<?> keyHandle = index < array.length ? array[index] : null;
+        return keyHandle != null ? keyHandle.resolve() : null;
+    }
+
+    /**
+     * Allows other threads to {@link #push(ByteBuf) push} packets to this session from now on.
+     * <p>Must be called by the thread handling the packets of this session, before this session is made known to
+     * the threads pushing, so that no write of this session is in progress without the lock.</p>
+     * <p>Pushed packets are not answers the client waits for, so Nagle's algorithm is disabled: it would hold them
+     * until the previous response is acknowledged, which delayed acknowledgements can postpone by tens of
+     * milliseconds.</p>
+     */
+    public void enablePushes() {
+        if (this.writeLock != null) {
+            return;
+        }
+        this.notifier = new SessionNotifier(this, this.pushPolicy);
+        this.writeLock = new ReentrantLock();
+        if (this.channel.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+            try {
+                this.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (final IOException ignored) {
+                // Pushes are only delayed
+            }
+        }
+    }
+
+    /**
+     * Pushes a packet from any thread, once {@link #enablePushes() enabled}. The bytes the channel cannot take right
+     * away wait in the backlog of this session.
+     *
+     * @param buffer The {@link ByteBuf} to send.
+     *
+     * @throws IOException                   If an I/O error occurs.
+     * @throws UnsupportedOperationException If pushes are not enabled.
+     */
+    @Override
+    public void push(final @NotNull ByteBuf buffer) throws IOException {
+        final Lock lock = this.writeLock;
+        if (lock == null) {
+            throw new UnsupportedOperationException("Pushes are not enabled for this session");
+        }
+        lock.lock();
+        try {
+            final ByteBuffer payload = buffer.getBuffer();
+            payload.limit(buffer.position()).position(0);
+            this.write(new ByteBuffer[]{ByteBuffer.allocate(4).putInt(payload.remaining()).flip(), payload});
+        } finally {
+            buffer.getBuffer().clear();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the {@link SessionNotifier} pushing the change notifications and messages of the subscriptions of this session, once
+     * pushes are {@link #enablePushes() enabled}.
+     *
+     * @return The notifier of this session.
+     *
+     * @throws UnsupportedOperationException If pushes are not enabled.
+     */
+    @NotNull
+    public SessionNotifier getNotifier() {
+        final SessionNotifier notifier = this.notifier;
+        if (notifier == null) {
+            throw new UnsupportedOperationException("Pushes are not enabled for this session");
+        }
+        return notifier;
+    }
+
+    @Override
+    public void send(final @NotNull ByteBuf buffer) throws IOException {
+        final Lock lock = this.writeLock;
+        if (lock == null) {
+            this.write(Session.frameAndClear(buffer));
+            return;
+        }
+        lock.lock();
+        try {
+            this.write(Session.frameAndClear(buffer));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void send(final @NotNull ByteBuffer buffer) throws IOException {
+        final Lock lock = this.writeLock;
+        if (lock == null) {
+            this.write(Session.frameAndClear(buffer));
+            return;
+        }
+        lock.lock();
+        try {
+            this.write(Session.frameAndClear(buffer));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void send(final byte packetId) throws IOException {
+        final Lock lock = this.writeLock;
+        if (lock == null) {
+            this.write(Session.frame(packetId));
+            return;
+        }
+        lock.lock();
+        try {
+            this.write(Session.frame(packetId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void unsafeSend(final byte packetId, final int value) {
+        final Lock lock = this.writeLock;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            this.write(Session.frame(packetId, value));
+        } catch (final IOException exception) {
+            throw new PacketWritingException(exception);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes frames already prefixed with their size, such as the stored responses of operations handed off to shards.
+     * The bytes the channel cannot take right away wait in the backlog of this session.
+     *
+     * @param frames The frames to write.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeFrames(final @NotNull ByteBuffer frames) throws IOException {
+        this.writeFrames(new ByteBuffer[]{frames});
+    }
+
+    /**
+     * Writes frames already prefixed with their size with a single gathering write, such as a pushed message after its
+     * header. The buffers are written in order and are not modified, except for their position.
+     * <p>The bytes the channel cannot take right away are copied to the backlog of this session, so that a client
+     * reading slowly never holds the calling thread.</p>
+     *
+     * @param frames The buffers to write.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeFrames(final @NotNull ByteBuffer[] frames) throws IOException {
+        if (frames.length == 0) {
+            return;
+        }
+        final Lock lock = this.writeLock;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            this.write(frames);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the buffer of the packet being read, or the buffer of the size prefix if no packet is being read.
      *
      * @return The current buffer.
      */
     @Override
     @NotNull
     public ByteBuffer computeBuffer() {
-        if (this.currentBuffer == null) {
-            this.currentBuffer = ByteBuffer.allocate(4);
+        return this.currentBuffer != null ? this.currentBuffer : this.sizeBuffer;
+    }
+
+    /**
+     * Returns a buffer able to hold a packet of the given size, and makes it the current buffer.
+     * The same buffer is reused for every packet of this session, packets are handled before the next one is read.
+     *
+     * @param size The size of the packet.
+     *
+     * @return The current buffer.
+     */
+    @Override
+    @NotNull
+    public ByteBuffer computeBuffer(final int size) {
+        ByteBuffer buffer = this.reusableBuffer;
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+            if (size <= MAX_REUSED_BUFFER_SIZE) {
+                this.reusableBuffer = buffer;
+            }
         }
-        return this.currentBuffer;
+        return this.currentBuffer = buffer.clear().limit(size);
     }
 
     /**
@@ -92,6 +783,7 @@ public class ClientSession implements Session {
     @Override
     public void removeBuffer() {
         this.currentBuffer = null;
+        this.sizeBuffer.clear();
     }
 
     /**
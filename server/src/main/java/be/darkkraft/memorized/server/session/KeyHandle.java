@@ -0,0 +1,41 @@
+package be.darkkraft.memorized.server.session;
+
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A container key bound to a handle of a {@link ClientSession}.
+ * <p>The resolved container is cached with the {@link DataRepository#getGeneration() generation} of its repository,
+ * and resolved again from the key once a container of the repository has been registered or removed.</p>
+ *
+ * @param <K> The type of the key.
+ */
+final class KeyHandle<K> {
+
+    private final DataRepository<K> repository;
+    private final K key;
+    private volatile Resolution resolution;
+
+    KeyHandle(final @NotNull DataRepository<K> repository, final @NotNull K key) {
+        this.repository = repository;
+        this.key = key;
+    }
+
+    @Nullable DataContainer resolve() {
+        // The generation is read before the lookup, so that a concurrent change is seen by the next resolution
+        final long generation = this.repository.getGeneration();
+        final Resolution cached = this.resolution;
+        if (cached != null && cached.generation == generation) {
+            return cached.container;
+        }
+        final DataContainer container = this.repository.getContainer(this.key);
+        this.resolution = new Resolution(container, generation);
+        return container;
+    }
+
+    private record Resolution(@Nullable DataContainer container, long generation) {
+    }
+
+}
\ No newline at end of file
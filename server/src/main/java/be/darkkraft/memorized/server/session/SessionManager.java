@@ -1,6 +1,8 @@
 package be.darkkraft.memorized.server.session;
 
+import be.darkkraft.memorized.net.ChannelAddresses;
 import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.push.PushPolicy;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,6 +13,7 @@ import java.nio.channels.SocketChannel;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * Manages the client sessions in the server.
@@ -21,24 +24,57 @@ public class SessionManager {
 
     private final Map<SocketChannel, ClientSession> sessions = new ConcurrentHashMap<>();
 
+    @Nullable
+    private final Executor offloadExecutor;
+    @Nullable
+    private final PushPolicy pushPolicy;
+
+    /**
+     * Creates a new {@link SessionManager} whose sessions never offload packets.
+     */
+    public SessionManager() {
+        this(null, null);
+    }
+
+    /**
+     * Creates a new {@link SessionManager}.
+     *
+     * @param offloadExecutor The {@link Executor} running offloaded packets, or null if packets are never offloaded.
+     * @param pushPolicy      The {@link PushPolicy} of the packets pushed to the sessions, or null to write them on the pushing thread.
+     */
+    public SessionManager(final @Nullable Executor offloadExecutor, final @Nullable PushPolicy pushPolicy) {
+        this.offloadExecutor = offloadExecutor;
+        this.pushPolicy = pushPolicy;
+    }
+
     /**
      * Adds a new client session based on a socket channel.
      *
      * @param client The socket channel representing the client session.
+     *
+     * @return The created {@link ClientSession}.
      */
-    public void addSession(final @NotNull SocketChannel client) {
-        this.sessions.put(client, new ClientSession(client));
-        LOGGER.info("New incoming session {}", client.socket().getRemoteSocketAddress());
+    @NotNull
+    public ClientSession addSession(final @NotNull SocketChannel client) {
+        final ClientSession session = new ClientSession(client, this.offloadExecutor, this.pushPolicy);
+        session.setManager(this);
+        this.sessions.put(client, session);
+        LOGGER.info("New incoming session {}", ChannelAddresses.describe(client));
+        return session;
     }
 
     /**
-     * Removes a client session based on a socket channel.
+     * Removes a client session based on a socket channel, then runs the removal actions of its notifier.
+     * Removing a session twice has no effect.
      *
      * @param client The socket channel representing the client session.
      */
     public void removeSession(final @NotNull SocketChannel client) {
-        this.sessions.remove(client);
-        LOGGER.info("End of session {}", client.socket().getRemoteSocketAddress());
+        final ClientSession session = this.sessions.remove(client);
+        if (session != null) {
+            LOGGER.info("End of session {}", ChannelAddresses.describe(client));
+            session.onRemoved();
+        }
     }
 
     /**
@@ -67,6 +103,9 @@ public class SessionManager {
      */
     public void clear() {
         // TODO: Implement a disconnect packet to gracefully close sessions.
+        for (final ClientSession session : this.sessions.values()) {
+            session.onRemoved();
+        }
         this.sessions.clear();
     }
 
@@ -0,0 +1,301 @@
+package be.darkkraft.memorized.server.session;
+
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.data.container.Notifier;
+import be.darkkraft.memorized.server.push.DropPolicy;
+import be.darkkraft.memorized.server.push.PushPolicy;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link Notifier} of a {@link ClientSession}, pushing {@link ServerPacket#NOTIFY} and {@link ServerPacket#INVALIDATE}
+ * packets.
+ * <p>Notifications and messages are queued, then written by a single flush at a time on the executor of the
+ * {@link PushPolicy}, or on the calling thread without policy. While a flush is running, a notification replaces the
+ * pending one of the same subscription and slot, so a burst of changes is written as the latest state only, and
+ * messages are queued up to the capacity of the policy. Invalidations are gathered the same way by cache and key, and
+ * are never dropped.</p>
+ * <p>A flush never waits for a client reading slowly: once the channel of the session cannot take the pushed frames,
+ * the next changes stay in the queues until the worker of the session has written them, then the flush resumes.</p>
+ * <p>Messages are shared by every subscriber: each one is written from a duplicate of the same buffer, after a header
+ * of its own.</p>
+ */
+public final class SessionNotifier implements Notifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionNotifier.class);
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Notification packets are split above this size, so that a large flush does not exceed the packet size limit of
+     * the client.
+     */
+    private static final int MAX_PACKET_SIZE = 16384;
+
+    /**
+     * Maximum number of messages written with a single gathering write.
+     */
+    private static final int MAX_BATCH = 64;
+
+    private final ClientSession session;
+    @Nullable
+    private final PushPolicy policy;
+    private final int queueCapacity;
+
+    /**
+     * Pending notifications by subscription and slot, in order of first change, queued messages, pending invalidations
+     * by cache and key, and the actions to run once the session is removed.
+     * All of them are guarded by the map.
+     */
+    private final Map<Slot, Consumer<ByteBuf>> pending = new LinkedHashMap<>();
+    private final Queue<Message> messages = new ArrayDeque<>();
+    private final Map<Slot, Consumer<ByteBuf>> invalidations = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean stalled;
+    @Nullable
+    private List<Runnable> removalActions = new ArrayList<>();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    SessionNotifier(final @NotNull ClientSession session, final @Nullable PushPolicy policy) {
+        this.session = session;
+        this.policy = policy;
+        this.queueCapacity = policy != null ? policy.getQueueCapacity() : DEFAULT_QUEUE_CAPACITY;
+    }
+
+    @Override
+    public void notify(final int subscriptionId, final @Nullable Object slot, final @NotNull Consumer<ByteBuf> payload) {
+        synchronized (this.pending) {
+            this.pending.put(new Slot(subscriptionId, slot), payload);
+            if (this.scheduled) {
+                return;
+            }
+            this.scheduled = true;
+        }
+        this.schedule();
+    }
+
+    @Override
+    public boolean deliver(final int subscriptionId, final @NotNull ByteBuffer message) {
+        synchronized (this.pending) {
+            if (this.messages.size() >= this.queueCapacity) {
+                this.dropped.incrementAndGet();
+                if (this.policy != null && this.policy.getDropPolicy() == DropPolicy.DROP_NEWEST) {
+                    return false;
+                }
+                this.messages.poll();
+            }
+            this.messages.add(new Message(subscriptionId, message));
+            if (this.scheduled) {
+                return true;
+            }
+            this.scheduled = true;
+        }
+        this.schedule();
+        return true;
+    }
+
+    @Override
+    public void invalidate(final int cacheId, final @NotNull Object key, final @NotNull Consumer<ByteBuf> payload) {
+        synchronized (this.pending) {
+            this.invalidations.putIfAbsent(new Slot(cacheId, key), payload);
+            if (this.scheduled) {
+                return;
+            }
+            this.scheduled = true;
+        }
+        this.schedule();
+    }
+
+    @Override
+    public void onRemoval(final @NotNull Runnable action) {
+        synchronized (this.pending) {
+            if (this.removalActions != null) {
+                this.removalActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Resumes a flush stalled by a backlog of the session, once the backlog is written.
+     */
+    void resume() {
+        synchronized (this.pending) {
+            if (!this.stalled) {
+                return;
+            }
+            this.stalled = false;
+        }
+        this.schedule();
+    }
+
+    /**
+     * Runs the actions registered with {@link #onRemoval}, once the session is removed. Removing it twice has no effect.
+     */
+    void remove() {
+        final List<Runnable> actions;
+        synchronized (this.pending) {
+            actions = this.removalActions;
+            this.removalActions = null;
+        }
+        if (actions != null) {
+            for (final Runnable action : actions) {
+                try {
+                    action.run();
+                } catch (final Exception exception) {
+                    LOGGER.warn("Failed to run a removal action of a session", exception);
+                }
+            }
+        }
+    }
+
+    @Override
+    @Contract(pure = true)
+    public boolean isOpen() {
+        return this.session.getChannel().isOpen();
+    }
+
+    /**
+     * Gets the number of messages dropped because the queue of this session was full.
+     *
+     * @return The number of dropped messages.
+     */
+    @Contract(pure = true)
+    public long droppedCount() {
+        return this.dropped.get();
+    }
+
+    private void schedule() {
+        if (this.policy != null) {
+            this.policy.getExecutor().execute(this::flush);
+        } else {
+            this.flush();
+        }
+    }
+
+    /**
+     * Writes the pending notifications and the queued messages until there are none left, or until the session has a
+     * backlog. Only one flush runs at a time, the next changes being written by the running one.
+     */
+    private void flush() {
+        try {
+            while (true) {
+                final List<Map.Entry<Slot, Consumer<ByteBuf>>> notifications;
+                final List<Map.Entry<Slot, Consumer<ByteBuf>>> invalidations;
+                final List<Message> batch = new ArrayList<>();
+                synchronized (this.pending) {
+                    if (this.pending.isEmpty() && this.messages.isEmpty() && this.invalidations.isEmpty()) {
+                        this.scheduled = false;
+                        return;
+                    }
+                    // Still scheduled, so that the next changes are gathered until the worker resumes the flush
+                    if (this.session.isWriteBacklogged()) {
+                        this.stalled = true;
+                        return;
+                    }
+                    notifications = new ArrayList<>(this.pending.entrySet());
+                    this.pending.clear();
+                    invalidations = new ArrayList<>(this.invalidations.entrySet());
+                    this.invalidations.clear();
+                    Message message;
+                    while (batch.size() < MAX_BATCH && (message = this.messages.poll()) != null) {
+                        batch.add(message);
+                    }
+                }
+                this.write(notifications, invalidations, batch);
+            }
+        } catch (final Exception exception) {
+            LOGGER.debug("Failed to push to a session, it is likely closed", exception);
+            synchronized (this.pending) {
+                this.pending.clear();
+                this.messages.clear();
+                this.invalidations.clear();
+                this.scheduled = false;
+                this.stalled = false;
+            }
+        }
+    }
+
+    private void write(final @NotNull List<Map.Entry<Slot, Consumer<ByteBuf>>> notifications,
+                       final @NotNull List<Map.Entry<Slot, Consumer<ByteBuf>>> invalidations,
+                       final @NotNull List<Message> batch) throws Exception {
+        final List<ByteBuffer> frames = new ArrayList<>(batch.size() * 2 + invalidations.size() + 1);
+        ByteBuf buffer = null;
+        for (final Map.Entry<Slot, Consumer<ByteBuf>> notification : notifications) {
+            if (buffer == null) {
+                buffer = new ByteBuf(64).putInt(0).put(ServerPacket.NOTIFY.getId());
+            }
+            // Each payload is prefixed with its length, so that the client skips the cancelled subscriptions
+            buffer.putInt(notification.getKey().subscriptionId()).putInt(0);
+            final int start = buffer.position();
+            notification.getValue().accept(buffer);
+            buffer.getBuffer().putInt(start - 4, buffer.position() - start);
+            if (buffer.position() >= MAX_PACKET_SIZE) {
+                frames.add(frame(buffer));
+                buffer = null;
+            }
+        }
+        if (buffer != null) {
+            frames.add(frame(buffer));
+        }
+        // The client reads a single key per invalidation packet
+        for (final Map.Entry<Slot, Consumer<ByteBuf>> invalidation : invalidations) {
+            final ByteBuf packet = new ByteBuf(32).putInt(0).put(ServerPacket.INVALIDATE.getId()).putInt(invalidation.getKey().subscriptionId());
+            invalidation.getValue().accept(packet);
+            frames.add(frame(packet));
+        }
+        for (final Message message : batch) {
+            final ByteBuffer payload = message.payload().duplicate();
+            frames.add(ByteBuffer.allocate(13)
+                    .putInt(9 + payload.remaining())
+                    .put(ServerPacket.NOTIFY.getId())
+                    .putInt(message.subscriptionId())
+                    .putInt(payload.remaining())
+                    .flip());
+            frames.add(payload);
+        }
+        this.session.writeFrames(frames.toArray(new ByteBuffer[0]));
+    }
+
+    @NotNull
+    private static ByteBuffer frame(final @NotNull ByteBuf buffer) {
+        final ByteBuffer frame = buffer.getBuffer();
+        frame.putInt(0, frame.position() - 4);
+        return frame.flip();
+    }
+
+    /**
+     * Changed part of a subscription, or changed key of a near cache.
+     *
+     * @param subscriptionId The identifier of the subscription or of the cache in the client.
+     * @param slot           The changed part of the container, or {@code null} if the subscription only has one part.
+     */
+    private record Slot(int subscriptionId, @Nullable Object slot) {
+    }
+
+    /**
+     * Message queued for a subscription.
+     *
+     * @param subscriptionId The identifier of the subscription in the client.
+     * @param payload        The message, shared by every subscriber and never modified.
+     */
+    private record Message(int subscriptionId, @NotNull ByteBuffer payload) {
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package be.darkkraft.memorized.server.session;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the offloaded packets of a session one after the other on a shared {@link Executor},
+ * so that their responses are sent in the order the packets were received.
+ * <p>The queue is bounded: once {@link #CAPACITY} packets are pending, the reads of the session are suspended until
+ * half of them have been handled.</p>
+ */
+final class SessionTaskQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionTaskQueue.class);
+
+    /**
+     * Number of tasks run before the queue gives its executor thread back to the other sessions.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * Number of pending packets above which the reads of the session are suspended.
+     */
+    static final int CAPACITY = 1024;
+
+    /**
+     * Number of pending packets below which the suspended reads of the session are resumed.
+     */
+    private static final int RESUME_THRESHOLD = CAPACITY / 2;
+
+    private final ClientSession session;
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    SessionTaskQueue(final @NotNull ClientSession session, final @NotNull Executor executor) {
+        this.session = session;
+        this.executor = executor;
+    }
+
+    void submit(final @NotNull Runnable task) {
+        this.tasks.add(task);
+        if (this.pending.getAndIncrement() == 0) {
+            this.executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Checks if tasks are queued or running. The counter is only decremented once a task has completed,
+     * so that the worker thread keeps queueing the next packets until the session is idle again.
+     *
+     * @return {@code true} if tasks are queued or running, {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return this.pending.get() == 0;
+    }
+
+    /**
+     * Checks if the capacity of this queue is reached, so that the session must stop reading packets.
+     *
+     * @return {@code true} if the queue is full, {@code false} otherwise.
+     */
+    boolean isFull() {
+        return this.pending.get() >= CAPACITY;
+    }
+
+    /**
+     * Gets the number of tasks queued or running.
+     *
+     * @return The number of pending tasks.
+     */
+    int size() {
+        return this.pending.get();
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            this.run(this.tasks.poll());
+            final int remaining = this.pending.decrementAndGet();
+            if (remaining <= RESUME_THRESHOLD && this.session.isReadSuspended()) {
+                this.session.resumeReads();
+            }
+            if (remaining == 0) {
+                return;
+            }
+        }
+        this.executor.execute(this::drain);
+    }
+
+    private void run(final Runnable task) {
+        try {
+            task.run();
+        } catch (final Exception exception) {
+            LOGGER.error("An error occurred while handling an offloaded packet", exception);
+            this.session.close();
+        }
+    }
+
+}
\ No newline at end of file
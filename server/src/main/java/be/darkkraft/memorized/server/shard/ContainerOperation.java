@@ -0,0 +1,24 @@
+package be.darkkraft.memorized.server.shard;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Functional interface for an operation on a {@link DataContainer}, executed by the shard owning the container.
+ */
+@FunctionalInterface
+public interface ContainerOperation {
+
+    /**
+     * Executes the operation.
+     *
+     * @param session   The session to reply to.
+     * @param buffer    The packet buffer, positioned after the key of the container.
+     * @param container The container.
+     */
+    void execute(final @NotNull Session session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container);
+
+}
\ No newline at end of file
@@ -0,0 +1,303 @@
+package be.darkkraft.memorized.server.shard;
+
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A worker shard: the only thread executing the operations of the containers it owns.
+ * <p>Operations on containers owned by another shard are handed off through the single-producer single-consumer ring
+ * dedicated to this pair of shards. The owner sends the task back through the opposite ring once executed, and the
+ * shard of the session writes the responses in request order.</p>
+ * <p>All methods except {@link #getLoad()} must be called by the thread of the shard.</p>
+ */
+public final class Shard {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Shard.class);
+
+    private static final ThreadLocal<Shard> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Number of empty drains a waiting shard spins through before parking.
+     */
+    private static final int MAX_SPINS = 128;
+
+    /**
+     * Longest park of a waiting shard, which is also unparked as soon as a task is handed to it.
+     * A shard waiting for room in a full ring is not told when room is made, so it checks again after this delay.
+     */
+    private static final long PARK_NANOS = 50_000L;
+
+    private final int id;
+    private final ShardGroup group;
+    private final Runnable wakeup;
+
+    /**
+     * Inbound rings, indexed by the identifier of the producing shard.
+     */
+    private final SpscRing<ShardTask>[] inbound;
+
+    /**
+     * Executed tasks that could not be sent back yet because the ring to their shard was full, indexed by shard.
+     */
+    private final ArrayDeque<ShardTask>[] overflow;
+    private int overflowCount;
+
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong handedIn = new AtomicLong();
+    private final AtomicLong handedOut = new AtomicLong();
+
+    @Nullable
+    private volatile Thread thread;
+    private volatile boolean parked;
+
+    @SuppressWarnings("unchecked")
+    Shard(final int id, final @NotNull ShardGroup group, final int shards, final int ringCapacity, final @NotNull Runnable wakeup) {
+        this.id = id;
+        this.group = group;
+        this.wakeup = wakeup;
+        this.inbound = (SpscRing<ShardTask>[]) new SpscRing<?>[shards];
+        this.overflow = (ArrayDeque<ShardTask>[]) new ArrayDeque<?>[shards];
+        for (int i = 0; i < shards; i++) {
+            this.inbound[i] = new SpscRing<>(ringCapacity);
+            this.overflow[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Gets the shard of the calling thread.
+     *
+     * @return The shard, or {@code null} if the calling thread is not a worker shard.
+     */
+    @Nullable
+    public static Shard current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds this shard to the calling thread, must be called once by the worker thread before handling packets.
+     */
+    public void bind() {
+        CURRENT.set(this);
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     * Executes an operation on a container, or hands it off to the shard owning the container.
+     * The operation is executed inline if this shard owns the container and no previous operation of the session is pending.
+     *
+     * @param session   The session that sent the request, handled by this shard.
+     * @param buffer    The packet buffer, positioned after the key of the container.
+     * @param container The target container.
+     * @param operation The operation to execute.
+     */
+    public void dispatch(final @NotNull ClientSession session, final @NotNull ByteBuffer buffer, final @NotNull DataContainer container, final @NotNull ContainerOperation operation) {
+        final int owner = this.group.ownerOf(container);
+        if (owner == this.id && !session.hasPendingReplies()) {
+            this.operations.lazySet(this.operations.get() + 1);
+            operation.execute(session, buffer, container);
+            return;
+        }
+
+        final ByteBuffer request = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+        final ShardTask task = new ShardTask(session, container, operation, request, this.id);
+        session.getPendingReplies().add(task);
+        if (owner == this.id) {
+            // Owned by this shard but queued behind pending operations: the response is stored until their completion
+            this.operations.lazySet(this.operations.get() + 1);
+            task.execute();
+            return;
+        }
+
+        this.handedOut.lazySet(this.handedOut.get() + 1);
+        final Shard target = this.group.getShard(owner);
+        final SpscRing<ShardTask> ring = target.inbound[this.id];
+        int spins = 0;
+        while (!ring.offer(task)) {
+            // The owner may itself be waiting for this shard, keep draining to guarantee progress
+            target.wake();
+            spins = this.drain() ? 0 : this.idle(spins);
+        }
+        target.wake();
+    }
+
+    /**
+     * Waits until every handed off operation of a session has been executed and its responses written,
+     * so that a response can be written directly to the session.
+     *
+     * @param session The session, handled by this shard.
+     */
+    public void awaitReplies(final @NotNull ClientSession session) {
+        int spins = 0;
+        while (session.hasPendingReplies()) {
+            spins = this.drain() ? 0 : this.idle(spins);
+        }
+    }
+
+    /**
+     * Waits a little after a drain that processed nothing: spins first, since handed off operations are usually
+     * executed within microseconds, then parks so that a long wait does not burn a core.
+     *
+     * @param spins The number of empty drains since the last processed task.
+     *
+     * @return The updated number of empty drains.
+     */
+    private int idle(final int spins) {
+        if (spins < MAX_SPINS) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        this.parked = true;
+        try {
+            // Checked after publishing the flag, so that a task handed off meanwhile is not missed
+            if (!this.hasInbound()) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        } finally {
+            this.parked = false;
+        }
+        return spins;
+    }
+
+    private boolean hasInbound() {
+        for (final SpscRing<ShardTask> ring : this.inbound) {
+            if (ring.size() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wakes up the thread of this shard after a task is handed to it, whether it waits in its selector or is parked.
+     */
+    private void wake() {
+        this.wakeup.run();
+        if (this.parked) {
+            LockSupport.unpark(this.thread);
+        }
+    }
+
+    /**
+     * Executes the operations handed off to this shard and completes the operations it handed off.
+     *
+     * @return {@code true} if at least one task was processed, {@code false} otherwise.
+     */
+    public boolean drain() {
+        boolean processed = false;
+        for (final SpscRing<ShardTask> ring : this.inbound) {
+            ShardTask task;
+            while ((task = ring.poll()) != null) {
+                processed = true;
+                if (task.isDone()) {
+                    this.complete(task);
+                } else {
+                    this.execute(task);
+                }
+            }
+        }
+        if (this.overflowCount != 0) {
+            this.flushOverflow();
+        }
+        return processed;
+    }
+
+    /**
+     * Checks if executed tasks are waiting to be sent back, in which case the worker must not block.
+     *
+     * @return {@code true} if tasks are waiting, {@code false} otherwise.
+     */
+    public boolean hasOverflow() {
+        return this.overflowCount != 0;
+    }
+
+    private void execute(final @NotNull ShardTask task) {
+        this.operations.lazySet(this.operations.get() + 1);
+        this.handedIn.lazySet(this.handedIn.get() + 1);
+        task.execute();
+
+        // Sending back never blocks, a shard waiting for a full ring must not wait for another one
+        final int home = task.home();
+        final ArrayDeque<ShardTask> pending = this.overflow[home];
+        if (!pending.isEmpty() || !this.group.getShard(home).inbound[this.id].offer(task)) {
+            pending.add(task);
+            this.overflowCount++;
+        }
+        this.group.getShard(home).wake();
+    }
+
+    private void flushOverflow() {
+        for (int home = 0; home < this.overflow.length; home++) {
+            final ArrayDeque<ShardTask> pending = this.overflow[home];
+            if (pending.isEmpty()) {
+                continue;
+            }
+            final Shard target = this.group.getShard(home);
+            final SpscRing<ShardTask> ring = target.inbound[this.id];
+            ShardTask task;
+            while ((task = pending.peek()) != null && ring.offer(task)) {
+                pending.poll();
+                this.overflowCount--;
+            }
+            target.wake();
+        }
+    }
+
+    /**
+     * Writes the responses of the session that are now complete, in request order.
+     *
+     * @param task The completed task.
+     */
+    private void complete(final @NotNull ShardTask task) {
+        final ClientSession session = task.session();
+        final ArrayDeque<ShardTask> replies = session.getPendingReplies();
+        ShardTask head;
+        while ((head = replies.peek()) != null && head.isDone()) {
+            replies.poll();
+            try {
+                if (head.isFailed()) {
+                    LOGGER.warn("An operation handed off to another shard failed. Closing connection.");
+                    session.close();
+                } else if (session.getChannel().isOpen()) {
+                    head.flush();
+                }
+            } catch (final IOException exception) {
+                LOGGER.error("An error occurred while writing the responses of a session", exception);
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * Gets a snapshot of the load of this shard, can be called by any thread.
+     *
+     * @return The load of this shard.
+     */
+    @NotNull
+    public ShardLoad getLoad() {
+        int backlog = 0;
+        for (final SpscRing<ShardTask> ring : this.inbound) {
+            backlog += ring.size();
+        }
+        return new ShardLoad(this.id, this.operations.get(), this.handedIn.get(), this.handedOut.get(), backlog);
+    }
+
+    /**
+     * Gets the identifier of this shard.
+     *
+     * @return The identifier.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+}
\ No newline at end of file
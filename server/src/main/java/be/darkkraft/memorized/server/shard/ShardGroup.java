@@ -0,0 +1,75 @@
+package be.darkkraft.memorized.server.shard;
+
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The worker shards of a server using the {@link be.darkkraft.memorized.server.ServerEngine#SHARDED SHARDED} engine,
+ * and the assignment of containers to them.
+ */
+public final class ShardGroup {
+
+    /**
+     * Capacity of each ring between two shards.
+     */
+    private static final int RING_CAPACITY = 4096;
+
+    private final Shard[] shards;
+
+    /**
+     * Creates a new group of shards.
+     *
+     * @param wakeups The actions waking up the worker thread of each shard, one per shard.
+     */
+    public ShardGroup(final @NotNull Runnable[] wakeups) {
+        this.shards = new Shard[wakeups.length];
+        for (int i = 0; i < wakeups.length; i++) {
+            this.shards[i] = new Shard(i, this, wakeups.length, RING_CAPACITY, wakeups[i]);
+        }
+    }
+
+    /**
+     * Gets the shard owning a container. A container is always owned by the same shard.
+     *
+     * @param container The container.
+     *
+     * @return The identifier of the owner shard.
+     */
+    @Contract(pure = true)
+    public int ownerOf(final @NotNull DataContainer container) {
+        final int hash = System.identityHashCode(container);
+        return Math.floorMod(hash ^ (hash >>> 16), this.shards.length);
+    }
+
+    /**
+     * Gets a shard by its identifier.
+     *
+     * @param id The identifier of the shard.
+     *
+     * @return The shard.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Shard getShard(final int id) {
+        return this.shards[id];
+    }
+
+    /**
+     * Gets a snapshot of the load of every shard.
+     *
+     * @return The loads, indexed by shard.
+     */
+    @NotNull
+    public List<ShardLoad> getLoads() {
+        final List<ShardLoad> loads = new ArrayList<>(this.shards.length);
+        for (final Shard shard : this.shards) {
+            loads.add(shard.getLoad());
+        }
+        return loads;
+    }
+
+}
\ No newline at end of file
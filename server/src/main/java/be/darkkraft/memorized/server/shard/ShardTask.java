@@ -0,0 +1,190 @@
+package be.darkkraft.memorized.server.shard;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A container operation executed outside the normal flow of its session: by the shard owning the container,
+ * or by the shard of the session while previous operations are still pending.
+ * <p>The task is the {@link Session} given to the container: the responses it sends are stored as frames,
+ * then written in request order by the shard of the session.</p>
+ */
+public final class ShardTask implements Session {
+
+    private final ClientSession session;
+    private final DataContainer container;
+    private final ContainerOperation operation;
+    private final ByteBuffer request;
+    private final int home;
+    private final ByteBuf reply = new ByteBuf(64);
+
+    private boolean done;
+    private boolean failed;
+
+    /**
+     * Creates a new task.
+     *
+     * @param session   The session that sent the request.
+     * @param container The target container.
+     * @param operation The operation to execute on the container.
+     * @param request   The request, positioned after the key of the container. Must not be shared.
+     * @param home      The identifier of the shard of the session.
+     */
+    ShardTask(final @NotNull ClientSession session, final @NotNull DataContainer container, final @NotNull ContainerOperation operation, final @NotNull ByteBuffer request, final int home) {
+        this.session = session;
+        this.container = container;
+        this.operation = operation;
+        this.request = request;
+        this.home = home;
+    }
+
+    /**
+     * Executes the operation, storing its responses.
+     *
+     * @return {@code false} if the operation failed, {@code true} otherwise.
+     */
+    boolean execute() {
+        try {
+            this.operation.execute(this, this.request, this.container);
+        } catch (final Exception exception) {
+            this.failed = true;
+        }
+        this.done = true;
+        return !this.failed;
+    }
+
+    /**
+     * Writes the stored responses to the channel of the session.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    void flush() throws IOException {
+        this.session.writeFrames(this.reply.getBuffer().flip());
+    }
+
+    @NotNull
+    ClientSession session() {
+        return this.session;
+    }
+
+    int home() {
+        return this.home;
+    }
+
+    boolean isDone() {
+        return this.done;
+    }
+
+    boolean isFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Stores a frame made of the given payload.
+     *
+     * @param buffer the {@link ByteBuffer} to send, flipped and cleared like {@link Session#send(SocketChannel, ByteBuffer)}.
+     */
+    @Override
+    public void send(final @NotNull ByteBuffer buffer) {
+        buffer.flip();
+        this.reply.putInt(buffer.remaining()).put(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Stores a frame made of the given payload, then clears it.
+     *
+     * @param buffer the {@link ByteBuf} to send.
+     */
+    @Override
+    public void send(final @NotNull ByteBuf buffer) {
+        final ByteBuffer payload = buffer.getBuffer();
+        payload.limit(payload.position()).position(0);
+        this.reply.putInt(payload.remaining()).put(payload);
+        payload.clear();
+    }
+
+    /**
+     * Stores a frame made of a packet identifier.
+     *
+     * @param packetId the identifier of the packet.
+     */
+    @Override
+    public void send(final byte packetId) {
+        this.reply.putInt(1).put(packetId);
+    }
+
+    /**
+     * Stores a frame made of a packet identifier and an int.
+     *
+     * @param packetId the identifier of the packet.
+     * @param value    the int written after the identifier.
+     */
+    @Override
+    public void unsafeSend(final byte packetId, final int value) {
+        this.reply.putInt(5).put(packetId).putInt(value);
+    }
+
+    /**
+     * Pushes a packet to the session that sent the request, written right away instead of being stored.
+     *
+     * @param buffer the {@link ByteBuf} to send.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void push(final @NotNull ByteBuf buffer) throws IOException {
+        this.session.push(buffer);
+    }
+
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public Session origin() {
+        return this.session;
+    }
+
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public SocketChannel getChannel() {
+        return this.session.getChannel();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return this.session.isAuthenticated();
+    }
+
+    @Override
+    @NotNull
+    public ByteBuffer computeBuffer() {
+        throw new UnsupportedOperationException("Shard tasks do not read packets");
+    }
+
+    @Override
+    public void updateBuffer(final @NotNull ByteBuffer buffer) {
+        throw new UnsupportedOperationException("Shard tasks do not read packets");
+    }
+
+    @Override
+    public void removeBuffer() {
+        throw new UnsupportedOperationException("Shard tasks do not read packets");
+    }
+
+    @Override
+    @Nullable
+    public ByteBuffer getBuffer() {
+        return null;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package be.darkkraft.memorized.server.shard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free ring buffer for a single producer thread and a single consumer thread.
+ * Each side only publishes its own index with a release store, and caches the index of the other side
+ * to avoid reading it on every operation.
+ *
+ * @param <E> The type of elements.
+ */
+final class SpscRing<E> {
+
+    private final Object[] elements;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Last head seen by the producer.
+     */
+    private long cachedHead;
+
+    /**
+     * Last tail seen by the consumer.
+     */
+    private long cachedTail;
+
+    SpscRing(final int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.elements = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds an element, must only be called by the producer thread.
+     *
+     * @param element The element to add.
+     *
+     * @return {@code true} if the element was added, {@code false} if the ring is full.
+     */
+    boolean offer(final @NotNull E element) {
+        final long tail = this.tail.get();
+        if (tail - this.cachedHead == this.elements.length) {
+            this.cachedHead = this.head.get();
+            if (tail - this.cachedHead == this.elements.length) {
+                return false;
+            }
+        }
+        this.elements[(int) tail & this.mask] = element;
+        this.tail.lazySet(tail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element, must only be called by the consumer thread.
+     *
+     * @return The removed element, or {@code null} if the ring is empty.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    E poll() {
+        final long head = this.head.get();
+        if (head == this.cachedTail) {
+            this.cachedTail = this.tail.get();
+            if (head == this.cachedTail) {
+                return null;
+            }
+        }
+        final int index = (int) head & this.mask;
+        final E element = (E) this.elements[index];
+        this.elements[index] = null;
+        this.head.lazySet(head + 1);
+        return element;
+    }
+
+    /**
+     * Gets an estimation of the number of elements, can be called by any thread.
+     *
+     * @return The number of elements.
+     */
+    int size() {
+        return (int) (this.tail.get() - this.head.get());
+    }
+
+}
\ No newline at end of file
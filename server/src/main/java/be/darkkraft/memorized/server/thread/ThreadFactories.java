@@ -0,0 +1,102 @@
+package be.darkkraft.memorized.server.thread;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class creating the {@link ThreadFactory ThreadFactories} of the server.
+ * <p>Virtual threads are created through method handles, so that the server still runs on Java 17.</p>
+ */
+public final class ThreadFactories {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadFactories.class);
+
+    @Nullable
+    private static final MethodHandle OF_VIRTUAL;
+    @Nullable
+    private static final MethodHandle NAME;
+    @Nullable
+    private static final MethodHandle FACTORY;
+
+    static {
+        MethodHandle ofVirtual = null, name = null, factory = null;
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualBuilderClass));
+            name = lookup.findVirtual(virtualBuilderClass, "name", MethodType.methodType(virtualBuilderClass, String.class, long.class));
+            factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+        } catch (final ReflectiveOperationException ignored) {
+            // Virtual threads are not available on this runtime
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private ThreadFactories() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Checks if the current runtime supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are available, {@code false} otherwise.
+     */
+    @Contract(pure = true)
+    public static boolean isVirtualThreadAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} of daemon platform threads named {@code prefix + index}.
+     *
+     * @param prefix The prefix of the thread names.
+     *
+     * @return The created {@link ThreadFactory}.
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static ThreadFactory platform(final @NotNull String prefix) {
+        final AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} of virtual threads named {@code prefix + index},
+     * or of daemon platform threads if the runtime does not support virtual threads.
+     * <p>The fallback is logged as a warning, since each platform thread holds an OS thread and its stack for as long
+     * as it runs, which does not scale to many mostly idle connections.</p>
+     *
+     * @param prefix The prefix of the thread names.
+     *
+     * @return The created {@link ThreadFactory}.
+     */
+    @NotNull
+    public static ThreadFactory virtual(final @NotNull String prefix) {
+        if (OF_VIRTUAL == null || NAME == null || FACTORY == null) {
+            LOGGER.warn("Virtual threads are not supported by Java {}, \"{}\" threads fall back to platform threads", Runtime.version().feature(), prefix.trim());
+            return platform(prefix);
+        }
+        try {
+            return (ThreadFactory) FACTORY.invoke(NAME.invoke(OF_VIRTUAL.invoke(), prefix, 0L));
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException("Cannot create virtual thread factory", throwable);
+        }
+    }
+
+}
\ No newline at end of file
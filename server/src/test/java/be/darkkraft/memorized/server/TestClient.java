@@ -0,0 +1,144 @@
+package be.darkkraft.memorized.server;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Minimal blocking client speaking the raw protocol, so that server tests do not depend on the client modules.
+ */
+public final class TestClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer sizeBuffer = ByteBuffer.allocate(4);
+
+    private TestClient(final @NotNull SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Connects to a server and authenticates with a token, retrying until the server accepts connections.
+     *
+     * @param address The address of the server.
+     * @param token   The authentication token.
+     *
+     * @return The authenticated client.
+     *
+     * @throws IOException If the server cannot be reached or rejects the token.
+     */
+    @NotNull
+    public static TestClient connect(final @NotNull InetSocketAddress address, final @NotNull String token) throws IOException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (true) {
+            try {
+                return authenticate(SocketChannel.open(address), token);
+            } catch (final ConnectException exception) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw exception;
+                }
+                try {
+                    Thread.sleep(20L);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    throw exception;
+                }
+            }
+        }
+    }
+
+    /**
+     * Authenticates an open channel with a token.
+     *
+     * @param channel The channel connected to the server.
+     * @param token   The authentication token.
+     *
+     * @return The authenticated client.
+     *
+     * @throws IOException If the server rejects the token.
+     */
+    @NotNull
+    public static TestClient authenticate(final @NotNull SocketChannel channel, final @NotNull String token) throws IOException {
+        final TestClient client = new TestClient(channel);
+        client.send(new ByteBuf().put(ClientPacket.AUTH.getId()).putString(token));
+        if (client.receive().get() != ServerPacket.AUTH_SUCCESS.getId()) {
+            client.close();
+            throw new IOException("Authentication failed");
+        }
+        return client;
+    }
+
+    /**
+     * Finds a free local address for a test server.
+     *
+     * @return The address.
+     *
+     * @throws IOException If no port is available.
+     */
+    @NotNull
+    public static InetSocketAddress freeAddress() throws IOException {
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            return new InetSocketAddress("127.0.0.1", socket.getLocalPort());
+        }
+    }
+
+    /**
+     * Sends a packet, prefixed with its size.
+     *
+     * @param packet The packet, starting with its identifier.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void send(final @NotNull ByteBuf packet) throws IOException {
+        Session.send(this.channel, packet);
+    }
+
+    /**
+     * Reads the next packet.
+     *
+     * @return The packet, positioned at its identifier.
+     *
+     * @throws IOException If an I/O error occurs or the connection is closed.
+     */
+    @NotNull
+    public ByteBuffer receive() throws IOException {
+        this.sizeBuffer.clear();
+        this.readFully(this.sizeBuffer);
+        final ByteBuffer packet = ByteBuffer.allocate(this.sizeBuffer.flip().getInt());
+        this.readFully(packet);
+        return packet.flip();
+    }
+
+    /**
+     * Gets the underlying channel.
+     *
+     * @return The channel.
+     */
+    @NotNull
+    public SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void readFully(final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+    }
+
+}
\ No newline at end of file
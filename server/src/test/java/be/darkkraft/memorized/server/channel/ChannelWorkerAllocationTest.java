@@ -0,0 +1,85 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.CounterUpdate;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChannelWorkerAllocationTest {
+
+    private static final String TOKEN = "allocation-token";
+
+    private static final int WARMUP = 100_000;
+    private static final int INCREMENTS = 100_000;
+
+    @Test
+    @Timeout(60)
+    void counterIncrementsDoNotAllocateOnTheWorker() throws Exception {
+        final InetSocketAddress address = TestClient.freeAddress();
+        final IntegerDataRepository repository = new IntegerDataRepository();
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        repository.register(1, new ServerIntCounter());
+        server.start();
+        try (final TestClient client = TestClient.connect(address, TOKEN)) {
+            final ByteBuf increment = new ByteBuf().put(ClientPacket.UPDATE.getId())
+                    .putInt(repository.getKeyIdentifier())
+                    .putInt(1)
+                    .put(CounterUpdate.INCREMENT_AND_GET.getId())
+                    .putInt(1);
+
+            for (int i = 1; i <= WARMUP; i++) {
+                assertEquals(i, increment(client, increment));
+            }
+
+            final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final long workerId = findThread("Channel Worker #0").getId();
+            final long before = threadBean.getThreadAllocatedBytes(workerId);
+            for (int i = 1; i <= INCREMENTS; i++) {
+                increment(client, increment);
+            }
+            final long allocated = threadBean.getThreadAllocatedBytes(workerId) - before;
+
+            assertEquals(0L, allocated / INCREMENTS, "Bytes allocated per increment (" + allocated + " bytes in total)");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static int increment(final TestClient client, final ByteBuf increment) throws Exception {
+        client.send(increment);
+        final ByteBuffer response = client.receive();
+        assertEquals(ServerPacket.RESULT.getId(), response.get());
+        return response.getInt();
+    }
+
+    private static Thread findThread(final String name) {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                return thread;
+            }
+        }
+        throw new IllegalStateException("Thread not found: " + name);
+    }
+
+}
\ No newline at end of file
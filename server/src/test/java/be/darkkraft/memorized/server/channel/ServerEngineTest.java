@@ -0,0 +1,103 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.CounterUpdate;
+import be.darkkraft.memorized.net.SelectStrategy;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ServerEngineTest {
+
+    private static final String TOKEN = "engine-token";
+
+    private static final int CONNECTIONS = 16;
+    private static final int INCREMENTS = 2_000;
+
+    @Test
+    @Timeout(60)
+    void everyEngineServesConcurrentConnections() throws Exception {
+        for (final ServerEngine engine : ServerEngine.values()) {
+            assertEquals(CONNECTIONS * INCREMENTS, this.incrementConcurrently(engine), engine.name());
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void everyEngineServesWithASpinningSelectStrategy() throws Exception {
+        final SelectStrategy strategy = SelectStrategy.spinThenPark(1_000, 100, 50_000L);
+        for (final ServerEngine engine : ServerEngine.values()) {
+            assertEquals(CONNECTIONS * INCREMENTS, this.incrementConcurrently(engine, strategy), engine.name());
+        }
+    }
+
+    private int incrementConcurrently(final @NotNull ServerEngine engine) throws Exception {
+        return this.incrementConcurrently(engine, SelectStrategy.blocking());
+    }
+
+    private int incrementConcurrently(final @NotNull ServerEngine engine, final @NotNull SelectStrategy strategy) throws Exception {
+        final InetSocketAddress address = TestClient.freeAddress();
+        final IntegerDataRepository repository = new IntegerDataRepository();
+        final ServerIntCounter counter = new ServerIntCounter();
+        repository.register(1, counter);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .engine(engine)
+                .workerThreads(2)
+                .selectStrategy(strategy)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        server.start();
+        final ExecutorService executor = Executors.newFixedThreadPool(CONNECTIONS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONNECTIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    try (final TestClient client = TestClient.connect(address, TOKEN)) {
+                        final ByteBuf increment = new ByteBuf().put(ClientPacket.UPDATE.getId())
+                                .putInt(repository.getKeyIdentifier())
+                                .putInt(1)
+                                .put(CounterUpdate.INCREMENT_AND_GET.getId())
+                                .putInt(1);
+                        for (int j = 0; j < INCREMENTS; j++) {
+                            client.send(increment);
+                            final ByteBuffer response = client.receive();
+                            assertEquals(ServerPacket.RESULT.getId(), response.get());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            return counter.get();
+        } finally {
+            executor.shutdownNow();
+            server.shutdown();
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.CounterUpdate;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class SessionMigrationTest {
+
+    private static final String TOKEN = "migration-token";
+
+    /**
+     * Increments written at once, so that some of them are in flight whenever the session is migrated.
+     */
+    private static final int BATCH = 200;
+    private static final int MIN_BATCHES = 20;
+
+    @Test
+    void keepsPipelinedResponsesInOrder() throws Exception {
+        final InetSocketAddress address = TestClient.freeAddress();
+        final IntegerDataRepository repository = new IntegerDataRepository();
+        final ServerIntCounter counter = new ServerIntCounter();
+        repository.register(1, counter);
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .workerThreads(2)
+                .balanceInterval(0L)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        final Set<Thread> previous = Thread.getAllStackTraces().keySet();
+        server.start();
+        final List<ChannelWorkerThread> workers = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread instanceof ChannelWorkerThread && !previous.contains(thread))
+                .map(ChannelWorkerThread.class::cast)
+                .toList();
+        assertEquals(2, workers.size());
+
+        try (final TestClient client = TestClient.connect(address, TOKEN)) {
+            // Counted once the worker is done with the selection that authenticated the client
+            while (workers.get(0).getSessionCount() + workers.get(1).getSessionCount() == 0) {
+                Thread.onSpinWait();
+            }
+            final ChannelWorkerThread source = workers.get(0).getSessionCount() == 1 ? workers.get(0) : workers.get(1);
+            final ChannelWorkerThread target = source == workers.get(0) ? workers.get(1) : workers.get(0);
+
+            final ByteBuffer batch = increments(repository.getKeyIdentifier());
+            final long deadline = System.currentTimeMillis() + 10_000L;
+            int expected = 1;
+            boolean migrated = false;
+            for (int i = 0; i < MIN_BATCHES || !migrated; i++) {
+                assertTrue(System.currentTimeMillis() < deadline, "The session was never migrated");
+                while (batch.hasRemaining()) {
+                    client.getChannel().write(batch);
+                }
+                batch.rewind();
+                if (!migrated) {
+                    migrated = target.getSessionCount() == 1;
+                    source.requestSample();
+                    source.requestMigration(target, Long.MAX_VALUE);
+                }
+                // Reads the responses of the previous batch only, a worker reads a client writing without pause until it stops
+                for (; i > 0 && expected <= i * BATCH; expected++) {
+                    assertResponse(client, expected);
+                }
+            }
+            for (final int sent = expected + BATCH; expected < sent; expected++) {
+                assertResponse(client, expected);
+            }
+            assertEquals(expected - 1, counter.get());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static void assertResponse(final @NotNull TestClient client, final int expected) throws IOException {
+        final ByteBuffer response = client.receive();
+        assertEquals(ServerPacket.RESULT.getId(), response.get());
+        assertEquals(expected, response.getInt(), "A response was lost or reordered");
+    }
+
+    @NotNull
+    private static ByteBuffer increments(final int repositoryId) {
+        final ByteBuffer buffer = ByteBuffer.allocate(BATCH * 18);
+        for (int i = 0; i < BATCH; i++) {
+            buffer.putInt(14)
+                    .put(ClientPacket.UPDATE.getId())
+                    .putInt(repositoryId)
+                    .putInt(1)
+                    .put(CounterUpdate.INCREMENT_AND_GET.getId())
+                    .putInt(1);
+        }
+        return buffer.flip();
+    }
+
+}
\ No newline at end of file
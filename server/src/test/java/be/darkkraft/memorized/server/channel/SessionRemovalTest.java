@@ -0,0 +1,87 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class SessionRemovalTest {
+
+    private static final String TOKEN = "removal-token";
+
+    @Test
+    void removesSessionClosedByTheClient() throws Exception {
+        for (final ServerEngine engine : ServerEngine.values()) {
+            this.assertRemoved(engine, TestClient::close);
+        }
+    }
+
+    @Test
+    void removesSessionResetByTheClient() throws Exception {
+        for (final ServerEngine engine : ServerEngine.values()) {
+            this.assertRemoved(engine, client -> {
+                // An abortive close makes the next read of the server fail instead of reaching the end of stream
+                client.getChannel().setOption(StandardSocketOptions.SO_LINGER, 0);
+                client.close();
+            });
+        }
+    }
+
+    @Test
+    void removesSessionSendingAnOversizedPacket() throws Exception {
+        for (final ServerEngine engine : ServerEngine.values()) {
+            this.assertRemoved(engine, client -> client.getChannel().write(ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).flip()));
+        }
+    }
+
+    private void assertRemoved(final @NotNull ServerEngine engine, final @NotNull ClientAction action) throws Exception {
+        final InetSocketAddress address = TestClient.freeAddress();
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .engine(engine)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator())
+                .build();
+        server.start();
+        try (final TestClient client = TestClient.connect(address, TOKEN)) {
+            assertTrue(awaitSessions(server, false), engine + ": session was not added");
+            action.run(client);
+            assertTrue(awaitSessions(server, true), engine + ": session was not removed");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static boolean awaitSessions(final @NotNull MemorizedServer server, final boolean empty) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (server.getSessions().isEmpty() != empty) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10L);
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface ClientAction {
+
+        void run(final @NotNull TestClient client) throws Exception;
+
+    }
+
+}
\ No newline at end of file
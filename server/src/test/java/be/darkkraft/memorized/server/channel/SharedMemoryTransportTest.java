@@ -0,0 +1,111 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.counter.CounterUpdate;
+import be.darkkraft.memorized.net.shm.SharedMemoryChannel;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Timeout(60)
+class SharedMemoryTransportTest {
+
+    private static final String TOKEN = "shm-token";
+
+    private static final int INCREMENTS = 20_000;
+
+    private Path directory;
+    private InetSocketAddress address;
+    private ServerIntCounter counter;
+    private IntegerDataRepository repository;
+    private MemorizedServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.directory = Files.createTempDirectory("memorized-shm");
+        this.address = TestClient.freeAddress();
+        this.repository = new IntegerDataRepository();
+        this.counter = new ServerIntCounter();
+        this.repository.register(1, this.counter);
+        this.server = new MemorizedServerBuilder().address(this.address)
+                .sharedMemoryDirectory(this.directory)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(this.repository))
+                .build();
+        this.server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.server.shutdown();
+        try (final Stream<Path> files = Files.walk(this.directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void servesTheSameRequestsAsTcp() throws IOException {
+        try (final TestClient client = TestClient.connect(this.address, TOKEN)) {
+            this.increment(client);
+        }
+        try (final TestClient client = TestClient.authenticate(SharedMemoryChannel.connect(this.directory), TOKEN)) {
+            this.increment(client);
+        }
+        assertEquals(2 * INCREMENTS, this.counter.get());
+    }
+
+    @Test
+    void keepsAcceptingAfterAFailedConnection() throws IOException {
+        try (final TestClient client = TestClient.authenticate(SharedMemoryChannel.connect(this.directory), TOKEN)) {
+            this.roundTrip(client);
+        }
+        // A directory with the extension of the connection files cannot be mapped, its acceptance fails
+        Files.createDirectory(this.directory.resolve("invalid.ring"));
+        try (final TestClient client = TestClient.authenticate(SharedMemoryChannel.connect(this.directory, 1024, 5_000L), TOKEN)) {
+            this.roundTrip(client);
+        }
+        assertEquals(2, this.counter.get());
+    }
+
+    private void increment(final @NotNull TestClient client) throws IOException {
+        for (int i = 0; i < INCREMENTS; i++) {
+            this.roundTrip(client);
+        }
+    }
+
+    private void roundTrip(final @NotNull TestClient client) throws IOException {
+        client.send(new ByteBuf().put(ClientPacket.UPDATE.getId())
+                .putInt(this.repository.getKeyIdentifier())
+                .putInt(1)
+                .put(CounterUpdate.INCREMENT_AND_GET.getId())
+                .putInt(1));
+        final ByteBuffer response = client.receive();
+        assertEquals(ServerPacket.RESULT.getId(), response.get());
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package be.darkkraft.memorized.server.channel;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class UnixDomainSocketTest {
+
+    private Path directory;
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("memorized-uds");
+        this.path = this.directory.resolve("server.sock");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(this.path);
+        Files.delete(this.directory);
+    }
+
+    @Test
+    void replacesAStaleSocket() throws IOException {
+        // A closed listener leaves its socket file behind, like a server that did not shut down
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(this.path)).close();
+        assertTrue(Files.exists(this.path));
+
+        final MemorizedServer server = this.server();
+        server.start();
+        try {
+            assertTrue(server.isRunning());
+            SocketChannel.open(UnixDomainSocketAddress.of(this.path)).close();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    void keepsARegularFile() throws IOException {
+        Files.writeString(this.path, "data");
+
+        final MemorizedServer server = this.server();
+        server.start();
+        assertFalse(server.isRunning());
+        assertEquals("data", Files.readString(this.path));
+    }
+
+    @Test
+    void keepsTheSocketOfARunningServer() throws IOException {
+        try (final ServerSocketChannel listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(this.path))) {
+            final MemorizedServer server = this.server();
+            server.start();
+            assertFalse(server.isRunning());
+            SocketChannel.open(UnixDomainSocketAddress.of(this.path)).close();
+            listener.accept().close();
+        }
+    }
+
+    @NotNull
+    private MemorizedServer server() throws IOException {
+        return new MemorizedServerBuilder().address(TestClient.freeAddress())
+                .unixDomainSocketPath(this.path)
+                .workerThreads(1)
+                .authenticator(new TokenAuthenticator("uds-token"))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator())
+                .build();
+    }
+
+}
\ No newline at end of file
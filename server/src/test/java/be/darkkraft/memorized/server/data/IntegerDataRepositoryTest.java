@@ -0,0 +1,112 @@
+package be.darkkraft.memorized.server.data;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class IntegerDataRepositoryTest {
+
+    private static final int CONTAINERS = 10_000;
+
+    /**
+     * In the same bucket as the key 1 while the table has its initial 64 buckets.
+     */
+    private static final int COLLIDING_KEY = 65;
+
+    private final IntegerDataRepository repository = new IntegerDataRepository();
+
+    @Test
+    void keepsEveryContainerWhileGrowing() {
+        final DataContainer[] containers = new DataContainer[CONTAINERS];
+        for (int i = 0; i < CONTAINERS; i++) {
+            containers[i] = new EmptyContainer();
+            // Keys differing only by their high bits are spread over the buckets
+            assertTrue(this.repository.registerIfAbsent(i << 16, containers[i]));
+        }
+        for (int i = 0; i < CONTAINERS; i++) {
+            assertSame(containers[i], this.repository.getContainer(i << 16));
+        }
+        assertNull(this.repository.getContainer(-1));
+    }
+
+    @Test
+    void replacesAndRemovesWithinAChain() {
+        final DataContainer first = new EmptyContainer();
+        final DataContainer second = new EmptyContainer();
+        final DataContainer third = new EmptyContainer();
+        this.repository.register(1, first);
+        this.repository.register(COLLIDING_KEY, second);
+        assertFalse(this.repository.registerIfAbsent(1, third));
+        assertSame(first, this.repository.getContainer(1));
+
+        this.repository.register(1, third);
+        assertSame(third, this.repository.getContainer(1));
+        assertSame(second, this.repository.getContainer(COLLIDING_KEY));
+
+        assertSame(third, this.repository.unregister(1));
+        assertNull(this.repository.unregister(1));
+        assertNull(this.repository.getContainer(1));
+        assertSame(second, this.repository.getContainer(COLLIDING_KEY));
+    }
+
+    @Test
+    void countsEveryChange() {
+        final long initial = this.repository.getGeneration();
+        this.repository.register(1, new EmptyContainer());
+        this.repository.registerIfAbsent(1, new EmptyContainer());
+        this.repository.unregister(2);
+        this.repository.unregister(1);
+        assertEquals(initial + 2, this.repository.getGeneration());
+    }
+
+    @Test
+    void seesRegisteredContainersFromOtherThreads() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<?>[] writers = new Future<?>[4];
+            for (int w = 0; w < writers.length; w++) {
+                final int writer = w;
+                writers[w] = executor.submit(() -> {
+                    for (int i = writer; i < CONTAINERS; i += 4) {
+                        assertTrue(this.repository.registerIfAbsent(i, new EmptyContainer()));
+                    }
+                });
+            }
+            for (final Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < CONTAINERS; i++) {
+            assertTrue(this.repository.getContainer(i) instanceof EmptyContainer);
+        }
+    }
+
+    private static final class EmptyContainer implements DataContainer {
+
+        @Override
+        public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        }
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package be.darkkraft.memorized.server.data.blob;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.data.blob.BlobUpdate;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.session.ClientSession;
+import be.darkkraft.memorized.server.session.SessionManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@Timeout(30)
+class ServerBlobTest {
+
+    private static final long MAXIMUM_SIZE = 64L;
+
+    private ServerBlob blob;
+    private SocketChannel client;
+    private ClientSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final MemorizedServer server = new MemorizedServerBuilder().address(TestClient.freeAddress())
+                .authenticator(new TokenAuthenticator("blob-token"))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator())
+                .build();
+        this.blob = new ServerBlob(server, MAXIMUM_SIZE);
+        try (final ServerSocketChannel acceptor = ServerSocketChannel.open().bind(TestClient.freeAddress())) {
+            this.client = SocketChannel.open(acceptor.getLocalAddress());
+            this.session = new SessionManager().addSession(acceptor.accept());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.client.close();
+        this.session.getChannel().close();
+    }
+
+    @Test
+    void readsAcrossChunkBoundaries() throws IOException {
+        final int upload = this.begin(12L);
+        assertEquals(3L, this.append(upload, 0, 1, 2));
+        assertEquals(7L, this.append(upload, 3, 4, 5, 6));
+        assertEquals(12L, this.append(upload, 7, 8, 9, 10, 11));
+        final long version = this.commit(upload);
+        assertNotEquals(0L, version);
+
+        // Starts in the first chunk, spans the second one and ends in the third one
+        final ByteBuffer range = this.show(2L, 7);
+        assertEquals(version, range.getLong());
+        assertEquals(12L, range.getLong());
+        assertArrayEquals(new byte[]{2, 3, 4, 5, 6, 7, 8}, remaining(range));
+
+        // Bounded by the end of the value
+        final ByteBuffer tail = this.show(10L, 100);
+        tail.position(tail.position() + 16);
+        assertArrayEquals(new byte[]{10, 11}, remaining(tail));
+    }
+
+    @Test
+    void commitsAZeroLengthValue() throws IOException {
+        this.blob.set(new byte[]{1, 2, 3});
+        final int upload = this.begin(0L);
+        assertNotEquals(0, upload);
+        final long version = this.commit(upload);
+        assertNotEquals(0L, version);
+
+        assertEquals(0L, this.blob.size());
+        final ByteBuffer range = this.show(0L, 16);
+        assertEquals(version, range.getLong());
+        assertEquals(0L, range.getLong());
+        assertEquals(0, range.remaining());
+    }
+
+    @Test
+    void dropsAnUploadAppendedPastItsSize() throws IOException {
+        final int upload = this.begin(4L);
+        assertEquals(3L, this.append(upload, 0, 1, 2));
+        assertEquals(-1L, this.append(upload, 3, 4));
+
+        // The upload is gone, even a fitting chunk is refused
+        assertEquals(-1L, this.append(upload, 3));
+        assertEquals(0L, this.commit(upload));
+        assertEquals(0L, this.blob.getVersion());
+    }
+
+    @Test
+    void refusesToCommitAnIncompleteUpload() throws IOException {
+        this.blob.set(new byte[]{1, 2, 3});
+        final long version = this.blob.getVersion();
+        final int upload = this.begin(4L);
+        this.append(upload, 0, 1);
+        assertEquals(0L, this.commit(upload));
+        assertEquals(version, this.blob.getVersion());
+        assertArrayEquals(new byte[]{1, 2, 3}, this.blob.getBytes());
+    }
+
+    @Test
+    void replacesThePreviousUploadOfTheSession() throws IOException {
+        final int first = this.begin(2L);
+        this.append(first, 0);
+        final int second = this.begin(2L);
+        assertNotEquals(first, second);
+
+        assertEquals(-1L, this.append(first, 1));
+        assertEquals(2L, this.append(second, 5, 6));
+        assertNotEquals(0L, this.commit(second));
+        assertArrayEquals(new byte[]{5, 6}, this.blob.getBytes());
+    }
+
+    private int begin(final long size) throws IOException {
+        this.update(new ByteBuf(16).put(BlobUpdate.BEGIN.getId()).putLong(size));
+        return this.readResult().getInt();
+    }
+
+    private long append(final int upload, final int... bytes) throws IOException {
+        final ByteBuf request = new ByteBuf(16).put(BlobUpdate.APPEND.getId()).putInt(upload);
+        for (final int value : bytes) {
+            request.put((byte) value);
+        }
+        this.update(request);
+        return this.readResult().getLong();
+    }
+
+    private long commit(final int upload) throws IOException {
+        this.update(new ByteBuf(8).put(BlobUpdate.COMMIT.getId()).putInt(upload));
+        return this.readResult().getLong();
+    }
+
+    private void update(final @NotNull ByteBuf request) {
+        this.blob.handleUpdate(this.session, request.getBuffer().flip());
+    }
+
+    @NotNull
+    private ByteBuffer show(final long offset, final int length) throws IOException {
+        this.blob.handleShow(this.session, new ByteBuf(12).putLong(offset).putInt(length).getBuffer().flip());
+        return this.readResult();
+    }
+
+    @NotNull
+    private ByteBuffer readResult() throws IOException {
+        final ByteBuffer size = this.readFully(ByteBuffer.allocate(4));
+        final ByteBuffer frame = this.readFully(ByteBuffer.allocate(size.getInt()));
+        assertEquals(ServerPacket.RESULT.getId(), frame.get());
+        return frame;
+    }
+
+    @NotNull
+    private ByteBuffer readFully(final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.client.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static byte @NotNull [] remaining(final @NotNull ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,265 @@
+package be.darkkraft.memorized.server.data.map;
+
+import be.darkkraft.memorized.codec.registry.CodecRegistry;
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.session.ClientSession;
+import be.darkkraft.memorized.server.session.SessionManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class ServerMemorizedMapTest {
+
+    private static final int CACHE_ID = 7;
+    private static final int PACKET_SIZE_LIMIT = 256;
+
+    /**
+     * Room for the header of a chunk and about a single entry.
+     */
+    private static final int SMALL_CHUNK = 32;
+
+    private final CodecRegistry registry = new DefaultCodecRegistry().registerDefaults();
+    private final SessionManager manager = new SessionManager();
+    private ServerMemorizedMap<String, String> map;
+    private SocketChannel client;
+    private ClientSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final MemorizedServer server = new MemorizedServerBuilder().address(TestClient.freeAddress())
+                .authenticator(new TokenAuthenticator("map-token"))
+                .codecRegistry(this.registry)
+                .packetSizeLimit(PACKET_SIZE_LIMIT)
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator())
+                .build();
+        this.map = new ServerMemorizedMap<>(server, String.class, String.class);
+        try (final ServerSocketChannel acceptor = ServerSocketChannel.open().bind(TestClient.freeAddress())) {
+            this.client = SocketChannel.open(acceptor.getLocalAddress());
+            this.session = this.manager.addSession(acceptor.accept());
+        }
+        this.session.enablePushes();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.client.close();
+        this.session.getChannel().close();
+    }
+
+    @Test
+    void pushesInvalidationsThroughTheNotifier() throws IOException {
+        this.map.put("key", "first");
+        this.trackedShow("key");
+        assertEquals(ServerPacket.RESULT.getId(), this.readFrame().get());
+
+        this.map.put("key", "second");
+        final ByteBuffer invalidation = this.readFrame();
+        assertEquals(ServerPacket.INVALIDATE.getId(), invalidation.get());
+        assertEquals(CACHE_ID, invalidation.getInt());
+        assertEquals("key", this.registry.decode(invalidation, String.class));
+
+        // Tracking ended with the invalidation
+        this.map.put("key", "third");
+        this.assertNextFrameIsTheMarker();
+    }
+
+    @Test
+    void forgetsTheCachesOfRemovedSessions() throws IOException {
+        this.map.put("key", "first");
+        this.trackedShow("key");
+        this.readFrame();
+
+        this.manager.removeSession(this.session.getChannel());
+        this.map.put("key", "second");
+        this.assertNextFrameIsTheMarker();
+
+        // Caches tracked by a session already removed are forgotten right away
+        this.trackedShow("key");
+        this.readFrame();
+        this.map.put("key", "third");
+        this.assertNextFrameIsTheMarker();
+    }
+
+    @Test
+    void forgetsTheSubscriptionsOfRemovedSessions() throws IOException {
+        this.subscribe(1, "key");
+        this.subscribe(2, null);
+        this.map.put("key", "first");
+        assertEquals(ServerPacket.NOTIFY.getId(), this.readFrame().get());
+        assertEquals(ServerPacket.NOTIFY.getId(), this.readFrame().get());
+
+        this.manager.removeSession(this.session.getChannel());
+        this.map.put("key", "second");
+        this.assertNextFrameIsTheMarker();
+
+        // Subscriptions of a session already removed are dropped right away
+        this.subscribe(3, "key");
+        this.map.put("key", "third");
+        this.assertNextFrameIsTheMarker();
+    }
+
+    @Test
+    void failsScansReachingAnOversizedEntry() throws IOException {
+        this.map.put("key", "x".repeat(PACKET_SIZE_LIMIT));
+        this.scan(0L, 1024);
+        final ByteBuffer chunk = this.readFrame();
+        assertEquals(ServerPacket.RESULT.getId(), chunk.get());
+        assertEquals(-1L, chunk.getLong());
+        assertEquals(0, chunk.getInt());
+
+        // The cursor of the failed scan was released
+        this.scan(1L, 1024);
+        assertEquals(ServerPacket.NOT_FOUND.getId(), this.readFrame().get());
+    }
+
+    @Test
+    void resumesScansFromTheirCursor() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            this.map.put("key" + i, "value" + i);
+        }
+        final Set<String> keys = new HashSet<>();
+        long cursor = 0L;
+        int chunks = 0;
+        do {
+            this.scan(this.session, cursor, SMALL_CHUNK);
+            final ByteBuffer chunk = this.readFrame();
+            assertEquals(ServerPacket.RESULT.getId(), chunk.get());
+            cursor = chunk.getLong();
+            final int count = chunk.getInt();
+            assertTrue(count > 0 && count < 10);
+            for (int i = 0; i < count; i++) {
+                final String key = this.registry.decode(chunk, String.class);
+                assertEquals("value" + key.substring(3), this.registry.decode(chunk, String.class));
+                assertTrue(keys.add(key), "Entry returned twice");
+            }
+            chunks++;
+        } while (cursor != 0L);
+        assertEquals(10, keys.size());
+        assertTrue(chunks > 1);
+    }
+
+    @Test
+    void keepsCursorsToTheirSession() throws IOException {
+        this.map.put("first", "1");
+        this.map.put("second", "2");
+        this.scan(this.session, 0L, SMALL_CHUNK);
+        final long cursor = this.readChunkCursor();
+
+        try (final ServerSocketChannel acceptor = ServerSocketChannel.open().bind(TestClient.freeAddress());
+             final SocketChannel otherClient = SocketChannel.open(acceptor.getLocalAddress())) {
+            final ClientSession other = this.manager.addSession(acceptor.accept());
+            try {
+                // Neither resumed nor released by another session
+                this.scan(other, cursor, SMALL_CHUNK);
+                assertEquals(ServerPacket.NOT_FOUND.getId(), readFrame(otherClient).get());
+                this.scan(other, cursor, 0);
+                assertEquals(ServerPacket.NOT_FOUND.getId(), readFrame(otherClient).get());
+            } finally {
+                other.getChannel().close();
+            }
+        }
+
+        this.scan(this.session, cursor, SMALL_CHUNK);
+        assertEquals(0L, this.readChunkCursor());
+    }
+
+    @Test
+    void releasesIdleCursors() throws IOException {
+        this.map.put("first", "1");
+        this.map.put("second", "2");
+        this.map.put("third", "3");
+        this.scan(this.session, 0L, SMALL_CHUNK);
+        final long cursor = this.readChunkCursor();
+
+        // Used a moment ago
+        this.map.releaseIdleCursors(System.currentTimeMillis() + 1_000L);
+        this.scan(this.session, cursor, SMALL_CHUNK);
+        final long next = this.readChunkCursor();
+        assertNotEquals(0L, next);
+
+        // Not used for longer than the timeout of a minute
+        this.map.releaseIdleCursors(System.currentTimeMillis() + 120_000L);
+        this.scan(this.session, next, SMALL_CHUNK);
+        assertEquals(ServerPacket.NOT_FOUND.getId(), this.readFrame().get());
+    }
+
+    private long readChunkCursor() throws IOException {
+        final ByteBuffer chunk = this.readFrame();
+        assertEquals(ServerPacket.RESULT.getId(), chunk.get());
+        return chunk.getLong();
+    }
+
+    private void scan(final long cursor, final int size) {
+        this.scan(this.session, cursor, size);
+    }
+
+    private void scan(final @NotNull ClientSession session, final long cursor, final int size) {
+        this.map.handleScan(session, new ByteBuf(12).putLong(cursor).putInt(size).getBuffer().flip());
+    }
+
+    private void subscribe(final int id, final @Nullable String key) {
+        final ByteBuf request = new ByteBuf(32).putInt(id);
+        if (key != null) {
+            this.registry.encode(request, key);
+        }
+        this.map.handleSubscribe(this.session.getNotifier(), request.getBuffer().flip());
+    }
+
+    private void trackedShow(final @NotNull String key) {
+        final ByteBuf request = this.registry.encode(new ByteBuf(32).putInt(CACHE_ID), key);
+        this.map.handleTrackedShow(this.session, this.session.getNotifier(), request.getBuffer().flip());
+    }
+
+    /**
+     * Invalidations are written on the pushing thread without push policy, so that nothing was pushed if the marker
+     * sent afterward is the next frame.
+     */
+    private void assertNextFrameIsTheMarker() throws IOException {
+        this.session.send(ServerPacket.NOT_FOUND.getId());
+        assertEquals(ServerPacket.NOT_FOUND.getId(), this.readFrame().get());
+    }
+
+    @NotNull
+    private ByteBuffer readFrame() throws IOException {
+        return readFrame(this.client);
+    }
+
+    @NotNull
+    private static ByteBuffer readFrame(final @NotNull SocketChannel client) throws IOException {
+        final ByteBuffer size = readFully(client, ByteBuffer.allocate(4));
+        return readFully(client, ByteBuffer.allocate(size.getInt()));
+    }
+
+    @NotNull
+    private static ByteBuffer readFully(final @NotNull SocketChannel client, final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (client.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+}
\ No newline at end of file
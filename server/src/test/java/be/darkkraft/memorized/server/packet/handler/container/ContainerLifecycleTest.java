@@ -0,0 +1,175 @@
+package be.darkkraft.memorized.server.packet.handler.container;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepository;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.container.factory.DataContainerFactoryRegistry;
+import be.darkkraft.memorized.server.session.ClientSession;
+import be.darkkraft.memorized.server.session.SessionManager;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Timeout(30)
+class ContainerLifecycleTest {
+
+    private static final int TYPE = 3;
+
+    /**
+     * Key identifier of a repository whose containers are all registered before the server starts.
+     */
+    private static final int FIXED_REPOSITORY = 9;
+
+    private final IntegerDataRepository repository = new IntegerDataRepository();
+    private CreateHandler createHandler;
+    private DeleteHandler deleteHandler;
+    private SocketChannel client;
+    private ClientSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final MemorizedServer server = new MemorizedServerBuilder().address(TestClient.freeAddress())
+                .authenticator(new TokenAuthenticator("container-token"))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(this.repository).register(new FixedDataRepository()))
+                .dataContainerFactoryRegistry(new DataContainerFactoryRegistry().register(TYPE, capacityHint -> new EmptyContainer()))
+                .build();
+        this.createHandler = new CreateHandler(server);
+        this.deleteHandler = new DeleteHandler(server);
+        try (final ServerSocketChannel acceptor = ServerSocketChannel.open().bind(TestClient.freeAddress())) {
+            this.client = SocketChannel.open(acceptor.getLocalAddress());
+            this.session = new SessionManager().addSession(acceptor.accept());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.client.close();
+        this.session.getChannel().close();
+    }
+
+    @Test
+    void createsAndDeletesContainers() throws IOException {
+        this.create(this.repository.getKeyIdentifier(), TYPE);
+        this.assertResult(1);
+        assertNotNull(this.repository.getContainer(5));
+        this.create(this.repository.getKeyIdentifier(), TYPE);
+        this.assertResult(0);
+
+        this.delete(this.repository.getKeyIdentifier());
+        this.assertResult(1);
+        assertNull(this.repository.getContainer(5));
+        this.delete(this.repository.getKeyIdentifier());
+        this.assertResult(0);
+    }
+
+    @Test
+    void rejectsUnknownTypes() throws IOException {
+        this.create(this.repository.getKeyIdentifier(), TYPE + 1);
+        assertEquals(ServerPacket.NOT_FOUND.getId(), this.readFrame().get());
+        assertNull(this.repository.getContainer(5));
+    }
+
+    @Test
+    void rejectsRepositoriesWithoutRuntimeChanges() throws IOException {
+        this.create(FIXED_REPOSITORY, TYPE);
+        assertEquals(ServerPacket.NOT_FOUND.getId(), this.readFrame().get());
+        this.delete(FIXED_REPOSITORY);
+        assertEquals(ServerPacket.NOT_FOUND.getId(), this.readFrame().get());
+    }
+
+    private void create(final int repository, final int type) {
+        this.createHandler.handle(this.session, new ByteBuf(16).putInt(repository).putInt(5).putInt(type).putInt(0).getBuffer().flip());
+    }
+
+    private void delete(final int repository) {
+        this.deleteHandler.handle(this.session, new ByteBuf(8).putInt(repository).putInt(5).getBuffer().flip());
+    }
+
+    private void assertResult(final int result) throws IOException {
+        final ByteBuffer frame = this.readFrame();
+        assertEquals(ServerPacket.RESULT.getId(), frame.get());
+        assertEquals(result, frame.get());
+    }
+
+    @NotNull
+    private ByteBuffer readFrame() throws IOException {
+        final ByteBuffer size = this.readFully(ByteBuffer.allocate(4));
+        return this.readFully(ByteBuffer.allocate(size.getInt()));
+    }
+
+    @NotNull
+    private ByteBuffer readFully(final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.client.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Relies on the default methods, which do not allow changes at runtime.
+     */
+    private static final class FixedDataRepository implements DataRepository<Integer> {
+
+        @Override
+        public DataContainer getContainer(final @NotNull Integer key) {
+            return null;
+        }
+
+        @Override
+        public Integer readKey(final @NotNull ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+
+        @Override
+        public long getGeneration() {
+            return 0L;
+        }
+
+        @Override
+        public int getKeyIdentifier() {
+            return FIXED_REPOSITORY;
+        }
+
+        @Override
+        public @NotNull Class<Integer> getKeyClass() {
+            return Integer.class;
+        }
+
+    }
+
+    private static final class EmptyContainer implements DataContainer {
+
+        @Override
+        public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        }
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package be.darkkraft.memorized.server.session;
+
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class KeyHandleTest {
+
+    private SocketChannel channel;
+    private ClientSession session;
+    private IntegerDataRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.channel = SocketChannel.open();
+        this.session = new ClientSession(this.channel);
+        this.repository = new IntegerDataRepository();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.channel.close();
+    }
+
+    @Test
+    void resolvesTheBoundContainer() {
+        final DataContainer container = new EmptyContainer();
+        this.repository.register(1, container);
+        final int handle = this.session.bind(this.repository, 1);
+
+        assertNotEquals(0, handle);
+        assertSame(container, this.session.resolve(handle));
+        assertSame(container, this.session.resolve(handle));
+    }
+
+    @Test
+    void resolvesTheReplacingContainerAfterRegister() {
+        this.repository.register(1, new EmptyContainer());
+        final int handle = this.session.bind(this.repository, 1);
+        this.session.resolve(handle);
+
+        final DataContainer replacement = new EmptyContainer();
+        this.repository.register(1, replacement);
+
+        assertSame(replacement, this.session.resolve(handle));
+    }
+
+    @Test
+    void resolvesAgainAfterUnregisterAndRegister() {
+        this.repository.register(1, new EmptyContainer());
+        final int handle = this.session.bind(this.repository, 1);
+        this.session.resolve(handle);
+
+        this.repository.unregister(1);
+        assertNull(this.session.resolve(handle));
+
+        final DataContainer recreated = new EmptyContainer();
+        this.repository.registerIfAbsent(1, recreated);
+        assertSame(recreated, this.session.resolve(handle));
+    }
+
+    @Test
+    void rejectsHandlesOfAnotherSession() throws IOException {
+        this.repository.register(1, new EmptyContainer());
+        final int handle = this.session.bind(this.repository, 1);
+
+        try (final SocketChannel otherChannel = SocketChannel.open()) {
+            final ClientSession other = new ClientSession(otherChannel);
+            // Both handles have the same index, they only differ by the tag of their session
+            assertNotEquals(handle, other.bind(this.repository, 1));
+            assertNull(other.resolve(handle));
+        }
+    }
+
+    @Test
+    void generationChangesOnlyWithTheContainers() {
+        final long initial = this.repository.getGeneration();
+        this.repository.unregister(1);
+        assertEquals(initial, this.repository.getGeneration());
+
+        this.repository.register(1, new EmptyContainer());
+        this.repository.registerIfAbsent(1, new EmptyContainer());
+        assertEquals(initial + 1, this.repository.getGeneration());
+    }
+
+    private static final class EmptyContainer implements DataContainer {
+
+        @Override
+        public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        }
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+        }
+
+    }
+
+}
\ No newline at end of file
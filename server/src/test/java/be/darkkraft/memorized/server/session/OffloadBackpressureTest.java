@@ -0,0 +1,138 @@
+package be.darkkraft.memorized.server.session;
+
+import be.darkkraft.memorized.codec.registry.DefaultCodecRegistry;
+import be.darkkraft.memorized.net.session.Session;
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ClientPacket;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.MemorizedServer;
+import be.darkkraft.memorized.server.MemorizedServerBuilder;
+import be.darkkraft.memorized.server.ServerEngine;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.auth.TokenAuthenticator;
+import be.darkkraft.memorized.server.data.DataRepositoryCoordinator;
+import be.darkkraft.memorized.server.data.IntegerDataRepository;
+import be.darkkraft.memorized.server.data.container.OffloadedDataContainer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffloadBackpressureTest {
+
+    private static final String TOKEN = "offload-token";
+
+    private static final int REQUESTS = SessionTaskQueue.CAPACITY * 8;
+
+    @Test
+    @Timeout(30)
+    void suspendsSelectorReadsWhileTheOffloadQueueIsFull() throws Exception {
+        this.suspendsReadsWhileTheOffloadQueueIsFull(ServerEngine.SELECTOR);
+    }
+
+    @Test
+    @Timeout(30)
+    void blocksConnectionThreadWhileTheOffloadQueueIsFull() throws Exception {
+        this.suspendsReadsWhileTheOffloadQueueIsFull(ServerEngine.THREAD_PER_CONNECTION);
+    }
+
+    private void suspendsReadsWhileTheOffloadQueueIsFull(final @NotNull ServerEngine engine) throws Exception {
+        final InetSocketAddress address = TestClient.freeAddress();
+        final IntegerDataRepository repository = new IntegerDataRepository();
+        final MemorizedServer server = new MemorizedServerBuilder().address(address)
+                .engine(engine)
+                .workerThreads(1)
+                .offloadThreads(1)
+                .authenticator(new TokenAuthenticator(TOKEN))
+                .codecRegistry(new DefaultCodecRegistry().registerDefaults())
+                .dataRepositoryCoordinator(new DataRepositoryCoordinator().register(repository))
+                .build();
+        final CountDownLatch release = new CountDownLatch(1);
+        repository.register(1, new BlockedContainer(release));
+        server.start();
+        try (final TestClient client = TestClient.connect(address, TOKEN)) {
+            final Thread sender = new Thread(() -> {
+                try {
+                    for (int i = 0; i < REQUESTS; i++) {
+                        client.send(new ByteBuf().put(ClientPacket.UPDATE.getId()).putInt(repository.getKeyIdentifier()).putInt(1).putInt(i));
+                    }
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+            sender.start();
+
+            final ClientSession session = awaitSession(server);
+            while (!session.isReadSuspended()) {
+                Thread.sleep(10L);
+            }
+            // The worker must not read further packets while the container is blocked
+            Thread.sleep(200L);
+            assertTrue(session.isReadSuspended());
+            assertTrue(session.getOffloadedCount() <= SessionTaskQueue.CAPACITY, "Offloaded packets: " + session.getOffloadedCount());
+
+            release.countDown();
+            for (int i = 0; i < REQUESTS; i++) {
+                final ByteBuffer response = client.receive();
+                assertEquals(ServerPacket.RESULT.getId(), response.get());
+                assertEquals(i, response.getInt());
+            }
+            sender.join();
+            assertFalse(session.isReadSuspended());
+            assertEquals(0, session.getOffloadedCount());
+        } finally {
+            release.countDown();
+            server.shutdown();
+        }
+    }
+
+    @NotNull
+    private static ClientSession awaitSession(final @NotNull MemorizedServer server) throws InterruptedException {
+        while (true) {
+            for (final Session session : server.getSessions()) {
+                if (session instanceof final ClientSession clientSession) {
+                    return clientSession;
+                }
+            }
+            Thread.sleep(10L);
+        }
+    }
+
+    /**
+     * Container echoing the sequence number of each update once released.
+     */
+    private static final class BlockedContainer implements OffloadedDataContainer {
+
+        private final CountDownLatch release;
+
+        private BlockedContainer(final @NotNull CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void handleUpdate(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            try {
+                this.release.await();
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            session.unsafeSend(ServerPacket.RESULT.getId(), buffer.getInt());
+        }
+
+        @Override
+        public void handleShow(final @NotNull Session session, final @NotNull ByteBuffer buffer) {
+            session.unsafeSend(ServerPacket.NOT_FOUND.getId());
+        }
+
+    }
+
+}
\ No newline at end of file
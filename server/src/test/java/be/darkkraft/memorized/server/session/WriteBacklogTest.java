@@ -0,0 +1,198 @@
+package be.darkkraft.memorized.server.session;
+
+import be.darkkraft.memorized.packet.ByteBuf;
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.push.DropPolicy;
+import be.darkkraft.memorized.server.push.PushPolicy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class WriteBacklogTest {
+
+    private static final int FRAME_SIZE = 65536;
+
+    /**
+     * Enough frames to fill the socket buffers of any platform.
+     */
+    private static final int MAX_FRAMES = 4096;
+
+    private SocketChannel client;
+    private ClientSession session;
+    private Selector selector;
+    private ExecutorService executor;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.client.close();
+        this.session.getChannel().close();
+        this.selector.close();
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void queuesWhatTheChannelCannotTake() throws Exception {
+        this.connect(null);
+        final int filled = this.fill();
+
+        // Written after the backlog, whether they are pushed or answered
+        this.session.writeFrames(frame(filled));
+        this.session.send(ServerPacket.NOT_FOUND.getId());
+
+        final Future<List<ByteBuffer>> received = this.receive(filled + 2);
+        this.writeBacklog();
+        final List<ByteBuffer> frames = received.get();
+        for (int i = 0; i <= filled; i++) {
+            assertEquals(ServerPacket.RESULT.getId(), frames.get(i).get());
+            assertEquals(i, frames.get(i).getInt());
+        }
+        assertEquals(ServerPacket.NOT_FOUND.getId(), frames.get(filled + 1).get());
+        assertEquals(0, this.session.register(this.selector).interestOps() & SelectionKey.OP_WRITE);
+    }
+
+    @Test
+    void stallsPushesUntilTheBacklogIsWritten() throws Exception {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.connect(new PushPolicy(this.executor, 4, DropPolicy.DROP_OLDEST));
+        final int filled = this.fill();
+
+        final SessionNotifier notifier = this.session.getNotifier();
+        for (int i = 0; i < 10; i++) {
+            notifier.deliver(i, ByteBuffer.allocate(4).putInt(i).flip());
+        }
+        // The flush neither waits for the client nor makes the backlog grow
+        this.executor.submit(() -> {
+        }).get(5L, TimeUnit.SECONDS);
+        assertEquals(6L, notifier.droppedCount());
+
+        final Future<List<ByteBuffer>> received = this.receive(filled + 4);
+        this.writeBacklog();
+        final List<ByteBuffer> frames = received.get();
+        for (int i = 0; i < 4; i++) {
+            final ByteBuffer message = frames.get(filled + i);
+            assertEquals(ServerPacket.NOTIFY.getId(), message.get());
+            assertEquals(6 + i, message.getInt());
+        }
+    }
+
+    @Test
+    void stopsReadingWhileBacklogged() throws Exception {
+        this.connect(null);
+        final SelectionKey key = this.session.register(this.selector);
+        int count = 0;
+        // Responses never wait for the client either
+        while (!this.session.isWriteBacklogged()) {
+            assertTrue(count < MAX_FRAMES, "The channel never filled up");
+            this.session.send(new ByteBuf(FRAME_SIZE).put(ServerPacket.RESULT.getId()).putInt(count++).put(new byte[FRAME_SIZE - 5]));
+        }
+        assertTrue(this.session.isReadSuspended());
+        assertEquals(SelectionKey.OP_WRITE, key.interestOps());
+
+        final Future<List<ByteBuffer>> received = this.receive(count);
+        this.writeBacklog();
+        assertEquals(count - 1, received.get().get(count - 1).getInt(1));
+        assertFalse(this.session.isReadSuspended());
+        assertEquals(SelectionKey.OP_READ, key.interestOps());
+    }
+
+    private void connect(final @Nullable PushPolicy policy) throws IOException {
+        try (final ServerSocketChannel acceptor = ServerSocketChannel.open().bind(TestClient.freeAddress())) {
+            this.client = SocketChannel.open(acceptor.getLocalAddress());
+            final SocketChannel channel = acceptor.accept();
+            channel.configureBlocking(false);
+            this.session = new ClientSession(channel, null, policy);
+        }
+        this.selector = Selector.open();
+        this.session.register(this.selector);
+        this.session.enablePushes();
+    }
+
+    /**
+     * Pushes frames until the channel cannot take more, which never blocks.
+     *
+     * @return The number of frames pushed.
+     */
+    private int fill() throws IOException {
+        int count = 0;
+        while (!this.session.isWriteBacklogged()) {
+            assertTrue(count < MAX_FRAMES, "The channel never filled up");
+            this.session.writeFrames(new ByteBuffer[]{frame(count++)});
+        }
+        return count;
+    }
+
+    /**
+     * Writes the backlog whenever the channel is writable, like the worker of the session.
+     */
+    private void writeBacklog() throws Exception {
+        final long deadline = System.currentTimeMillis() + 10_000L;
+        while (this.session.isWriteBacklogged()) {
+            assertTrue(System.currentTimeMillis() < deadline, "The backlog was never written");
+            this.selector.select(100L);
+            for (final SelectionKey key : this.selector.selectedKeys()) {
+                if (key.isWritable()) {
+                    this.session.writeBacklog();
+                }
+            }
+            this.selector.selectedKeys().clear();
+        }
+        assertFalse(this.session.isWriteBacklogged());
+    }
+
+    @NotNull
+    private Future<List<ByteBuffer>> receive(final int count) {
+        final ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            return reader.submit(() -> {
+                final List<ByteBuffer> frames = new ArrayList<>(count);
+                while (frames.size() < count) {
+                    final ByteBuffer size = this.readFully(ByteBuffer.allocate(4));
+                    frames.add(this.readFully(ByteBuffer.allocate(size.getInt())));
+                }
+                return frames;
+            });
+        } finally {
+            reader.shutdown();
+        }
+    }
+
+    @NotNull
+    private ByteBuffer readFully(final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.client.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @NotNull
+    private static ByteBuffer frame(final int index) {
+        final ByteBuffer frame = ByteBuffer.allocate(4 + FRAME_SIZE).putInt(FRAME_SIZE).put(ServerPacket.RESULT.getId()).putInt(index);
+        return frame.position(frame.limit()).flip();
+    }
+
+}
\ No newline at end of file
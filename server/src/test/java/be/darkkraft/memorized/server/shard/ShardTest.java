@@ -0,0 +1,132 @@
+package be.darkkraft.memorized.server.shard;
+
+import be.darkkraft.memorized.packet.ServerPacket;
+import be.darkkraft.memorized.server.TestClient;
+import be.darkkraft.memorized.server.data.container.DataContainer;
+import be.darkkraft.memorized.server.data.counter.ServerIntCounter;
+import be.darkkraft.memorized.server.session.ClientSession;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class ShardTest {
+
+    /**
+     * Answers with the number following the key of the container.
+     */
+    private static final ContainerOperation ECHO = (session, buffer, container) -> session.unsafeSend(ServerPacket.RESULT.getId(), buffer.getInt());
+
+    private final ShardGroup group = new ShardGroup(new Runnable[]{() -> {
+    }, () -> {
+    }});
+    private SocketChannel client;
+    private ClientSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (final ServerSocketChannel acceptor = ServerSocketChannel.open().bind(TestClient.freeAddress())) {
+            this.client = SocketChannel.open(acceptor.getLocalAddress());
+            this.session = new ClientSession(acceptor.accept());
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.client.close();
+        this.session.getChannel().close();
+    }
+
+    @Test
+    void writesHandedOffRepliesInRequestOrder() throws IOException {
+        final Shard home = this.group.getShard(0);
+        final Shard owner = this.group.getShard(1);
+        final DataContainer remote = this.ownedBy(1);
+        final DataContainer local = this.ownedBy(0);
+
+        home.dispatch(this.session, request(1), remote, ECHO);
+        // Owned by the home shard, but answered after the pending remote operation
+        home.dispatch(this.session, request(2), local, ECHO);
+        home.dispatch(this.session, request(3), remote, ECHO);
+        assertTrue(this.session.hasPendingReplies());
+
+        // The remote operations are executed by their owner, then completed by the home shard
+        assertTrue(owner.drain());
+        assertTrue(home.drain());
+        assertFalse(this.session.hasPendingReplies());
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(i, this.readResult());
+        }
+
+        // Nothing is pending anymore, so local operations are answered right away
+        home.dispatch(this.session, request(4), local, ECHO);
+        assertFalse(this.session.hasPendingReplies());
+        assertEquals(4, this.readResult());
+    }
+
+    @Test
+    void awaitsTheRepliesOfAnotherShard() throws Exception {
+        final Shard home = this.group.getShard(0);
+        final Shard owner = this.group.getShard(1);
+        home.dispatch(this.session, request(1), this.ownedBy(1), ECHO);
+
+        final Thread ownerThread = new Thread(() -> {
+            owner.bind();
+            try {
+                // Late enough for the home shard to stop spinning and park
+                Thread.sleep(50L);
+            } catch (final InterruptedException exception) {
+                return;
+            }
+            owner.drain();
+        });
+        home.bind();
+        ownerThread.start();
+        home.awaitReplies(this.session);
+        ownerThread.join();
+        assertEquals(1, this.readResult());
+    }
+
+    @NotNull
+    private DataContainer ownedBy(final int shard) {
+        DataContainer container;
+        do {
+            container = new ServerIntCounter();
+        } while (this.group.ownerOf(container) != shard);
+        return container;
+    }
+
+    @NotNull
+    private static ByteBuffer request(final int value) {
+        return ByteBuffer.allocate(4).putInt(value).flip();
+    }
+
+    private int readResult() throws IOException {
+        final ByteBuffer frame = this.readFully(ByteBuffer.allocate(9));
+        assertEquals(5, frame.getInt());
+        assertEquals(ServerPacket.RESULT.getId(), frame.get());
+        return frame.getInt();
+    }
+
+    @NotNull
+    private ByteBuffer readFully(final @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (this.client.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+}
\ No newline at end of file
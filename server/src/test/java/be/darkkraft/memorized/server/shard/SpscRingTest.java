@@ -0,0 +1,80 @@
+package be.darkkraft.memorized.server.shard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Timeout(30)
+class SpscRingTest {
+
+    @Test
+    void keepsTheOrderAcrossTheEndOfTheArray() {
+        final SpscRing<Integer> ring = new SpscRing<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 10; round++) {
+            // Three elements per round, so that the indices wrap around at a different place each time
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer(next++));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(Integer.valueOf(expected++), ring.poll());
+            }
+        }
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void rejectsElementsOnceFull() {
+        final SpscRing<Integer> ring = new SpscRing<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(Integer.valueOf(0), ring.poll());
+        assertTrue(ring.offer(4));
+        assertFalse(ring.offer(5));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void rejectsCapacitiesThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new SpscRing<>(3));
+    }
+
+    @Test
+    void handsElementsOverBetweenTwoThreadsInOrder() throws Exception {
+        final SpscRing<Integer> ring = new SpscRing<>(16);
+        final int count = 100_000;
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!ring.offer(i)) {
+                    // Yields rather than spins, so that the consumer runs even on a single core
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        for (int expected = 0; expected < count; expected++) {
+            Integer element;
+            while ((element = ring.poll()) == null) {
+                Thread.yield();
+            }
+            assertEquals(expected, (int) element);
+        }
+        producer.join();
+        assertNull(ring.poll());
+    }
+
+}
\ No newline at end of file